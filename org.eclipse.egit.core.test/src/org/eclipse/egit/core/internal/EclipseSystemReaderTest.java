@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.util.FS;
+import org.eclipse.jgit.util.SystemReader;
+import org.junit.Test;
+
+public class EclipseSystemReaderTest {
+
+	@Test
+	public void testCommitGraphDefaults() {
+		Config config = new EclipseSystemReader(SystemReader.getInstance(),
+				true).openJGitConfig(null, FS.DETECTED);
+		assertTrue(config.getBoolean(ConfigConstants.CONFIG_CORE_SECTION,
+				ConfigConstants.CONFIG_COMMIT_GRAPH, false));
+		assertTrue(config.getBoolean(ConfigConstants.CONFIG_GC_SECTION,
+				ConfigConstants.CONFIG_KEY_WRITE_COMMIT_GRAPH, false));
+	}
+
+	@Test
+	public void testNoCommitGraphDefaults() {
+		Config config = new EclipseSystemReader(SystemReader.getInstance(),
+				false).openJGitConfig(null, FS.DETECTED);
+		assertFalse(config.getBoolean(ConfigConstants.CONFIG_CORE_SECTION,
+				ConfigConstants.CONFIG_COMMIT_GRAPH, false));
+	}
+}
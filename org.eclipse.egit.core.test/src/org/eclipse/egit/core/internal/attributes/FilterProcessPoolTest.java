@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.attributes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.eclipse.egit.core.attributes.Filtering;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.FilterFailedException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.util.TemporaryBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link FilterProcessPool} and {@link FilterProcess}, using a stub
+ * filter that upper-cases the content, fails for paths starting with "fail"
+ * and aborts for paths starting with "abort". Run with "oneshot", the stub
+ * instead acts as a one-shot filter command prefixing the content with
+ * "oneshot:".
+ */
+public class FilterProcessPoolTest {
+
+	private static final String[] STUB_FILTER = {
+			"import java.io.*;",
+			"public class StubFilter {",
+			"  static DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));",
+			"  static OutputStream out = new BufferedOutputStream(System.out);",
+			"  static byte[] read() throws IOException {",
+			"    byte[] header = new byte[4];",
+			"    in.readFully(header);",
+			"    int n = Integer.parseInt(new String(header, \"US-ASCII\"), 16);",
+			"    if (n == 0) return null;",
+			"    byte[] data = new byte[n - 4];",
+			"    in.readFully(data);",
+			"    return data;",
+			"  }",
+			"  static void write(String s) throws IOException { write(s.getBytes(\"UTF-8\")); }",
+			"  static void write(byte[] b) throws IOException {",
+			"    out.write(String.format(\"%04x\", b.length + 4).getBytes(\"US-ASCII\"));",
+			"    out.write(b);",
+			"  }",
+			"  static void flush() throws IOException { out.write(\"0000\".getBytes(\"US-ASCII\")); out.flush(); }",
+			"  public static void main(String[] args) throws IOException {",
+			"    if (args.length > 1 && args[1].equals(\"oneshot\")) {",
+			"      byte[] data = System.in.readAllBytes();",
+			"      System.out.write((\"oneshot:\" + new String(data, \"UTF-8\")).getBytes(\"UTF-8\"));",
+			"      System.out.flush();",
+			"      return;",
+			"    }",
+			"    try (FileWriter w = new FileWriter(args[0], true)) { w.write(\"started\\n\"); }",
+			"    while (read() != null) { }",
+			"    write(\"git-filter-server\\n\"); write(\"version=2\\n\"); flush();",
+			"    while (read() != null) { }",
+			"    for (int i = 1; i < args.length; i++) write(\"capability=\" + args[i] + \"\\n\");",
+			"    flush();",
+			"    while (true) {",
+			"      String path = null;",
+			"      byte[] line;",
+			"      try {",
+			"        while ((line = read()) != null) {",
+			"          String s = new String(line, \"UTF-8\").trim();",
+			"          if (s.startsWith(\"pathname=\")) path = s.substring(9);",
+			"        }",
+			"      } catch (EOFException e) { return; }",
+			"      ByteArrayOutputStream content = new ByteArrayOutputStream();",
+			"      while ((line = read()) != null) content.write(line);",
+			"      if (path.startsWith(\"fail\")) { write(\"status=error\\n\"); flush(); continue; }",
+			"      if (path.startsWith(\"abort\")) { write(\"status=abort\\n\"); flush(); continue; }",
+			"      write(\"status=success\\n\"); flush();",
+			"      byte[] result = new String(content.toByteArray(), \"UTF-8\").toUpperCase().getBytes(\"UTF-8\");",
+			"      for (int i = 0; i < result.length; i += 65516)",
+			"        write(java.util.Arrays.copyOfRange(result, i, Math.min(result.length, i + 65516)));",
+			"      flush();",
+			"      flush();",
+			"    }",
+			"  }",
+			"}" };
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Git git;
+
+	private File starts;
+
+	private String command;
+
+	private FilterProcessPool pool;
+
+	@Before
+	public void setUp() throws Exception {
+		git = Git.init().setDirectory(folder.newFolder("repo")).call();
+		File source = folder.newFile("StubFilter.java");
+		Files.write(source.toPath(), List.of(STUB_FILTER),
+				StandardCharsets.UTF_8);
+		starts = new File(folder.getRoot(), "starts");
+		File java = new File(new File(System.getProperty("java.home"), "bin"),
+				"java");
+		command = '"' + java.getAbsolutePath() + "\" \""
+				+ source.getAbsolutePath() + "\" \"" + starts.getAbsolutePath()
+				+ '"';
+		pool = new FilterProcessPool();
+	}
+
+	@After
+	public void tearDown() {
+		pool.shutDown();
+		FilterProcessPool.getInstance().reapIdle(Long.MAX_VALUE);
+		git.close();
+	}
+
+	@Test
+	public void testProcessIsReused() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			assertEquals("CONTENT " + i, filter(command + " smudge",
+					"file" + i + ".txt", "content " + i));
+		}
+		assertEquals(1, getStartCount());
+		assertEquals(1, pool.getIdleCount());
+	}
+
+	@Test
+	public void testLargeContent() throws Exception {
+		StringBuilder content = new StringBuilder();
+		while (content.length() < 3 * FilterProcess.MAX_PACKET_DATA) {
+			content.append("line ").append(content.length()).append('\n');
+		}
+		String expected = content.toString().toUpperCase();
+		assertEquals(expected,
+				filter(command + " smudge", "large.txt", content.toString()));
+		assertEquals(expected,
+				filter(command + " smudge", "large.txt", content.toString()));
+		assertEquals(1, getStartCount());
+	}
+
+	@Test
+	public void testErrorKeepsProcess() throws Exception {
+		try {
+			filter(command + " smudge", "fail.txt", "content");
+			fail("Expected an IOException");
+		} catch (IOException e) {
+			// Expected
+		}
+		assertEquals("CONTENT",
+				filter(command + " smudge", "a.txt", "content"));
+		assertEquals(1, getStartCount());
+	}
+
+	@Test
+	public void testMissingCapability() throws Exception {
+		InputStream raw = new ByteArrayInputStream(
+				"content".getBytes(StandardCharsets.UTF_8));
+		assertNull(pool.filter(git.getRepository(), command + " clean",
+				"smudge", "a.txt", raw));
+		assertEquals(7, raw.available());
+	}
+
+	@Test
+	public void testCannotStart() throws Exception {
+		assertNull(pool.filter(git.getRepository(),
+				"\"" + new File(folder.getRoot(), "missing").getAbsolutePath()
+						+ '"',
+				"smudge", "a.txt", new ByteArrayInputStream(new byte[0])));
+		assertEquals(0, pool.getIdleCount());
+	}
+
+	@Test
+	public void testReapIdle() throws Exception {
+		assertEquals("A", filter(command + " smudge", "a.txt", "a"));
+		long now = System.currentTimeMillis();
+		assertTrue(pool.reapIdle(now) > 0);
+		assertEquals(1, pool.getIdleCount());
+		assertEquals(0, pool.reapIdle(
+				now + FilterProcessPool.IDLE_TIMEOUT_MILLIS + 1000));
+		assertEquals(0, pool.getIdleCount());
+		assertEquals("B", filter(command + " smudge", "b.txt", "b"));
+		assertEquals(2, getStartCount());
+	}
+
+	@Test
+	public void testFilteringUsesProcess() throws Exception {
+		StoredConfig config = git.getRepository().getConfig();
+		config.setString("filter", "stub", "process", command + " smudge");
+		config.setString("filter", "stub", "smudge", "stub-smudge %f");
+		config.save();
+		for (int i = 0; i < 3; i++) {
+			try (InputStream in = Filtering.filter(git.getRepository(),
+					"file" + i + ".txt",
+					new ByteArrayInputStream(
+							"content".getBytes(StandardCharsets.UTF_8)),
+					"stub-smudge 'file" + i + ".txt'",
+					Constants.ATTR_FILTER_TYPE_SMUDGE, "stub")) {
+				assertEquals("CONTENT",
+						new String(in.readAllBytes(), StandardCharsets.UTF_8));
+			}
+		}
+		assertEquals(1, getStartCount());
+		try {
+			Filtering.filter(git.getRepository(), "fail.txt",
+					new ByteArrayInputStream(new byte[0]),
+					"stub-smudge 'fail.txt'",
+					Constants.ATTR_FILTER_TYPE_SMUDGE, "stub");
+			fail("Expected an IOException");
+		} catch (IOException e) {
+			assertTrue(e.getCause() instanceof FilterFailedException);
+		}
+	}
+
+	@Test
+	public void testAbort() throws Exception {
+		try {
+			filter(command + " smudge", "abort.txt", "content");
+			fail("Expected a FilterAbortedException");
+		} catch (FilterProcessPool.FilterAbortedException e) {
+			// Expected
+		}
+		assertNull(pool.filter(git.getRepository(), command + " smudge",
+				"smudge", "a.txt", new ByteArrayInputStream(new byte[0])));
+		assertEquals(1, getStartCount());
+	}
+
+	@Test
+	public void testFilteringFallsBackToCommandAfterAbort() throws Exception {
+		StoredConfig config = git.getRepository().getConfig();
+		config.setString("filter", "stub", "process", command + " smudge");
+		config.setString("filter", "stub", "smudge", command + " oneshot");
+		config.save();
+		assertEquals("CONTENT", smudge("a.txt", "content"));
+		// The blob the process aborted at is filtered by the command, too
+		assertEquals("oneshot:content", smudge("abort.txt", "content"));
+		assertEquals("oneshot:content", smudge("b.txt", "content"));
+		assertEquals(1, getStartCount());
+	}
+
+	private String filter(String processCommand, String path, String content)
+			throws Exception {
+		TemporaryBuffer result = pool.filter(git.getRepository(),
+				processCommand, "smudge", path, new ByteArrayInputStream(
+						content.getBytes(StandardCharsets.UTF_8)));
+		try {
+			return new String(result.toByteArray(), StandardCharsets.UTF_8);
+		} finally {
+			result.destroy();
+		}
+	}
+
+	private String smudge(String path, String content) throws Exception {
+		try (InputStream in = Filtering.filter(git.getRepository(), path,
+				new ByteArrayInputStream(
+						content.getBytes(StandardCharsets.UTF_8)),
+				git.getRepository().getConfig().getString("filter", "stub",
+						"smudge"),
+				Constants.ATTR_FILTER_TYPE_SMUDGE, "stub")) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private int getStartCount() throws IOException {
+		return Files.readAllLines(starts.toPath()).size();
+	}
+}
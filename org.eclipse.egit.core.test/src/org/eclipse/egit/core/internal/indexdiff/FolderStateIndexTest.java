@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static org.eclipse.egit.core.internal.indexdiff.FolderStateIndex.CONFLICTING;
+import static org.eclipse.egit.core.internal.indexdiff.FolderStateIndex.DIRTY;
+import static org.eclipse.egit.core.internal.indexdiff.FolderStateIndex.IGNORED;
+import static org.eclipse.egit.core.internal.indexdiff.FolderStateIndex.STAGED;
+import static org.eclipse.egit.core.internal.indexdiff.FolderStateIndex.UNTRACKED_FOLDER;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jgit.lib.IndexDiff;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FolderStateIndexTest {
+
+	private IndexDiffData data;
+
+	private FolderStateIndex index;
+
+	@Before
+	public void setUp() {
+		IndexDiff diff = mock(IndexDiff.class);
+		when(diff.getAdded()).thenReturn(Set.of("a/b/added.txt"));
+		when(diff.getModified()).thenReturn(Set.of("a/c/modified.txt"));
+		when(diff.getUntracked())
+				.thenReturn(Set.of("top.txt", "new/deep/file.txt"));
+		when(diff.getUntrackedFolders()).thenReturn(Set.of("new"));
+		when(diff.getConflicting()).thenReturn(Set.of("a/b/c/conflict.txt"));
+		when(diff.getIgnoredNotInIndex()).thenReturn(Set.of("target", "a/bin"));
+		data = new IndexDiffData(diff);
+		index = data.getFolderStates();
+	}
+
+	@Test
+	public void testRoot() {
+		assertEquals(STAGED | CONFLICTING | DIRTY, index.getFlags(""));
+		assertEquals(STAGED | CONFLICTING | DIRTY, index.getFlags("/"));
+	}
+
+	@Test
+	public void testAggregatedFlags() {
+		assertEquals(STAGED | CONFLICTING | DIRTY, index.getFlags("a/"));
+		assertEquals(STAGED | CONFLICTING, index.getFlags("a/b/"));
+		assertEquals(STAGED | CONFLICTING, index.getFlags("a/b"));
+		assertEquals(CONFLICTING, index.getFlags("a/b/c/"));
+		assertEquals(DIRTY, index.getFlags("a/c/"));
+		assertEquals(0, index.getFlags("a/d/"));
+		assertEquals(0, index.getFlags("other/"));
+	}
+
+	@Test
+	public void testInheritedFlags() {
+		assertEquals(IGNORED, index.getFlags("target/"));
+		assertEquals(IGNORED, index.getFlags("target/classes/org/"));
+		assertEquals(IGNORED, index.getFlags("a/bin/x/"));
+		assertEquals(UNTRACKED_FOLDER | DIRTY, index.getFlags("new/"));
+		assertEquals(UNTRACKED_FOLDER | DIRTY, index.getFlags("new/deep/"));
+		assertEquals(UNTRACKED_FOLDER, index.getFlags("new/other/"));
+	}
+
+	@Test
+	public void testDerivedIndex() {
+		IndexDiff diff = mock(IndexDiff.class);
+		when(diff.getModified()).thenReturn(Set.of("a/b/modified.txt"));
+		when(diff.getIgnoredNotInIndex())
+				.thenReturn(Set.of("target/x.class"));
+		IndexDiffData derived = new IndexDiffData(data,
+				List.of("a/c/modified.txt", "a/b/modified.txt",
+						"target/x.class"),
+				Collections.emptyList(), diff);
+		FolderStateIndex derivedIndex = derived.getFolderStates();
+		assertEquals(STAGED | CONFLICTING | DIRTY,
+				derivedIndex.getFlags("a/b/"));
+		assertEquals(0, derivedIndex.getFlags("a/c/"));
+		assertEquals(IGNORED, derivedIndex.getFlags("target/x.class"));
+		assertEquals(UNTRACKED_FOLDER | DIRTY, derivedIndex.getFlags("new/"));
+		// The index of the base data is unchanged
+		assertEquals(STAGED | CONFLICTING, index.getFlags("a/b/"));
+		assertEquals(DIRTY, index.getFlags("a/c/"));
+	}
+}
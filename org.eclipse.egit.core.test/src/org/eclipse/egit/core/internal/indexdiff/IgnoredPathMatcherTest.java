@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IgnoredPathMatcherTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private IPath workTree;
+
+	private IgnoredPathMatcher matcher;
+
+	@Before
+	public void setUp() throws Exception {
+		File root = folder.newFolder("repo");
+		workTree = new Path(root.getAbsolutePath());
+		Repository repository = mock(Repository.class);
+		when(repository.getWorkTree()).thenReturn(root);
+		IndexDiff diff = mock(IndexDiff.class);
+		when(diff.getIgnoredNotInIndex())
+				.thenReturn(Set.of("target", "a/bin", "a/b/x.log"));
+		matcher = new IgnoredPathMatcher(repository, new IndexDiffData(diff));
+	}
+
+	@Test
+	public void testRelativePaths() {
+		assertTrue(matcher.isIgnored("target"));
+		assertTrue(matcher.isIgnored("target/"));
+		assertTrue(matcher.isIgnored("target/classes/A.class"));
+		assertTrue(matcher.isIgnored("a/bin/x/"));
+		assertTrue(matcher.isIgnored("a/b/x.log"));
+		assertFalse(matcher.isIgnored("a/b/y.log"));
+		assertFalse(matcher.isIgnored("a/"));
+		assertFalse(matcher.isIgnored("targets/"));
+	}
+
+	@Test
+	public void testLocations() {
+		assertTrue(matcher.isIgnored(workTree.append("target")));
+		assertTrue(matcher.isIgnored(workTree.append("a/bin/x")));
+		assertFalse(matcher.isIgnored(workTree.append("a/b")));
+		assertFalse(matcher.isIgnored(workTree));
+		assertFalse(matcher.isIgnored((IPath) null));
+		assertFalse(matcher.isIgnored(
+				workTree.removeLastSegments(1).append("target")));
+		assertFalse(matcher.isIgnored(
+				new Path(workTree.toString() + "x").append("target")));
+	}
+}
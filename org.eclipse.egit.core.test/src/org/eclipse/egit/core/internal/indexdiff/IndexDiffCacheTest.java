@@ -173,6 +173,37 @@ public void testAddIgnoredFolder() throws Exception {
 		assertThat(data3.getIgnoredNotInIndex(), hasItem("Project-1/sub/ignore"));
 	}
 
+	@Test
+	public void testRecreateIgnoredFolder() throws Exception {
+		testRepository.connect(project.project);
+		runInWorkspace(() -> {
+			project.createFile(".gitignore", "ignore\n".getBytes("UTF-8"));
+			project.createFolder("ignore");
+			project.createFile("ignore/file.txt", new byte[] {});
+			return null;
+		});
+		testRepository.addToIndex(project.project);
+		prepareCacheEntry();
+		listenerCalled.set(0);
+		testRepository
+				.createInitialCommit("testRecreateIgnoredFolder\n\nfirst commit\n");
+
+		IndexDiffData data1 = waitForListenerCalled();
+		assertThat(data1.getIgnoredNotInIndex(), hasItem("Project-1/ignore"));
+
+		// Deleting and re-creating an ignored folder, like a build does with
+		// its output folder, must not trigger the listener
+		project.getProject().getFolder("ignore").delete(true, null);
+		waitForListenerNotCalled();
+		runInWorkspace(() -> {
+			project.createFolder("ignore");
+			project.createFile("ignore/file.txt", new byte[] {});
+			project.createFile("ignore/.gitignore", new byte[] {});
+			return null;
+		});
+		waitForListenerNotCalled();
+	}
+
 	@Test
 	public void testRemoveIgnoredFile() throws Exception {
 		testRepository.connect(project.project);
@@ -15,13 +15,21 @@
 import static org.eclipse.egit.core.internal.indexdiff.IndexDiffData.mergeIgnored;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.egit.core.test.GitTestCase;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.IndexDiff.StageState;
 import org.junit.Test;
 
 public class IndexDiffDataTest extends GitTestCase {
@@ -87,4 +95,63 @@ public void testMergeIgnored() {
 		result = mergeIgnored(oldIgnoredPaths, changedPaths, newIgnoredPaths);
 		assertEquals(expected, result);
 	}
+
+	@Test
+	public void testIncrementalUpdateSharesUnchangedData() {
+		IndexDiff full = mock(IndexDiff.class);
+		when(full.getModified()).thenReturn(Set.of("a.txt", "b.txt"));
+		when(full.getIgnoredNotInIndex()).thenReturn(Set.of("bin", "target"));
+		when(full.getConflicting()).thenReturn(Set.of("c.txt"));
+		when(full.getConflictingStageStates())
+				.thenReturn(Map.of("c.txt", StageState.BOTH_MODIFIED));
+		IndexDiffData base = new IndexDiffData(full);
+
+		IndexDiff partial = mock(IndexDiff.class);
+		when(partial.getModified()).thenReturn(Set.of("d.txt"));
+		when(partial.getUntracked()).thenReturn(Set.of("e.txt"));
+		IndexDiffData updated = new IndexDiffData(base,
+				asList("a.txt", "d.txt", "e.txt"), Collections.emptySet(),
+				partial);
+
+		assertEquals(Set.of("b.txt", "d.txt"), updated.getModified());
+		assertEquals(Set.of("e.txt"), updated.getUntracked());
+		assertSame(base.getConflicting(), updated.getConflicting());
+		assertSame(base.getConflictStates(), updated.getConflictStates());
+		assertSame(base.getIgnoredNotInIndex(),
+				updated.getIgnoredNotInIndex());
+		// The base snapshot is unchanged
+		assertEquals(Set.of("a.txt", "b.txt"), base.getModified());
+		assertTrue(base.getUntracked().isEmpty());
+
+		partial = mock(IndexDiff.class);
+		IndexDiffData resolved = new IndexDiffData(updated,
+				asList("c.txt", "target/"), Collections.emptySet(), partial);
+		assertTrue(resolved.getConflicting().isEmpty());
+		assertTrue(resolved.getConflictStates().isEmpty());
+		assertEquals(Set.of("bin"), resolved.getIgnoredNotInIndex());
+		assertEquals(Set.of("b.txt", "d.txt"), resolved.getModified());
+		assertEquals(Set.of("c.txt"), updated.getConflicting());
+	}
+
+	@Test
+	public void testStatusDelta() {
+		IndexDiff full = mock(IndexDiff.class);
+		when(full.getModified()).thenReturn(Set.of("src/a.txt", "b.txt"));
+		IndexDiffData base = new IndexDiffData(full);
+		assertNull(base.getStatusDelta());
+
+		IndexDiff partial = mock(IndexDiff.class);
+		when(partial.getModified()).thenReturn(Set.of("b.txt"));
+		when(partial.getAdded()).thenReturn(Set.of("src/main/c.txt"));
+		IndexDiffData updated = new IndexDiffData(base,
+				asList("src/a.txt", "b.txt", "src/main/c.txt"),
+				Collections.emptySet(), partial);
+		// b.txt is still modified and thus not part of the delta
+		assertEquals(Set.of("src/a.txt", "src/main/c.txt", "src/main/",
+				"src/", ""), new HashSet<>(updated.getStatusDelta()));
+		assertTrue(updated.isDerivedFrom(base));
+		assertFalse(base.isDerivedFrom(updated));
+		assertFalse(updated.isDerivedFrom(new IndexDiffData(full)));
+		assertFalse(updated.isDerivedFrom(null));
+	}
 }
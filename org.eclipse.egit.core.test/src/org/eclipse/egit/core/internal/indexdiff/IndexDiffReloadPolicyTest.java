@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class IndexDiffReloadPolicyTest {
+
+	@Test
+	public void testCountDirectories() {
+		assertEquals(0, IndexDiffReloadPolicy.countDirectories(asList("a")));
+		assertEquals(1, IndexDiffReloadPolicy.countDirectories(asList("a/")));
+		assertEquals(2,
+				IndexDiffReloadPolicy.countDirectories(asList("a/b/c.txt")));
+		assertEquals(3, IndexDiffReloadPolicy
+				.countDirectories(asList("a/b/c.txt", "a/b/d.txt", "a/e/")));
+	}
+
+	@Test
+	public void testSmallChangesAreIncremental() {
+		IndexDiffReloadPolicy policy = new IndexDiffReloadPolicy("test");
+		assertFalse(policy.shouldReload(paths("x/", 1,
+				IndexDiffReloadPolicy.MIN_PATHS_FOR_RELOAD)));
+	}
+
+	@Test
+	public void testReloadWithoutMeasurement() {
+		IndexDiffReloadPolicy policy = new IndexDiffReloadPolicy("test");
+		assertTrue(policy.shouldReload(paths("x/", 1,
+				IndexDiffReloadPolicy.MIN_PATHS_FOR_RELOAD + 1)));
+	}
+
+	@Test
+	public void testFewDirectoriesAreIncremental() {
+		IndexDiffReloadPolicy policy = new IndexDiffReloadPolicy("test");
+		policy.fullReloadDone(TimeUnit.SECONDS.toNanos(10));
+		// 1200 files in 3 directories under target/
+		assertFalse(policy.shouldReload(paths("target/", 3, 1200)));
+		// 1200 files in 1200 directories
+		policy.fullReloadDone(TimeUnit.MILLISECONDS.toNanos(100));
+		assertTrue(policy.shouldReload(paths("src/", 1200, 1200)));
+	}
+
+	@Test
+	public void testMeasuredCostIsUsed() {
+		IndexDiffReloadPolicy policy = new IndexDiffReloadPolicy("test");
+		policy.fullReloadDone(TimeUnit.SECONDS.toNanos(1));
+		List<String> changes = paths("src/", 1200, 1200);
+		assertTrue(policy.shouldReload(changes));
+		for (int i = 0; i < 20; i++) {
+			policy.incrementalUpdateDone(paths("src/", 100, 100),
+					TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		assertFalse(policy.shouldReload(changes));
+	}
+
+	private static List<String> paths(String prefix, int directories,
+			int files) {
+		List<String> result = new ArrayList<>(files);
+		for (int i = 0; i < files; i++) {
+			result.add(prefix + "d" + (i % directories) + "/f" + i);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+import org.eclipse.egit.core.test.GitTestCase;
+import org.eclipse.egit.core.test.TestRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexDiffSnapshotTest extends GitTestCase {
+
+	private TestRepository testRepository;
+
+	private Repository repository;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		testRepository = new TestRepository(gitDir);
+		repository = testRepository.getRepository();
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		IndexDiffSnapshot.delete(repository);
+		testRepository.dispose();
+		repository = null;
+		super.tearDown();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		File workTree = repository.getWorkTree();
+		File a = write(workTree, "a/x.txt", "x");
+		File b = write(workTree, "b/y.txt", "y");
+		testRepository.track(a);
+		testRepository.track(b);
+		testRepository.commit("initial");
+		write(workTree, "a/x.txt", "changed");
+		write(workTree, "untracked/u.txt", "u");
+		testRepository.untrack(b);
+
+		IndexDiffData expected = diff();
+		IndexDiffSnapshot.save(repository, expected, 1234L);
+		IndexDiffSnapshot snapshot = IndexDiffSnapshot.load(repository);
+		assertNotNull(snapshot);
+		IndexDiffData actual = snapshot.getData();
+		assertEquals(expected.getStatusSets(), actual.getStatusSets());
+		assertEquals(expected.getConflictStates(),
+				actual.getConflictStates());
+	}
+
+	@Test
+	public void testIndexChangeInvalidatesSnapshot() throws Exception {
+		File workTree = repository.getWorkTree();
+		File a = write(workTree, "a.txt", "a");
+		testRepository.track(a);
+		testRepository.commit("initial");
+		IndexDiffSnapshot.save(repository, diff(),
+				System.currentTimeMillis());
+		testRepository.track(write(workTree, "b.txt", "b"));
+		assertNull(IndexDiffSnapshot.load(repository));
+	}
+
+	@Test
+	public void testFindChangedPaths() throws Exception {
+		File workTree = repository.getWorkTree();
+		File a = write(workTree, "a/x.txt", "x");
+		testRepository.track(a);
+		testRepository.commit("initial");
+		IndexDiffSnapshot.save(repository, diff(), 0L);
+		IndexDiffSnapshot snapshot = IndexDiffSnapshot.load(repository);
+		assertNotNull(snapshot);
+		write(workTree, "a/new.txt", "new");
+		write(workTree, "c/z.txt", "z");
+		// With validSince 0 everything counts as possibly modified
+		Collection<String> changed = snapshot.findChangedPaths(repository);
+		assertNotNull(changed);
+		assertTrue(changed.contains("a/x.txt"));
+		assertTrue(changed.contains("a/new.txt"));
+		assertTrue(changed.contains("c/"));
+	}
+
+	@Test
+	public void testFindDeletedUntracked() throws Exception {
+		File workTree = repository.getWorkTree();
+		File a = write(workTree, "a.txt", "a");
+		testRepository.track(a);
+		testRepository.commit("initial");
+		File u = write(workTree, "u.txt", "u");
+		File f = write(workTree, "d/f.txt", "f");
+		IndexDiffSnapshot.save(repository, diff(),
+				System.currentTimeMillis());
+		IndexDiffSnapshot snapshot = IndexDiffSnapshot.load(repository);
+		assertNotNull(snapshot);
+		assertTrue(u.delete());
+		assertTrue(f.delete());
+		assertTrue(f.getParentFile().delete());
+		Collection<String> changed = snapshot.findChangedPaths(repository);
+		assertNotNull(changed);
+		assertTrue(changed.contains("u.txt"));
+		assertTrue(changed.contains("d/f.txt"));
+		assertTrue(changed.contains("d/"));
+	}
+
+	@Test
+	public void testMalformedData() throws Exception {
+		// Negative path count
+		assertMalformed(0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+		// Common prefix longer than the previous path
+		assertMalformed(1, 3, 0);
+		// Path index out of range
+		assertMalformed(1, 0, 1, 'a', 12, 1, 5);
+		// Unknown conflict state
+		assertMalformed(1, 0, 1, 'a', 12, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+				1, 0, 99);
+		IndexDiffData data = IndexDiffSnapshot.read(stream(1, 0, 1, 'a', 12,
+				1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0));
+		assertTrue(data.getAdded().contains("a"));
+		assertEquals(1, data.getConflictStates().size());
+	}
+
+	@Test
+	public void testRemoveCacheEntryDeletesSnapshot() throws Exception {
+		File workTree = repository.getWorkTree();
+		testRepository.track(write(workTree, "a.txt", "a"));
+		testRepository.commit("initial");
+		IndexDiffSnapshot.save(repository, diff(),
+				System.currentTimeMillis());
+		assertNotNull(IndexDiffSnapshot.load(repository));
+		assertNotNull(
+				IndexDiffCache.INSTANCE.getIndexDiffCacheEntry(repository));
+		IndexDiffCache.INSTANCE.remove(repository.getDirectory());
+		assertNull(IndexDiffSnapshot.load(repository));
+	}
+
+	private static void assertMalformed(int... bytes) {
+		try {
+			IndexDiffSnapshot.read(stream(bytes));
+			fail("Malformed data accepted");
+		} catch (IOException e) {
+			// Expected
+		}
+	}
+
+	private static DataInputStream stream(int... bytes) {
+		byte[] data = new byte[bytes.length];
+		for (int i = 0; i < bytes.length; i++) {
+			data[i] = (byte) bytes[i];
+		}
+		return new DataInputStream(new ByteArrayInputStream(data));
+	}
+
+	private IndexDiffData diff() throws Exception {
+		IndexDiff diff = new IndexDiff(repository, Constants.HEAD,
+				new FileTreeIterator(repository));
+		diff.diff();
+		return new IndexDiffData(diff);
+	}
+
+	private File write(File workTree, String path, String content)
+			throws Exception {
+		File file = new File(workTree, path);
+		file.getParentFile().mkdirs();
+		testRepository.appendFileContent(file, content, false);
+		return file;
+	}
+}
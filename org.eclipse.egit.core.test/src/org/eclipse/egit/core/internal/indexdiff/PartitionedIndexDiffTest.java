@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.egit.core.test.GitTestCase;
+import org.eclipse.egit.core.test.TestRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PartitionedIndexDiffTest extends GitTestCase {
+
+	private TestRepository testRepository;
+
+	private Repository repository;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		testRepository = new TestRepository(gitDir);
+		repository = testRepository.getRepository();
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		testRepository.dispose();
+		repository = null;
+		super.tearDown();
+	}
+
+	@Test
+	public void testSameResultAsSingleDiff() throws Exception {
+		File workTree = repository.getWorkTree();
+		File a = write(workTree, "a/x.txt", "x");
+		write(workTree, "a/y.txt", "y");
+		File b = write(workTree, "b/deep/z.txt", "z");
+		File top = write(workTree, "top.txt", "top");
+		File gitignore = write(workTree, ".gitignore", "ignored/\n");
+		write(workTree, "ignored/i.txt", "i");
+		write(workTree, "untracked/u.txt", "u");
+		testRepository.track(a);
+		testRepository.track(b);
+		testRepository.track(top);
+		testRepository.track(gitignore);
+		testRepository.commit("initial");
+		write(workTree, "a/x.txt", "changed");
+		write(workTree, "b/deep/new.txt", "new");
+		testRepository.track(new File(workTree, "b/deep/new.txt"));
+		testRepository.untrack(top);
+
+		IndexDiff single = new IndexDiff(repository, Constants.HEAD,
+				new FileTreeIterator(repository));
+		single.diff();
+		IndexDiffData expected = new IndexDiffData(single);
+		IndexDiffData actual = new PartitionedIndexDiff(repository, "test", 4)
+				.compute(new NullProgressMonitor());
+
+		assertNotNull(actual);
+		assertTrue(actual.getModified().contains("a/x.txt"));
+		assertTrue(actual.getAdded().contains("b/deep/new.txt"));
+		assertTrue(actual.getRemoved().contains("top.txt"));
+		assertEquals(expected.getAdded(), actual.getAdded());
+		assertEquals(expected.getChanged(), actual.getChanged());
+		assertEquals(expected.getRemoved(), actual.getRemoved());
+		assertEquals(expected.getMissing(), actual.getMissing());
+		assertEquals(expected.getModified(), actual.getModified());
+		assertEquals(expected.getUntracked(), actual.getUntracked());
+		assertEquals(expected.getUntrackedFolders(),
+				actual.getUntrackedFolders());
+		assertEquals(expected.getIgnoredNotInIndex(),
+				actual.getIgnoredNotInIndex());
+		assertEquals(expected.getConflicting(), actual.getConflicting());
+	}
+
+	private File write(File workTree, String path, String content)
+			throws Exception {
+		File file = new File(workTree, path);
+		file.getParentFile().mkdirs();
+		testRepository.appendFileContent(file, content, false);
+		return file;
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class PathIdSetTest {
+
+	@Test
+	public void testContainsAndIterate() {
+		PathTable table = new PathTable();
+		List<String> paths = asList("a", "a/b/c.txt", "a/b/", "d/\u00e9t\u00e9",
+				"a/b/c.txt");
+		Set<String> set = PathIdSet.of(table, paths);
+		assertEquals(4, set.size());
+		for (String path : paths) {
+			assertTrue(path, set.contains(path));
+		}
+		assertFalse(set.contains("a/b"));
+		assertFalse(set.contains("a/"));
+		assertFalse(set.contains("d"));
+		assertFalse(set.contains("x"));
+		assertEquals(new HashSet<>(paths), new HashSet<>(set));
+	}
+
+	@Test
+	public void testPrefixesAreShared() {
+		PathTable table = new PathTable();
+		PathIdSet.of(table, asList("src/main/java/A.java",
+				"src/main/java/B.java", "src/main/resources/"));
+		// Root, src, main, java, A.java, B.java, resources, trailing slash
+		assertEquals(8, table.size());
+		assertEquals("src/main/resources/",
+				table.getPath(table.find("src/main/resources/")));
+		assertEquals(-1, table.find("src/test"));
+	}
+
+	@Test
+	public void testSharedPathSetBuilder() {
+		PathTable table = new PathTable();
+		Set<String> base = PathIdSet.of(table, asList("a", "b"));
+		SharedPathSet.Builder builder = new SharedPathSet.Builder(base, table);
+		builder.add("c");
+		builder.remove("a");
+		Set<String> changes = new HashSet<>();
+		Set<String> first = builder.build(changes);
+		assertEquals(new HashSet<>(asList("b", "c")), first);
+		assertEquals(new HashSet<>(asList("a", "c")), changes);
+
+		// No-ops leave the previous set untouched and are returned as is
+		builder = new SharedPathSet.Builder(first, table);
+		builder.add("b");
+		builder.add("c");
+		builder.remove("a");
+		builder.remove("x");
+		changes.clear();
+		assertSame(first, builder.build(changes));
+		assertTrue(changes.isEmpty());
+
+		builder = new SharedPathSet.Builder(first, table);
+		builder.add("a");
+		builder.remove("c");
+		Set<String> second = builder.build(changes);
+		assertEquals(new HashSet<>(asList("a", "b")), second);
+		assertEquals(new HashSet<>(asList("a", "c")), changes);
+		assertEquals(new HashSet<>(asList("b", "c")), first);
+	}
+}
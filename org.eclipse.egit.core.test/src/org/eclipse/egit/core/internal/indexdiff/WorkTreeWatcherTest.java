@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.lib.Constants;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WorkTreeWatcherTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testChangesAreReported() throws Exception {
+		File workTree = folder.getRoot();
+		File gitDir = new File(workTree, Constants.DOT_GIT);
+		assertTrue(gitDir.mkdir());
+		assertTrue(new File(workTree, "src").mkdir());
+		assertTrue(new File(workTree, "ignored").mkdir());
+		BlockingQueue<Collection<String>> batches = new LinkedBlockingQueue<>();
+		try (WorkTreeWatcher watcher = new WorkTreeWatcher(workTree, gitDir,
+				"test", "ignored"::equals, batches::add, () -> {
+					// Nothing
+				})) {
+			waitUntilWatching(watcher);
+			write(new File(workTree, "src/a.txt"));
+			write(new File(workTree, "ignored/b.txt"));
+			write(new File(gitDir, "index"));
+			Set<String> changed = collect(batches, "src/a.txt");
+			assertTrue(changed.contains("src/a.txt"));
+			assertFalse(changed.contains("ignored/b.txt"));
+			assertFalse(changed.contains(".git/index"));
+		}
+	}
+
+	@Test
+	public void testMovedFolderIsReportedWithContents() throws Exception {
+		File workTree = folder.newFolder("workTree");
+		File gitDir = new File(workTree, Constants.DOT_GIT);
+		assertTrue(gitDir.mkdir());
+		File outside = folder.newFolder("outside");
+		assertTrue(new File(outside, "sub").mkdir());
+		write(new File(outside, "sub/a.txt"));
+		BlockingQueue<Collection<String>> batches = new LinkedBlockingQueue<>();
+		try (WorkTreeWatcher watcher = new WorkTreeWatcher(workTree, gitDir,
+				"test", path -> false, batches::add, () -> {
+					// Nothing
+				})) {
+			waitUntilWatching(watcher);
+			Files.move(outside.toPath(), new File(workTree, "moved").toPath());
+			Set<String> changed = collect(batches, "moved/sub/a.txt");
+			assertTrue(changed.contains("moved/"));
+			assertTrue(changed.contains("moved/sub/"));
+			assertTrue(changed.contains("moved/sub/a.txt"));
+		}
+	}
+
+	@Test
+	public void testWatchersShareService() throws Exception {
+		File first = folder.newFolder("first");
+		assertTrue(new File(first, Constants.DOT_GIT).mkdir());
+		assertTrue(new File(first, "a").mkdir());
+		File second = folder.newFolder("second");
+		assertTrue(new File(second, Constants.DOT_GIT).mkdir());
+		BlockingQueue<Collection<String>> firstBatches = new LinkedBlockingQueue<>();
+		BlockingQueue<Collection<String>> secondBatches = new LinkedBlockingQueue<>();
+		int before = WorkTreeWatcher.getWatchedFolderCount();
+		try (WorkTreeWatcher watcher1 = new WorkTreeWatcher(first,
+				new File(first, Constants.DOT_GIT), "first", path -> false,
+				firstBatches::add, () -> {
+					// Nothing
+				})) {
+			try (WorkTreeWatcher watcher2 = new WorkTreeWatcher(second,
+					new File(second, Constants.DOT_GIT), "second",
+					path -> false, secondBatches::add, () -> {
+						// Nothing
+					})) {
+				waitUntilWatching(watcher1);
+				waitUntilWatching(watcher2);
+				// Root and "a" of the first, root of the second
+				assertEquals(before + 3,
+						WorkTreeWatcher.getWatchedFolderCount());
+				write(new File(second, "b.txt"));
+				write(new File(first, "a/c.txt"));
+				assertTrue(collect(secondBatches, "b.txt").contains("b.txt"));
+				Set<String> changed = collect(firstBatches, "a/c.txt");
+				assertTrue(changed.contains("a/c.txt"));
+				assertFalse(changed.contains("b.txt"));
+			}
+			assertEquals(before + 2, WorkTreeWatcher.getWatchedFolderCount());
+		}
+		assertEquals(before, WorkTreeWatcher.getWatchedFolderCount());
+	}
+
+	private static void waitUntilWatching(WorkTreeWatcher watcher)
+			throws Exception {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!watcher.isWatching()
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(watcher.isWatching());
+	}
+
+	private static Set<String> collect(
+			BlockingQueue<Collection<String>> batches, String expected)
+			throws Exception {
+		Set<String> changed = new HashSet<>();
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!changed.contains(expected)
+				&& System.currentTimeMillis() < deadline) {
+			Collection<String> batch = batches.poll(1, TimeUnit.SECONDS);
+			if (batch != null) {
+				changed.addAll(batch);
+			}
+		}
+		return changed;
+	}
+
+	private static void write(File file) throws Exception {
+		Files.write(file.toPath(), "x".getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.runtime.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PathPrefixIndexTest {
+
+	private PathPrefixIndex<String> index;
+
+	@Before
+	public void setUp() {
+		index = new PathPrefixIndex<>();
+		index.put(new Path("/work/a"), "a");
+		index.put(new Path("/work/a/nested"), "nested");
+		index.put(new Path("/work/b"), "b");
+	}
+
+	@Test
+	public void testLongestMatch() {
+		assertEquals("a", index.getLongestMatch(new Path("/work/a")));
+		assertEquals("a", index.getLongestMatch(new Path("/work/a/src/X")));
+		assertEquals("nested",
+				index.getLongestMatch(new Path("/work/a/nested/X")));
+		assertEquals("b", index.getLongestMatch(new Path("/work/b/X")));
+		assertNull(index.getLongestMatch(new Path("/work")));
+		assertNull(index.getLongestMatch(new Path("/work/ab/X")));
+		assertNull(index.getLongestMatch(new Path("/other")));
+	}
+
+	@Test
+	public void testFilter() {
+		assertEquals("a",
+				index.getLongestMatch(new Path("/work/a/nested/X"),
+						value -> !"nested".equals(value)));
+		assertNull(index.getLongestMatch(new Path("/work/a/nested/X"),
+				value -> false));
+	}
+
+	@Test
+	public void testRemove() {
+		assertFalse(index.remove(new Path("/work/a"), "other"));
+		assertEquals("a", index.getLongestMatch(new Path("/work/a/X")));
+		assertTrue(index.remove(new Path("/work/a"), "a"));
+		assertNull(index.getLongestMatch(new Path("/work/a/X")));
+		assertEquals("nested",
+				index.getLongestMatch(new Path("/work/a/nested/X")));
+		assertFalse(index.remove(new Path("/work/c"), "c"));
+		index.clear();
+		assertNull(index.getLongestMatch(new Path("/work/b/X")));
+	}
+
+	@Test
+	public void testReplace() {
+		assertEquals("b", index.put(new Path("/work/b"), "b2"));
+		assertEquals("b2", index.getLongestMatch(new Path("/work/b/X")));
+	}
+}
@@ -489,6 +489,31 @@ public void shouldListAllTypeOfChangesInsideSeparateFoldersInOneCommit()
 				RIGHT);
 	}
 
+	@Test
+	public void shouldKeepWalkOrderForManyCommits() throws Exception {
+		// given
+		Git git = new Git(db);
+		int count = 100;
+		RevCommit[] commits = new RevCommit[count];
+		for (int i = 0; i < count; i++) {
+			writeTrashFile(db, "folder/" + (i % 7) + ".txt", "content " + i);
+			git.add().addFilepattern("folder").call();
+			commits[i] = commit(git, "commit " + i);
+		}
+		// when
+		List<Commit> result = GitCommitsModelCache.build(db, initialTagId(),
+				commits[count - 1], null);
+		// then
+		assertThat(result, notNullValue());
+		assertThat(result.size(), is(count));
+		for (int i = 0; i < count; i++) {
+			// Newest first
+			RevCommit c = commits[count - 1 - i];
+			assertCommit(result.get(i), c, 1);
+			assertThat(result.get(i).getDirection(), is(LEFT));
+		}
+	}
+
 	private RevCommit commit(Git git, String msg) throws Exception {
 		tick();
 		return git.commit().setAll(true).setMessage(msg)
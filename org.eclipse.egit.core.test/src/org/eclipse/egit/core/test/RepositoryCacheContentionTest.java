@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.egit.core.RepositoryCache;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Micro-benchmark for concurrent lookups in the {@link RepositoryCache}, also
+ * checking that concurrent lookups always get the same instances.
+ */
+public class RepositoryCacheContentionTest {
+
+	private static final int REPOSITORIES = 20;
+
+	private static final int THREADS = 8;
+
+	private static final long DURATION_MILLIS = 500;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<File> gitDirs = new ArrayList<>();
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() throws Exception {
+		RepositoryCache.INSTANCE.clear();
+		for (int i = 0; i < REPOSITORIES; i++) {
+			File workTree = folder.newFolder("repo" + i);
+			File gitDir = new File(workTree, Constants.DOT_GIT);
+			try (Repository repository = FileRepositoryBuilder
+					.create(gitDir)) {
+				repository.create();
+			}
+			gitDirs.add(gitDir);
+		}
+		executor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+		RepositoryCache.INSTANCE.clear();
+	}
+
+	@Test
+	public void testConcurrentOpeningCreatesOneInstance() throws Exception {
+		File gitDir = gitDirs.get(0);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Repository>> results = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return RepositoryCache.INSTANCE.lookupRepository(gitDir);
+			}));
+		}
+		start.countDown();
+		Repository first = results.get(0).get();
+		for (Future<Repository> result : results) {
+			assertSame(first, result.get());
+		}
+	}
+
+	@Test
+	public void testConcurrentLookups() throws Exception {
+		Repository[] repositories = new Repository[REPOSITORIES];
+		IPath[] locations = new IPath[REPOSITORIES];
+		for (int i = 0; i < REPOSITORIES; i++) {
+			repositories[i] = RepositoryCache.INSTANCE
+					.lookupRepository(gitDirs.get(i));
+			locations[i] = new Path(repositories[i].getWorkTree()
+					.getAbsolutePath()).append("src/main/java/A.java");
+		}
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Long>> results = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int offset = t;
+			Callable<Long> lookups = () -> {
+				start.await();
+				long operations = 0;
+				long end = System.nanoTime()
+						+ TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+				while (System.nanoTime() < end) {
+					int i = (int) ((operations + offset) % REPOSITORIES);
+					assertSame(repositories[i], RepositoryCache.INSTANCE
+							.lookupRepository(gitDirs.get(i)));
+					assertSame(repositories[i], RepositoryCache.INSTANCE
+							.getRepository(gitDirs.get(i)));
+					assertSame(repositories[i],
+							RepositoryCache.INSTANCE.getRepository(locations[i]));
+					if (operations % 100 == 0) {
+						assertEquals(REPOSITORIES, RepositoryCache.INSTANCE
+								.getAllRepositories().length);
+					}
+					operations++;
+				}
+				return Long.valueOf(operations);
+			};
+			results.add(executor.submit(lookups));
+		}
+		start.countDown();
+		long total = 0;
+		for (Future<Long> result : results) {
+			total += result.get().longValue();
+		}
+		assertTrue(total > 0);
+		System.out.println(
+				"RepositoryCache: " + THREADS + " threads, " + total * 3
+						+ " lookups in " + DURATION_MILLIS + " ms ("
+						+ total * 3 * 1000 / DURATION_MILLIS + " lookups/s)");
+	}
+}
@@ -18,6 +18,7 @@
 import org.eclipse.egit.core.internal.CoreText;
 import org.eclipse.egit.core.internal.EclipseSystemReader;
 import org.eclipse.egit.core.internal.ReportingTypedConfigGetter;
+import org.eclipse.egit.core.internal.attributes.FilterProcessPool;
 import org.eclipse.egit.core.internal.credentials.EGitCredentialsProvider;
 import org.eclipse.jgit.lib.Config;
 import org.eclipse.jgit.storage.file.WindowCacheConfig;
@@ -136,8 +137,10 @@ public void start(final BundleContext context) throws Exception {
 		super.start(context);
 		FS.FileStoreAttributes.setBackground(true);
 
-		SystemReader.setInstance(
-				new EclipseSystemReader(SystemReader.getInstance()));
+		boolean useCommitGraph = Platform.getPreferencesService().getBoolean(
+				PLUGIN_ID, GitCorePreferences.core_useCommitGraph, true, null);
+		SystemReader.setInstance(new EclipseSystemReader(
+				SystemReader.getInstance(), useCommitGraph));
 		Config.setTypedConfigGetter(new ReportingTypedConfigGetter());
 		credentialsStore = new ServiceTracker<>(context, CredentialsStore.class,
 				null);
@@ -180,6 +183,7 @@ public IProxyService getProxyService() {
 	public void stop(final BundleContext context) throws Exception {
 		credentialsStore.close();
 		proxyService.close();
+		FilterProcessPool.getInstance().shutDown();
 		Config.setTypedConfigGetter(null);
 		SystemReader.setInstance(null);
 		super.stop(context);
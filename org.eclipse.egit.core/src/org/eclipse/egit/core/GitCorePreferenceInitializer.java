@@ -44,6 +44,9 @@ public void initializeDefaultPreferences() {
 		String defaultRepoDir = RepositoryUtil.getDefaultDefaultRepositoryDir();
 		p.put(GitCorePreferences.core_defaultRepositoryDir, defaultRepoDir);
 		p.putInt(GitCorePreferences.core_maxPullThreadsCount, 3);
+		p.putInt(GitCorePreferences.core_indexDiffThreadsCount, 1);
+		p.putBoolean(GitCorePreferences.core_watchWorkTree, false);
+		p.putBoolean(GitCorePreferences.core_useCommitGraph, true);
 		p.put(GitCorePreferences.core_httpClient, "apache"); //$NON-NLS-1$
 		p.putInt(GitCorePreferences.core_remoteConnectionTimeout, 30);
 		p.put(GitCorePreferences.core_gpgSigner, "bc"); //$NON-NLS-1$
@@ -80,6 +80,27 @@ private GitCorePreferences() {
 	 */
 	public static final String core_maxPullThreadsCount = "core_max_pull_threads_count"; //$NON-NLS-1$
 
+	/**
+	 * Number of threads used to compute the status of a whole working tree.
+	 * With more than one thread, the top level of the working tree is split
+	 * into partitions that are diffed concurrently. Default is one.
+	 */
+	public static final String core_indexDiffThreadsCount = "core_index_diff_threads_count"; //$NON-NLS-1$
+
+	/**
+	 * Whether to watch working trees for changes made outside of Eclipse and
+	 * update the repository status incrementally. Default is {@code false}.
+	 */
+	public static final String core_watchWorkTree = "core_watch_work_tree"; //$NON-NLS-1$
+
+	/**
+	 * Whether JGit shall by default read commit-graph files, and write them
+	 * on garbage collection. The git config settings {@code core.commitGraph}
+	 * and {@code gc.writeCommitGraph} take precedence. Changes take effect
+	 * after a restart. Default is {@code true}.
+	 */
+	public static final String core_useCommitGraph = "core_use_commit_graph"; //$NON-NLS-1$
+
 	/**
 	 * Whether to store SSH key passphrases in the Eclipse secure store.
 	 */
@@ -16,19 +16,22 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.egit.core.internal.SafeRunnable;
 import org.eclipse.egit.core.internal.indexdiff.IndexDiffCache;
+import org.eclipse.egit.core.internal.util.PathPrefixIndex;
 import org.eclipse.jgit.errors.RepositoryNotFoundException;
 import org.eclipse.jgit.events.ConfigChangedEvent;
 import org.eclipse.jgit.events.IndexChangedEvent;
@@ -53,15 +56,26 @@ public enum RepositoryCache {
 	// closes repository instances. Instead, this cache wraps any repository
 	// in a {@link RepositoryHandle} and returns that, and closes the wrapped
 	// repository once that handle is garbage collected.
+	//
+	// Lookups never block each other. Entries are only ever removed by the
+	// Closer thread: references whose handle was garbage collected are put
+	// on the queue by the garbage collector, and lookups enqueue references
+	// to repositories whose git directory was deleted.
 
 	private final ReferenceQueue<RepositoryHandle> queue = new ReferenceQueue<>();
 
-	private final Map<File, RepositoryReference> repositoryCache = new HashMap<>();
+	private final Map<File, RepositoryReference> repositoryCache = new ConcurrentHashMap<>();
+
+	/**
+	 * The entries of {@link #repositoryCache} with a working tree, by working
+	 * tree.
+	 */
+	private final PathPrefixIndex<RepositoryReference> workTrees = new PathPrefixIndex<>();
 
 	private final ListenerList globalListeners = new ListenerList();
 
 	private RepositoryCache() {
-		new Closer(queue).start();
+		new Closer(queue, this::reap).start();
 		// Set up listeners on the JGit global listener list to be able to
 		// re-fire events with the correct repository.
 		ListenerList global = Repository.getGlobalListenerList();
@@ -140,31 +154,97 @@ public ListenerList getGlobalListenerList() {
 	public Repository lookupRepository(final File gitDir) throws IOException {
 		// Make sure we have a normalized path without .. segments here.
 		File normalizedGitDir = new Path(gitDir.getAbsolutePath()).toFile();
-		synchronized (repositoryCache) {
-			RepositoryReference r = repositoryCache.get(normalizedGitDir);
-			if (r == null) {
-				Repository inner = new Builder().setGitDir(normalizedGitDir)
-						.readEnvironment().setup().createRepository();
-				RepositoryHandle result = new RepositoryHandle(inner);
-				repositoryCache.put(normalizedGitDir,
-						new RepositoryReference(result, inner, queue));
-				return result;
-			} else {
-				Repository result = r.get();
-				if (result != null && result.getDirectory().exists()) {
-					return result;
-				} else {
-					Closer.closeReference(
-							repositoryCache.remove(normalizedGitDir));
+		return open(normalizedGitDir,
+				() -> new Builder().setGitDir(normalizedGitDir)
+						.readEnvironment().setup().createRepository());
+	}
+
+	/**
+	 * Gets the cached repository for a git directory, creating and caching
+	 * it if there is none. Creation is atomic: concurrent calls for the same
+	 * git directory create only one repository.
+	 *
+	 * @param gitDir
+	 *            normalized git directory
+	 * @param factory
+	 *            to create the repository with
+	 * @return the cached or new repository
+	 * @throws IOException
+	 *             if the repository cannot be created
+	 */
+	private RepositoryHandle open(File gitDir, RepositoryFactory factory)
+			throws IOException {
+		RepositoryHandle cached = getValid(repositoryCache.get(gitDir));
+		if (cached != null) {
+			return cached;
+		}
+		RepositoryHandle[] result = { null };
+		boolean[] replaced = { false };
+		try {
+			repositoryCache.compute(gitDir, (dir, existing) -> {
+				RepositoryHandle handle = getValid(existing);
+				if (handle != null) {
+					result[0] = handle;
+					return existing;
 				}
+				replaced[0] = existing != null;
+				Repository inner;
+				try {
+					inner = factory.create();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				result[0] = new RepositoryHandle(inner);
+				RepositoryReference reference = new RepositoryReference(
+						result[0], inner, dir, queue);
+				if (existing != null) {
+					unindex(existing);
+				}
+				index(reference);
+				return reference;
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			if (replaced[0]) {
+				// We replaced a stale repository. Its IndexDiffCache entry must
+				// be removed outside of compute(), otherwise we may run into a
+				// deadlock due to lock inversion between our repositoryCache
+				// and IndexDiffCache.entries.
+				IndexDiffCache.INSTANCE.remove(gitDir);
 			}
 		}
-		// If we get here, we found a stale repository. We must remove
-		// a possibly still existing IndexDiffCache outside the synchronized
-		// block, otherwise we may run into a deadlock due to lock inversion
-		// between our repositoryCache and IndexDiffCache.entries.
-		IndexDiffCache.INSTANCE.remove(normalizedGitDir);
-		return lookupRepository(gitDir);
+		return result[0];
+	}
+
+	/**
+	 * Determines the handle of a cached repository if it is still usable. If
+	 * its git directory was deleted, the reference is enqueued for removal by
+	 * the {@link Closer}.
+	 *
+	 * @param reference
+	 *            to check; may be {@code null}
+	 * @return the handle, or {@code null} if there is no usable repository
+	 */
+	private static RepositoryHandle getValid(RepositoryReference reference) {
+		if (reference == null) {
+			return null;
+		}
+		RepositoryHandle handle = reference.get();
+		if (handle == null) {
+			return null;
+		}
+		if (!handle.getDirectory().exists()) {
+			reference.enqueue();
+			return null;
+		}
+		return handle;
+	}
+
+	@FunctionalInterface
+	private interface RepositoryFactory {
+
+		Repository create() throws IOException;
 	}
 
 	/**
@@ -178,16 +258,27 @@ public Repository lookupRepository(final File gitDir) throws IOException {
 
 		private Repository inner;
 
+		private final File gitDir;
+
+		private final IPath workTree;
+
 		public RepositoryReference(RepositoryHandle handle, Repository delegate,
-				ReferenceQueue<RepositoryHandle> queue) {
+				File gitDir, ReferenceQueue<RepositoryHandle> queue) {
 			super(handle, queue);
 			inner = delegate;
+			this.gitDir = gitDir;
+			workTree = delegate.isBare() ? null
+					: new Path(delegate.getWorkTree().getAbsolutePath());
 		}
 
 		public Repository getRepository() {
 			return inner;
 		}
 
+		public File getGitDir() {
+			return gitDir;
+		}
+
 		public void clearRepository() {
 			inner = null;
 		}
@@ -223,33 +314,7 @@ public CachingRepository createRepository() throws IOException {
 		@Override
 		public RepositoryHandle build() throws IOException {
 			setup();
-			File gitDir = getGitDir();
-			RepositoryHandle result = null;
-			boolean removeCache = false;
-			try {
-				synchronized (repositoryCache) {
-					Reference<RepositoryHandle> r = repositoryCache.get(gitDir);
-					if (r != null) {
-						RepositoryHandle cached = r.get();
-						if (cached != null && cached.getDirectory().exists()) {
-							return cached;
-						} else {
-							Closer.closeReference(
-									repositoryCache.remove(gitDir));
-							removeCache = true;
-						}
-					}
-					CachingRepository inner = createRepository();
-					result = new RepositoryHandle(inner);
-					repositoryCache.put(gitDir,
-							new RepositoryReference(result, inner, queue));
-				}
-			} finally {
-				if (removeCache) {
-					IndexDiffCache.INSTANCE.remove(gitDir);
-				}
-			}
-			return result;
+			return open(getGitDir(), this::createRepository);
 		}
 	}
 
@@ -303,19 +368,7 @@ public Repository getRepository(final File gitDir) {
 			return null;
 		}
 		File normalizedGitDir = new Path(gitDir.getAbsolutePath()).toFile();
-		synchronized (repositoryCache) {
-			RepositoryReference r = repositoryCache.get(normalizedGitDir);
-			if (r == null) {
-				return null;
-			}
-			Repository result = r.get();
-			if (result != null && result.getDirectory().exists()) {
-				return result;
-			}
-			Closer.closeReference(repositoryCache.remove(normalizedGitDir));
-		}
-		IndexDiffCache.INSTANCE.remove(normalizedGitDir);
-		return null;
+		return getValid(repositoryCache.get(normalizedGitDir));
 	}
 
 	/**
@@ -323,22 +376,12 @@ public Repository getRepository(final File gitDir) {
 	 */
 	public Repository[] getAllRepositories() {
 		List<Repository> repositories = new ArrayList<>();
-		List<File> toRemove = new ArrayList<>();
-		synchronized (repositoryCache) {
-			for (Iterator<Map.Entry<File, RepositoryReference>> i = repositoryCache
-					.entrySet().iterator(); i.hasNext();) {
-				Map.Entry<File, RepositoryReference> entry = i.next();
-				Repository repository = entry.getValue().get();
-				if (repository == null || !repository.getDirectory().exists()) {
-					i.remove();
-					Closer.closeReference(entry.getValue());
-					toRemove.add(entry.getKey());
-				} else {
-					repositories.add(repository);
-				}
+		for (RepositoryReference reference : repositoryCache.values()) {
+			Repository repository = getValid(reference);
+			if (repository != null) {
+				repositories.add(repository);
 			}
 		}
-		removeIndexDiffCaches(toRemove);
 		return repositories.toArray(new Repository[0]);
 	}
 
@@ -373,58 +416,59 @@ public Repository getRepository(final IPath location) {
 		if (location == null) {
 			return null;
 		}
-		Repository repository = null;
-		int largestSegmentCount = 0;
-		List<File> toRemove = new ArrayList<>();
-		synchronized (repositoryCache) {
-			for (Iterator<Map.Entry<File, RepositoryReference>> i = repositoryCache
-					.entrySet().iterator(); i.hasNext();) {
-				Map.Entry<File, RepositoryReference> entry = i.next();
-				Repository repo = entry.getValue().get();
-				if (repo == null) {
-					i.remove();
-					Closer.closeReference(entry.getValue());
-					toRemove.add(entry.getKey());
-					continue;
-				}
-				if (repo.isBare()) {
-					continue;
-				}
-				IPath repoPath = new Path(repo.getWorkTree().getAbsolutePath());
-				if (repoPath.isPrefixOf(location)) {
-					if (repository == null
-							|| repoPath.segmentCount() > largestSegmentCount) {
-						if (!repo.getDirectory().exists()) {
-							i.remove();
-							Closer.closeReference(entry.getValue());
-							toRemove.add(entry.getKey());
-							continue;
-						}
-						repository = repo;
-						largestSegmentCount = repoPath.segmentCount();
-					}
-				}
-			}
-		}
-		removeIndexDiffCaches(toRemove);
-		return repository;
+		Repository[] repository = { null };
+		workTrees.getLongestMatch(location, r -> {
+			repository[0] = getValid(r);
+			return repository[0] != null;
+		});
+		return repository[0];
 	}
 
 	/**
 	 * Removes all cached repositories and their IndexDiffCache entries.
 	 */
 	public void clear() {
-		List<File> gitDirs;
-		List<RepositoryReference> references;
-		synchronized (repositoryCache) {
-			gitDirs = new ArrayList<>(repositoryCache.keySet());
-			references = new ArrayList<>(repositoryCache.values());
-			repositoryCache.clear();
+		List<File> gitDirs = new ArrayList<>();
+		List<RepositoryReference> references = new ArrayList<>();
+		for (File gitDir : repositoryCache.keySet()) {
+			RepositoryReference reference = repositoryCache.remove(gitDir);
+			if (reference != null) {
+				unindex(reference);
+				gitDirs.add(gitDir);
+				references.add(reference);
+			}
 		}
 		removeIndexDiffCaches(gitDirs);
 		references.forEach(Closer::closeReference);
 	}
 
+	/**
+	 * Removes a stale reference from the cache and closes its repository.
+	 * Called only from the {@link Closer} thread.
+	 */
+	private void reap(RepositoryReference stale) {
+		File gitDir = stale.getGitDir();
+		if (repositoryCache.remove(gitDir, stale)) {
+			unindex(stale);
+			if (!repositoryCache.containsKey(gitDir)) {
+				IndexDiffCache.INSTANCE.remove(gitDir);
+			}
+		}
+		Closer.closeReference(stale);
+	}
+
+	private void index(RepositoryReference reference) {
+		if (reference.workTree != null) {
+			workTrees.put(reference.workTree, reference);
+		}
+	}
+
+	private void unindex(RepositoryReference reference) {
+		if (reference.workTree != null) {
+			workTrees.remove(reference.workTree, reference);
+		}
+	}
+
 	private void removeIndexDiffCaches(List<File> gitDirs) {
 		if (!gitDirs.isEmpty()) {
 			for (File f : gitDirs) {
@@ -441,8 +485,12 @@ private static class Closer extends Thread {
 
 		private final ReferenceQueue<RepositoryHandle> queue;
 
-		public Closer(ReferenceQueue<RepositoryHandle> queue) {
+		private final Consumer<RepositoryReference> reaper;
+
+		public Closer(ReferenceQueue<RepositoryHandle> queue,
+				Consumer<RepositoryReference> reaper) {
 			this.queue = queue;
+			this.reaper = reaper;
 			setDaemon(true);
 			setName("Git Repository Closer"); //$NON-NLS-1$
 		}
@@ -453,7 +501,8 @@ public void run() {
 				for (;;) {
 					Reference<?> stale = queue.remove();
 					if (stale instanceof RepositoryReference) {
-						closeReference((RepositoryReference) stale);
+						RepositoryReference reference = (RepositoryReference) stale;
+						SafeRunnable.run(() -> reaper.accept(reference));
 					}
 				}
 			} catch (InterruptedException e) {
@@ -462,6 +511,9 @@ public void run() {
 		}
 
 		public static void closeReference(RepositoryReference stale) {
+			if (stale == null) {
+				return;
+			}
 			Repository repository = stale.getRepository();
 			if (repository != null) {
 				repository.close();
@@ -13,11 +13,17 @@
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.eclipse.egit.core.internal.attributes.DriverCheckoutMetadata;
+import org.eclipse.egit.core.internal.attributes.FilterProcessPool;
 import org.eclipse.jgit.api.errors.FilterFailedException;
 import org.eclipse.jgit.attributes.FilterCommand;
 import org.eclipse.jgit.attributes.FilterCommandRegistry;
+import org.eclipse.jgit.dircache.DirCacheCheckout.CheckoutMetadata;
+import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.TreeWalk.OperationType;
 import org.eclipse.jgit.util.FS;
 import org.eclipse.jgit.util.FS.ExecutionResult;
 import org.eclipse.jgit.util.RawParseUtils;
@@ -33,6 +39,8 @@ public class Filtering {
 
 	private static final int MAX_EXCEPTION_TEXT_SIZE = 10 * 1024;
 
+	private static final String CONFIG_KEY_PROCESS = "process"; //$NON-NLS-1$
+
 	/**
 	 * Filter the given {@link InputStream} through the given filter command.
 	 *
@@ -50,18 +58,92 @@ public class Filtering {
 	 */
 	public static InputStream filter(Repository repository, String path,
 			InputStream raw, String command) throws IOException {
+		return filter(repository, path, raw, command, null, null);
+	}
+
+	/**
+	 * Filter the given {@link InputStream} through the given smudge or clean
+	 * command of a filter driver. If the driver has a
+	 * {@code filter.<driver>.process}, the content is filtered by that
+	 * long-running process instead, like git does. If that process cannot be
+	 * used, or aborted, the command is run.
+	 *
+	 * @param repository
+	 *            we're working in
+	 * @param path
+	 *            of the file whose content is to be filtered
+	 * @param raw
+	 *            unfiltered raw byte data
+	 * @param command
+	 *            the smudge or clean command of the filter driver
+	 * @param filterType
+	 *            {@link Constants#ATTR_FILTER_TYPE_SMUDGE} or
+	 *            {@link Constants#ATTR_FILTER_TYPE_CLEAN}
+	 * @param driver
+	 *            name of the filter driver the command is from; may be
+	 *            {@code null}
+	 * @return An {@link InputStream} the filtered result can be read from.
+	 * @throws IOException
+	 *             if filtering fails.
+	 * @since 7.8
+	 */
+	public static InputStream filter(Repository repository, String path,
+			InputStream raw, String command, String filterType,
+			String driver) throws IOException {
 		if (command == null || command.isEmpty()) {
 			return raw;
 		}
 		if (FilterCommandRegistry.isRegistered(command)) {
 			return runInternalFilter(repository, raw, command);
 		} else {
-			return runExternalFilter(repository, path, raw, command);
+			return runExternalFilter(repository, path, raw, command,
+					filterType, driver);
+		}
+	}
+
+	/**
+	 * Determines the {@link CheckoutMetadata} of the current entry of a
+	 * {@link TreeWalk}, including the filter driver to pass to
+	 * {@link #filter(Repository, String, InputStream, String, String, String)}.
+	 *
+	 * @param walk
+	 *            positioned on a file
+	 * @return the {@link CheckoutMetadata} of the file
+	 * @throws IOException
+	 *             if the attributes of the file cannot be determined
+	 * @since 7.8
+	 */
+	public static CheckoutMetadata getCheckoutMetadata(TreeWalk walk)
+			throws IOException {
+		return new DriverCheckoutMetadata(
+				walk.getEolStreamType(OperationType.CHECKOUT_OP),
+				walk.getFilterCommand(Constants.ATTR_FILTER_TYPE_SMUDGE),
+				walk.getAttributes().getValue(Constants.ATTR_FILTER));
+	}
+
+	/**
+	 * Determines the filter driver recorded in a {@link CheckoutMetadata}.
+	 *
+	 * @param metadata
+	 *            to get the driver from; may be {@code null}
+	 * @return the name of the filter driver, or {@code null} if none is known
+	 * @since 7.8
+	 */
+	public static String getFilterDriver(CheckoutMetadata metadata) {
+		if (metadata instanceof DriverCheckoutMetadata) {
+			return ((DriverCheckoutMetadata) metadata).filterDriver;
 		}
+		return null;
 	}
 
 	private static InputStream runExternalFilter(Repository repository,
-			String path, InputStream raw, String command) throws IOException {
+			String path, InputStream raw, String command, String filterType,
+			String driver) throws IOException {
+		InputStream filtered = runFilterProcess(repository, path, raw,
+				filterType, driver);
+		if (filtered != null) {
+			return filtered;
+		}
 		FS fs = repository.getFS();
 		ProcessBuilder filterProcessBuilder = fs.runInShell(command,
 				new String[0]);
@@ -86,6 +168,49 @@ private static InputStream runExternalFilter(Repository repository,
 		return result.getStdout().openInputStream();
 	}
 
+	/**
+	 * Filters through the long-running {@code filter.<driver>.process} of the
+	 * given driver.
+	 *
+	 * @return the filtered result, or {@code null} if the driver has no
+	 *         process or it cannot be used; {@code raw} can then still be
+	 *         read from its start
+	 */
+	private static InputStream runFilterProcess(Repository repository,
+			String path, InputStream raw, String filterType, String driver)
+			throws IOException {
+		if (filterType == null || driver == null) {
+			return null;
+		}
+		String process = repository.getConfig().getString(
+				ConfigConstants.CONFIG_FILTER_SECTION, driver,
+				CONFIG_KEY_PROCESS);
+		if (process == null || process.isEmpty()) {
+			return null;
+		}
+		boolean resettable = raw.markSupported();
+		if (resettable) {
+			raw.mark(Integer.MAX_VALUE);
+		}
+		try {
+			TemporaryBuffer result = FilterProcessPool.getInstance().filter(
+					repository, process, filterType, path, raw);
+			return result == null ? null : result.openInputStream();
+		} catch (FilterProcessPool.FilterAbortedException e) {
+			if (resettable) {
+				// Fall back to the command, as for later blobs
+				raw.reset();
+				return null;
+			}
+			throw new IOException(new FilterFailedException(e, process, path));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(new FilterFailedException(e, process, path));
+		} catch (IOException e) {
+			throw new IOException(new FilterFailedException(e, process, path));
+		}
+	}
+
 	private static InputStream runInternalFilter(Repository repository,
 			InputStream raw, String command) throws IOException {
 		LocalFile buffer = new TemporaryBuffer.LocalFile(null);
@@ -423,6 +423,18 @@ public class CoreText extends NLS {
 	/** */
 	public static String IndexDiffCacheEntry_reindexingIncrementally;
 
+	/** */
+	public static String IndexDiffCacheEntry_snapshotReadError;
+
+	/** */
+	public static String IndexDiffCacheEntry_snapshotWriteError;
+
+	/** */
+	public static String IndexDiffCacheEntry_validatingSnapshot;
+
+	/** */
+	public static String IndexDiffCacheEntry_cannotWatchWorkTree;
+
 	/** */
 	public static String IndexFileRevision_errorLookingUpPath;
 
@@ -11,12 +11,18 @@
 package org.eclipse.egit.core.internal;
 
 import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.storage.file.FileBasedConfig;
+import org.eclipse.jgit.util.FS;
 import org.eclipse.jgit.util.SystemReader;
 
 /**
  * A system reader that hides certain global git environment variables from
- * JGit.
+ * JGit, and that may provide EGit-specific defaults for git config settings.
+ * These defaults have the lowest priority; any git config file overrides
+ * them.
  */
 public class EclipseSystemReader extends SystemReader.Delegate {
 
@@ -30,6 +36,8 @@ public class EclipseSystemReader extends SystemReader.Delegate {
 			Constants.GIT_INDEX_FILE_KEY,
 			Constants.GIT_ALTERNATE_OBJECT_DIRECTORIES_KEY };
 
+	private final Config defaults;
+
 	/**
 	 * Creates a new instance based on the delegate.
 	 *
@@ -37,7 +45,36 @@ public class EclipseSystemReader extends SystemReader.Delegate {
 	 *            to use
 	 */
 	public EclipseSystemReader(@NonNull SystemReader delegate) {
+		this(delegate, false);
+	}
+
+	/**
+	 * Creates a new instance based on the delegate.
+	 *
+	 * @param delegate
+	 *            to use
+	 * @param useCommitGraph
+	 *            whether to read commit-graph files and to write them on
+	 *            garbage collection unless configured otherwise
+	 */
+	public EclipseSystemReader(@NonNull SystemReader delegate,
+			boolean useCommitGraph) {
 		super(delegate);
+		defaults = new Config();
+		if (useCommitGraph) {
+			// Lets RevWalks get parents, commit times, and generation numbers
+			// from the commit-graph without inflating commit objects
+			defaults.setBoolean(ConfigConstants.CONFIG_CORE_SECTION, null,
+					ConfigConstants.CONFIG_COMMIT_GRAPH, true);
+			defaults.setBoolean(ConfigConstants.CONFIG_GC_SECTION, null,
+					ConfigConstants.CONFIG_KEY_WRITE_COMMIT_GRAPH, true);
+		}
+	}
+
+	@Override
+	public FileBasedConfig openJGitConfig(Config parent, FS fs) {
+		// The JGit config is the root of the config hierarchy
+		return super.openJGitConfig(parent != null ? parent : defaults, fs);
 	}
 
 	@Override
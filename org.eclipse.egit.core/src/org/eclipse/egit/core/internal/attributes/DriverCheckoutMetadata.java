@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.attributes;
+
+import org.eclipse.jgit.dircache.DirCacheCheckout.CheckoutMetadata;
+import org.eclipse.jgit.lib.CoreConfig.EolStreamType;
+
+/**
+ * {@link CheckoutMetadata} that also records the name of the filter driver
+ * the smudge command was taken from, so that its
+ * {@code filter.<driver>.process} can be used instead of the command.
+ */
+public class DriverCheckoutMetadata extends CheckoutMetadata {
+
+	/** Name of the filter driver; may be {@code null}. */
+	public final String filterDriver;
+
+	/**
+	 * @param eolStreamType
+	 *            to use for the checkout
+	 * @param smudgeFilterCommand
+	 *            the smudge command of the driver; may be {@code null}
+	 * @param filterDriver
+	 *            name of the filter driver; may be {@code null}
+	 */
+	public DriverCheckoutMetadata(EolStreamType eolStreamType,
+			String smudgeFilterCommand, String filterDriver) {
+		super(eolStreamType, smudgeFilterCommand);
+		this.filterDriver = filterDriver;
+	}
+}
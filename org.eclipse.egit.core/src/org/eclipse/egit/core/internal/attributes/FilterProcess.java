@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.attributes;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.transport.PacketLineOut;
+import org.eclipse.jgit.util.FS;
+import org.eclipse.jgit.util.IO;
+import org.eclipse.jgit.util.RawParseUtils;
+import org.eclipse.jgit.util.TemporaryBuffer;
+
+/**
+ * A running {@code filter.<driver>.process} command speaking git's
+ * long-running filter protocol, version 2: pkt-lines over the process' stdin
+ * and stdout, a handshake announcing {@code git-filter-client} and
+ * {@code git-filter-server}, capability negotiation, and then one request per
+ * blob.
+ * <p>
+ * A process handles one request at a time; callers must not use it from
+ * several threads concurrently.
+ * </p>
+ */
+class FilterProcess implements Closeable {
+
+	/** Maximum number of data bytes in a pkt-line. */
+	static final int MAX_PACKET_DATA = 65516;
+
+	private static final String CAPABILITY = "capability="; //$NON-NLS-1$
+
+	private static final String STATUS = "status="; //$NON-NLS-1$
+
+	private static final String STATUS_SUCCESS = "success"; //$NON-NLS-1$
+
+	private static final String STATUS_ERROR = "error"; //$NON-NLS-1$
+
+	private static final String STATUS_ABORT = "abort"; //$NON-NLS-1$
+
+	private final String command;
+
+	private final Process process;
+
+	private final InputStream in;
+
+	private final OutputStream out;
+
+	private final PacketLineOut pckOut;
+
+	private final Set<String> capabilities = new HashSet<>();
+
+	private final byte[] lengthBuffer = new byte[4];
+
+	private boolean broken;
+
+	private long lastUsed;
+
+	/**
+	 * Thrown when the filter reported {@code status=error} for a single blob.
+	 * The process remains usable.
+	 */
+	static class FilterErrorException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		FilterErrorException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * Starts the process and performs the handshake.
+	 *
+	 * @param fs
+	 *            to start the process with
+	 * @param command
+	 *            the {@code filter.<driver>.process} command line
+	 * @param directory
+	 *            to run the process in
+	 * @param gitDir
+	 *            the repository's git directory
+	 * @throws IOException
+	 *             if the process cannot be started or the handshake fails
+	 */
+	FilterProcess(FS fs, String command, File directory, File gitDir)
+			throws IOException {
+		this.command = command;
+		ProcessBuilder builder = fs.runInShell(command, new String[0]);
+		builder.directory(directory);
+		builder.environment().put(Constants.GIT_DIR_KEY,
+				gitDir.getAbsolutePath());
+		builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+		process = builder.start();
+		in = new BufferedInputStream(process.getInputStream());
+		out = new BufferedOutputStream(process.getOutputStream(),
+				MAX_PACKET_DATA + 4);
+		pckOut = new PacketLineOut(out);
+		try {
+			handshake();
+		} catch (IOException | RuntimeException e) {
+			close();
+			throw e;
+		}
+		lastUsed = System.currentTimeMillis();
+	}
+
+	private void handshake() throws IOException {
+		pckOut.writeString("git-filter-client\n"); //$NON-NLS-1$
+		pckOut.writeString("version=2\n"); //$NON-NLS-1$
+		pckOut.end();
+		expect("git-filter-server"); //$NON-NLS-1$
+		expect("version=2"); //$NON-NLS-1$
+		String line;
+		while ((line = readString()) != null) {
+			// Skip other versions the server might announce
+		}
+		pckOut.writeString(CAPABILITY + "clean\n"); //$NON-NLS-1$
+		pckOut.writeString(CAPABILITY + "smudge\n"); //$NON-NLS-1$
+		pckOut.end();
+		while ((line = readString()) != null) {
+			if (line.startsWith(CAPABILITY)) {
+				capabilities.add(line.substring(CAPABILITY.length()));
+			}
+		}
+	}
+
+	private void expect(String expected) throws IOException {
+		String line = readString();
+		if (!expected.equals(line)) {
+			throw protocolError("expected '" + expected + "', got '" + line //$NON-NLS-1$ //$NON-NLS-2$
+					+ '\'');
+		}
+	}
+
+	/**
+	 * @param capability
+	 *            such as "smudge" or "clean"
+	 * @return whether the process supports the capability
+	 */
+	boolean hasCapability(String capability) {
+		return capabilities.contains(capability);
+	}
+
+	/**
+	 * @return whether the process can no longer be used
+	 */
+	boolean isBroken() {
+		return broken || !process.isAlive();
+	}
+
+	/**
+	 * @return the time the process was last used, in milliseconds
+	 */
+	long getLastUsed() {
+		return lastUsed;
+	}
+
+	/**
+	 * Filters one blob.
+	 *
+	 * @param capability
+	 *            the command to run, "smudge" or "clean"
+	 * @param path
+	 *            of the file being filtered
+	 * @param raw
+	 *            content to filter
+	 * @return the filtered content
+	 * @throws FilterErrorException
+	 *             if the filter reported an error for this blob
+	 * @throws FilterProcessPool.FilterAbortedException
+	 *             if the filter doesn't want to handle any further blobs;
+	 *             the process is then broken
+	 * @throws IOException
+	 *             if the process failed; it is then broken
+	 */
+	TemporaryBuffer filter(String capability, String path, InputStream raw)
+			throws IOException {
+		if (isBroken()) {
+			throw protocolError("process is not running"); //$NON-NLS-1$
+		}
+		TemporaryBuffer result = new TemporaryBuffer.LocalFile(null);
+		boolean ok = false;
+		try {
+			pckOut.writeString("command=" + capability + '\n'); //$NON-NLS-1$
+			pckOut.writeString("pathname=" + path + '\n'); //$NON-NLS-1$
+			pckOut.end();
+			byte[] buffer = new byte[MAX_PACKET_DATA];
+			int n;
+			while ((n = IO.readFully(raw, buffer, 0)) > 0) {
+				pckOut.writePacket(buffer, 0, n);
+			}
+			pckOut.end();
+			String status = readStatus(STATUS_SUCCESS);
+			if (STATUS_SUCCESS.equals(status)) {
+				while ((n = readPacket(buffer)) >= 0) {
+					result.write(buffer, 0, n);
+				}
+				// The status may be updated after the content
+				status = readStatus(status);
+			}
+			result.close();
+			lastUsed = System.currentTimeMillis();
+			if (STATUS_ERROR.equals(status)) {
+				throw new FilterErrorException(
+						"filter reported an error for " + path); //$NON-NLS-1$
+			}
+			if (STATUS_ABORT.equals(status)) {
+				throw new FilterProcessPool.FilterAbortedException(
+						command + ": aborted at " + path); //$NON-NLS-1$
+			}
+			if (!STATUS_SUCCESS.equals(status)) {
+				throw protocolError("status " + status + " for " + path); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			ok = true;
+			return result;
+		} catch (FilterErrorException e) {
+			throw e;
+		} catch (IOException | RuntimeException e) {
+			broken = true;
+			close();
+			throw e;
+		} finally {
+			if (!ok) {
+				result.destroy();
+			}
+		}
+	}
+
+	private String readStatus(String current) throws IOException {
+		String status = current;
+		String line;
+		while ((line = readString()) != null) {
+			if (line.startsWith(STATUS)) {
+				status = line.substring(STATUS.length());
+			}
+		}
+		if (STATUS_ABORT.equals(status)) {
+			// The filter doesn't want to handle any further blobs
+			broken = true;
+		}
+		return status;
+	}
+
+	private String readString() throws IOException {
+		byte[] buffer = new byte[MAX_PACKET_DATA];
+		int n = readPacket(buffer);
+		if (n < 0) {
+			return null;
+		}
+		if (n > 0 && buffer[n - 1] == '\n') {
+			n--;
+		}
+		return RawParseUtils.decode(StandardCharsets.UTF_8, buffer, 0, n);
+	}
+
+	/**
+	 * Reads one pkt-line.
+	 *
+	 * @param buffer
+	 *            to read the data into, at least {@link #MAX_PACKET_DATA}
+	 *            bytes long
+	 * @return the number of data bytes, or -1 for a flush packet
+	 * @throws IOException
+	 *             on read errors or malformed packets
+	 */
+	private int readPacket(byte[] buffer) throws IOException {
+		IO.readFully(in, lengthBuffer, 0, 4);
+		int length = 0;
+		for (byte b : lengthBuffer) {
+			int digit = Character.digit(b, 16);
+			if (digit < 0) {
+				throw protocolError("invalid packet length"); //$NON-NLS-1$
+			}
+			length = (length << 4) | digit;
+		}
+		if (length == 0) {
+			return -1;
+		}
+		length -= 4;
+		if (length < 0 || length > MAX_PACKET_DATA) {
+			throw protocolError("invalid packet length " + length); //$NON-NLS-1$
+		}
+		IO.readFully(in, buffer, 0, length);
+		return length;
+	}
+
+	private IOException protocolError(String message) {
+		broken = true;
+		return new IOException(command + ": " + message); //$NON-NLS-1$
+	}
+
+	@Override
+	public void close() {
+		broken = true;
+		try {
+			out.close();
+		} catch (IOException e) {
+			// Ignore; the process may already have terminated
+		}
+		try {
+			in.close();
+		} catch (IOException e) {
+			// Ignore
+		}
+		process.destroy();
+	}
+}
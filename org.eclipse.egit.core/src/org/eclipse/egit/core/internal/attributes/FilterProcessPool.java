@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.attributes;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.egit.core.internal.trace.GitTraceLocation;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.util.TemporaryBuffer;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Keeps {@code filter.<driver>.process} commands running between requests, so
+ * that filtering many blobs doesn't start a new process for each of them.
+ * <p>
+ * Processes are pooled per git directory and process command. At most
+ * {@link #MAX_PROCESSES_PER_KEY} processes run per key; further requests
+ * wait until one is free. At most {@link #MAX_IDLE} processes are kept idle
+ * overall, and idle processes are terminated after
+ * {@link #IDLE_TIMEOUT_MILLIS}.
+ * </p>
+ * <p>
+ * Like git, once a process answered a request with {@code status=abort}, its
+ * command is not used anymore for the repository until the pool is shut
+ * down.
+ * </p>
+ */
+public final class FilterProcessPool {
+
+	/** Maximum number of processes per repository and command. */
+	static final int MAX_PROCESSES_PER_KEY = 2;
+
+	/** Maximum number of idle processes over all repositories. */
+	static final int MAX_IDLE = 8;
+
+	/** Time after which an idle process is terminated. */
+	static final long IDLE_TIMEOUT_MILLIS = 60_000;
+
+	private static final FilterProcessPool INSTANCE = new FilterProcessPool();
+
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	private final Set<String> aborted = new HashSet<>();
+
+	private final Job reaper = new Job("Terminate idle filter processes") { //$NON-NLS-1$
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			long next = reapIdle(System.currentTimeMillis());
+			if (next > 0 && !monitor.isCanceled()) {
+				schedule(next);
+			}
+			return Status.OK_STATUS;
+		}
+	};
+
+	private boolean shutDown;
+
+	/**
+	 * Thrown when a filter process answered a request with
+	 * {@code status=abort}. The blob has not been filtered, and further
+	 * requests for the same repository and command return {@code null}.
+	 */
+	public static class FilterAbortedException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		FilterAbortedException(String message) {
+			super(message);
+		}
+	}
+
+	private static class Entry {
+
+		final Deque<FilterProcess> idle = new ArrayDeque<>();
+
+		int running;
+	}
+
+	FilterProcessPool() {
+		reaper.setSystem(true);
+	}
+
+	/**
+	 * @return the pool
+	 */
+	public static FilterProcessPool getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Filters a blob through a long-running filter process.
+	 *
+	 * @param repository
+	 *            the blob is in
+	 * @param processCommand
+	 *            the {@code filter.<driver>.process} command line
+	 * @param capability
+	 *            "smudge" or "clean"
+	 * @param path
+	 *            of the file being filtered
+	 * @param raw
+	 *            content to filter
+	 * @return the filtered content, or {@code null} if the process cannot be
+	 *         started, doesn't support the capability, or aborted earlier;
+	 *         {@code raw} has then not been read
+	 * @throws FilterAbortedException
+	 *             if the process aborted while filtering this blob
+	 * @throws IOException
+	 *             if filtering failed
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for a free process
+	 */
+	public TemporaryBuffer filter(Repository repository,
+			String processCommand, String capability, String path,
+			InputStream raw) throws IOException, InterruptedException {
+		String key = repository.getDirectory().getAbsolutePath() + '\n'
+				+ processCommand;
+		synchronized (this) {
+			if (aborted.contains(key)) {
+				return null;
+			}
+		}
+		FilterProcess process = acquire(repository, key, processCommand);
+		if (process == null) {
+			return null;
+		}
+		try {
+			if (!process.hasCapability(capability)) {
+				return null;
+			}
+			return process.filter(capability, path, raw);
+		} catch (FilterAbortedException e) {
+			trace("Filter process {0} aborted", processCommand); //$NON-NLS-1$
+			synchronized (this) {
+				aborted.add(key);
+			}
+			throw e;
+		} finally {
+			release(key, process);
+		}
+	}
+
+	private FilterProcess acquire(Repository repository, String key,
+			String processCommand) throws InterruptedException {
+		synchronized (this) {
+			Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+			while (true) {
+				if (shutDown) {
+					return null;
+				}
+				FilterProcess process = entry.idle.pollLast();
+				if (process == null) {
+					if (entry.running < MAX_PROCESSES_PER_KEY) {
+						break;
+					}
+					wait();
+				} else if (process.isBroken()) {
+					entry.running--;
+				} else {
+					return process;
+				}
+			}
+			entry.running++;
+		}
+		try {
+			File directory = repository.isBare() ? repository.getDirectory()
+					: repository.getWorkTree();
+			FilterProcess process = new FilterProcess(repository.getFS(),
+					processCommand, directory, repository.getDirectory());
+			trace("Started filter process {0}", processCommand); //$NON-NLS-1$
+			return process;
+		} catch (IOException | RuntimeException e) {
+			trace("Cannot start filter process {0}: {1}", processCommand, //$NON-NLS-1$
+					e);
+			synchronized (this) {
+				entries.get(key).running--;
+				notifyAll();
+			}
+			return null;
+		}
+	}
+
+	private void release(String key, FilterProcess process) {
+		List<FilterProcess> toClose = new ArrayList<>();
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if (shutDown || process.isBroken()) {
+				entry.running--;
+				toClose.add(process);
+			} else {
+				entry.idle.addLast(process);
+				evictOldest(MAX_IDLE, toClose);
+				reaper.schedule(IDLE_TIMEOUT_MILLIS);
+			}
+			notifyAll();
+		}
+		toClose.forEach(FilterProcess::close);
+	}
+
+	private void evictOldest(int maxIdle, List<FilterProcess> toClose) {
+		int idle = 0;
+		for (Entry entry : entries.values()) {
+			idle += entry.idle.size();
+		}
+		while (idle > maxIdle) {
+			Entry oldest = null;
+			for (Entry entry : entries.values()) {
+				if (!entry.idle.isEmpty() && (oldest == null
+						|| entry.idle.peekFirst().getLastUsed() < oldest.idle
+								.peekFirst().getLastUsed())) {
+					oldest = entry;
+				}
+			}
+			toClose.add(oldest.idle.pollFirst());
+			oldest.running--;
+			idle--;
+		}
+	}
+
+	/**
+	 * Terminates processes that have been idle for too long.
+	 *
+	 * @param now
+	 *            current time in milliseconds
+	 * @return the delay after which the next process becomes idle for too
+	 *         long, or 0 if no processes are idle
+	 */
+	long reapIdle(long now) {
+		List<FilterProcess> toClose = new ArrayList<>();
+		long next = 0;
+		synchronized (this) {
+			Iterator<Entry> entryIterator = entries.values().iterator();
+			while (entryIterator.hasNext()) {
+				Entry entry = entryIterator.next();
+				Iterator<FilterProcess> processes = entry.idle.iterator();
+				while (processes.hasNext()) {
+					FilterProcess process = processes.next();
+					long remaining = process.getLastUsed()
+							+ IDLE_TIMEOUT_MILLIS - now;
+					if (remaining <= 0 || process.isBroken()) {
+						processes.remove();
+						entry.running--;
+						toClose.add(process);
+					} else if (next == 0 || remaining < next) {
+						next = remaining;
+					}
+				}
+				if (entry.running == 0) {
+					entryIterator.remove();
+				}
+			}
+			notifyAll();
+		}
+		toClose.forEach(FilterProcess::close);
+		return next;
+	}
+
+	/**
+	 * @return the number of idle processes
+	 */
+	synchronized int getIdleCount() {
+		int idle = 0;
+		for (Entry entry : entries.values()) {
+			idle += entry.idle.size();
+		}
+		return idle;
+	}
+
+	/**
+	 * Terminates all idle processes; processes in use are terminated when
+	 * they are released. No new processes are started afterwards.
+	 */
+	public void shutDown() {
+		List<FilterProcess> toClose = new ArrayList<>();
+		synchronized (this) {
+			shutDown = true;
+			evictOldest(0, toClose);
+			notifyAll();
+		}
+		reaper.cancel();
+		toClose.forEach(FilterProcess::close);
+	}
+
+	private static void trace(String message, Object... arguments) {
+		if (GitTraceLocation.CORE.isActive()) {
+			GitTraceLocation.getTrace().trace(
+					GitTraceLocation.CORE.getLocation(),
+					NLS.bind(message, arguments));
+		}
+	}
+}
@@ -0,0 +1,415 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.jgit.annotations.NonNull;
+
+/**
+ * An immutable path trie over the directories of an {@link IndexDiffData},
+ * storing per-directory aggregated status flags. Determining the state of a
+ * folder costs one lookup per path segment instead of a scan over all the
+ * status sets of the {@link IndexDiffData}.
+ * <p>
+ * Each folder counts the files below it per aggregated flag, so that the index
+ * of incrementally derived data can be derived from the previous index by
+ * applying only the paths whose status changed. Unchanged subtrees are shared
+ * between both indices.
+ * </p>
+ */
+public final class FolderStateIndex {
+
+	/**
+	 * The folder itself or one of its parent folders is ignored.
+	 */
+	public static final int IGNORED = 1;
+
+	/**
+	 * The folder itself or one of its parent folders contains only untracked
+	 * files.
+	 */
+	public static final int UNTRACKED_FOLDER = 1 << 1;
+
+	/**
+	 * The folder contains files that were added, removed or changed in the
+	 * index.
+	 */
+	public static final int STAGED = 1 << 2;
+
+	/**
+	 * The folder contains conflicting files.
+	 */
+	public static final int CONFLICTING = 1 << 3;
+
+	/**
+	 * The folder contains modified, untracked or missing files.
+	 */
+	public static final int DIRTY = 1 << 4;
+
+	/** Flags that apply to a node and all its descendants. */
+	private static final int INHERITED = IGNORED | UNTRACKED_FOLDER;
+
+	private final Node root;
+
+	/**
+	 * While deriving from another index, the nodes created or copied by this
+	 * index, which may be modified; {@code null} if all nodes may be.
+	 */
+	private Set<Node> owned;
+
+	/**
+	 * Builds the index for the given {@link IndexDiffData}.
+	 *
+	 * @param data
+	 *            to index
+	 */
+	FolderStateIndex(@NonNull IndexDiffData data) {
+		root = new Node();
+		// Sorted, so that an ignored folder comes before the ignored paths
+		// below it, which then need no nodes
+		for (String path : new TreeSet<>(data.getIgnoredNotInIndex())) {
+			setSelf(path, IGNORED, true);
+		}
+		for (String path : data.getUntrackedFolders()) {
+			setSelf(path, UNTRACKED_FOLDER, true);
+		}
+		count(data.getAdded(), STAGED);
+		count(data.getChanged(), STAGED);
+		count(data.getRemoved(), STAGED);
+		count(data.getConflicting(), CONFLICTING);
+		count(data.getModified(), DIRTY);
+		count(data.getUntracked(), DIRTY);
+		count(data.getMissing(), DIRTY);
+	}
+
+	/**
+	 * Derives the index of incrementally derived data from the index of the
+	 * data it was derived from.
+	 *
+	 * @param base
+	 *            index of {@code baseData}
+	 * @param baseData
+	 *            the data {@code data} was derived from
+	 * @param data
+	 *            to index
+	 * @param changedPaths
+	 *            the paths whose membership in any status set of
+	 *            {@code data} differs from {@code baseData}
+	 */
+	FolderStateIndex(@NonNull FolderStateIndex base,
+			@NonNull IndexDiffData baseData, @NonNull IndexDiffData data,
+			@NonNull Collection<String> changedPaths) {
+		owned = Collections.newSetFromMap(new IdentityHashMap<>());
+		root = own(base.root.copy());
+		List<String> unignored = new ArrayList<>();
+		for (String path : new TreeSet<>(changedPaths)) {
+			int oldSelf = getSelf(baseData, path);
+			int newSelf = getSelf(data, path);
+			int changedSelf = oldSelf ^ newSelf;
+			if ((changedSelf & IGNORED) != 0) {
+				boolean ignored = (newSelf & IGNORED) != 0;
+				setSelf(path, IGNORED, ignored);
+				if (!ignored) {
+					unignored.add(stripSlash(path) + '/');
+				}
+			}
+			if ((changedSelf & UNTRACKED_FOLDER) != 0) {
+				setSelf(path, UNTRACKED_FOLDER,
+						(newSelf & UNTRACKED_FOLDER) != 0);
+			}
+			int[] oldCounts = getCounts(baseData, path);
+			int[] newCounts = getCounts(data, path);
+			if (!Arrays.equals(oldCounts, newCounts)) {
+				addCounts(path, newCounts[0] - oldCounts[0],
+						newCounts[1] - oldCounts[1],
+						newCounts[2] - oldCounts[2]);
+			}
+		}
+		if (!unignored.isEmpty()) {
+			// Ignored paths below a folder that is no longer ignored had no
+			// nodes so far
+			for (String path : new TreeSet<>(data.getIgnoredNotInIndex())) {
+				for (String folder : unignored) {
+					if (path.startsWith(folder)) {
+						setSelf(path, IGNORED, true);
+						break;
+					}
+				}
+			}
+		}
+		owned = null;
+	}
+
+	/**
+	 * Determines the status flags of a folder.
+	 *
+	 * @param folderPath
+	 *            repository-relative path of the folder, with or without
+	 *            trailing slash; the empty string or "/" denote the root of
+	 *            the working tree
+	 * @return a combination of {@link #IGNORED}, {@link #UNTRACKED_FOLDER},
+	 *         {@link #STAGED}, {@link #CONFLICTING} and {@link #DIRTY}
+	 */
+	public int getFlags(@NonNull String folderPath) {
+		Node node = root;
+		int inherited = 0;
+		int length = folderPath.length();
+		int start = 0;
+		while (start < length) {
+			int end = folderPath.indexOf('/', start);
+			if (end < 0) {
+				end = length;
+			}
+			if (end > start) {
+				node = node.get(folderPath.substring(start, end));
+				if (node == null) {
+					return inherited;
+				}
+				inherited |= node.self;
+			}
+			start = end + 1;
+		}
+		return inherited | node.getFlags();
+	}
+
+	private static int getSelf(IndexDiffData data, String path) {
+		int self = 0;
+		if (data.getIgnoredNotInIndex().contains(path)) {
+			self |= IGNORED;
+		}
+		if (data.getUntrackedFolders().contains(path)) {
+			self |= UNTRACKED_FOLDER;
+		}
+		return self;
+	}
+
+	private static int[] getCounts(IndexDiffData data, String path) {
+		return new int[] {
+				count(data.getAdded(), path) + count(data.getChanged(), path)
+						+ count(data.getRemoved(), path),
+				count(data.getConflicting(), path),
+				count(data.getModified(), path)
+						+ count(data.getUntracked(), path)
+						+ count(data.getMissing(), path) };
+	}
+
+	private static int count(Set<String> set, String path) {
+		return set.contains(path) ? 1 : 0;
+	}
+
+	private static String stripSlash(String path) {
+		return path.endsWith("/") ? path.substring(0, path.length() - 1) //$NON-NLS-1$
+				: path;
+	}
+
+	/**
+	 * Sets or clears a flag of the node of a path. An ignored path below an
+	 * ignored folder gets no node.
+	 */
+	private void setSelf(String path, int flag, boolean set) {
+		if (set && flag == IGNORED
+				&& (getFlags(parentOf(path)) & IGNORED) != 0) {
+			return;
+		}
+		List<Node> nodes = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		Node node = root;
+		int length = path.length();
+		int start = 0;
+		while (start < length) {
+			int end = path.indexOf('/', start);
+			if (end < 0) {
+				end = length;
+			}
+			if (end > start) {
+				String name = path.substring(start, end);
+				nodes.add(node);
+				names.add(name);
+				node = set ? getOrCreate(node, name) : getOwned(node, name);
+				if (node == null) {
+					return;
+				}
+			}
+			start = end + 1;
+		}
+		if (node == root) {
+			return;
+		}
+		if (set) {
+			node.self |= flag;
+		} else {
+			node.self &= ~flag;
+			prune(nodes, names, node);
+		}
+	}
+
+	/**
+	 * Adds to the counts of the folders containing a file.
+	 */
+	private void addCounts(String path, int staged, int conflicting,
+			int dirty) {
+		// Folders can only become empty if a count decreases
+		boolean shrinking = staged < 0 || conflicting < 0 || dirty < 0;
+		List<Node> nodes = shrinking ? new ArrayList<>() : null;
+		List<String> names = shrinking ? new ArrayList<>() : null;
+		Node node = root;
+		node.add(staged, conflicting, dirty);
+		int start = 0;
+		int end;
+		// The last segment is the file itself and gets no node
+		while ((end = path.indexOf('/', start)) >= 0) {
+			if (end > start) {
+				String name = path.substring(start, end);
+				if (shrinking) {
+					nodes.add(node);
+					names.add(name);
+				}
+				node = getOrCreate(node, name);
+				node.add(staged, conflicting, dirty);
+			}
+			start = end + 1;
+		}
+		if (shrinking) {
+			prune(nodes, names, node);
+		}
+	}
+
+	private void count(Collection<String> paths, int flag) {
+		for (String path : paths) {
+			addCounts(path, flag == STAGED ? 1 : 0, flag == CONFLICTING ? 1 : 0,
+					flag == DIRTY ? 1 : 0);
+		}
+	}
+
+	/**
+	 * Removes the given node and its ancestors, given from the root down, as
+	 * long as they carry no information.
+	 */
+	private static void prune(List<Node> parents, List<String> names,
+			Node node) {
+		Node current = node;
+		for (int i = parents.size() - 1; i >= 0 && current.isEmpty(); i--) {
+			Node parent = parents.get(i);
+			parent.children.remove(names.get(i));
+			current = parent;
+		}
+	}
+
+	private static String parentOf(String path) {
+		String stripped = stripSlash(path);
+		int slash = stripped.lastIndexOf('/');
+		return slash < 0 ? "" : stripped.substring(0, slash); //$NON-NLS-1$
+	}
+
+	private Node own(Node node) {
+		if (owned != null) {
+			owned.add(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Gets the child of an owned node, copying or creating it if needed.
+	 */
+	private Node getOrCreate(Node parent, String name) {
+		Node child = getOwned(parent, name);
+		if (child == null) {
+			child = own(new Node());
+			parent.put(name, child);
+		}
+		return child;
+	}
+
+	/**
+	 * Gets the child of an owned node, copying it if it is shared with
+	 * another index.
+	 */
+	private Node getOwned(Node parent, String name) {
+		Node child = parent.get(name);
+		if (child != null && owned != null && !owned.contains(child)) {
+			child = own(child.copy());
+			parent.put(name, child);
+		}
+		return child;
+	}
+
+	private static final class Node {
+
+		/** Flags of the node itself, see {@link #INHERITED}. */
+		int self;
+
+		int staged;
+
+		int conflicting;
+
+		int dirty;
+
+		private Map<String, Node> children;
+
+		Node get(String name) {
+			return children == null ? null : children.get(name);
+		}
+
+		void put(String name, Node child) {
+			if (children == null) {
+				children = new HashMap<>(4);
+			}
+			children.put(name, child);
+		}
+
+		void add(int stagedDelta, int conflictingDelta, int dirtyDelta) {
+			staged += stagedDelta;
+			conflicting += conflictingDelta;
+			dirty += dirtyDelta;
+		}
+
+		int getFlags() {
+			int flags = self;
+			if (staged > 0) {
+				flags |= STAGED;
+			}
+			if (conflicting > 0) {
+				flags |= CONFLICTING;
+			}
+			if (dirty > 0) {
+				flags |= DIRTY;
+			}
+			return flags;
+		}
+
+		boolean isEmpty() {
+			return self == 0 && staged == 0 && conflicting == 0 && dirty == 0
+					&& (children == null || children.isEmpty());
+		}
+
+		Node copy() {
+			Node result = new Node();
+			result.self = self;
+			result.staged = staged;
+			result.conflicting = conflicting;
+			result.dirty = dirty;
+			if (children != null) {
+				result.children = new HashMap<>(children);
+			}
+			return result;
+		}
+	}
+}
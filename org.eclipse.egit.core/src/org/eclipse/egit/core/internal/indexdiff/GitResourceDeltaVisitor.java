@@ -20,7 +20,6 @@
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -62,6 +61,14 @@ public class GitResourceDeltaVisitor implements IResourceDeltaVisitor {
 
 	private boolean projectDeleted = false;
 
+	private boolean ignoredPathsLoaded;
+
+	private IgnoredPathMatcher ignoredPaths;
+
+	private int visited;
+
+	private int pruned;
+
 	/**
 	 * Constructs {@link GitResourceDeltaVisitor}
 	 *
@@ -94,6 +101,7 @@ public GitResourceDeltaVisitor(Repository repository,
 
 	@Override
 	public boolean visit(IResourceDelta delta) throws CoreException {
+		visited++;
 		final IResource resource = delta.getResource();
 		if (resource.getType() == IResource.ROOT) {
 			return true;
@@ -151,6 +159,14 @@ public boolean visit(IResourceDelta delta) throws CoreException {
 					&& repositoryOfResource != repository) {
 				return false;
 			}
+			if (isIgnoredInOldIndex(resource.getLocation())) {
+				// Nothing below an ignored folder is relevant, not even a
+				// .gitignore file: git does not look into ignored folders.
+				// This holds for re-created folders, too, as long as the
+				// ignore rules didn't change.
+				pruned++;
+				return false;
+			}
 			if (delta.getKind() == IResourceDelta.ADDED) {
 				IPath repoRelativePath = ResourceUtil.getRepositoryRelativePath(
 						resource.getLocation(), repository);
@@ -159,9 +175,6 @@ public boolean visit(IResourceDelta delta) throws CoreException {
 				}
 				if (!repoRelativePath.isEmpty()) {
 					String path = repoRelativePath.toPortableString() + "/"; //$NON-NLS-1$
-					if (isIgnoredInOldIndex(path)) {
-						return true; // keep going to catch .gitignore files.
-					}
 					filesToUpdate.add(path);
 					resourcesToUpdate.add(resource);
 				}
@@ -225,37 +238,30 @@ static boolean isInteresting(IResourceDelta delta) {
 	 *         {@link IndexDiffCacheEntry}
 	 */
 	private boolean isIgnoredInOldIndex(String path) {
-		if (gitIgnoreChanged) {
-			return false;
-		}
-		IndexDiffCacheEntry entry = IndexDiffCache.INSTANCE
-				.getIndexDiffCacheEntry(repository);
-		// fall back to processing all changes as long as there is no old index.
-		if (entry == null) {
-			return false;
-		}
+		IgnoredPathMatcher matcher = getIgnoredPaths();
+		return matcher != null && matcher.isIgnored(path);
+	}
 
-		IndexDiffData indexDiff = entry.getIndexDiff();
-		if (indexDiff == null) {
-			return false;
-		}
+	private boolean isIgnoredInOldIndex(IPath location) {
+		IgnoredPathMatcher matcher = getIgnoredPaths();
+		return matcher != null && matcher.isIgnored(location);
+	}
 
-		String p = path;
-		Set<String> ignored = indexDiff.getIgnoredNotInIndex();
-		while (p != null) {
-			if (ignored.contains(p)) {
-				return true;
+	private IgnoredPathMatcher getIgnoredPaths() {
+		if (gitIgnoreChanged) {
+			return null;
+		}
+		if (!ignoredPathsLoaded) {
+			ignoredPathsLoaded = true;
+			IndexDiffCacheEntry entry = IndexDiffCache.INSTANCE
+					.getIndexDiffCacheEntry(repository);
+			// fall back to processing all changes as long as there is no old
+			// index.
+			if (entry != null) {
+				ignoredPaths = entry.getIgnoredPathMatcher();
 			}
-
-			p = skipLastSegment(p);
 		}
-
-		return false;
-	}
-
-	private String skipLastSegment(String path) {
-		int slashPos = path.lastIndexOf('/');
-		return slashPos == -1 ? null : path.substring(0, slashPos);
+		return ignoredPaths;
 	}
 
 	/**
@@ -300,4 +306,18 @@ public boolean getGitIgnoreChanged() {
 	public boolean isProjectDeleted() {
 		return projectDeleted;
 	}
+
+	/**
+	 * @return the number of deltas visited
+	 */
+	public int getVisitedCount() {
+		return visited;
+	}
+
+	/**
+	 * @return the number of ignored folders whose children were skipped
+	 */
+	public int getPrunedCount() {
+		return pruned;
+	}
 }
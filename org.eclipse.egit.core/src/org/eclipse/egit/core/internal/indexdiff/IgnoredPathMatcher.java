@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Decides whether locations in the working tree of a repository are ignored,
+ * based on the ignored paths of an {@link IndexDiffData}. These reflect all
+ * ignore rules of the repository (.gitignore files, info/exclude, and
+ * core.excludesFile) as evaluated by the last index diff. Resource delta
+ * visitors use it to prune whole ignored subtrees.
+ * <p>
+ * An instance is bound to one {@link IndexDiffData} and is shared by all
+ * visitors until that data is replaced; a change of the ignore rules always
+ * causes a full reload and thus new data.
+ * </p>
+ */
+final class IgnoredPathMatcher {
+
+	private final IndexDiffData data;
+
+	private final String workTreePrefix;
+
+	/**
+	 * @param repository
+	 *            the data belongs to; must not be bare
+	 * @param data
+	 *            to take the ignored paths from
+	 */
+	IgnoredPathMatcher(@NonNull Repository repository,
+			@NonNull IndexDiffData data) {
+		this.data = data;
+		this.workTreePrefix = new Path(
+				repository.getWorkTree().getAbsolutePath()).toString() + '/';
+	}
+
+	/**
+	 * @return the {@link IndexDiffData} this matcher is based on
+	 */
+	IndexDiffData getData() {
+		return data;
+	}
+
+	/**
+	 * Determines whether a location is ignored, either itself or because one
+	 * of its parent folders is ignored.
+	 *
+	 * @param location
+	 *            absolute file system location of a file or folder
+	 * @return {@code true} if the location is in the working tree and
+	 *         ignored, {@code false} otherwise
+	 */
+	boolean isIgnored(@Nullable IPath location) {
+		if (location == null) {
+			return false;
+		}
+		String path = location.toString();
+		if (path.length() <= workTreePrefix.length()
+				|| !path.startsWith(workTreePrefix)) {
+			return false;
+		}
+		return isIgnored(path.substring(workTreePrefix.length()));
+	}
+
+	/**
+	 * Determines whether a repository-relative path is ignored, either itself
+	 * or because one of its parent folders is ignored.
+	 *
+	 * @param path
+	 *            repository-relative path
+	 * @return {@code true} if the path is ignored, {@code false} otherwise
+	 */
+	boolean isIgnored(@NonNull String path) {
+		return (data.getFolderStates().getFlags(path)
+				& FolderStateIndex.IGNORED) != 0;
+	}
+}
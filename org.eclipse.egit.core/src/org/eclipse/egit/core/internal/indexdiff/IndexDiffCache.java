@@ -14,6 +14,7 @@
 package org.eclipse.egit.core.internal.indexdiff;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.util.Collections;
 import java.util.HashMap;
@@ -289,8 +290,14 @@ public void dispose() {
 				bufferListener = null;
 			}
 		}
-		for (IndexDiffCacheEntry entry : entries.values()) {
-			entry.dispose();
+		synchronized (entries) {
+			for (IndexDiffCacheEntry entry : entries.values()) {
+				entry.persist();
+				entry.dispose();
+			}
+			// Keep the persisted snapshots when repositories are removed
+			// during shutdown
+			entries.clear();
 		}
 		Job.getJobManager().cancel(JobFamilies.INDEX_DIFF_CACHE_UPDATE);
 		try {
@@ -301,18 +308,28 @@ public void dispose() {
 	}
 
 	/**
-	 * Removes the {@link IndexDiffCacheEntry} for the given repository.
+	 * Removes the {@link IndexDiffCacheEntry} for the given repository, and
+	 * the snapshot of its data stored for the next session, if any. The
+	 * snapshot of a deleted repository is removed even if it has no entry.
 	 *
 	 * @param gitDir
 	 *            of the {@link Repository} to remove the cache entry of
 	 */
 	public void remove(@NonNull File gitDir) {
+		IndexDiffCacheEntry cachedEntry;
 		synchronized (entries) {
-			IndexDiffCacheEntry cachedEntry = entries.remove(gitDir);
+			cachedEntry = entries.remove(gitDir);
 			if (cachedEntry != null) {
 				cachedEntry.dispose();
 			}
 		}
+		if (cachedEntry != null || !gitDir.exists()) {
+			try {
+				IndexDiffSnapshot.delete(gitDir);
+			} catch (IOException e) {
+				Activator.logWarning(e.getMessage(), e);
+			}
+		}
 	}
 
 	/**
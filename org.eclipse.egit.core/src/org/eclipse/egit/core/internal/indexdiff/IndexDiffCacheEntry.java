@@ -42,11 +42,13 @@
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.egit.core.Activator;
 import org.eclipse.egit.core.EclipseGitProgressTransformer;
+import org.eclipse.egit.core.GitCorePreferences;
 import org.eclipse.egit.core.IteratorService;
 import org.eclipse.egit.core.JobFamilies;
 import org.eclipse.egit.core.RepositoryCache;
@@ -58,8 +60,10 @@
 import org.eclipse.egit.core.internal.trace.GitTraceLocation;
 import org.eclipse.egit.core.internal.util.ProjectUtil;
 import org.eclipse.egit.core.internal.util.ResourceUtil;
+import org.eclipse.egit.core.project.RepositoryMapping;
 import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
 import org.eclipse.jgit.dircache.DirCacheIterator;
 import org.eclipse.jgit.errors.IndexReadException;
 import org.eclipse.jgit.events.IndexChangedListener;
@@ -83,19 +87,30 @@
  */
 public class IndexDiffCacheEntry {
 
-	private static final int RESOURCE_LIST_UPDATE_LIMIT = 1000;
-
 	private final File repositoryGitDir;
 
 	private final String repositoryName;
 
+	private final IndexDiffReloadPolicy reloadPolicy;
+
 	private volatile IndexDiffData indexDiffData;
 
+	/**
+	 * Time in milliseconds since the epoch since which {@link #indexDiffData}
+	 * reflects the working tree, or zero if unknown.
+	 */
+	private volatile long validSince;
+
+	/** Matcher for ignored paths, based on {@link #indexDiffData}. */
+	private volatile IgnoredPathMatcher ignoredPathMatcher;
+
 	private IndexDiffReloadJob reloadJob;
 
+	private Job snapshotValidationJob;
+
 	private IndexDiffUpdateJob updateJob;
 
-	private DirCache lastIndex;
+	private volatile DirCache lastIndex;
 
 	// used to serialize index diff update jobs
 	private ReentrantLock lock = new ReentrantLock(true);
@@ -126,6 +141,11 @@ public class IndexDiffCacheEntry {
 
 	private IResourceChangeListener resourceChangeListener;
 
+	/** Whether the working tree shall be watched once data is available. */
+	private boolean watchWorkTree;
+
+	private WorkTreeWatcher workTreeWatcher;
+
 	private static Semaphore parallelism = new Semaphore(2);
 
 	/**
@@ -138,6 +158,7 @@ public IndexDiffCacheEntry(Repository repository,
 		this.repositoryGitDir = repository.getDirectory();
 		this.repositoryName = RepositoryUtil.INSTANCE
 				.getRepositoryName(repository);
+		this.reloadPolicy = new IndexDiffReloadPolicy(repositoryName);
 		if (listener != null) {
 			addIndexDiffChangedListener(listener);
 		}
@@ -172,7 +193,13 @@ public IndexDiffCacheEntry(Repository repository,
 					CoreText.IndexDiffCacheEntry_errorCalculatingIndexDelta,
 					repository), ex);
 		}
-		scheduleReloadJob("IndexDiffCacheEntry construction"); //$NON-NLS-1$
+		watchWorkTree = !repository.isBare()
+				&& Platform.getPreferencesService().getBoolean(
+						Activator.PLUGIN_ID,
+						GitCorePreferences.core_watchWorkTree, false, null);
+		if (!loadSnapshot(repository)) {
+			scheduleReloadJob("IndexDiffCacheEntry construction"); //$NON-NLS-1$
+		}
 		createResourceChangeListener();
 		if (!repository.isBare()) {
 			try {
@@ -186,6 +213,125 @@ public IndexDiffCacheEntry(Repository repository,
 		}
 	}
 
+	/**
+	 * Loads the {@link IndexDiffData} stored for the repository when the last
+	 * session ended, if it still matches the index and HEAD, and schedules a
+	 * job that publishes it and then validates it against the working tree.
+	 *
+	 * @param repository
+	 *            to load the data for
+	 * @return {@code true} if stored data was loaded, {@code false} if a full
+	 *         reload is needed
+	 */
+	private boolean loadSnapshot(Repository repository) {
+		if (repository.isBare()) {
+			return false;
+		}
+		IndexDiffSnapshot snapshot;
+		try {
+			snapshot = IndexDiffSnapshot.load(repository);
+		} catch (IOException | RuntimeException e) {
+			ILog.of(getClass()).warn(MessageFormat.format(
+					CoreText.IndexDiffCacheEntry_snapshotReadError,
+					repositoryName), e);
+			// Don't trip over the same broken file again
+			try {
+				IndexDiffSnapshot.delete(repository);
+			} catch (IOException e2) {
+				// Overwritten by the next persist()
+			}
+			return false;
+		}
+		if (snapshot == null) {
+			return false;
+		}
+		indexDiffData = snapshot.getData();
+		snapshotValidationJob = new Job(MessageFormat.format(
+				CoreText.IndexDiffCacheEntry_validatingSnapshot,
+				repositoryName)) {
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				Repository repo = getRepository();
+				if (repo == null || monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				// Show the stored state right away
+				notifyListeners(repo);
+				long start = System.currentTimeMillis();
+				Collection<String> changed;
+				try {
+					changed = snapshot.findChangedPaths(repo);
+				} catch (IOException e) {
+					changed = null;
+				}
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				if (GitTraceLocation.INDEXDIFFCACHE.isActive()) {
+					GitTraceLocation.getTrace().trace(
+							GitTraceLocation.INDEXDIFFCACHE.getLocation(),
+							NLS.bind(
+									"Validated stored IndexDiffData of {0} in {1} ms: {2} changed paths", //$NON-NLS-1$
+									repositoryName,
+									Long.valueOf(System.currentTimeMillis()
+											- start),
+									changed == null ? "all" //$NON-NLS-1$
+											: Integer.valueOf(changed.size())));
+				}
+				if (changed == null) {
+					scheduleReloadJob("Stored IndexDiffData outdated"); //$NON-NLS-1$
+				} else {
+					validSince = start;
+					if (!changed.isEmpty()) {
+						scheduleUpdateJob(changed, Collections.emptyList());
+					}
+				}
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public boolean belongsTo(Object family) {
+				if (JobFamilies.INDEX_DIFF_CACHE_UPDATE.equals(family)) {
+					return true;
+				}
+				return super.belongsTo(family);
+			}
+		};
+		snapshotValidationJob.setSystem(true);
+		snapshotValidationJob.schedule();
+		return true;
+	}
+
+	/**
+	 * Stores the current {@link IndexDiffData} in the plug-in state location
+	 * so that it can be shown right away the next time a cache entry for the
+	 * repository is created. Does nothing if the data is not up to date.
+	 */
+	public void persist() {
+		IndexDiffData data = indexDiffData;
+		long since = validSince;
+		if (data == null || since == 0 || isBusy(reloadJob)
+				|| isBusy(updateJob) || isBusy(snapshotValidationJob)) {
+			return;
+		}
+		Repository repository = getRepository();
+		if (repository == null || repository.isBare()) {
+			return;
+		}
+		try {
+			IndexDiffSnapshot.save(repository, data, since);
+		} catch (IOException e) {
+			ILog.of(getClass()).warn(MessageFormat.format(
+					CoreText.IndexDiffCacheEntry_snapshotWriteError,
+					repositoryName), e);
+		}
+	}
+
+	private static boolean isBusy(Job job) {
+		return job != null && job.getState() != Job.NONE;
+	}
+
 	private @Nullable Repository getRepository() {
 		Repository repository = RepositoryCache.INSTANCE
 				.getRepository(repositoryGitDir);
@@ -362,6 +508,30 @@ public IndexDiffData getIndexDiff() {
 		return indexDiffData;
 	}
 
+	/**
+	 * Retrieves a matcher for the ignored paths of the current index diff,
+	 * creating it if the index diff changed since the last call.
+	 *
+	 * @return the matcher, or {@code null} if there is no index diff yet
+	 */
+	@Nullable
+	IgnoredPathMatcher getIgnoredPathMatcher() {
+		IndexDiffData data = indexDiffData;
+		if (data == null) {
+			return null;
+		}
+		IgnoredPathMatcher matcher = ignoredPathMatcher;
+		if (matcher == null || matcher.getData() != data) {
+			Repository repository = getRepository();
+			if (repository == null || repository.isBare()) {
+				return null;
+			}
+			matcher = new IgnoredPathMatcher(repository, data);
+			ignoredPathMatcher = matcher;
+		}
+		return matcher;
+	}
+
 	/**
 	 * THIS METHOD IS PROTECTED FOR TESTS ONLY!
 	 *
@@ -396,12 +566,15 @@ protected IStatus reload(IProgressMonitor monitor) {
 					if (repository == null) {
 						return Status.CANCEL_STATUS;
 					}
+					long start = System.nanoTime();
 					IndexDiffData result = calcIndexDiffDataFull(monitor,
 							getName(), repository);
 					if (monitor.isCanceled() || (result == null)) {
 						return Status.CANCEL_STATUS;
 					}
+					reloadPolicy.fullReloadDone(System.nanoTime() - start);
 					indexDiffData = result;
+					validSince = startTime;
 					if (GitTraceLocation.INDEXDIFFCACHE.isActive()) {
 						long time = System.currentTimeMillis() - startTime;
 						StringBuilder message = new StringBuilder(
@@ -421,7 +594,7 @@ protected IStatus reload(IProgressMonitor monitor) {
 								GitTraceLocation.INDEXDIFFCACHE.getLocation(),
 								"Calculating IndexDiff failed", e); //$NON-NLS-1$
 					return Status.OK_STATUS;
-				} catch (InterruptedException e) {
+				} catch (InterruptedException | OperationCanceledException e) {
 					return Status.CANCEL_STATUS;
 				} finally {
 					lock.unlock();
@@ -501,11 +674,14 @@ protected IStatus updateIndexDiff(Collection<String> files,
 					if (repository == null) {
 						return Status.CANCEL_STATUS;
 					}
+					long start = System.nanoTime();
 					IndexDiffData result = calcIndexDiffDataIncremental(monitor,
 							getName(), repository, files, resources);
 					if (monitor.isCanceled() || (result == null)) {
 						return Status.CANCEL_STATUS;
 					}
+					reloadPolicy.incrementalUpdateDone(files,
+							System.nanoTime() - start);
 					indexDiffData = result;
 					if (GitTraceLocation.INDEXDIFFCACHE.isActive()) {
 						long time = System.currentTimeMillis() - startTime;
@@ -528,6 +704,8 @@ protected IStatus updateIndexDiff(Collection<String> files,
 								"Calculating IndexDiff failed", e); //$NON-NLS-1$
 					}
 					return Status.OK_STATUS;
+				} catch (OperationCanceledException e) {
+					return Status.CANCEL_STATUS;
 				} finally {
 					lock.unlock();
 				}
@@ -546,13 +724,15 @@ public boolean belongsTo(Object family) {
 	}
 
 	/**
-	 * Check if the index update or reload is recommended for given files
+	 * Check if the index update or reload is recommended for given files. The
+	 * decision is based on the number of directories the files are in and on
+	 * the timings of previous updates and reloads.
 	 *
 	 * @param filesToUpdate
 	 * @return true if the reload operation is preferred
 	 */
 	protected boolean shouldReload(final Collection<String> filesToUpdate) {
-		return filesToUpdate.size() > RESOURCE_LIST_UPDATE_LIMIT;
+		return reloadPolicy.shouldReload(filesToUpdate);
 	}
 
 	private IndexDiffData calcIndexDiffDataIncremental(IProgressMonitor monitor,
@@ -613,6 +793,8 @@ private List<String> calcTreeFilterPaths(Collection<String> filesToUpdate) {
 	}
 
 	private void notifyListeners(Repository repository) {
+		// Ignored folders are known only now
+		startWorkTreeWatcher(repository);
 		for (IndexDiffChangedListener listener : listeners) {
 			SafeRunnable.run(
 					() -> listener.indexDiffChanged(repository, indexDiffData));
@@ -622,6 +804,11 @@ private void notifyListeners(Repository repository) {
 	private IndexDiffData calcIndexDiffDataFull(IProgressMonitor monitor,
 			String jobName, Repository repository)
 			throws IOException {
+		int threads = getIndexDiffThreadsCount();
+		if (threads > 1) {
+			return new PartitionedIndexDiff(repository, jobName, threads)
+					.compute(monitor);
+		}
 		EclipseGitProgressTransformer jgitMonitor = new EclipseGitProgressTransformer(
 				monitor);
 
@@ -638,6 +825,13 @@ private IndexDiffData calcIndexDiffDataFull(IProgressMonitor monitor,
 		});
 	}
 
+	private static int getIndexDiffThreadsCount() {
+		int value = Platform.getPreferencesService().getInt(
+				Activator.PLUGIN_ID,
+				GitCorePreferences.core_indexDiffThreadsCount, 1, null);
+		return Math.max(1, value);
+	}
+
 	private String getReloadJobName() {
 		return MessageFormat.format(CoreText.IndexDiffCacheEntry_reindexing,
 				repositoryName);
@@ -657,11 +851,15 @@ private void createResourceChangeListener() {
 			@Override
 			public void resourceChanged(IResourceChangeEvent event) {
 				if (event.getDelta() != null) {
-					SkipNotInterestingDeltaVisitor skipNotInterestingVisitor = new SkipNotInterestingDeltaVisitor();
+					SkipNotInterestingDeltaVisitor skipNotInterestingVisitor = new SkipNotInterestingDeltaVisitor(
+							getIgnoredPathMatcher());
 					try {
 						event.getDelta().accept(skipNotInterestingVisitor);
 						if (!skipNotInterestingVisitor
 								.hasAtLeastOneInterestingDelta()) {
+							traceDeltaStatistics("Skipped", //$NON-NLS-1$
+									skipNotInterestingVisitor.getVisitedCount(),
+									skipNotInterestingVisitor.getPrunedCount());
 							return;
 						}
 					} catch (CoreException e) {
@@ -704,6 +902,8 @@ public void resourceChanged(IResourceChangeEvent event) {
 					ILog.of(getClass()).error(e.getMessage(), e);
 					return;
 				}
+				traceDeltaStatistics("Processed", visitor.getVisitedCount(), //$NON-NLS-1$
+						visitor.getPrunedCount());
 				if (visitor.getGitIgnoreChanged()) {
 					scheduleReloadJob("A .gitignore changed"); //$NON-NLS-1$
 				} else if (visitor.isProjectDeleted()) {
@@ -727,6 +927,152 @@ public void resourceChanged(IResourceChangeEvent event) {
 						| IResourceChangeEvent.PRE_DELETE);
 	}
 
+	private void traceDeltaStatistics(String action, int visited, int pruned) {
+		if (GitTraceLocation.INDEXDIFFCACHE.isActive()) {
+			GitTraceLocation.getTrace().trace(
+					GitTraceLocation.INDEXDIFFCACHE.getLocation(),
+					NLS.bind(
+							"{0} resource delta for {1}: {2} deltas visited, {3} ignored folders pruned", //$NON-NLS-1$
+							new Object[] { action, repositoryName,
+									Integer.valueOf(visited),
+									Integer.valueOf(pruned) }));
+		}
+	}
+
+	/**
+	 * Starts watching the working tree if enabled and not done yet. Must be
+	 * called only once there is an {@link IndexDiffData}, so that ignored
+	 * folders are known and not watched.
+	 */
+	private synchronized void startWorkTreeWatcher(Repository repository) {
+		if (!watchWorkTree || workTreeWatcher != null) {
+			return;
+		}
+		// Resources in projects are handled by the resource change listener
+		List<String> projects = getMappedProjectPaths(repository);
+		try {
+			workTreeWatcher = new WorkTreeWatcher(repository.getWorkTree(),
+					repository.getDirectory(), repositoryName,
+					path -> isIgnoredFolder(path)
+							|| isInAnyFolder(path + '/', projects),
+					this::workTreeChanged,
+					() -> scheduleReloadJob("Work tree events lost")); //$NON-NLS-1$
+		} catch (IOException e) {
+			watchWorkTree = false;
+			ILog.of(getClass()).warn(MessageFormat.format(
+					CoreText.IndexDiffCacheEntry_cannotWatchWorkTree,
+					repositoryName), e);
+		}
+	}
+
+	/**
+	 * Determines the folders of the open projects mapped to the repository.
+	 *
+	 * @param repository
+	 *            to get the projects of
+	 * @return repository-relative paths ending with a slash, or the empty
+	 *         string for a project at the root of the working tree
+	 */
+	private static List<String> getMappedProjectPaths(Repository repository) {
+		List<String> result = new ArrayList<>();
+		for (IProject project : ResourcesPlugin.getWorkspace().getRoot()
+				.getProjects()) {
+			if (!project.isOpen()) {
+				continue;
+			}
+			RepositoryMapping mapping = RepositoryMapping.getMapping(project);
+			if (mapping == null || mapping.getRepository() != repository) {
+				continue;
+			}
+			String path = mapping.getRepoRelativePath(project);
+			if (path != null) {
+				result.add(path.isEmpty() ? path : path + '/');
+			}
+		}
+		return result;
+	}
+
+	private static boolean isInAnyFolder(String path,
+			Collection<String> folders) {
+		for (String folder : folders) {
+			if (path.startsWith(folder)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isIgnoredFolder(String path) {
+		IndexDiffData data = indexDiffData;
+		return data != null && (data.getFolderStates().getFlags(path)
+				& FolderStateIndex.IGNORED) != 0;
+	}
+
+	private void workTreeChanged(Collection<String> paths) {
+		Repository repository = getRepository();
+		if (repository == null) {
+			return;
+		}
+		List<String> projects = getMappedProjectPaths(repository);
+		Set<String> changed = new HashSet<>();
+		List<String> folders = new ArrayList<>();
+		for (String path : paths) {
+			if (!isInAnyFolder(path, projects)) {
+				changed.add(path);
+				if (path.endsWith("/")) { //$NON-NLS-1$
+					folders.add(path);
+				}
+			}
+		}
+		if (changed.isEmpty()) {
+			return;
+		}
+		IndexDiffData data = indexDiffData;
+		if (data == null) {
+			scheduleReloadJob("Work tree changed, no diff available"); //$NON-NLS-1$
+			return;
+		}
+		if (!folders.isEmpty()) {
+			// A deleted or moved folder is reported on its own, but the
+			// incremental update only looks at the given paths
+			DirCache index = lastIndex;
+			if (index == null) {
+				scheduleReloadJob("Folder changed, no index available"); //$NON-NLS-1$
+				return;
+			}
+			addKnownChildren(data, index, folders, changed);
+		}
+		for (String path : changed) {
+			if (path.equals(Constants.DOT_GIT_IGNORE)
+					|| path.endsWith('/' + Constants.DOT_GIT_IGNORE)) {
+				scheduleReloadJob("A .gitignore changed"); //$NON-NLS-1$
+				return;
+			}
+		}
+		scheduleUpdateJob(changed, Collections.emptyList());
+	}
+
+	/**
+	 * Adds the paths below the given folders that have a status in the data
+	 * or an entry in the index.
+	 */
+	private static void addKnownChildren(IndexDiffData data, DirCache index,
+			Collection<String> folders, Set<String> result) {
+		for (Set<String> set : data.getStatusSets()) {
+			for (String path : set) {
+				if (isInAnyFolder(path, folders)) {
+					result.add(path);
+				}
+			}
+		}
+		for (String folder : folders) {
+			for (DirCacheEntry entry : index.getEntriesWithin(
+					folder.substring(0, folder.length() - 1))) {
+				result.add(entry.getPathString());
+			}
+		}
+	}
+
 	/**
 	 * FOR TESTS ONLY
 	 *
@@ -749,6 +1095,13 @@ public void dispose() {
 		if (resourceChangeListener != null) {
 			ResourcesPlugin.getWorkspace().removeResourceChangeListener(resourceChangeListener);
 		}
+		synchronized (this) {
+			watchWorkTree = false;
+			if (workTreeWatcher != null) {
+				workTreeWatcher.close();
+				workTreeWatcher = null;
+			}
+		}
 		listeners.clear();
 		if (reloadJob != null) {
 			reloadJob.cancel();
@@ -758,6 +1111,10 @@ public void dispose() {
 			updateJob.cleanupAndCancel();
 			updateJob = null;
 		}
+		if (snapshotValidationJob != null) {
+			snapshotValidationJob.cancel();
+			snapshotValidationJob = null;
+		}
 		indexDiffData = null;
 		lastIndex = null;
 	}
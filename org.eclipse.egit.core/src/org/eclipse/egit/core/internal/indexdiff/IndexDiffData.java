@@ -10,15 +10,19 @@
  *******************************************************************************/
 package org.eclipse.egit.core.internal.indexdiff;
 
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.IndexDiff;
 import org.eclipse.jgit.lib.IndexDiff.StageState;
@@ -60,6 +64,23 @@ public class IndexDiffData {
 
 	private final Map<String, StageState> conflictStates;
 
+	/** Shared by all data incrementally derived from the same full diff. */
+	private final PathTable pathTable;
+
+	/** Paths whose status changed against the predecessor, if any. */
+	private final Collection<String> statusDelta;
+
+	/**
+	 * Paths whose being ignored or an untracked folder changed against the
+	 * predecessor, if any.
+	 */
+	private final Collection<String> folderStateDelta;
+
+	/** Weak, so that a chain of incremental updates is not kept alive. */
+	private final Reference<IndexDiffData> predecessor;
+
+	private volatile FolderStateIndex folderStates;
+
 	/**
 	 * Empty, immutable data
 	 */
@@ -78,41 +99,121 @@ public IndexDiffData() {
 		submodules = Collections.emptySet();
 		changedResources = Collections.emptySet();
 		conflictStates = Collections.emptyMap();
+		pathTable = new PathTable();
+		statusDelta = null;
+		folderStateDelta = null;
+		predecessor = null;
 	}
 
 	/**
 	 * @param indexDiff
 	 */
 	public IndexDiffData(IndexDiff indexDiff) {
-		added = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getAdded()));
-		assumeUnchanged = Collections.unmodifiableSet(
-				new HashSet<>(indexDiff.getAssumeUnchanged()));
-		changed = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getChanged()));
-		removed = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getRemoved()));
-		missing = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getMissing()));
-		modified = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getModified()));
-		untracked = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getUntracked()));
-		untrackedFolders = Collections.unmodifiableSet(getUntrackedFolders(indexDiff));
-		conflicts = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getConflicting()));
-		ignored = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getIgnoredNotInIndex()));
-		symlinks = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getPathsWithIndexMode(FileMode.SYMLINK)));
-		submodules = Collections.unmodifiableSet(new HashSet<>(indexDiff
-				.getPathsWithIndexMode(FileMode.GITLINK)));
+		this(Collections.singletonList(indexDiff));
+	}
+
+	/**
+	 * Creates the data for a working tree that was diffed in several disjoint
+	 * parts.
+	 *
+	 * @param indexDiffs
+	 *            for disjoint parts of the working tree
+	 */
+	public IndexDiffData(Collection<IndexDiff> indexDiffs) {
+		Set<String> added2 = new HashSet<>();
+		Set<String> assumeUnchanged2 = new HashSet<>();
+		Set<String> changed2 = new HashSet<>();
+		Set<String> removed2 = new HashSet<>();
+		Set<String> missing2 = new HashSet<>();
+		Set<String> modified2 = new HashSet<>();
+		Set<String> untracked2 = new HashSet<>();
+		Set<String> untrackedFolders2 = new HashSet<>();
+		Set<String> conflicts2 = new HashSet<>();
+		Set<String> ignored2 = new HashSet<>();
+		Set<String> symlinks2 = new HashSet<>();
+		Set<String> submodules2 = new HashSet<>();
+		Map<String, StageState> conflictStates2 = new HashMap<>();
+		for (IndexDiff indexDiff : indexDiffs) {
+			added2.addAll(indexDiff.getAdded());
+			assumeUnchanged2.addAll(indexDiff.getAssumeUnchanged());
+			changed2.addAll(indexDiff.getChanged());
+			removed2.addAll(indexDiff.getRemoved());
+			missing2.addAll(indexDiff.getMissing());
+			modified2.addAll(indexDiff.getModified());
+			untracked2.addAll(indexDiff.getUntracked());
+			untrackedFolders2.addAll(getUntrackedFolders(indexDiff));
+			conflicts2.addAll(indexDiff.getConflicting());
+			ignored2.addAll(indexDiff.getIgnoredNotInIndex());
+			symlinks2.addAll(
+					indexDiff.getPathsWithIndexMode(FileMode.SYMLINK));
+			submodules2.addAll(
+					indexDiff.getPathsWithIndexMode(FileMode.GITLINK));
+			conflictStates2.putAll(indexDiff.getConflictingStageStates());
+		}
+		pathTable = new PathTable();
+		added = PathIdSet.of(pathTable, added2);
+		assumeUnchanged = PathIdSet.of(pathTable, assumeUnchanged2);
+		changed = PathIdSet.of(pathTable, changed2);
+		removed = PathIdSet.of(pathTable, removed2);
+		missing = PathIdSet.of(pathTable, missing2);
+		modified = PathIdSet.of(pathTable, modified2);
+		untracked = PathIdSet.of(pathTable, untracked2);
+		untrackedFolders = PathIdSet.of(pathTable, untrackedFolders2);
+		conflicts = PathIdSet.of(pathTable, conflicts2);
+		ignored = PathIdSet.of(pathTable, ignored2);
+		symlinks = PathIdSet.of(pathTable, symlinks2);
+		submodules = PathIdSet.of(pathTable, submodules2);
+		changedResources = Collections.emptySet();
+		conflictStates = Collections.unmodifiableMap(conflictStates2);
+		statusDelta = null;
+		folderStateDelta = null;
+		predecessor = null;
+	}
+
+	/**
+	 * Creates data from previously stored sets.
+	 *
+	 * @param sets
+	 *            the status sets, in the order of {@link #getStatusSets()}
+	 * @param conflictStates
+	 *            the conflict states
+	 */
+	IndexDiffData(List<Set<String>> sets,
+			Map<String, StageState> conflictStates) {
+		pathTable = new PathTable();
+		added = PathIdSet.of(pathTable, sets.get(0));
+		assumeUnchanged = PathIdSet.of(pathTable, sets.get(1));
+		changed = PathIdSet.of(pathTable, sets.get(2));
+		removed = PathIdSet.of(pathTable, sets.get(3));
+		missing = PathIdSet.of(pathTable, sets.get(4));
+		modified = PathIdSet.of(pathTable, sets.get(5));
+		untracked = PathIdSet.of(pathTable, sets.get(6));
+		untrackedFolders = PathIdSet.of(pathTable, sets.get(7));
+		conflicts = PathIdSet.of(pathTable, sets.get(8));
+		ignored = PathIdSet.of(pathTable, sets.get(9));
+		symlinks = PathIdSet.of(pathTable, sets.get(10));
+		submodules = PathIdSet.of(pathTable, sets.get(11));
 		changedResources = Collections.emptySet();
-		conflictStates = Collections.unmodifiableMap(
-				new HashMap<>(indexDiff.getConflictingStageStates()));
+		this.conflictStates = Collections.unmodifiableMap(conflictStates);
+		statusDelta = null;
+		folderStateDelta = null;
+		predecessor = null;
 	}
 
-	private Set<String> getUntrackedFolders(IndexDiff indexDiff) {
+	/**
+	 * Retrieves all status sets in a fixed order: added, assume unchanged,
+	 * changed, removed, missing, modified, untracked, untracked folders,
+	 * conflicting, ignored, symlinks, submodules.
+	 *
+	 * @return the sets
+	 */
+	List<Set<String>> getStatusSets() {
+		return List.of(added, assumeUnchanged, changed, removed, missing,
+				modified, untracked, untrackedFolders, conflicts, ignored,
+				symlinks, submodules);
+	}
+
+	private static Set<String> getUntrackedFolders(IndexDiff indexDiff) {
 		HashSet<String> result = new HashSet<>();
 		for (String folder:indexDiff.getUntrackedFolders())
 			result.add(folder + "/"); //$NON-NLS-1$
@@ -122,7 +223,8 @@ private Set<String> getUntrackedFolders(IndexDiff indexDiff) {
 	/**
 	 * This constructor merges the existing IndexDiffData object baseDiff with a
 	 * new IndexDiffData object that was calculated for a subset of files
-	 * (changedFiles).
+	 * (changedFiles). The sets of the new object share all unchanged data with
+	 * baseDiff, which remains valid and unmodified.
 	 *
 	 * @param baseDiff
 	 * @param changedFiles
@@ -136,107 +238,127 @@ public IndexDiffData(IndexDiffData baseDiff,
 			IndexDiff diffForChangedFiles) {
 		this.changedResources = Collections
 				.unmodifiableCollection(new HashSet<>(changedResources));
-		Set<String> added2 = new HashSet<>(baseDiff.getAdded());
-		Set<String> assumeUnchanged2 = new HashSet<>(
-				baseDiff.getAssumeUnchanged());
-		Set<String> changed2 = new HashSet<>(baseDiff.getChanged());
-		Set<String> removed2 = new HashSet<>(baseDiff.getRemoved());
-		Set<String> missing2 = new HashSet<>(baseDiff.getMissing());
-		Set<String> modified2 = new HashSet<>(baseDiff.getModified());
-		Set<String> untracked2 = new HashSet<>(baseDiff.getUntracked());
-		Set<String> conflicts2 = new HashSet<>(baseDiff.getConflicting());
-		Set<String> symlinks2 = new HashSet<>(baseDiff.getSymlinks());
-		Set<String> submodules2 = new HashSet<>(baseDiff.getSubmodules());
-		Map<String, StageState> conflictStates2 = new HashMap<>(
-				baseDiff.getConflictStates());
-
-		mergeList(added2, changedFiles, diffForChangedFiles.getAdded());
-		mergeList(assumeUnchanged2, changedFiles,
-				diffForChangedFiles.getAssumeUnchanged());
-		mergeList(changed2, changedFiles, diffForChangedFiles.getChanged());
-		mergeList(removed2, changedFiles, diffForChangedFiles.getRemoved());
-		mergeList(missing2, changedFiles, diffForChangedFiles.getMissing());
-		mergeList(modified2, changedFiles, diffForChangedFiles.getModified());
-		mergeList(untracked2, changedFiles, diffForChangedFiles.getUntracked());
-		mergeList(symlinks2, changedFiles,
+		pathTable = baseDiff.pathTable;
+		Set<String> delta = new HashSet<>();
+		added = mergeList(pathTable, delta, baseDiff.added, changedFiles,
+				diffForChangedFiles.getAdded());
+		assumeUnchanged = mergeList(pathTable, delta, baseDiff.assumeUnchanged,
+				changedFiles, diffForChangedFiles.getAssumeUnchanged());
+		changed = mergeList(pathTable, delta, baseDiff.changed, changedFiles,
+				diffForChangedFiles.getChanged());
+		removed = mergeList(pathTable, delta, baseDiff.removed, changedFiles,
+				diffForChangedFiles.getRemoved());
+		missing = mergeList(pathTable, delta, baseDiff.missing, changedFiles,
+				diffForChangedFiles.getMissing());
+		modified = mergeList(pathTable, delta, baseDiff.modified, changedFiles,
+				diffForChangedFiles.getModified());
+		untracked = mergeList(pathTable, delta, baseDiff.untracked,
+				changedFiles, diffForChangedFiles.getUntracked());
+		symlinks = mergeList(pathTable, delta, baseDiff.symlinks, changedFiles,
 				diffForChangedFiles.getPathsWithIndexMode(FileMode.SYMLINK));
-		mergeList(submodules2, changedFiles,
+		submodules = mergeList(pathTable, delta, baseDiff.submodules,
+				changedFiles,
 				diffForChangedFiles.getPathsWithIndexMode(FileMode.GITLINK));
-		Set<String> untrackedFolders2 = mergeUntrackedFolders(
-				baseDiff.getUntrackedFolders(), changedFiles,
+		Set<String> folderDelta = new HashSet<>();
+		untrackedFolders = mergeUntrackedFolders(pathTable, folderDelta,
+				baseDiff.untrackedFolders, changedFiles,
 				getUntrackedFolders(diffForChangedFiles));
-		mergeList(conflicts2, changedFiles,
-				diffForChangedFiles.getConflicting(), conflictStates2,
+		Set<String> newConflicts = diffForChangedFiles.getConflicting();
+		conflicts = mergeList(pathTable, delta, baseDiff.conflicts,
+				changedFiles, newConflicts);
+		conflictStates = mergeConflictStates(delta, baseDiff.conflictStates,
+				changedFiles, newConflicts,
 				diffForChangedFiles.getConflictingStageStates());
-		Set<String> ignored2 = mergeIgnored(baseDiff.getIgnoredNotInIndex(), changedFiles,
-				diffForChangedFiles.getIgnoredNotInIndex());
-
-		added = Collections.unmodifiableSet(added2);
-		assumeUnchanged = Collections.unmodifiableSet(assumeUnchanged2);
-		changed = Collections.unmodifiableSet(changed2);
-		removed = Collections.unmodifiableSet(removed2);
-		missing = Collections.unmodifiableSet(missing2);
-		modified = Collections.unmodifiableSet(modified2);
-		untracked = Collections.unmodifiableSet(untracked2);
-		untrackedFolders = Collections.unmodifiableSet(untrackedFolders2);
-		conflicts = Collections.unmodifiableSet(conflicts2);
-		ignored = Collections.unmodifiableSet(ignored2);
-		symlinks = Collections.unmodifiableSet(symlinks2);
-		submodules = Collections.unmodifiableSet(submodules2);
-		conflictStates = Collections.unmodifiableMap(conflictStates2);
+		ignored = mergeIgnored(pathTable, folderDelta, baseDiff.ignored,
+				changedFiles, diffForChangedFiles.getIgnoredNotInIndex());
+		delta.addAll(folderDelta);
+		folderStateDelta = Collections.unmodifiableSet(folderDelta);
+		statusDelta = Collections.unmodifiableSet(withAncestors(delta));
+		predecessor = new WeakReference<>(baseDiff);
+		FolderStateIndex baseFolderStates = baseDiff.folderStates;
+		if (baseFolderStates != null) {
+			folderStates = new FolderStateIndex(baseFolderStates, baseDiff,
+					this, delta);
+		}
+	}
+
+	private static Set<String> withAncestors(Set<String> paths) {
+		Set<String> result = new HashSet<>(paths);
+		for (String path : paths) {
+			int end = path.length();
+			if (path.endsWith("/")) { //$NON-NLS-1$
+				end--;
+			}
+			int slash = path.lastIndexOf('/', end - 1);
+			while (slash > 0 && result.add(path.substring(0, slash + 1))) {
+				slash = path.lastIndexOf('/', slash - 1);
+			}
+			if (slash <= 0) {
+				result.add(""); //$NON-NLS-1$
+			}
+		}
+		return result;
 	}
 
-	private void mergeList(Set<String> baseList,
-			Collection<String> changedFiles, Set<String> listForChangedFiles) {
+	private static Set<String> mergeList(PathTable table, Set<String> delta,
+			Set<String> baseList, Collection<String> changedFiles,
+			Set<String> listForChangedFiles) {
+		SharedPathSet.Builder merged = new SharedPathSet.Builder(baseList,
+				table);
 		for (String file : changedFiles) {
-			if (baseList.contains(file)) {
-				if (!listForChangedFiles.contains(file))
-					baseList.remove(file);
+			if (listForChangedFiles.contains(file)) {
+				merged.add(file);
 			} else {
-				if (listForChangedFiles.contains(file))
-					baseList.add(file);
+				merged.remove(file);
 			}
 		}
+		return merged.build(delta);
 	}
 
-	private void mergeList(Set<String> baseList,
-			Collection<String> changedFiles, Set<String> listForChangedFiles,
-			Map<String, StageState> baseStates,
+	private static Map<String, StageState> mergeConflictStates(
+			Set<String> delta, Map<String, StageState> baseStates,
+			Collection<String> changedFiles, Set<String> newConflicts,
 			Map<String, StageState> newConflictStates) {
+		Map<String, StageState> merged = null;
 		for (String file : changedFiles) {
-			if (baseList.contains(file)) {
-				if (!listForChangedFiles.contains(file)) {
-					baseList.remove(file);
-					baseStates.remove(file);
-				} else {
-					StageState state = newConflictStates.get(file);
-					if (state != null) {
-						baseStates.put(file, state);
-					}
+			StageState state = null;
+			if (newConflicts.contains(file)) {
+				state = newConflictStates.get(file);
+				if (state == null) {
+					// Still conflicting, but no new stage state: keep the old
+					continue;
 				}
-			} else {
-				if (listForChangedFiles.contains(file)) {
-					baseList.add(file);
-					StageState state = newConflictStates.get(file);
-					if (state != null) {
-						baseStates.put(file, state);
-					}
+			}
+			if (state != baseStates.get(file)) {
+				if (merged == null) {
+					merged = new HashMap<>(baseStates);
+				}
+				delta.add(file);
+				if (state == null) {
+					merged.remove(file);
+				} else {
+					merged.put(file, state);
 				}
 			}
 		}
+		return merged == null ? baseStates
+				: Collections.unmodifiableMap(merged);
 	}
 
-	private static Set<String> mergeUntrackedFolders(Set<String> oldUntrackedFolders,
+	private static Set<String> mergeUntrackedFolders(PathTable table,
+			Set<String> delta, Set<String> oldUntrackedFolders,
 			Collection<String> changedFiles, Set<String> newUntrackedFolders) {
-		Set<String> merged = new HashSet<>();
+		SharedPathSet.Builder merged = new SharedPathSet.Builder(
+				oldUntrackedFolders, table);
 		for (String oldUntrackedFolder : oldUntrackedFolders) {
 			boolean changeInUntrackedFolder = isAnyFileContainedInFolder(
 					oldUntrackedFolder, changedFiles);
-			if (!changeInUntrackedFolder)
-				merged.add(oldUntrackedFolder);
+			if (changeInUntrackedFolder)
+				merged.remove(oldUntrackedFolder);
 		}
-		merged.addAll(newUntrackedFolders);
-		return merged;
+		for (String newUntrackedFolder : newUntrackedFolders)
+			merged.add(newUntrackedFolder);
+		return merged.build(delta);
 	}
 
 	private static boolean isAnyFileContainedInFolder(String folder,
@@ -257,15 +379,25 @@ private static boolean isAnyFileContainedInFolder(String folder,
 	 */
 	protected static Set<String> mergeIgnored(Set<String> oldIgnoredPaths,
 			Collection<String> changedPaths, Set<String> newIgnoredPaths) {
-		Set<String> merged = new HashSet<>();
+		return mergeIgnored(new PathTable(), new HashSet<>(), oldIgnoredPaths,
+				changedPaths, newIgnoredPaths);
+	}
+
+	private static Set<String> mergeIgnored(PathTable table,
+			Set<String> delta, Set<String> oldIgnoredPaths,
+			Collection<String> changedPaths, Set<String> newIgnoredPaths) {
+		SharedPathSet.Builder merged = new SharedPathSet.Builder(
+				oldIgnoredPaths, table);
 		for (String oldIgnoredPath : oldIgnoredPaths) {
 			boolean changed = isAnyPrefixOf(oldIgnoredPath, changedPaths);
-			if (!changed) {
-				merged.add(oldIgnoredPath);
+			if (changed) {
+				merged.remove(oldIgnoredPath);
 			}
 		}
-		merged.addAll(newIgnoredPaths);
-		return merged;
+		for (String newIgnoredPath : newIgnoredPaths) {
+			merged.add(newIgnoredPath);
+		}
+		return merged.build(delta);
 	}
 
 	/**
@@ -397,6 +529,29 @@ public Map<String, StageState> getConflictStates() {
 		return conflictStates;
 	}
 
+	/**
+	 * Retrieves the aggregated per-folder states of this {@link IndexDiffData}.
+	 * Data that was incrementally derived from data whose index was already
+	 * built derives its index from that one; otherwise the index is built on
+	 * first access.
+	 *
+	 * @return the {@link FolderStateIndex}
+	 */
+	@NonNull
+	public FolderStateIndex getFolderStates() {
+		FolderStateIndex result = folderStates;
+		if (result == null) {
+			synchronized (this) {
+				result = folderStates;
+				if (result == null) {
+					result = new FolderStateIndex(this);
+					folderStates = result;
+				}
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Determines whether this {@link IndexDiffData} does contain any changes.
 	 *
@@ -411,6 +566,47 @@ public boolean hasChanges() {
 				|| !getMissing().isEmpty();
 	}
 
+	/**
+	 * Retrieves the paths whose status differs from the {@link IndexDiffData}
+	 * this one was incrementally derived from, together with all their
+	 * ancestor folders. Folder paths end with a slash; the root of the
+	 * working tree is the empty string.
+	 *
+	 * @return the changed paths, or {@code null} if this data was computed
+	 *         from scratch and any path may have changed
+	 */
+	@Nullable
+	public Collection<String> getStatusDelta() {
+		return statusDelta;
+	}
+
+	/**
+	 * Retrieves the paths from {@link #getStatusDelta()} that became or
+	 * stopped being ignored or untracked folders. These states apply to all
+	 * members of a folder, whereas any other change of a path only affects the
+	 * path and the aggregated states of its ancestors.
+	 *
+	 * @return the paths, or {@code null} if this data was computed from
+	 *         scratch
+	 */
+	@Nullable
+	public Collection<String> getFolderStateDelta() {
+		return folderStateDelta;
+	}
+
+	/**
+	 * Tells whether this data was incrementally derived from the given data,
+	 * i.e., whether {@link #getStatusDelta()} is relative to it.
+	 *
+	 * @param other
+	 *            data to check
+	 * @return {@code true} if this data was derived from {@code other}
+	 */
+	public boolean isDerivedFrom(IndexDiffData other) {
+		return other != null && predecessor != null
+				&& predecessor.get() == other;
+	}
+
 	/**
 	 * @return the changed files
 	 */
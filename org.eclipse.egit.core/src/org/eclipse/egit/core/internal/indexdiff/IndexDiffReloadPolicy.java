@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.egit.core.internal.trace.GitTraceLocation;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Decides whether an incremental index diff update for a set of changed paths
+ * is likely to be cheaper than a full reload. The cost of an incremental
+ * update is estimated from the number of distinct directories the changed
+ * paths live in, using the cost per directory measured on earlier incremental
+ * updates, and compared against the duration of the last full reload.
+ */
+class IndexDiffReloadPolicy {
+
+	/**
+	 * Up to this many changed paths an incremental update is always done.
+	 * Also the limit used as long as no full reload has been measured.
+	 */
+	static final int MIN_PATHS_FOR_RELOAD = 1000;
+
+	/**
+	 * Above this many changed paths a full reload is always done; merging so
+	 * many paths into the previous data is not cheaper anymore.
+	 */
+	static final int MAX_PATHS_FOR_UPDATE = 100_000;
+
+	/**
+	 * Incremental updates touching fewer directories are dominated by fixed
+	 * costs and are not used to estimate the cost per directory.
+	 */
+	private static final int MIN_DIRECTORIES_FOR_MEASUREMENT = 10;
+
+	/** Cost per directory assumed until one has been measured. */
+	private static final long DEFAULT_NANOS_PER_DIRECTORY = TimeUnit.MILLISECONDS
+			.toNanos(1);
+
+	/** Weight of a new measurement in the moving average. */
+	private static final double WEIGHT = 0.3;
+
+	private final String repositoryName;
+
+	private long lastFullReloadNanos = -1;
+
+	private double nanosPerDirectory = DEFAULT_NANOS_PER_DIRECTORY;
+
+	IndexDiffReloadPolicy(String repositoryName) {
+		this.repositoryName = repositoryName;
+	}
+
+	/**
+	 * Records the duration of a full reload.
+	 *
+	 * @param nanos
+	 *            duration of the reload
+	 */
+	synchronized void fullReloadDone(long nanos) {
+		lastFullReloadNanos = nanos;
+	}
+
+	/**
+	 * Records the duration of an incremental update.
+	 *
+	 * @param paths
+	 *            repository-relative paths the update was done for
+	 * @param nanos
+	 *            duration of the update
+	 */
+	void incrementalUpdateDone(Collection<String> paths, long nanos) {
+		int directories = countDirectories(paths);
+		if (directories < MIN_DIRECTORIES_FOR_MEASUREMENT) {
+			return;
+		}
+		synchronized (this) {
+			nanosPerDirectory = (1 - WEIGHT) * nanosPerDirectory
+					+ WEIGHT * ((double) nanos / directories);
+		}
+	}
+
+	/**
+	 * Determines whether a full reload should be done instead of an
+	 * incremental update for the given paths.
+	 *
+	 * @param paths
+	 *            repository-relative paths that changed; folders end with /
+	 * @return {@code true} if a full reload is expected to be cheaper
+	 */
+	boolean shouldReload(Collection<String> paths) {
+		int size = paths.size();
+		if (size <= MIN_PATHS_FOR_RELOAD) {
+			return false;
+		}
+		if (size > MAX_PATHS_FOR_UPDATE) {
+			trace(size, -1, -1, true);
+			return true;
+		}
+		long fullNanos;
+		double perDirectory;
+		synchronized (this) {
+			fullNanos = lastFullReloadNanos;
+			perDirectory = nanosPerDirectory;
+		}
+		if (fullNanos < 0) {
+			// Nothing measured yet
+			trace(size, -1, -1, true);
+			return true;
+		}
+		int directories = countDirectories(paths);
+		long estimate = (long) (perDirectory * directories);
+		boolean reload = estimate > fullNanos;
+		trace(size, directories, estimate, reload);
+		return reload;
+	}
+
+	private void trace(int paths, int directories, long estimate,
+			boolean reload) {
+		if (GitTraceLocation.INDEXDIFFCACHE.isActive()) {
+			long fullNanos;
+			synchronized (this) {
+				fullNanos = lastFullReloadNanos;
+			}
+			GitTraceLocation.getTrace().trace(
+					GitTraceLocation.INDEXDIFFCACHE.getLocation(),
+					NLS.bind(
+							"{0}: {1} changed paths in {2} directories, estimated update {3} ms, last full reload {4} ms -> {5}", //$NON-NLS-1$
+							new Object[] { repositoryName,
+									Integer.valueOf(paths),
+									Integer.valueOf(directories),
+									Long.valueOf(TimeUnit.NANOSECONDS
+											.toMillis(estimate)),
+									Long.valueOf(TimeUnit.NANOSECONDS
+											.toMillis(fullNanos)),
+									reload ? "full reload" //$NON-NLS-1$
+											: "incremental update" })); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Counts the distinct directories, including all their parents, that an
+	 * incremental walk over the given paths has to enter.
+	 *
+	 * @param paths
+	 *            repository-relative paths; folders end with /
+	 * @return the number of directories
+	 */
+	static int countDirectories(Collection<String> paths) {
+		Set<String> directories = new HashSet<>();
+		for (String path : paths) {
+			// A folder counts itself, a file only its parents
+			int end = path.lastIndexOf('/');
+			while (end > 0 && directories.add(path.substring(0, end))) {
+				end = path.lastIndexOf('/', end - 1);
+			}
+		}
+		return directories.size();
+	}
+}
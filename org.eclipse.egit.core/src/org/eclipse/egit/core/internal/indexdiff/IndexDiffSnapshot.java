@@ -0,0 +1,504 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.egit.core.Activator;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.CoreConfig;
+import org.eclipse.jgit.lib.IndexDiff.StageState;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.util.FS;
+import org.eclipse.jgit.util.SystemReader;
+
+/**
+ * A persisted {@link IndexDiffData} of a repository. Snapshots are stored in
+ * the plug-in state location, keyed by the checksum of the git index file and
+ * the HEAD commit, so that decorations can be shown right after a restart. A
+ * loaded snapshot must be validated against the working tree via
+ * {@link #findChangedPaths(Repository)}.
+ */
+final class IndexDiffSnapshot {
+
+	private static final int MAGIC = 0x45474944; // "EGID"
+
+	private static final int VERSION = 1;
+
+	private static final String FOLDER = "indexdiff"; //$NON-NLS-1$
+
+	private static final int CHECKSUM_LENGTH = Constants.OBJECT_ID_LENGTH;
+
+	private static final int STATUS_SET_COUNT = 12;
+
+	/** Longer than any path supported by the file systems we run on. */
+	private static final int MAX_PATH_LENGTH = 64 * 1024;
+
+	private final IndexDiffData data;
+
+	private final long validSince;
+
+	private IndexDiffSnapshot(IndexDiffData data, long validSince) {
+		this.data = data;
+		this.validSince = validSince;
+	}
+
+	/**
+	 * @return the stored data
+	 */
+	IndexDiffData getData() {
+		return data;
+	}
+
+	/**
+	 * Stores the given data for a repository.
+	 *
+	 * @param repository
+	 *            the data belongs to
+	 * @param data
+	 *            to store
+	 * @param validSince
+	 *            time in milliseconds since the epoch since which the data
+	 *            reflects the working tree
+	 * @throws IOException
+	 *             if the data cannot be written
+	 */
+	static void save(Repository repository, IndexDiffData data,
+			long validSince) throws IOException {
+		File file = getFile(repository);
+		if (file == null) {
+			return;
+		}
+		File folder = file.getParentFile();
+		if (!folder.isDirectory() && !folder.mkdirs()) {
+			throw new IOException(folder.toString());
+		}
+		File tmp = File.createTempFile(file.getName(), null, folder);
+		try {
+			try (OutputStream stream = new BufferedOutputStream(
+					Files.newOutputStream(tmp.toPath()))) {
+				DataOutputStream header = new DataOutputStream(stream);
+				header.writeInt(MAGIC);
+				header.writeInt(VERSION);
+				header.write(getKey(repository));
+				header.writeLong(validSince);
+				header.flush();
+				DeflaterOutputStream deflater = new DeflaterOutputStream(
+						stream);
+				DataOutputStream out = new DataOutputStream(deflater);
+				write(out, data);
+				out.flush();
+				deflater.finish();
+			}
+			Files.move(tmp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp.toPath());
+		}
+	}
+
+	/**
+	 * Loads the snapshot stored for a repository if it matches the current
+	 * index and HEAD.
+	 *
+	 * @param repository
+	 *            to load the snapshot of
+	 * @return the snapshot, or {@code null} if there is no matching one
+	 * @throws IOException
+	 *             if the snapshot cannot be read
+	 */
+	@Nullable
+	static IndexDiffSnapshot load(Repository repository) throws IOException {
+		File file = getFile(repository);
+		if (file == null || !file.isFile()) {
+			return null;
+		}
+		try (InputStream stream = new BufferedInputStream(
+				Files.newInputStream(file.toPath()))) {
+			DataInputStream header = new DataInputStream(stream);
+			if (header.readInt() != MAGIC || header.readInt() != VERSION) {
+				return null;
+			}
+			byte[] key = new byte[2 * CHECKSUM_LENGTH];
+			header.readFully(key);
+			if (!Arrays.equals(key, getKey(repository))) {
+				return null;
+			}
+			long validSince = header.readLong();
+			DataInputStream in = new DataInputStream(
+					new InflaterInputStream(stream));
+			return new IndexDiffSnapshot(read(in), validSince);
+		} catch (EOFException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Removes the snapshot stored for a repository, if any.
+	 *
+	 * @param repository
+	 *            to remove the snapshot of
+	 * @throws IOException
+	 *             if the file cannot be deleted
+	 */
+	static void delete(Repository repository) throws IOException {
+		delete(repository.getDirectory());
+	}
+
+	/**
+	 * Removes the snapshot stored for a repository, if any.
+	 *
+	 * @param gitDir
+	 *            of the repository to remove the snapshot of
+	 * @throws IOException
+	 *             if the file cannot be deleted
+	 */
+	static void delete(File gitDir) throws IOException {
+		File file = getFile(gitDir);
+		if (file != null) {
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+
+	/**
+	 * Determines the paths in the working tree that may have changed since the
+	 * snapshot was taken: files and folders whose modification time is not
+	 * older than the snapshot minus the racy-git interval of the file system,
+	 * new files and folders that the snapshot does not know, and deleted index
+	 * entries, untracked files and untracked folders. Only file metadata is
+	 * looked at, no file contents are read.
+	 *
+	 * @param repository
+	 *            the snapshot belongs to
+	 * @return the changed repository-relative paths; folders end with a slash.
+	 *         {@code null} if ignore rules may have changed and the snapshot
+	 *         cannot be updated incrementally.
+	 * @throws IOException
+	 *             if the working tree cannot be walked
+	 */
+	@Nullable
+	Collection<String> findChangedPaths(Repository repository)
+			throws IOException {
+		File workTree = repository.getWorkTree();
+		FS.FileStoreAttributes attributes = FS.FileStoreAttributes
+				.get(workTree.toPath());
+		Duration racyInterval = attributes.getFsTimestampResolution()
+				.plus(attributes.getMinimalRacyInterval());
+		Instant threshold = Instant.ofEpochMilli(validSince)
+				.minus(racyInterval);
+		if (isModifiedSince(getGlobalExcludes(repository), threshold)
+				|| isModifiedSince(new File(repository.getDirectory(),
+						Constants.INFO_EXCLUDE), threshold)) {
+			return null;
+		}
+		Set<String> changed = new TreeSet<>();
+		FolderStateIndex folders = data.getFolderStates();
+		try (TreeWalk walk = new TreeWalk(repository)) {
+			walk.addTree(new DirCacheIterator(repository.readDirCache()));
+			walk.addTree(new FileTreeIterator(repository));
+			walk.setRecursive(false);
+			while (walk.next()) {
+				String path = walk.getPathString();
+				DirCacheIterator index = walk.getTree(0,
+						DirCacheIterator.class);
+				WorkingTreeIterator file = walk.getTree(1,
+						WorkingTreeIterator.class);
+				if (walk.isSubtree()) {
+					if (file == null) {
+						// Deleted folder
+						changed.add(path + '/');
+					} else if (index != null || data.getUntrackedFolders()
+							.contains(path + '/')) {
+						walk.enterSubtree();
+					} else if ((folders.getFlags(path)
+							& FolderStateIndex.IGNORED) == 0) {
+						// New folder
+						changed.add(path + '/');
+					}
+				} else if (file == null) {
+					if (!data.getMissing().contains(path)) {
+						changed.add(path);
+					}
+				} else if (!file.getEntryLastModifiedInstant()
+						.isBefore(threshold)) {
+					changed.add(path);
+				} else if (index == null && !data.getUntracked().contains(path)
+						&& !data.getIgnoredNotInIndex().contains(path)
+						&& !isInIgnoredFolder(folders, path)) {
+					// New file with an old modification time
+					changed.add(path);
+				}
+			}
+		}
+		// Deleted untracked files and folders are not seen by the walk
+		FS fs = repository.getFS();
+		for (String path : data.getUntracked()) {
+			if (!fs.exists(new File(workTree, path))) {
+				changed.add(path);
+			}
+		}
+		for (String path : data.getUntrackedFolders()) {
+			if (!fs.exists(new File(workTree, path))) {
+				changed.add(path);
+			}
+		}
+		for (String path : changed) {
+			if (path.equals(Constants.DOT_GIT_IGNORE)
+					|| path.endsWith('/' + Constants.DOT_GIT_IGNORE)) {
+				return null;
+			}
+		}
+		return changed;
+	}
+
+	private static boolean isInIgnoredFolder(FolderStateIndex folders,
+			String path) {
+		int lastSlash = path.lastIndexOf('/');
+		return lastSlash > 0 && (folders.getFlags(path.substring(0, lastSlash))
+				& FolderStateIndex.IGNORED) != 0;
+	}
+
+	private static boolean isModifiedSince(@Nullable File file,
+			Instant threshold) {
+		return file != null && file.exists()
+				&& file.lastModified() >= threshold.toEpochMilli();
+	}
+
+	@Nullable
+	private static File getGlobalExcludes(Repository repository) {
+		String path = repository.getConfig().get(CoreConfig.KEY)
+				.getExcludesFile();
+		FS fs = repository.getFS();
+		if (path == null) {
+			// Default used by git if core.excludesFile is not set
+			Path xdg = SystemReader.getInstance().getXdgConfigDirectory(fs);
+			if (xdg == null) {
+				return null;
+			}
+			return xdg.resolve("git").resolve("ignore").toFile(); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (path.startsWith("~/")) { //$NON-NLS-1$
+			return fs.resolve(fs.userHome(), path.substring(2));
+		}
+		return fs.resolve(null, path);
+	}
+
+	@Nullable
+	private static File getFile(Repository repository) {
+		return getFile(repository.getDirectory());
+	}
+
+	private static File getFile(File gitDirectory) {
+		Activator activator = Activator.getDefault();
+		if (activator == null) {
+			return null;
+		}
+		IPath location;
+		try {
+			location = activator.getStateLocation();
+		} catch (IllegalStateException e) {
+			// No instance location
+			return null;
+		}
+		byte[] gitDir = gitDirectory.getAbsolutePath()
+				.getBytes(StandardCharsets.UTF_8);
+		String name = ObjectId
+				.fromRaw(Constants.newMessageDigest().digest(gitDir)).name();
+		return location.append(FOLDER).append(name).toFile();
+	}
+
+	private static byte[] getKey(Repository repository) throws IOException {
+		byte[] key = new byte[2 * CHECKSUM_LENGTH];
+		File indexFile = repository.getIndexFile();
+		if (indexFile.isFile()) {
+			try (RandomAccessFile index = new RandomAccessFile(indexFile, "r")) { //$NON-NLS-1$
+				long length = index.length();
+				if (length >= CHECKSUM_LENGTH) {
+					index.seek(length - CHECKSUM_LENGTH);
+					index.readFully(key, 0, CHECKSUM_LENGTH);
+				}
+			}
+		}
+		ObjectId head = repository.resolve(Constants.HEAD);
+		if (head != null) {
+			head.copyRawTo(key, CHECKSUM_LENGTH);
+		}
+		return key;
+	}
+
+	/*
+	 * Format: a table of all distinct paths, sorted and front-coded, followed
+	 * by the status sets as delta-coded ascending indices into the table, and
+	 * the conflict states as (index, ordinal) pairs. All numbers are
+	 * variable-length encoded.
+	 */
+	private static void write(DataOutputStream out, IndexDiffData data)
+			throws IOException {
+		List<Set<String>> sets = data.getStatusSets();
+		Map<String, StageState> conflictStates = data.getConflictStates();
+		TreeSet<String> allPaths = new TreeSet<>(conflictStates.keySet());
+		for (Set<String> set : sets) {
+			allPaths.addAll(set);
+		}
+		Map<String, Integer> ids = new HashMap<>(allPaths.size() * 2);
+		writeVarInt(out, allPaths.size());
+		byte[] previous = new byte[0];
+		for (String path : allPaths) {
+			ids.put(path, Integer.valueOf(ids.size()));
+			byte[] bytes = path.getBytes(StandardCharsets.UTF_8);
+			int common = 0;
+			int max = Math.min(previous.length, bytes.length);
+			while (common < max && previous[common] == bytes[common]) {
+				common++;
+			}
+			writeVarInt(out, common);
+			writeVarInt(out, bytes.length - common);
+			out.write(bytes, common, bytes.length - common);
+			previous = bytes;
+		}
+		writeVarInt(out, sets.size());
+		for (Set<String> set : sets) {
+			int[] indices = set.stream().mapToInt(p -> ids.get(p).intValue())
+					.sorted().toArray();
+			writeVarInt(out, indices.length);
+			int last = 0;
+			for (int index : indices) {
+				writeVarInt(out, index - last);
+				last = index;
+			}
+		}
+		writeVarInt(out, conflictStates.size());
+		for (Map.Entry<String, StageState> entry : conflictStates.entrySet()) {
+			writeVarInt(out, ids.get(entry.getKey()).intValue());
+			writeVarInt(out, entry.getValue().ordinal());
+		}
+	}
+
+	/**
+	 * THIS METHOD IS PACKAGE-PRIVATE FOR TESTS ONLY
+	 *
+	 * @param in
+	 *            to read the data from
+	 * @return the data
+	 * @throws IOException
+	 *             if the data cannot be read or is malformed
+	 */
+	static IndexDiffData read(DataInputStream in) throws IOException {
+		int size = readVarInt(in, Integer.MAX_VALUE);
+		// Not pre-sized: a corrupt size must end in an EOFException, not in
+		// an OutOfMemoryError
+		List<String> paths = new ArrayList<>();
+		byte[] previous = new byte[0];
+		for (int i = 0; i < size; i++) {
+			int common = readVarInt(in, previous.length);
+			int suffix = readVarInt(in, MAX_PATH_LENGTH - common);
+			byte[] bytes = Arrays.copyOf(previous, common + suffix);
+			in.readFully(bytes, common, suffix);
+			paths.add(new String(bytes, StandardCharsets.UTF_8));
+			previous = bytes;
+		}
+		if (readVarInt(in) != STATUS_SET_COUNT) {
+			throw malformed();
+		}
+		List<Set<String>> sets = new ArrayList<>(STATUS_SET_COUNT);
+		for (int i = 0; i < STATUS_SET_COUNT; i++) {
+			int count = readVarInt(in, size);
+			Set<String> set = new HashSet<>(count * 2);
+			int index = 0;
+			for (int j = 0; j < count; j++) {
+				index += readVarInt(in, size - 1 - index);
+				set.add(paths.get(index));
+			}
+			sets.add(set);
+		}
+		int conflictCount = readVarInt(in, size);
+		Map<String, StageState> conflictStates = new HashMap<>();
+		StageState[] states = StageState.values();
+		for (int i = 0; i < conflictCount; i++) {
+			String path = paths.get(readVarInt(in, size - 1));
+			conflictStates.put(path, states[readVarInt(in, states.length - 1)]);
+		}
+		return new IndexDiffData(sets, conflictStates);
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value)
+			throws IOException {
+		int v = value;
+		while ((v & ~0x7F) != 0) {
+			out.writeByte((v & 0x7F) | 0x80);
+			v >>>= 7;
+		}
+		out.writeByte(v);
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw malformed();
+	}
+
+	/**
+	 * Reads a variable-length encoded number that must be in the range
+	 * [0, max].
+	 */
+	private static int readVarInt(DataInputStream in, int max)
+			throws IOException {
+		int value = readVarInt(in);
+		if (value < 0 || value > max) {
+			throw malformed();
+		}
+		return value;
+	}
+
+	private static IOException malformed() {
+		return new IOException("Malformed index diff snapshot"); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
+import org.eclipse.egit.core.EclipseGitProgressTransformer;
+import org.eclipse.egit.core.IteratorService;
+import org.eclipse.egit.core.RepositoryCache;
+import org.eclipse.egit.core.UnitOfWork;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+
+/**
+ * Computes the {@link IndexDiffData} of a whole working tree by splitting the
+ * top level of the tree into disjoint partitions that are diffed concurrently
+ * and merging the results.
+ */
+class PartitionedIndexDiff {
+
+	private final Repository repository;
+
+	private final String jobName;
+
+	private final int workers;
+
+	/**
+	 * @param repository
+	 *            to compute the diff for
+	 * @param jobName
+	 *            name of the calling job, used for progress reporting
+	 * @param workers
+	 *            maximum number of partitions diffed concurrently
+	 */
+	PartitionedIndexDiff(Repository repository, String jobName, int workers) {
+		this.repository = repository;
+		this.jobName = jobName;
+		this.workers = workers;
+	}
+
+	/**
+	 * Computes the {@link IndexDiffData}.
+	 *
+	 * @param monitor
+	 *            for progress reporting and cancellation
+	 * @return the data, or {@code null} if the workspace is closed
+	 * @throws IOException
+	 *             if a partition could not be diffed
+	 * @throws OperationCanceledException
+	 *             if cancelled
+	 */
+	@Nullable
+	IndexDiffData compute(IProgressMonitor monitor) throws IOException {
+		List<List<String>> partitions = partition(getTopLevelEntries());
+		if (partitions.size() < 2) {
+			IndexDiff diff = UnitOfWork.run(repository,
+					() -> diffPartition(null, monitor));
+			return diff == null ? null : new IndexDiffData(diff);
+		}
+		IndexDiff[] results = new IndexDiff[partitions.size()];
+		IOException[] error = new IOException[1];
+		JobGroup group = new JobGroup(jobName, workers, partitions.size());
+		for (int i = 0; i < partitions.size(); i++) {
+			int index = i;
+			List<String> paths = partitions.get(i);
+			Job job = new Job(jobName) {
+
+				@Override
+				protected IStatus run(IProgressMonitor jobMonitor) {
+					try {
+						IndexDiff diff = UnitOfWork.run(repository,
+								() -> diffPartition(paths, jobMonitor));
+						if (diff == null || jobMonitor.isCanceled()) {
+							return Status.CANCEL_STATUS;
+						}
+						results[index] = diff;
+						return Status.OK_STATUS;
+					} catch (IOException e) {
+						synchronized (error) {
+							error[0] = e;
+						}
+						return Status.CANCEL_STATUS;
+					}
+				}
+			};
+			job.setSystem(true);
+			job.setJobGroup(group);
+			job.schedule();
+		}
+		try {
+			group.join(0, monitor);
+		} catch (InterruptedException e) {
+			group.cancel();
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (OperationCanceledException e) {
+			group.cancel();
+			throw e;
+		}
+		synchronized (error) {
+			if (error[0] != null) {
+				throw error[0];
+			}
+		}
+		List<IndexDiff> diffs = new ArrayList<>(results.length);
+		for (IndexDiff diff : results) {
+			if (diff == null) {
+				// Cancelled, or the workspace was closed
+				return null;
+			}
+			diffs.add(diff);
+		}
+		return new IndexDiffData(diffs);
+	}
+
+	private IndexDiff diffPartition(@Nullable List<String> paths,
+			IProgressMonitor monitor) throws IOException {
+		WorkingTreeIterator iterator = IteratorService
+				.createInitialIterator(repository);
+		if (iterator == null) {
+			return null; // workspace is closed
+		}
+		IndexDiff diff = new IndexDiff(repository, Constants.HEAD, iterator);
+		if (paths != null) {
+			diff.setFilter(PathFilterGroup.createFromStrings(paths));
+		}
+		diff.diff(new EclipseGitProgressTransformer(monitor), 0, 0, jobName,
+				() -> RepositoryCache.INSTANCE.getBuilder(true, true));
+		return diff;
+	}
+
+	/**
+	 * Determines the entries at the top level of HEAD, the index, and the
+	 * working tree, together with an estimate of their size: the number of
+	 * index entries below them, or one if they are not in the index.
+	 */
+	private Map<String, Integer> getTopLevelEntries() throws IOException {
+		Map<String, Integer> entries = new HashMap<>();
+		DirCache index = repository.readDirCache();
+		for (int i = 0; i < index.getEntryCount(); i++) {
+			String path = index.getEntry(i).getPathString();
+			int slash = path.indexOf('/');
+			entries.merge(slash < 0 ? path : path.substring(0, slash),
+					Integer.valueOf(1), Integer::sum);
+		}
+		try (TreeWalk walk = new TreeWalk(repository)) {
+			ObjectId head = repository.resolve(Constants.HEAD + "^{tree}"); //$NON-NLS-1$
+			if (head != null) {
+				walk.addTree(head);
+			}
+			walk.addTree(new DirCacheIterator(index));
+			WorkingTreeIterator iterator = IteratorService
+					.createInitialIterator(repository);
+			if (iterator != null) {
+				walk.addTree(iterator);
+			}
+			walk.setRecursive(false);
+			while (walk.next()) {
+				String name = walk.getPathString();
+				if (!Constants.DOT_GIT.equals(name)) {
+					entries.putIfAbsent(name, Integer.valueOf(1));
+				}
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Distributes the entries over at most {@link #workers} partitions of
+	 * roughly equal estimated size, largest entries first.
+	 */
+	private List<List<String>> partition(Map<String, Integer> entries) {
+		int count = Math.min(workers, entries.size());
+		List<List<String>> partitions = new ArrayList<>(count);
+		if (count == 0) {
+			return partitions;
+		}
+		long[] sizes = new long[count];
+		for (int i = 0; i < count; i++) {
+			partitions.add(new ArrayList<>());
+		}
+		List<Map.Entry<String, Integer>> sorted = new ArrayList<>(
+				entries.entrySet());
+		sorted.sort(Map.Entry.<String, Integer> comparingByValue()
+				.reversed().thenComparing(Map.Entry.comparingByKey()));
+		for (Map.Entry<String, Integer> entry : sorted) {
+			int smallest = 0;
+			for (int i = 1; i < count; i++) {
+				if (sizes[i] < sizes[smallest]) {
+					smallest = i;
+				}
+			}
+			partitions.get(smallest).add(entry.getKey());
+			sizes[smallest] += entry.getValue().intValue();
+		}
+		return partitions;
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable set of paths stored as a sorted array of ids in a
+ * {@link PathTable}. Needs four bytes per path instead of a string; the
+ * strings are created on demand when the set is iterated.
+ */
+final class PathIdSet extends AbstractSet<String> {
+
+	private final PathTable table;
+
+	private final int[] ids;
+
+	private PathIdSet(PathTable table, int[] ids) {
+		this.table = table;
+		this.ids = ids;
+	}
+
+	/**
+	 * Creates an immutable set containing the given paths.
+	 *
+	 * @param table
+	 *            to intern the paths in
+	 * @param paths
+	 *            to include
+	 * @return the set
+	 */
+	static Set<String> of(PathTable table, Collection<String> paths) {
+		if (paths.isEmpty()) {
+			return Collections.emptySet();
+		}
+		int[] ids = new int[paths.size()];
+		int i = 0;
+		for (String path : paths) {
+			ids[i++] = table.intern(path);
+		}
+		Arrays.sort(ids);
+		int size = 0;
+		for (int j = 0; j < ids.length; j++) {
+			if (size == 0 || ids[size - 1] != ids[j]) {
+				ids[size++] = ids[j];
+			}
+		}
+		return new PathIdSet(table,
+				size == ids.length ? ids : Arrays.copyOf(ids, size));
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof String)) {
+			return false;
+		}
+		int id = table.find((String) o);
+		return id >= 0 && Arrays.binarySearch(ids, id) >= 0;
+	}
+
+	@Override
+	public int size() {
+		return ids.length;
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		return new Iterator<>() {
+
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < ids.length;
+			}
+
+			@Override
+			public String next() {
+				if (next >= ids.length) {
+					throw new NoSuchElementException();
+				}
+				return table.getPath(ids[next++]);
+			}
+		};
+	}
+}
@@ -0,0 +1,339 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * An append-only table of interned repository-relative paths. Every path gets
+ * an int id; a path is stored as the id of its parent plus the UTF-8 encoded
+ * last segment, so common prefixes are stored only once. A trailing slash, as
+ * used for folder paths, is stored as an additional empty segment.
+ * <p>
+ * Ids stay valid for the lifetime of the table; paths are never removed. The
+ * table is thread-safe; lookups of paths and ids run concurrently, only
+ * adding paths is exclusive. Looking up a path, as done for every
+ * {@code contains} on a status set, neither allocates for ASCII paths nor
+ * takes a lock unless a path is being added at the same time.
+ * </p>
+ */
+final class PathTable {
+
+	private static final int ROOT = 0;
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Parent id per id; -1 for the root. */
+	private int[] parents = new int[INITIAL_CAPACITY];
+
+	/** Start of the name of an id in {@link #names}; ends at the next one. */
+	private int[] starts = new int[INITIAL_CAPACITY + 1];
+
+	private byte[] names = new byte[INITIAL_CAPACITY * 8];
+
+	/** Open addressing hash table of ids + 1; zero marks a free slot. */
+	private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+	private int size;
+
+	/** Buffer for the encoded segment being added. */
+	private byte[] segment = new byte[64];
+
+	private final StampedLock lock = new StampedLock();
+
+	PathTable() {
+		parents[ROOT] = -1;
+		size = 1;
+	}
+
+	/**
+	 * @return the number of ids, including the one of the empty root path
+	 */
+	int size() {
+		long stamp = lock.readLock();
+		try {
+			return size;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Gets the id of a path, adding the path if necessary.
+	 *
+	 * @param path
+	 *            repository-relative path
+	 * @return the id
+	 */
+	int intern(String path) {
+		long stamp = lock.writeLock();
+		try {
+			if (segment.length < maxEncodedLength(path)) {
+				segment = new byte[Math.max(maxEncodedLength(path),
+						segment.length * 2)];
+			}
+			return lookup(path, segment, true);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Gets the id of a path without adding it.
+	 *
+	 * @param path
+	 *            repository-relative path
+	 * @return the id, or -1 if the path is not in the table
+	 */
+	int find(String path) {
+		long stamp = lock.tryOptimisticRead();
+		if (stamp != 0) {
+			try {
+				int id = lookup(path);
+				if (lock.validate(stamp)) {
+					return id;
+				}
+			} catch (RuntimeException e) {
+				// Read an inconsistent state while a path was added
+			}
+		}
+		stamp = lock.readLock();
+		try {
+			return lookup(path);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Gets the path of an id.
+	 *
+	 * @param id
+	 *            obtained from {@link #intern(String)}
+	 * @return the path
+	 */
+	String getPath(int id) {
+		long stamp = lock.readLock();
+		try {
+			return buildPath(id);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	private String buildPath(int id) {
+		int length = -1;
+		for (int i = id; i != ROOT; i = parents[i]) {
+			length += starts[i + 1] - starts[i] + 1;
+		}
+		if (length <= 0) {
+			return ""; //$NON-NLS-1$
+		}
+		byte[] path = new byte[length];
+		int end = length;
+		for (int i = id; i != ROOT; i = parents[i]) {
+			int nameLength = starts[i + 1] - starts[i];
+			end -= nameLength;
+			System.arraycopy(names, starts[i], path, end, nameLength);
+			if (end > 0) {
+				path[--end] = '/';
+			}
+		}
+		return new String(path, StandardCharsets.UTF_8);
+	}
+
+	private static int maxEncodedLength(String path) {
+		// UTF-8 needs at most three bytes per char
+		return 3 * path.length();
+	}
+
+	private int lookup(String path, byte[] buffer, boolean add) {
+		int id = ROOT;
+		int start = 0;
+		int length = path.length();
+		while (start <= length) {
+			int end = path.indexOf('/', start);
+			if (end < 0) {
+				end = length;
+			}
+			if (end == length && start == length && id == ROOT) {
+				// Empty path
+				break;
+			}
+			int segmentLength = encode(path, start, end, buffer);
+			id = findChild(id, buffer, segmentLength, add);
+			if (id < 0) {
+				return -1;
+			}
+			if (end == length) {
+				break;
+			}
+			start = end + 1;
+		}
+		return id;
+	}
+
+	/**
+	 * Looks up a path without adding it, comparing ASCII segments directly
+	 * against the stored names. May run without holding the lock, so it must
+	 * terminate on any state: there always is a free slot.
+	 */
+	private int lookup(String path) {
+		int length = path.length();
+		if (length == 0) {
+			return ROOT;
+		}
+		int id = ROOT;
+		int start = 0;
+		for (;;) {
+			int end = path.indexOf('/', start);
+			if (end < 0) {
+				end = length;
+			}
+			id = findChild(id, path, start, end);
+			if (id < 0 || end == length) {
+				return id;
+			}
+			start = end + 1;
+		}
+	}
+
+	private int findChild(int parent, String path, int start, int end) {
+		int h = parent * 0x9E3779B9;
+		for (int i = start; i < end; i++) {
+			char c = path.charAt(i);
+			if (c >= 0x80) {
+				byte[] encoded = path.substring(start, end)
+						.getBytes(StandardCharsets.UTF_8);
+				return findChild(parent, encoded, encoded.length, false);
+			}
+			h = 31 * h + c;
+		}
+		int[] table = slots;
+		int mask = table.length - 1;
+		int slot = (h ^ (h >>> 16)) & mask;
+		for (;;) {
+			int candidate = table[slot] - 1;
+			if (candidate < 0) {
+				return -1;
+			}
+			if (parents[candidate] == parent
+					&& nameEquals(candidate, path, start, end)) {
+				return candidate;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private boolean nameEquals(int id, String path, int start, int end) {
+		int nameStart = starts[id];
+		if (starts[id + 1] - nameStart != end - start) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (names[nameStart++] != path.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int encode(String path, int start, int end,
+			byte[] buffer) {
+		int length = 0;
+		for (int i = start; i < end; i++) {
+			char c = path.charAt(i);
+			if (c >= 0x80) {
+				byte[] encoded = path.substring(start, end)
+						.getBytes(StandardCharsets.UTF_8);
+				System.arraycopy(encoded, 0, buffer, 0, encoded.length);
+				return encoded.length;
+			}
+			buffer[length++] = (byte) c;
+		}
+		return length;
+	}
+
+	private int findChild(int parent, byte[] buffer, int segmentLength,
+			boolean add) {
+		int mask = slots.length - 1;
+		int slot = hash(parent, buffer, 0, segmentLength) & mask;
+		for (;;) {
+			int candidate = slots[slot] - 1;
+			if (candidate < 0) {
+				break;
+			}
+			if (parents[candidate] == parent
+					&& nameEquals(candidate, buffer, segmentLength)) {
+				return candidate;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (!add) {
+			return -1;
+		}
+		int id = append(parent, buffer, segmentLength);
+		if (2 * size > slots.length) {
+			rehash();
+		} else {
+			slots[slot] = id + 1;
+		}
+		return id;
+	}
+
+	private boolean nameEquals(int id, byte[] buffer, int segmentLength) {
+		int start = starts[id];
+		return starts[id + 1] - start == segmentLength && Arrays.equals(names,
+				start, start + segmentLength, buffer, 0, segmentLength);
+	}
+
+	private int append(int parent, byte[] buffer, int segmentLength) {
+		int id = size;
+		if (id + 1 >= parents.length) {
+			parents = Arrays.copyOf(parents, parents.length * 2);
+			starts = Arrays.copyOf(starts, parents.length + 1);
+		}
+		int start = starts[id];
+		if (start + segmentLength > names.length) {
+			names = Arrays.copyOf(names,
+					Math.max(start + segmentLength, names.length * 2));
+		}
+		System.arraycopy(buffer, 0, names, start, segmentLength);
+		parents[id] = parent;
+		starts[id + 1] = start + segmentLength;
+		size++;
+		return id;
+	}
+
+	private void rehash() {
+		slots = new int[slots.length * 2];
+		int mask = slots.length - 1;
+		for (int id = ROOT + 1; id < size; id++) {
+			int start = starts[id];
+			int slot = hash(parents[id], names, start, starts[id + 1] - start)
+					& mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = id + 1;
+		}
+	}
+
+	private static int hash(int parent, byte[] bytes, int start, int length) {
+		int h = parent * 0x9E3779B9;
+		for (int i = start; i < start + length; i++) {
+			h = 31 * h + bytes[i];
+		}
+		return h ^ (h >>> 16);
+	}
+}
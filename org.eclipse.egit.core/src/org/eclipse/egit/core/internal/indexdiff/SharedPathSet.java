@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * An immutable set of paths that shares an immutable base set with the
+ * snapshot it was derived from and records only the paths added or removed
+ * since. Incremental {@link IndexDiffData} updates thus allocate memory
+ * proportional to the number of changed paths, not to the size of the sets.
+ * Once the recorded changes grow too large relative to the base, the set is
+ * compacted into a new {@link PathIdSet} base.
+ */
+final class SharedPathSet extends AbstractSet<String> {
+
+	/**
+	 * Minimum number of recorded changes before a set is compacted, so that
+	 * small sets do not get copied on every update.
+	 */
+	private static final int MIN_COMPACTION_SIZE = 64;
+
+	private final Set<String> base;
+
+	private final Set<String> added;
+
+	private final Set<String> removed;
+
+	private SharedPathSet(Set<String> base, Set<String> added,
+			Set<String> removed) {
+		this.base = base;
+		this.added = added;
+		this.removed = removed;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return added.contains(o) || (base.contains(o) && !removed.contains(o));
+	}
+
+	@Override
+	public int size() {
+		return base.size() - removed.size() + added.size();
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		if (removed.isEmpty()) {
+			return Stream.concat(base.stream(), added.stream()).iterator();
+		}
+		return Stream.concat(
+				base.stream().filter(path -> !removed.contains(path)),
+				added.stream()).iterator();
+	}
+
+	/**
+	 * Creates a new set from a previous one by adding and removing paths. The
+	 * previous set is never modified and must not be modified by anyone else
+	 * either.
+	 */
+	static final class Builder {
+
+		private final Set<String> previous;
+
+		private final PathTable table;
+
+		private final Set<String> base;
+
+		/**
+		 * Shared with {@link #previous} until the first modification, then a
+		 * private copy.
+		 */
+		private Set<String> added;
+
+		/**
+		 * Shared with {@link #previous} until the first modification, then a
+		 * private copy.
+		 */
+		private Set<String> removed;
+
+		/** Paths whose membership may differ from {@link #previous}. */
+		private final Set<String> touched = new HashSet<>();
+
+		private boolean modified;
+
+		Builder(Set<String> previous, PathTable table) {
+			this.previous = previous;
+			this.table = table;
+			if (previous instanceof SharedPathSet) {
+				SharedPathSet shared = (SharedPathSet) previous;
+				base = shared.base;
+				added = shared.added;
+				removed = shared.removed;
+			} else {
+				base = previous;
+				added = Collections.emptySet();
+				removed = Collections.emptySet();
+			}
+		}
+
+		void add(String path) {
+			touched.add(path);
+			if (base.contains(path)) {
+				if (removed.contains(path)) {
+					copyOnWrite();
+					removed.remove(path);
+				}
+			} else if (!added.contains(path)) {
+				copyOnWrite();
+				added.add(path);
+			}
+		}
+
+		void remove(String path) {
+			touched.add(path);
+			if (added.contains(path)) {
+				copyOnWrite();
+				added.remove(path);
+			} else if (base.contains(path) && !removed.contains(path)) {
+				copyOnWrite();
+				removed.add(path);
+			}
+		}
+
+		private void copyOnWrite() {
+			if (!modified) {
+				added = new HashSet<>(added);
+				removed = new HashSet<>(removed);
+				modified = true;
+			}
+		}
+
+		/**
+		 * Builds the set and records the paths that were added to or removed
+		 * from the previous set.
+		 *
+		 * @param changes
+		 *            to add the changed paths to
+		 * @return the new set
+		 */
+		Set<String> build(Set<String> changes) {
+			Set<String> result = build();
+			if (result != previous) {
+				for (String path : touched) {
+					if (previous.contains(path) != result.contains(path)) {
+						changes.add(path);
+					}
+				}
+			}
+			return result;
+		}
+
+		Set<String> build() {
+			if (!modified) {
+				return previous;
+			}
+			int changes = added.size() + removed.size();
+			if (changes == 0) {
+				return base;
+			}
+			if (changes > MIN_COMPACTION_SIZE && changes > base.size() / 4) {
+				List<String> compacted = new ArrayList<>(
+						base.size() - removed.size() + added.size());
+				for (String path : base) {
+					if (!removed.contains(path)) {
+						compacted.add(path);
+					}
+				}
+				compacted.addAll(added);
+				return PathIdSet.of(table, compacted);
+			}
+			return new SharedPathSet(base, added, removed);
+		}
+	}
+}
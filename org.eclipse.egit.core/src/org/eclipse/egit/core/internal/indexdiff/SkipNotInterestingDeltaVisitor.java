@@ -11,9 +11,11 @@
  *******************************************************************************/
 package org.eclipse.egit.core.internal.indexdiff;
 
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jgit.annotations.Nullable;
 
 /**
  * While analyzing ResourceDelta, try to determine if delta contains at least 1
@@ -21,8 +23,27 @@
  */
 class SkipNotInterestingDeltaVisitor implements IResourceDeltaVisitor {
 
+	private final IgnoredPathMatcher ignoredPaths;
+
 	private boolean atLeastOneInterestingDelta = false;
 
+	private int visited;
+
+	private int pruned;
+
+	SkipNotInterestingDeltaVisitor() {
+		this(null);
+	}
+
+	/**
+	 * @param ignoredPaths
+	 *            matcher to skip ignored folders with, or {@code null} to
+	 *            visit all folders
+	 */
+	SkipNotInterestingDeltaVisitor(@Nullable IgnoredPathMatcher ignoredPaths) {
+		this.ignoredPaths = ignoredPaths;
+	}
+
 	@Override
 	public boolean visit(IResourceDelta delta) throws CoreException {
 		if (atLeastOneInterestingDelta) {
@@ -30,6 +51,17 @@ public boolean visit(IResourceDelta delta) throws CoreException {
 			// change
 			return false;
 		}
+		visited++;
+
+		IResource resource = delta.getResource();
+		if (ignoredPaths != null && resource.getType() == IResource.FOLDER
+				&& ignoredPaths.isIgnored(resource.getLocation())) {
+			// Nothing below an ignored folder can be interesting, not even a
+			// .gitignore file. As in the GitResourceDeltaVisitor, this holds
+			// for re-created folders, too.
+			pruned++;
+			return false;
+		}
 
 		if (GitResourceDeltaVisitor.isInteresting(delta)) {
 			atLeastOneInterestingDelta = true;
@@ -44,4 +76,18 @@ public boolean hasAtLeastOneInterestingDelta() {
 		return atLeastOneInterestingDelta;
 	}
 
+	/**
+	 * @return the number of deltas visited
+	 */
+	int getVisitedCount() {
+		return visited;
+	}
+
+	/**
+	 * @return the number of ignored folders whose children were skipped
+	 */
+	int getPrunedCount() {
+		return pruned;
+	}
+
 }
@@ -0,0 +1,436 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.indexdiff;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.eclipse.egit.core.internal.trace.GitTraceLocation;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Watches the folders of a working tree with a {@link WatchService} and
+ * reports changed paths in batches. Events are collected until no new event
+ * arrived for {@link #QUIET_MILLIS}, or for at most {@link #MAX_DELAY_MILLIS},
+ * so that a build or a checkout touching many files results in few batches.
+ * <p>
+ * The git directory, nested repositories and folders for which the given
+ * predicate returns {@code true} are not watched. Because most platforms
+ * don't support recursive watches, every folder is registered on its own. A
+ * folder that is created or moved into the working tree is reported together
+ * with its contents; one that is deleted or moved away is reported on its
+ * own.
+ * </p>
+ * <p>
+ * All working trees share one watch service and one thread, which exist only
+ * while there are open watchers. Watch descriptors are a per-user resource of
+ * the operating system, so at most {@link #MAX_FOLDERS} folders are watched
+ * over all working trees.
+ * </p>
+ */
+class WorkTreeWatcher implements Closeable {
+
+	/** Time without events after which a batch is reported. */
+	static final long QUIET_MILLIS = 300;
+
+	/** Maximum time a batch is delayed while events keep coming in. */
+	static final long MAX_DELAY_MILLIS = 2000;
+
+	/** Maximum number of folders watched over all working trees. */
+	static final int MAX_FOLDERS = 20_000;
+
+	/**
+	 * The service of all open watchers, or {@code null} if there are none.
+	 * Guarded by {@code WorkTreeWatcher.class}.
+	 */
+	private static SharedService shared;
+
+	private final Path workTree;
+
+	private final Path gitDir;
+
+	private final String name;
+
+	private final Predicate<String> excluded;
+
+	private final Consumer<Collection<String>> changes;
+
+	private final Runnable overflow;
+
+	private final SharedService service;
+
+	/** The watched folders of this working tree; guarded by the service. */
+	private final Map<WatchKey, Path> keys = new HashMap<>();
+
+	/** The watched folders of this working tree; guarded by the service. */
+	private final Set<Path> folders = new HashSet<>();
+
+	private volatile boolean closed;
+
+	private volatile boolean watching;
+
+	/**
+	 * Creates a new watcher and registers the folders of the working tree.
+	 *
+	 * @param workTree
+	 *            to watch
+	 * @param gitDir
+	 *            git directory of the repository, not watched
+	 * @param name
+	 *            of the repository, for tracing
+	 * @param excluded
+	 *            tells for a repository-relative folder path without trailing
+	 *            slash whether it shall not be watched, for instance because
+	 *            it is ignored
+	 * @param changes
+	 *            receives batches of changed repository-relative paths;
+	 *            folders end with a slash
+	 * @param overflow
+	 *            called when events were lost
+	 * @throws IOException
+	 *             if the file system cannot be watched
+	 */
+	WorkTreeWatcher(File workTree, File gitDir, String name,
+			Predicate<String> excluded, Consumer<Collection<String>> changes,
+			Runnable overflow) throws IOException {
+		this.workTree = workTree.toPath().toAbsolutePath();
+		this.gitDir = gitDir.toPath().toAbsolutePath();
+		this.name = name;
+		this.excluded = excluded;
+		this.changes = changes;
+		this.overflow = overflow;
+		service = SharedService.acquire(this);
+		boolean complete;
+		int count;
+		try {
+			synchronized (service) {
+				register(this.workTree, null);
+				complete = service.owners.size() < MAX_FOLDERS;
+				count = folders.size();
+			}
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+		watching = true;
+		trace(complete ? "{0}: watching {1} folders" //$NON-NLS-1$
+				: "{0}: watching {1} folders, not all of them", //$NON-NLS-1$
+				Integer.valueOf(count));
+	}
+
+	/**
+	 * FOR TESTS ONLY
+	 *
+	 * @return whether the initial registration of the folders is done
+	 */
+	boolean isWatching() {
+		return watching;
+	}
+
+	/**
+	 * FOR TESTS ONLY
+	 *
+	 * @return the number of folders watched over all working trees
+	 */
+	static int getWatchedFolderCount() {
+		synchronized (WorkTreeWatcher.class) {
+			if (shared == null) {
+				return 0;
+			}
+			synchronized (shared) {
+				return shared.owners.size();
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		service.release(this);
+	}
+
+	/**
+	 * Collects the paths of the events of a key into the batch, registering
+	 * new folders.
+	 *
+	 * @return {@code true} if events were lost
+	 */
+	private boolean process(WatchKey key, Set<String> batch)
+			throws IOException {
+		Path folder = keys.get(key);
+		boolean lost = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			WatchEvent.Kind<?> kind = event.kind();
+			if (kind == OVERFLOW) {
+				lost = true;
+				continue;
+			}
+			if (folder == null) {
+				continue;
+			}
+			Path child = folder.resolve((Path) event.context());
+			if (child.startsWith(gitDir)) {
+				continue;
+			}
+			String path = getRelativePath(child);
+			if (kind == ENTRY_CREATE
+					&& Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+				if (!isExcluded(child, path)) {
+					batch.add(path + '/');
+					register(child, batch);
+				}
+			} else if (kind == ENTRY_DELETE && folders.remove(child)) {
+				batch.add(path + '/');
+			} else if (!Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+				// Modifications of folders are reported for their children
+				batch.add(path);
+			}
+		}
+		if (!key.reset()) {
+			Path removed = keys.remove(key);
+			if (removed != null) {
+				folders.remove(removed);
+				service.owners.remove(key);
+			}
+		}
+		return lost;
+	}
+
+	/**
+	 * Registers a folder and its sub-folders.
+	 *
+	 * @param folder
+	 *            to register
+	 * @param batch
+	 *            to add the files and folders found to, if the folder is new;
+	 *            {@code null} otherwise
+	 */
+	private void register(Path folder, Set<String> batch) throws IOException {
+		if (closed || service.owners.size() >= MAX_FOLDERS) {
+			return;
+		}
+		try {
+			WatchKey key = folder.register(service.watchService, ENTRY_CREATE,
+					ENTRY_DELETE, ENTRY_MODIFY);
+			WorkTreeWatcher owner = service.owners.putIfAbsent(key, this);
+			if (owner != null && owner != this) {
+				// Already watched for another working tree
+				return;
+			}
+			keys.put(key, folder);
+			folders.add(folder);
+		} catch (IOException | ClosedWatchServiceException e) {
+			// Deleted in the meantime, or not accessible
+			return;
+		}
+		try (DirectoryStream<Path> children = Files
+				.newDirectoryStream(folder)) {
+			for (Path child : children) {
+				if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+					String path = getRelativePath(child);
+					if (!isExcluded(child, path)) {
+						if (batch != null) {
+							batch.add(path + '/');
+						}
+						register(child, batch);
+					}
+				} else if (batch != null) {
+					batch.add(getRelativePath(child));
+				}
+			}
+		} catch (IOException e) {
+			// Ignore, the folder is still watched
+		}
+	}
+
+	private boolean isExcluded(Path folder, String path) {
+		if (folder.equals(gitDir)
+				|| Files.exists(folder.resolve(Constants.DOT_GIT),
+						LinkOption.NOFOLLOW_LINKS)) {
+			// Our repository or a nested one
+			return true;
+		}
+		return excluded.test(path);
+	}
+
+	private String getRelativePath(Path path) {
+		return workTree.relativize(path).toString().replace(File.separatorChar,
+				'/');
+	}
+
+	private void trace(String message, Object argument) {
+		if (GitTraceLocation.INDEXDIFFCACHE.isActive()) {
+			GitTraceLocation.getTrace().trace(
+					GitTraceLocation.INDEXDIFFCACHE.getLocation(),
+					NLS.bind(message, name, argument));
+		}
+	}
+
+	/**
+	 * The watch service and thread shared by all open watchers. The thread
+	 * collects the events of all working trees and reports a batch per
+	 * working tree.
+	 */
+	private static final class SharedService {
+
+		final WatchService watchService;
+
+		/** The owners of all watched folders; guarded by this. */
+		final Map<WatchKey, WorkTreeWatcher> owners = new HashMap<>();
+
+		/** Guarded by {@code WorkTreeWatcher.class}. */
+		private final Set<WorkTreeWatcher> watchers = new HashSet<>();
+
+		private final Thread thread;
+
+		private volatile boolean closed;
+
+		private SharedService() throws IOException {
+			watchService = FileSystems.getDefault().newWatchService();
+			thread = new Thread(this::run, "EGit work tree watcher"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		static SharedService acquire(WorkTreeWatcher watcher)
+				throws IOException {
+			synchronized (WorkTreeWatcher.class) {
+				if (shared == null) {
+					shared = new SharedService();
+				}
+				shared.watchers.add(watcher);
+				return shared;
+			}
+		}
+
+		void release(WorkTreeWatcher watcher) {
+			synchronized (WorkTreeWatcher.class) {
+				synchronized (this) {
+					for (WatchKey key : watcher.keys.keySet()) {
+						key.cancel();
+						owners.remove(key);
+					}
+					watcher.keys.clear();
+					watcher.folders.clear();
+				}
+				watchers.remove(watcher);
+				if (watchers.isEmpty() && shared == this) {
+					shared = null;
+					close();
+				}
+			}
+		}
+
+		private void close() {
+			closed = true;
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				// Ignore
+			}
+			thread.interrupt();
+		}
+
+		private void run() {
+			try {
+				while (!closed) {
+					WatchKey key = watchService.take();
+					Map<WorkTreeWatcher, Set<String>> batches = new HashMap<>();
+					Set<WorkTreeWatcher> lost = new HashSet<>();
+					long deadline = System.currentTimeMillis()
+							+ MAX_DELAY_MILLIS;
+					while (key != null) {
+						process(key, batches, lost);
+						long remaining = deadline - System.currentTimeMillis();
+						if (remaining <= 0) {
+							break;
+						}
+						key = watchService.poll(
+								Math.min(QUIET_MILLIS, remaining),
+								TimeUnit.MILLISECONDS);
+					}
+					for (WorkTreeWatcher watcher : lost) {
+						if (!watcher.closed) {
+							watcher.overflow.run();
+						}
+					}
+					batches.forEach((watcher, batch) -> {
+						if (!watcher.closed && !lost.contains(watcher)
+								&& !batch.isEmpty()) {
+							watcher.changes.accept(batch);
+						}
+					});
+				}
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				// Closed
+			} finally {
+				try {
+					watchService.close();
+				} catch (IOException e) {
+					// Ignore
+				}
+			}
+		}
+
+		private synchronized void process(WatchKey key,
+				Map<WorkTreeWatcher, Set<String>> batches,
+				Set<WorkTreeWatcher> lost) {
+			WorkTreeWatcher watcher = owners.get(key);
+			if (watcher == null) {
+				// Cancelled, or lost while all watchers were closing
+				key.pollEvents();
+				key.reset();
+				return;
+			}
+			Set<String> batch = batches.computeIfAbsent(watcher,
+					w -> new HashSet<>());
+			try {
+				if (watcher.process(key, batch)) {
+					lost.add(watcher);
+				}
+			} catch (IOException e) {
+				if (GitTraceLocation.INDEXDIFFCACHE.isActive()) {
+					GitTraceLocation.getTrace().trace(
+							GitTraceLocation.INDEXDIFFCACHE.getLocation(),
+							"Watching " + watcher.workTree + " failed", e); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				lost.add(watcher);
+			}
+		}
+	}
+}
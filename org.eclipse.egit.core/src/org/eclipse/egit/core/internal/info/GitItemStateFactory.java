@@ -30,7 +30,9 @@
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IContainer;
@@ -39,6 +41,7 @@
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.egit.core.info.GitItemState;
 import org.eclipse.egit.core.info.GitItemState.StagingState;
+import org.eclipse.egit.core.internal.indexdiff.FolderStateIndex;
 import org.eclipse.egit.core.internal.indexdiff.IndexDiffCache;
 import org.eclipse.egit.core.internal.indexdiff.IndexDiffCacheEntry;
 import org.eclipse.egit.core.internal.indexdiff.IndexDiffData;
@@ -230,6 +233,47 @@ public GitItemState get(@NonNull IndexDiffData indexDiffData,
 		return UNKNOWN_STATE;
 	}
 
+	/**
+	 * Computes the {@link GitItemState}s of several resources of one
+	 * repository from the given {@link IndexDiffData}. The repository and the
+	 * location of its working tree are determined only once for all
+	 * resources.
+	 *
+	 * @param indexDiffData
+	 *            of the repository, to compute the states from
+	 * @param repository
+	 *            the resources belong to
+	 * @param resources
+	 *            to get the states of
+	 * @return the states, by resource
+	 */
+	@NonNull
+	public Map<IResource, GitItemState> getAll(
+			@NonNull IndexDiffData indexDiffData,
+			@NonNull Repository repository,
+			@NonNull Collection<? extends IResource> resources) {
+		Map<IResource, GitItemState> result = new HashMap<>(
+				resources.size() * 4 / 3 + 1);
+		if (repository.isBare()) {
+			for (IResource resource : resources) {
+				result.put(resource, UNKNOWN_STATE);
+			}
+			return result;
+		}
+		IPath workTree = new org.eclipse.core.runtime.Path(
+				repository.getWorkTree().getAbsolutePath());
+		for (IResource resource : resources) {
+			IPath path = resource.getLocation();
+			GitItemState state = UNKNOWN_STATE;
+			if (path != null) {
+				state = get(indexDiffData, new ResourceItem(resource), path,
+						repository, workTree);
+			}
+			result.put(resource, state);
+		}
+		return result;
+	}
+
 	/**
 	 * Computes an {@link GitItemState} for the given {@link File} from the
 	 * given {@link IndexDiffData}.
@@ -267,10 +311,16 @@ private GitItemState get(@NonNull IndexDiffData indexDiffData,
 		if (repository == null || repository.isBare()) {
 			return UNKNOWN_STATE;
 		}
-		File workTree = repository.getWorkTree();
-		String repoRelativePath = path.makeRelativeTo(
-				new org.eclipse.core.runtime.Path(workTree.getAbsolutePath()))
-				.toString();
+		return get(indexDiffData, file, path, repository,
+				new org.eclipse.core.runtime.Path(
+						repository.getWorkTree().getAbsolutePath()));
+	}
+
+	@NonNull
+	private GitItemState get(@NonNull IndexDiffData indexDiffData,
+			@NonNull FileSystemItem file, @NonNull IPath path,
+			@NonNull Repository repository, @NonNull IPath workTree) {
+		String repoRelativePath = path.makeRelativeTo(workTree).toString();
 		if (repoRelativePath.equals(path.toString())) {
 			// Could not be made relative.
 			return UNKNOWN_STATE;
@@ -298,7 +348,7 @@ private GitItemState get(@NonNull IndexDiffData indexDiffData,
 			@NonNull String repoRelativePath) {
 		Set<String> ignoredFiles = indexDiffData.getIgnoredNotInIndex();
 		boolean ignored = ignoredFiles.contains(repoRelativePath)
-				|| containsPrefixPath(ignoredFiles, repoRelativePath);
+				|| isInIgnoredFolder(indexDiffData, repoRelativePath);
 		if (ignored) {
 			// Leave the rest at the default (false, NOT_STAGED)
 			return IGNORED;
@@ -345,73 +395,39 @@ private GitItemState get(@NonNull IndexDiffData indexDiffData,
 			@NonNull IndexDiffData indexDiffData,
 			@NonNull String repoRelativePath,
 			@NonNull FileSystemItem directory) {
-		Set<String> ignoredFiles = indexDiffData.getIgnoredNotInIndex();
-		boolean ignored = containsPrefixPath(ignoredFiles, repoRelativePath)
+		int flags = indexDiffData.getFolderStates().getFlags(repoRelativePath);
+		boolean ignored = (flags & FolderStateIndex.IGNORED) != 0
 				|| !directory.hasContainerAnyFiles();
 		if (ignored) {
 			return IGNORED;
 		}
 		GitItemStateImpl state = new GitItemStateImpl();
-		Set<String> untrackedFolders = indexDiffData.getUntrackedFolders();
-		state.setTracked(
-				!containsPrefixPath(untrackedFolders, repoRelativePath));
+		state.setTracked((flags & FolderStateIndex.UNTRACKED_FOLDER) == 0);
 
 		// containers are marked as staged whenever file was added, removed or
 		// changed
-		Set<String> changed = new HashSet<>(indexDiffData.getChanged());
-		changed.addAll(indexDiffData.getAdded());
-		changed.addAll(indexDiffData.getRemoved());
-		if (containsPrefix(changed, repoRelativePath)) {
+		if ((flags & FolderStateIndex.STAGED) != 0) {
 			state.setStagingState(StagingState.MODIFIED);
 		} else {
 			state.setStagingState(StagingState.NOT_STAGED);
 		}
 		// conflicting
-		Set<String> conflicting = indexDiffData.getConflicting();
-		state.setConflicts(containsPrefix(conflicting, repoRelativePath));
+		state.setConflicts((flags & FolderStateIndex.CONFLICTING) != 0);
 
-		// locally modified / untracked
-		Set<String> modified = indexDiffData.getModified();
-		Set<String> untracked = indexDiffData.getUntracked();
-		Set<String> missing = indexDiffData.getMissing();
-		state.setDirty(containsPrefix(modified, repoRelativePath)
-				|| containsPrefix(untracked, repoRelativePath)
-				|| containsPrefix(missing, repoRelativePath));
+		// locally modified / untracked / missing
+		state.setDirty((flags & FolderStateIndex.DIRTY) != 0);
 		return state;
 	}
 
-	private boolean containsPrefix(Set<String> collection, String prefix) {
-		// when prefix is empty we are handling repository root, therefore we
-		// should return true whenever collection isn't empty
-		if (prefix.length() == 1 && !collection.isEmpty())
-			return true;
-
-		for (String path : collection)
-			if (path.startsWith(prefix))
-				return true;
-		return false;
-	}
-
-	private boolean containsPrefixPath(Set<String> collection, String path) {
-		for (String entry : collection) {
-			if (entry.endsWith("/")) { //$NON-NLS-1$
-				if (path.startsWith(entry)) {
-					return true;
-				}
-			} else if (startsWith2(path, entry, "/")) { //$NON-NLS-1$
-				return true;
-			}
+	private boolean isInIgnoredFolder(@NonNull IndexDiffData indexDiffData,
+			@NonNull String path) {
+		int lastSlash = path.lastIndexOf('/');
+		if (lastSlash <= 0) {
+			return false;
 		}
-		return false;
-	}
-
-	/*
-	 * same as s.startsWith(prefix1+prefix2) but faster since it avoids memory
-	 * allocation during string concatenation
-	 */
-	private static boolean startsWith2(String s, String prefix1,
-			String prefix2) {
-		return s.startsWith(prefix1) && s.startsWith(prefix2, prefix1.length());
+		int flags = indexDiffData.getFolderStates()
+				.getFlags(path.substring(0, lastSlash));
+		return (flags & FolderStateIndex.IGNORED) != 0;
 	}
 
 	private interface FileSystemItem {
@@ -24,11 +24,11 @@
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.egit.core.Activator;
 import org.eclipse.egit.core.GitTag;
+import org.eclipse.egit.core.attributes.Filtering;
 import org.eclipse.egit.core.internal.CoreText;
 import org.eclipse.jgit.dircache.DirCacheCheckout.CheckoutMetadata;
 import org.eclipse.jgit.lib.AnyObjectId;
 import org.eclipse.jgit.lib.Constants;
-import org.eclipse.jgit.lib.CoreConfig.EolStreamType;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Ref;
@@ -156,11 +156,7 @@ private void locateBlobObjectId() throws CoreException {
 						CoreText.CommitFileRevision_pathNotIn, commit.name(),
 						getGitPath()), null));
 			blobId = w.getObjectId(0);
-			final EolStreamType eolStreamType = w
-					.getEolStreamType(TreeWalk.OperationType.CHECKOUT_OP);
-			final String filterCommand = w
-					.getFilterCommand(Constants.ATTR_FILTER_TYPE_SMUDGE);
-			metadata = new CheckoutMetadata(eolStreamType, filterCommand);
+			metadata = Filtering.getCheckoutMetadata(w);
 		} catch (IOException e) {
 			throw new CoreException(Activator.error(NLS.bind(
 					CoreText.CommitFileRevision_errorLookingUpPath,
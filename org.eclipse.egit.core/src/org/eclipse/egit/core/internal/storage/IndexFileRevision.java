@@ -22,12 +22,12 @@
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.egit.core.Activator;
+import org.eclipse.egit.core.attributes.Filtering;
 import org.eclipse.egit.core.internal.CoreText;
 import org.eclipse.jgit.dircache.DirCache;
 import org.eclipse.jgit.dircache.DirCacheCheckout.CheckoutMetadata;
 import org.eclipse.jgit.dircache.DirCacheEntry;
 import org.eclipse.jgit.dircache.DirCacheIterator;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
@@ -147,11 +147,7 @@ private CheckoutMetadata getMetadata(DirCache cache) throws IOException {
 					new NotIgnoredFilter(1)));
 			walk.setRecursive(true);
 			if (walk.next()) {
-				return new CheckoutMetadata(
-						walk.getEolStreamType(
-								TreeWalk.OperationType.CHECKOUT_OP),
-						walk
-						.getFilterCommand(Constants.ATTR_FILTER_TYPE_SMUDGE));
+				return Filtering.getCheckoutMetadata(walk);
 			}
 		}
 		return null;
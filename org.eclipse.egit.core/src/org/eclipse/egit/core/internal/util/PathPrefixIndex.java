@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.core.internal.util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.annotations.Nullable;
+
+/**
+ * A map from absolute file system paths to values that finds the value of the
+ * longest path that is a prefix of a given path, like
+ * {@link IPath#isPrefixOf(IPath)} does. Paths are stored in a tree keyed by
+ * path segments, so a lookup costs one hash lookup per segment of the given
+ * path, independent of the number of stored paths.
+ * <p>
+ * Lookups do not lock and may run concurrently with modifications;
+ * modifications are serialized.
+ * </p>
+ *
+ * @param <T>
+ *            type of the values
+ */
+public class PathPrefixIndex<T> {
+
+	private final Node<T> root = new Node<>();
+
+	/**
+	 * Associates a value with a path.
+	 *
+	 * @param path
+	 *            absolute path
+	 * @param value
+	 *            to associate with the path
+	 * @return the value previously associated with the path, or {@code null}
+	 *         if none
+	 */
+	@Nullable
+	public synchronized T put(@NonNull IPath path, @NonNull T value) {
+		Node<T> node = root.children.computeIfAbsent(getDeviceKey(path),
+				key -> new Node<>());
+		for (String segment : path.segments()) {
+			node = node.children.computeIfAbsent(segment, key -> new Node<>());
+		}
+		T previous = node.value;
+		node.value = value;
+		return previous;
+	}
+
+	/**
+	 * Removes the association of a path with a given value. Nothing is removed
+	 * if the path is associated with a different value.
+	 *
+	 * @param path
+	 *            absolute path
+	 * @param value
+	 *            to remove
+	 * @return whether the value was removed
+	 */
+	public synchronized boolean remove(@NonNull IPath path,
+			@NonNull T value) {
+		return remove(root, getDeviceKey(path), path.segments(), -1, value);
+	}
+
+	private boolean remove(Node<T> parent, String key, String[] segments,
+			int index, T value) {
+		Node<T> node = parent.children.get(key);
+		if (node == null) {
+			return false;
+		}
+		boolean removed;
+		if (index + 1 == segments.length) {
+			removed = node.value == value;
+			if (removed) {
+				node.value = null;
+			}
+		} else {
+			removed = remove(node, segments[index + 1], segments, index + 1,
+					value);
+		}
+		if (removed && node.value == null && node.children.isEmpty()) {
+			parent.children.remove(key);
+		}
+		return removed;
+	}
+
+	/**
+	 * Removes all values.
+	 */
+	public synchronized void clear() {
+		root.children.clear();
+	}
+
+	/**
+	 * Finds the value of the longest stored path that is a prefix of the
+	 * given path.
+	 *
+	 * @param path
+	 *            absolute path
+	 * @return the value, or {@code null} if no stored path is a prefix of the
+	 *         given path
+	 */
+	@Nullable
+	public T getLongestMatch(@NonNull IPath path) {
+		return getLongestMatch(path, value -> true);
+	}
+
+	/**
+	 * Finds the value of the longest stored path that is a prefix of the
+	 * given path and whose value is accepted by a filter. The filter is
+	 * applied to the candidates from the longest to the shortest path and is
+	 * not called anymore once it accepted a value.
+	 *
+	 * @param path
+	 *            absolute path
+	 * @param filter
+	 *            to test the candidates with
+	 * @return the value, or {@code null} if there is no accepted value
+	 */
+	@Nullable
+	public T getLongestMatch(@NonNull IPath path,
+			@NonNull Predicate<? super T> filter) {
+		Node<T> node = root.children.get(getDeviceKey(path));
+		if (node == null) {
+			return null;
+		}
+		int segmentCount = path.segmentCount();
+		// Candidates along the path, indexed by depth
+		Object[] candidates = new Object[segmentCount + 1];
+		int depth = 0;
+		candidates[0] = node.value;
+		while (depth < segmentCount) {
+			node = node.children.get(path.segment(depth));
+			if (node == null) {
+				break;
+			}
+			candidates[++depth] = node.value;
+		}
+		for (int i = depth; i >= 0; i--) {
+			@SuppressWarnings("unchecked")
+			T candidate = (T) candidates[i];
+			if (candidate != null && filter.test(candidate)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	private static String getDeviceKey(IPath path) {
+		String device = path.getDevice();
+		// Devices are compared case-insensitively by IPath.isPrefixOf()
+		return device == null ? "" : device.toUpperCase(Locale.ROOT); //$NON-NLS-1$
+	}
+
+	private static class Node<T> {
+
+		final Map<String, Node<T>> children = new ConcurrentHashMap<>();
+
+		volatile T value;
+	}
+}
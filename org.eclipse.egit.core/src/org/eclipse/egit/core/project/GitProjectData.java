@@ -95,6 +95,10 @@ public void resourceChanged(final IResourceChangeEvent event) {
 				}
 				break;
 			case IResourceChangeEvent.POST_CHANGE:
+				if (hasProjectsAddedOrOpened(event.getDelta())) {
+					// Their mappings are loaded lazily
+					RepositoryMapping.invalidateWorkTreeIndex();
+				}
 				update(event);
 				break;
 			default:
@@ -103,6 +107,20 @@ public void resourceChanged(final IResourceChangeEvent event) {
 		}
 	}
 
+	private static boolean hasProjectsAddedOrOpened(IResourceDelta delta) {
+		if (delta == null) {
+			return false;
+		}
+		for (IResourceDelta child : delta.getAffectedChildren(
+				IResourceDelta.ADDED | IResourceDelta.CHANGED)) {
+			if (child.getKind() == IResourceDelta.ADDED
+					|| (child.getFlags() & IResourceDelta.OPEN) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private static QualifiedName MAPPING_KEY = new QualifiedName(
 			GitProjectData.class.getName(), "RepositoryMapping");  //$NON-NLS-1$
 
@@ -161,6 +179,7 @@ public static synchronized void removeRepositoryChangeListener(
 	 *            the repository which has had changes occur within it.
 	 */
 	static void fireRepositoryChanged(final RepositoryMapping which) {
+		RepositoryMapping.invalidateWorkTreeIndex();
 		Job job = new Job(CoreText.GitProjectData_repositoryChangedJobName) {
 
 			@Override
@@ -410,6 +429,7 @@ private static void createMappingIfNeeded(IResource resource,
 					&& gitCandidate.equals(r.getWorkTree())) {
 				if (data.map(m)) {
 					data.mappings.put(m.getContainerPath(), m);
+					RepositoryMapping.invalidateWorkTreeIndex();
 					modified.add(data);
 				}
 			}
@@ -429,10 +449,12 @@ static void trace(final String m) {
 	private synchronized static void cache(final IProject p,
 			final GitProjectData d) {
 		projectDataCache.put(p, d);
+		RepositoryMapping.invalidateWorkTreeIndex();
 	}
 
 	private synchronized static void uncache(final IProject p) {
 		if (projectDataCache.remove(p) != null) {
+			RepositoryMapping.invalidateWorkTreeIndex();
 			trace("uncacheDataFor(" //$NON-NLS-1$
 				+ p.getName() + ")"); //$NON-NLS-1$
 		}
@@ -492,6 +514,7 @@ public void setRepositoryMappings(final Collection<RepositoryMapping> newMapping
 		for (RepositoryMapping mapping : newMappings) {
 			mappings.put(mapping.getContainerPath(), mapping);
 		}
+		RepositoryMapping.invalidateWorkTreeIndex();
 		remapAll();
 	}
 
@@ -35,6 +35,7 @@
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.egit.core.GitProvider;
+import org.eclipse.egit.core.internal.util.PathPrefixIndex;
 import org.eclipse.egit.core.internal.util.ProjectUtil;
 import org.eclipse.egit.core.internal.util.ResourceUtil;
 import org.eclipse.jgit.annotations.NonNull;
@@ -49,6 +50,17 @@ static boolean isInitialKey(final String key) {
 		return key.endsWith(".gitdir");  //$NON-NLS-1$
 	}
 
+	private static final Object WORK_TREE_INDEX_LOCK = new Object();
+
+	/**
+	 * The mappings of all workspace projects by working tree, or {@code null}
+	 * if the index has to be rebuilt.
+	 */
+	private static volatile PathPrefixIndex<RepositoryMapping> workTreeIndex;
+
+	/** Guarded by {@link #WORK_TREE_INDEX_LOCK}. */
+	private static int workTreeIndexModCount;
+
 	private final String containerPathString;
 
 	private IPath containerPath;
@@ -162,6 +174,7 @@ synchronized void clear() {
 		db = null;
 		workdirPrefix = null;
 		container = null;
+		invalidateWorkTreeIndex();
 	}
 
 	/**
@@ -174,6 +187,7 @@ public synchronized Repository getRepository() {
 
 	synchronized void setRepository(final Repository r) {
 		db = r;
+		invalidateWorkTreeIndex();
 		File workTree = getWorkTree();
 		if (workTree == null) {
 			return;
@@ -385,10 +399,33 @@ private static Map<IPath, RepositoryMapping> getMappings(
 	 */
 	@Nullable
 	public static RepositoryMapping getMapping(@NonNull IPath path) {
+		PathPrefixIndex<RepositoryMapping> index = workTreeIndex;
+		if (index == null) {
+			index = buildWorkTreeIndex();
+		}
+		return index.getLongestMatch(path);
+	}
+
+	/**
+	 * Discards the index used by {@link #getMapping(IPath)}; it is rebuilt on
+	 * the next call. Must be called whenever projects or their mappings
+	 * change.
+	 */
+	static void invalidateWorkTreeIndex() {
+		synchronized (WORK_TREE_INDEX_LOCK) {
+			workTreeIndexModCount++;
+			workTreeIndex = null;
+		}
+	}
+
+	private static PathPrefixIndex<RepositoryMapping> buildWorkTreeIndex() {
+		int modCount;
+		synchronized (WORK_TREE_INDEX_LOCK) {
+			modCount = workTreeIndexModCount;
+		}
+		PathPrefixIndex<RepositoryMapping> index = new PathPrefixIndex<>();
 		IProject[] projects = ResourcesPlugin.getWorkspace().getRoot()
 				.getProjects();
-		IPath bestWorkingTree = null;
-		RepositoryMapping bestMapping = null;
 		for (IProject project : projects) {
 			if (isNonWorkspace(project)) {
 				continue;
@@ -399,16 +436,21 @@ public static RepositoryMapping getMapping(@NonNull IPath path) {
 					continue;
 				}
 				IPath workingTree = new Path(workTree.toString());
-				if (workingTree.isPrefixOf(path)) {
-					if (bestWorkingTree == null || workingTree
-							.segmentCount() > bestWorkingTree.segmentCount()) {
-						bestWorkingTree = workingTree;
-						bestMapping = mapping;
-					}
+				RepositoryMapping previous = index.put(workingTree, mapping);
+				if (previous != null) {
+					// The first mapping found for a working tree wins
+					index.put(workingTree, previous);
 				}
 			}
 		}
-		return bestMapping;
+		synchronized (WORK_TREE_INDEX_LOCK) {
+			// Loading project data may have changed mappings meanwhile; if so,
+			// use the index for this call only.
+			if (modCount == workTreeIndexModCount) {
+				workTreeIndex = index;
+			}
+		}
+		return index;
 	}
 
 	/**
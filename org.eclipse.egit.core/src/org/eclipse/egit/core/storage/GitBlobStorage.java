@@ -187,7 +187,9 @@ private InputStream open() throws IOException, CoreException,
 			InputStream filteredInputStream = objectInputStream;
 			if (metadata != null) {
 				filteredInputStream = Filtering.filter(db, path,
-						objectInputStream, metadata.smudgeFilterCommand);
+						objectInputStream, metadata.smudgeFilterCommand,
+						Constants.ATTR_FILTER_TYPE_SMUDGE,
+						Filtering.getFilterDriver(metadata));
 			}
 			EolStreamType streamType;
 			if (metadata != null && metadata.eolStreamType != null) {
@@ -14,15 +14,19 @@
 import static org.eclipse.jgit.treewalk.filter.TreeFilter.ANY_DIFF;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.jgit.lib.AbbreviatedObjectId;
 import org.eclipse.jgit.lib.MutableObjectId;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevFlag;
@@ -325,7 +329,7 @@ private String getObjectId(AbbreviatedObjectId object) {
 	 *            path filter definition or {@code null} when all paths should
 	 *            be included
 	 * @return list of {@link Commit} object's between {@code srcId} and
-	 *         {@code dstId}
+	 *         {@code dstId}, in the order of the walk
 	 * @throws IOException
 	 */
 	public static List<Commit> build(Repository repo, ObjectId srcId,
@@ -355,7 +359,8 @@ public static List<Commit> build(Repository repo, ObjectId srcId,
 			if (pathFilter != null)
 				rw.setTreeFilter(pathFilter);
 
-			List<Commit> result = new ArrayList<>();
+			List<Commit> commits = new ArrayList<>();
+			List<RevCommit> revCommits = new ArrayList<>();
 			for (RevCommit revCommit : rw) {
 				if (revCommit.hasAll(allFlags))
 					break;
@@ -367,7 +372,6 @@ public static List<Commit> build(Repository repo, ObjectId srcId,
 				commit.committerName = revCommit.getCommitterIdent().getName();
 				commit.commitDate = revCommit.getAuthorIdent().getWhen();
 
-				RevCommit parentCommit = getParentCommit(revCommit);
 				if (revCommit.has(localFlag))
 					// Outgoing
 					commit.direction = RIGHT;
@@ -377,17 +381,86 @@ else if (revCommit.has(remoteFlag))
 				else
 					throw new GitCommitsModelDirectionException();
 
-				commit.children = getChangedObjects(repo, revCommit,
-						parentCommit, pathFilter, commit.direction);
+				commits.add(commit);
+				revCommits.add(revCommit);
+			}
+
+			try {
+				ForkJoinPool.commonPool().invoke(new ChangedObjectsTask(repo,
+						commits, revCommits, pathFilter, 0, commits.size()));
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
 
+			List<Commit> result = new ArrayList<>(commits.size());
+			for (Commit commit : commits)
 				if (commit.children != null)
 					result.add(commit);
-			}
 			rw.dispose();
 			return result;
 		}
 	}
 
+	/**
+	 * Computes the changed objects of a range of commits. Ranges are split
+	 * until they are small enough to be worth a separate {@link ObjectReader}.
+	 */
+	private static class ChangedObjectsTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final int THRESHOLD = 16;
+
+		private final transient Repository repo;
+
+		private final transient List<Commit> commits;
+
+		private final transient List<RevCommit> revCommits;
+
+		private final transient TreeFilter pathFilter;
+
+		private final int from;
+
+		private final int to;
+
+		ChangedObjectsTask(Repository repo, List<Commit> commits,
+				List<RevCommit> revCommits, TreeFilter pathFilter, int from,
+				int to) {
+			this.repo = repo;
+			this.commits = commits;
+			this.revCommits = revCommits;
+			this.pathFilter = pathFilter;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(
+						new ChangedObjectsTask(repo, commits, revCommits,
+								pathFilter, from, middle),
+						new ChangedObjectsTask(repo, commits, revCommits,
+								pathFilter, middle, to));
+				return;
+			}
+			// Tree filters may keep state and must not be shared
+			TreeFilter filter = pathFilter == null ? null : pathFilter.clone();
+			try (ObjectReader reader = repo.newObjectReader()) {
+				for (int i = from; i < to; i++) {
+					RevCommit revCommit = revCommits.get(i);
+					Commit commit = commits.get(i);
+					commit.children = getChangedObjects(repo, reader,
+							revCommit, getParentCommit(revCommit), filter,
+							commit.direction);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
 	private static RevCommit getParentCommit(RevCommit commit) {
 		if (commit.getParents().length > 0)
 			return commit.getParents()[0];
@@ -396,10 +469,10 @@ private static RevCommit getParentCommit(RevCommit commit) {
 	}
 
 	private static Map<String, Change> getChangedObjects(Repository repo,
-			RevCommit commit, RevCommit parentCommit,
+			ObjectReader reader, RevCommit commit, RevCommit parentCommit,
 			TreeFilter pathFilter, final int direction) throws IOException {
 		final Map<String, Change> result = new HashMap<>();
-		try (final TreeWalk tw = new TreeWalk(repo)) {
+		try (final TreeWalk tw = new TreeWalk(repo, reader)) {
 			int commitIndex = addTree(tw, commit);
 			int parentCommitIndex = addTree(tw, parentCommit);
 
@@ -20,11 +20,11 @@
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.egit.core.attributes.Filtering;
 import org.eclipse.egit.core.synchronize.dto.GitSynchronizeData;
 import org.eclipse.jgit.annotations.NonNull;
 import org.eclipse.jgit.dircache.DirCacheCheckout.CheckoutMetadata;
 import org.eclipse.jgit.lib.AbbreviatedObjectId;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.MutableObjectId;
 import org.eclipse.jgit.lib.ObjectId;
@@ -138,11 +138,7 @@ public static enum Direction {
 			e.remoteId = AbbreviatedObjectId.fromObjectId(idBuf);
 
 			if (!walk.isSubtree()) {
-				e.metadata = new CheckoutMetadata(
-						walk.getEolStreamType(
-								TreeWalk.OperationType.CHECKOUT_OP),
-						walk.getFilterCommand(
-								Constants.ATTR_FILTER_TYPE_SMUDGE));
+				e.metadata = Filtering.getCheckoutMetadata(walk);
 			}
 
 			boolean localSameAsBase = e.localId.equals(e.baseId);
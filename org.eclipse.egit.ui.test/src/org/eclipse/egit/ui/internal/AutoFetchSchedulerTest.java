@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.egit.ui.internal.AutoFetchScheduler.RemoteStatistics;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link AutoFetchScheduler}.
+ */
+public class AutoFetchSchedulerTest {
+
+	private static final long INTERVAL = 60_000;
+
+	private static final String KEY = "/repo/.git\norigin";
+
+	private long now;
+
+	private AutoFetchScheduler scheduler;
+
+	@Before
+	public void setUp() {
+		now = 1_000_000;
+		scheduler = new AutoFetchScheduler(() -> now, new Random(42));
+	}
+
+	@Test
+	public void unknownRemoteIsDue() {
+		assertTrue(scheduler.isDue(KEY));
+		assertNull(scheduler.getStatistics(KEY));
+	}
+
+	@Test
+	public void successfulRemoteStaysDue() {
+		scheduler.fetched(KEY, 100, true, INTERVAL);
+		assertTrue(scheduler.isDue(KEY));
+	}
+
+	@Test
+	public void failuresBackOffExponentially() {
+		long previous = 0;
+		for (int failures = 1; failures <= 5; failures++) {
+			RemoteStatistics statistics = scheduler.fetched(KEY, 100, false,
+					INTERVAL);
+			assertEquals(failures, statistics.getConsecutiveFailures());
+			long backoff = statistics.getNextFetch() - now;
+			long expected = INTERVAL << failures;
+			assertInJitterRange(expected, backoff);
+			assertTrue(backoff > previous);
+			previous = backoff;
+			assertFalse(scheduler.isDue(KEY));
+			now = statistics.getNextFetch();
+			assertTrue(scheduler.isDue(KEY));
+		}
+	}
+
+	@Test
+	public void backoffIsCapped() {
+		RemoteStatistics statistics = null;
+		for (int i = 0; i < 40; i++) {
+			statistics = scheduler.fetched(KEY, 100, false, INTERVAL);
+		}
+		assertNotNull(statistics);
+		assertInJitterRange(
+				INTERVAL * AutoFetchScheduler.MAX_BACKOFF_FACTOR,
+				statistics.getNextFetch() - now);
+	}
+
+	@Test
+	public void successResetsBackoff() {
+		scheduler.fetched(KEY, 100, false, INTERVAL);
+		scheduler.fetched(KEY, 100, false, INTERVAL);
+		assertFalse(scheduler.isDue(KEY));
+		RemoteStatistics statistics = scheduler.fetched(KEY, 100, true,
+				INTERVAL);
+		assertEquals(0, statistics.getConsecutiveFailures());
+		assertTrue(scheduler.isDue(KEY));
+		statistics = scheduler.fetched(KEY, 100, false, INTERVAL);
+		assertInJitterRange(2 * INTERVAL, statistics.getNextFetch() - now);
+	}
+
+	@Test
+	public void statisticsAreRecorded() {
+		scheduler.fetched(KEY, 100, true, INTERVAL);
+		scheduler.fetched(KEY, 300, false, INTERVAL);
+		scheduler.fetched(KEY, 200, true, INTERVAL);
+		RemoteStatistics statistics = scheduler.getStatistics(KEY);
+		assertNotNull(statistics);
+		assertEquals(3, statistics.getFetchCount());
+		assertEquals(200, statistics.getLastDuration());
+		assertEquals(200, statistics.getAverageDuration());
+		assertEquals(300, statistics.getMaxDuration());
+	}
+
+	@Test
+	public void retainForgetsOtherRemotes() {
+		String other = "/other/.git\norigin";
+		scheduler.fetched(KEY, 100, false, INTERVAL);
+		scheduler.fetched(other, 100, false, INTERVAL);
+		scheduler.retain(Arrays.asList(other));
+		assertNull(scheduler.getStatistics(KEY));
+		assertTrue(scheduler.isDue(KEY));
+		assertNotNull(scheduler.getStatistics(other));
+		assertFalse(scheduler.isDue(other));
+	}
+
+	@Test
+	public void jitterStaysInRange() {
+		for (int i = 0; i < 1000; i++) {
+			assertInJitterRange(INTERVAL, scheduler.jitter(INTERVAL));
+		}
+		assertEquals(0, scheduler.jitter(0));
+	}
+
+	@Test
+	public void startDelayStaysInWindow() {
+		for (int i = 0; i < 1000; i++) {
+			long delay = scheduler.getStartDelay(INTERVAL);
+			assertTrue(delay >= 0);
+			assertTrue(delay <= INTERVAL / 10);
+			delay = scheduler.getStartDelay(INTERVAL * 1000);
+			assertTrue(delay >= 0);
+			assertTrue(delay <= AutoFetchScheduler.MAX_START_DELAY);
+		}
+		assertEquals(0, scheduler.getStartDelay(0));
+	}
+
+	private static void assertInJitterRange(long expected, long actual) {
+		long tolerance = Math.round(expected * AutoFetchScheduler.JITTER);
+		assertTrue("Expected " + expected + " +/- " + tolerance + " but was "
+				+ actual, Math.abs(actual - expected) <= tolerance);
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link GitDirWatcher}.
+ */
+public class GitDirWatcherTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Repository first;
+
+	private Repository second;
+
+	private final BlockingQueue<Set<File>> batches = new LinkedBlockingQueue<>();
+
+	private GitDirWatcher watcher;
+
+	@Before
+	public void setUp() throws Exception {
+		first = createRepository("first");
+		second = createRepository("second");
+		watcher = new GitDirWatcher(batches::add, () -> {
+			// Nothing
+		});
+		watcher.update(new Repository[] { first, second });
+	}
+
+	@After
+	public void tearDown() {
+		watcher.close();
+		first.close();
+		second.close();
+	}
+
+	@Test
+	public void testRepositoriesAreWatched() {
+		assertTrue(watcher.isWatched(first.getDirectory()));
+		assertTrue(watcher.isWatched(second.getDirectory()));
+		watcher.update(new Repository[] { second });
+		assertFalse(watcher.isWatched(first.getDirectory()));
+		assertTrue(watcher.isWatched(second.getDirectory()));
+	}
+
+	@Test
+	public void testIndexChangeIsReported() throws Exception {
+		write(new File(first.getDirectory(), "index"));
+		Set<File> changed = waitFor(first.getDirectory());
+		assertTrue(changed.contains(first.getDirectory().getAbsoluteFile()));
+		assertFalse(
+				changed.contains(second.getDirectory().getAbsoluteFile()));
+	}
+
+	@Test
+	public void testNewRefIsReported() throws Exception {
+		File feature = new File(second.getDirectory(), "refs/heads/feature");
+		assertTrue(feature.mkdirs());
+		waitFor(second.getDirectory());
+		// The new folder must be watched, too
+		write(new File(feature, "topic"));
+		Set<File> changed = waitFor(second.getDirectory());
+		assertTrue(
+				changed.contains(second.getDirectory().getAbsoluteFile()));
+	}
+
+	@Test
+	public void testOtherFilesAreIgnored() throws Exception {
+		write(new File(first.getDirectory(), "FETCH_HEAD"));
+		write(new File(first.getDirectory(), "index.lock"));
+		Set<File> batch = batches.poll(
+				GitDirWatcher.MAX_DELAY_MILLIS + 1000, TimeUnit.MILLISECONDS);
+		assertTrue(batch == null || batch.isEmpty());
+	}
+
+	private Set<File> waitFor(File gitDir) throws InterruptedException {
+		File expected = gitDir.getAbsoluteFile();
+		Set<File> changed = new HashSet<>();
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!changed.contains(expected)
+				&& System.currentTimeMillis() < deadline) {
+			Set<File> batch = batches.poll(1, TimeUnit.SECONDS);
+			if (batch != null) {
+				changed.addAll(batch);
+			}
+		}
+		return changed;
+	}
+
+	private Repository createRepository(String name) throws Exception {
+		File gitDir = new File(folder.newFolder(name), Constants.DOT_GIT);
+		Repository repository = FileRepositoryBuilder.create(gitDir);
+		repository.create();
+		return repository;
+	}
+
+	private static void write(File file) throws Exception {
+		Files.write(file.toPath(), "x".getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,164 @@
+/******************************************************************************
+ *  Copyright (c) 2026 EGit contributors and others.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.egit.ui.internal.blame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.egit.ui.common.LocalRepositoryTestCase;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.blame.BlameResult;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link BlameCache}.
+ */
+public class BlameCacheTest extends LocalRepositoryTestCase {
+
+	private Repository repo;
+
+	@Before
+	public void createRepo() throws Exception {
+		BlameCache.INSTANCE.clear();
+		repo = createLocalTestRepository(REPO1);
+	}
+
+	@After
+	public void closeRepo() throws Exception {
+		BlameCache.INSTANCE.clear();
+		if (repo != null) {
+			repo.close();
+			repo = null;
+		}
+	}
+
+	private RevCommit commit(Git git, Path file, String content,
+			String message) throws Exception {
+		Files.writeString(file, content);
+		git.add().addFilepattern(".").call();
+		return git.commit().setMessage(message).call();
+	}
+
+	private BlameCache.Lines blame(RevCommit start, String path)
+			throws Exception {
+		BlameCache.Lines lines = BlameCache.INSTANCE.blame(repo, start, path,
+				false, new NullProgressMonitor());
+		assertNotNull(lines);
+		return lines;
+	}
+
+	private void assertSameAsBlameCommand(Git git, RevCommit start,
+			String path, BlameCache.Lines lines) throws Exception {
+		BlameResult expected = git.blame().setFollowFileRenames(true)
+				.setFilePath(path).setStartCommit(start).call();
+		assertEquals(expected.getResultContents().size(),
+				lines.getLineCount());
+		for (int i = 0; i < lines.getLineCount(); i++) {
+			assertEquals(expected.getSourceCommit(i),
+					lines.getSourceCommit(i));
+			assertEquals(expected.getSourcePath(i), lines.getSourcePath(i));
+			assertEquals(expected.getSourceLine(i), lines.getSourceLine(i));
+		}
+	}
+
+	@Test
+	public void testIncrementalBlame() throws Exception {
+		try (Git git = new Git(repo)) {
+			Path file = repo.getWorkTree().toPath().resolve("file.txt");
+			StringBuilder content = new StringBuilder();
+			for (int i = 0; i < 50; i++) {
+				content.append("line ").append(i).append('\n');
+			}
+			String text = content.toString();
+			commit(git, file, text, "initial");
+			text = text.replace("line 10\n", "changed 10\n")
+					.replace("line 40\n", "");
+			RevCommit second = commit(git, file, text, "second");
+			BlameCache.Lines lines = blame(second, "file.txt");
+			assertFalse(lines.isIncremental());
+			assertSameAsBlameCommand(git, second, "file.txt", lines);
+			assertSame(lines, blame(second, "file.txt"));
+
+			text = "first\n" + text.replace("line 20\n", "line 20\nnew\n");
+			commit(git, file, text, "third");
+			text = text.replace("line 30\n", "thirty\n");
+			RevCommit fourth = commit(git, file, text, "fourth");
+			lines = blame(fourth, "file.txt");
+			assertTrue(lines.isIncremental());
+			assertSameAsBlameCommand(git, fourth, "file.txt", lines);
+		}
+	}
+
+	@Test
+	public void testIncrementalBlameAfterRename() throws Exception {
+		try (Git git = new Git(repo)) {
+			Path file = repo.getWorkTree().toPath().resolve("file.txt");
+			commit(git, file, "a\nb\nc\n", "initial");
+			RevCommit second = commit(git, file, "a\nB\nc\n", "second");
+			blame(second, "file.txt");
+
+			Files.move(file, file.resolveSibling("renamed.txt"));
+			git.add().addFilepattern(".").call();
+			git.add().addFilepattern(".").setUpdate(true).call();
+			RevCommit third = git.commit().setMessage("rename").call();
+			BlameCache.Lines lines = blame(third, "renamed.txt");
+			assertTrue(lines.isIncremental());
+			assertSameAsBlameCommand(git, third, "renamed.txt", lines);
+		}
+	}
+
+	@Test
+	public void testPersistedResults() throws Exception {
+		File directory = Files.createTempDirectory("blame").toFile();
+		try (Git git = new Git(repo)) {
+			Path file = repo.getWorkTree().toPath().resolve("file.txt");
+			commit(git, file, "a\nb\nc\n", "initial");
+			RevCommit second = commit(git, file, "a\nB\nc\n", "second");
+			BlameCache.Lines lines = new BlameCache(new BlameStore(directory))
+					.blame(repo, second, "file.txt", false,
+							new NullProgressMonitor());
+			assertNotNull(lines);
+
+			// A new cache, as after a restart, reads the stored result
+			BlameCache restarted = new BlameCache(new BlameStore(directory));
+			BlameCache.Lines loaded = restarted.blame(repo, second,
+					"file.txt", false, new NullProgressMonitor());
+			assertNotNull(loaded);
+			assertNotSame(lines, loaded);
+			assertSameAsBlameCommand(git, second, "file.txt", loaded);
+
+			// and computes later commits incrementally from it
+			RevCommit third = commit(git, file, "a\nB\nC\n", "third");
+			restarted = new BlameCache(new BlameStore(directory));
+			lines = restarted.blame(repo, third, "file.txt", false,
+					new NullProgressMonitor());
+			assertNotNull(lines);
+			assertTrue(lines.isIncremental());
+			assertSameAsBlameCommand(git, third, "file.txt", lines);
+		} finally {
+			new BlameStore(directory).clear();
+			directory.delete();
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.commit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.egit.ui.internal.commit.DiffRegionFormatter.DiffRegion;
+import org.eclipse.egit.ui.internal.commit.DiffRegionFormatter.FileDiffRegion;
+import org.eclipse.egit.ui.internal.commit.ParallelDiffFormatter.Part;
+import org.eclipse.egit.ui.internal.history.FileDiff;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link ParallelDiffFormatter}.
+ */
+public class ParallelDiffFormatterTest {
+
+	private static final int FILES = 40;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Git git;
+
+	private FileDiff[] diffs;
+
+	@Before
+	public void setUp() throws Exception {
+		File workTree = folder.newFolder("repo");
+		git = Git.init().setDirectory(workTree).call();
+		for (int i = 0; i < FILES; i++) {
+			write(new File(workTree, "file" + i + ".txt"), i, 0);
+		}
+		git.add().addFilepattern(".").call();
+		git.commit().setMessage("Initial").call();
+		for (int i = 0; i < FILES; i++) {
+			write(new File(workTree, "file" + i + ".txt"), i, 1);
+		}
+		git.add().addFilepattern(".").call();
+		RevCommit commit = git.commit().setMessage("Change").call();
+		diffs = new RepositoryCommit(git.getRepository(), commit).getDiffs();
+		Arrays.sort(diffs, FileDiff.PATH_COMPARATOR);
+		assertEquals(FILES, diffs.length);
+	}
+
+	@After
+	public void tearDown() {
+		git.close();
+	}
+
+	@Test
+	public void testSameAsSequential() throws Exception {
+		DiffDocument expected = new DiffDocument();
+		try (DiffRegionFormatter formatter = new DiffRegionFormatter(
+				expected)) {
+			for (FileDiff diff : diffs) {
+				formatter.write(diff);
+			}
+			expected.connect(formatter);
+		}
+
+		DiffDocument actual = new DiffDocument();
+		List<Part> parts = new ArrayList<>();
+		new ParallelDiffFormatter(diffs).format(new NullProgressMonitor(),
+				part -> {
+					parts.add(part);
+					actual.append(part);
+				});
+		assertTrue(!parts.isEmpty());
+
+		assertEquals(expected.get(), actual.get());
+		assertRegions(expected.getRegions(), actual.getRegions());
+		FileDiffRegion[] expectedFiles = expected.getFileRegions();
+		FileDiffRegion[] actualFiles = actual.getFileRegions();
+		assertArrayEquals(expectedFiles, actualFiles);
+		for (int i = 0; i < expectedFiles.length; i++) {
+			assertEquals(expectedFiles[i].getDiff(), actualFiles[i].getDiff());
+		}
+		for (DiffEntry.Side side : DiffEntry.Side.values()) {
+			assertEquals(expected.getMaximumLineNumber(side),
+					actual.getMaximumLineNumber(side));
+		}
+	}
+
+	@Test
+	public void testConcat() {
+		List<Part> parts = new ArrayList<>();
+		StringBuilder text = new StringBuilder();
+		for (FileDiff diff : diffs) {
+			Part part = ParallelDiffFormatter.format(diff);
+			text.append(part.getText());
+			parts.add(part);
+		}
+		Part combined = Part.concat(parts);
+		assertEquals(text.toString(), combined.getText());
+		FileDiffRegion[] files = combined.getFileRegions(0);
+		assertEquals(FILES, files.length);
+		int offset = 0;
+		for (int i = 0; i < FILES; i++) {
+			assertEquals(offset, files[i].getOffset());
+			assertEquals(parts.get(i).length(), files[i].getLength());
+			offset += files[i].getLength();
+		}
+	}
+
+	@Test
+	public void testNoFiles() throws Exception {
+		List<Part> parts = new ArrayList<>();
+		new ParallelDiffFormatter(new FileDiff[0])
+				.format(new NullProgressMonitor(), parts::add);
+		assertTrue(parts.isEmpty());
+		Part empty = ParallelDiffFormatter.format(null);
+		assertEquals(0, empty.length());
+		assertEquals(0, empty.getRegions(0).length);
+	}
+
+	private static void assertRegions(DiffRegion[] expected,
+			DiffRegion[] actual) {
+		assertArrayEquals(expected, actual);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i].getType(), actual[i].getType());
+			for (DiffEntry.Side side : DiffEntry.Side.values()) {
+				assertEquals(expected[i].getLine(side),
+						actual[i].getLine(side));
+			}
+		}
+	}
+
+	private static void write(File file, int index, int version)
+			throws Exception {
+		StringBuilder content = new StringBuilder();
+		for (int line = 0; line < 50; line++) {
+			content.append("Line ").append(line);
+			if (line == index % 50) {
+				content.append(" version ").append(version);
+			}
+			content.append('\n');
+		}
+		Files.write(file.toPath(),
+				content.toString().getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -417,4 +417,31 @@ public void testDecorationNewFileInOneSubfolder() throws Exception {
 		assertArrayEquals(expectedDRs, actualDRs);
 	}
 
+	@Test
+	public void testDecorationFromStateCache() throws Exception {
+		write(new File(project.getLocation().toFile(), "Test.dat"), "Something");
+		write(new File(project.getLocation().toFile(), "Test"), "Something");
+		write(new File(project.getLocation().toFile(), ".gitignore"), "Test");
+		project.refreshLocal(IResource.DEPTH_INFINITE, null);
+		IResource file = project.findMember("Test.dat");
+		IResource gitignore = project.findMember(".gitignore");
+		IResource test = project.findMember("Test");
+		waitForIndexDiffUpdate(true);
+		IndexDiffData indexDiffData = indexDiffCacheEntry.getIndexDiff();
+		DecorationStateCache cache = new DecorationStateCache();
+		IDecoratableResource[] expectedDRs = new IDecoratableResource[] {
+				new TestDecoratableResource(project).tracked().dirty(),
+				new TestDecoratableResource(gitignore),
+				new TestDecoratableResource(file),
+				new TestDecoratableResource(test).ignored() };
+		// The first sibling computes the states of all siblings
+		IDecoratableResource[] actualDRs = {
+				new DecoratableResourceAdapter(indexDiffData, project, cache),
+				new DecoratableResourceAdapter(indexDiffData, gitignore, cache),
+				new DecoratableResourceAdapter(indexDiffData, file, cache),
+				new DecoratableResourceAdapter(indexDiffData, test, cache) };
+
+		assertArrayEquals(expectedDRs, actualDRs);
+	}
+
 }
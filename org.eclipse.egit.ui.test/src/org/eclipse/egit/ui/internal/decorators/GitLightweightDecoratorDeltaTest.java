@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.decorators;
+
+import static org.eclipse.jgit.junit.JGitTestUtil.write;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.egit.core.internal.indexdiff.IndexDiffData;
+import org.eclipse.egit.ui.common.LocalRepositoryTestCase;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GitLightweightDecoratorDeltaTest extends LocalRepositoryTestCase {
+
+	private static final String MANY = "many";
+
+	private static final int NUMBER_OF_FILES = 6000;
+
+	private Repository repository;
+
+	private IProject project;
+
+	private GitLightweightDecorator decorator;
+
+	@Before
+	public void setUp() throws Exception {
+		File gitDir = createProjectAndCommitToRepository();
+		repository = lookupRepository(gitDir);
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(PROJ1);
+		File folder = new File(project.getLocation().toFile(), MANY);
+		for (int i = 0; i < NUMBER_OF_FILES; i++) {
+			write(new File(folder, "file" + i + ".txt"), "content " + i);
+		}
+		try (Git git = new Git(repository)) {
+			git.add().addFilepattern(PROJ1 + '/' + MANY).call();
+			git.commit().setMessage("Many files").call();
+		}
+		project.refreshLocal(IResource.DEPTH_INFINITE, null);
+		decorator = new GitLightweightDecorator();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		decorator.dispose();
+	}
+
+	@Test
+	public void testSingleFileChangeInLargeProject() throws Exception {
+		IndexDiffData base = diff(null);
+		IFolder folder = project.getFolder(MANY);
+		write(folder.getFile("file0.txt").getLocation().toFile(), "changed");
+		String path = PROJ1 + '/' + MANY + "/file0.txt";
+		IndexDiffData derived = new IndexDiffData(base,
+				Collections.singletonList(path),
+				Collections.<IResource> emptyList(), diff(path));
+		assertTrue(derived.getModified().contains(path));
+
+		Collection<Object> elements = decorator
+				.getChangedElements(repository, derived);
+		assertNotNull("Fell back to a full refresh", elements);
+		assertTrue(elements.contains(folder.getFile("file0.txt")));
+		assertTrue(elements.contains(folder));
+		assertTrue(elements.contains(project));
+		assertFalse(elements.contains(folder.getFile("file1.txt")));
+	}
+
+	private IndexDiffData diff(String path) throws Exception {
+		FileTreeIterator iterator = new FileTreeIterator(repository);
+		IndexDiff diff = new IndexDiff(repository, Constants.HEAD, iterator);
+		if (path != null) {
+			diff.setFilter(PathFilterGroup.createFromStrings(path));
+		}
+		diff.diff();
+		return new IndexDiffData(diff);
+	}
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.decorators;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link QuickDiffReferences}.
+ */
+public class QuickDiffReferencesTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Git git;
+
+	private File workTree;
+
+	@Before
+	public void setUp() throws Exception {
+		workTree = folder.newFolder("repo");
+		git = Git.init().setDirectory(workTree).call();
+	}
+
+	@After
+	public void tearDown() {
+		git.close();
+	}
+
+	@Test
+	public void testChangedPaths() throws Exception {
+		write("a.txt", "a");
+		write("dir/b.txt", "b");
+		write("dir/c.txt", "c");
+		RevCommit first = commit();
+		write("dir/b.txt", "b2");
+		write("d.txt", "d");
+		git.rm().addFilepattern("a.txt").call();
+		RevCommit second = commit();
+
+		Set<String> changed = QuickDiffReferences.getChangedPaths(
+				git.getRepository(), first.getTree(), second.getTree(),
+				Arrays.asList("a.txt", "dir/b.txt", "dir/c.txt", "d.txt",
+						"e.txt"));
+		assertEquals(new HashSet<>(Arrays.asList("a.txt", "dir/b.txt",
+				"d.txt")), changed);
+	}
+
+	@Test
+	public void testUnrelatedChange() throws Exception {
+		write("a.txt", "a");
+		write("b.txt", "b");
+		RevCommit first = commit();
+		write("b.txt", "b2");
+		RevCommit second = commit();
+
+		assertEquals(Collections.emptySet(),
+				QuickDiffReferences.getChangedPaths(git.getRepository(),
+						first.getTree(), second.getTree(),
+						Collections.singleton("a.txt")));
+		assertEquals(Collections.emptySet(),
+				QuickDiffReferences.getChangedPaths(git.getRepository(),
+						first.getTree(), second.getTree(),
+						Collections.emptySet()));
+	}
+
+	@Test
+	public void testAttributesChange() throws Exception {
+		write("dir/sub/a.txt", "a");
+		write("b.txt", "b");
+		RevCommit first = commit();
+		write("dir/.gitattributes", "*.txt eol=crlf");
+		RevCommit second = commit();
+
+		List<String> attributes = QuickDiffReferences
+				.getAttributesPaths("dir/sub/a.txt");
+		assertEquals(Arrays.asList(".gitattributes", "dir/.gitattributes",
+				"dir/sub/.gitattributes"), attributes);
+		Set<String> paths = new HashSet<>(attributes);
+		paths.add("dir/sub/a.txt");
+		assertEquals(Collections.singleton("dir/.gitattributes"),
+				QuickDiffReferences.getChangedPaths(git.getRepository(),
+						first.getTree(), second.getTree(), paths));
+		assertEquals(Collections.singletonList(".gitattributes"),
+				QuickDiffReferences.getAttributesPaths("b.txt"));
+	}
+
+	private void write(String path, String content) throws Exception {
+		File file = new File(workTree, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private RevCommit commit() throws Exception {
+		git.add().addFilepattern(".").call();
+		return git.commit().setMessage("commit").call();
+	}
+}
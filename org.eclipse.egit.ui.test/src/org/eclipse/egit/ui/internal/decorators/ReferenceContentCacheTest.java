@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.decorators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.egit.ui.internal.decorators.ReferenceContentCache.Key;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ReferenceContentCache}.
+ */
+public class ReferenceContentCacheTest {
+
+	private static final ObjectId BLOB_1 = ObjectId
+			.fromString("0123456789012345678901234567890123456789");
+
+	private static final ObjectId BLOB_2 = ObjectId
+			.fromString("1123456789012345678901234567890123456789");
+
+	private static final ObjectId BLOB_3 = ObjectId
+			.fromString("2123456789012345678901234567890123456789");
+
+	@Test
+	public void testKey() {
+		ReferenceContentCache cache = new ReferenceContentCache(100);
+		cache.put(new Key("repo", BLOB_1, null, "UTF-8"), "content");
+		assertEquals("content",
+				cache.get(new Key("repo", BLOB_1, null, "UTF-8")));
+		assertNull(cache.get(new Key("other", BLOB_1, null, "UTF-8")));
+		assertNull(cache.get(new Key("repo", BLOB_1, "diff=lfs", "UTF-8")));
+		assertNull(cache.get(new Key("repo", BLOB_1, null, "ISO-8859-1")));
+		assertNull(cache.get(new Key("repo", BLOB_2, null, "UTF-8")));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+		ReferenceContentCache cache = new ReferenceContentCache(10);
+		Key key1 = new Key("repo", BLOB_1, null, "UTF-8");
+		Key key2 = new Key("repo", BLOB_2, null, "UTF-8");
+		Key key3 = new Key("repo", BLOB_3, null, "UTF-8");
+		cache.put(key1, "1111");
+		cache.put(key2, "2222");
+		// Use key1, so that key2 is the least recently used
+		assertEquals("1111", cache.get(key1));
+		cache.put(key3, "3333");
+		assertEquals(2, cache.size());
+		assertEquals(8, cache.getChars());
+		assertNull(cache.get(key2));
+		assertEquals("1111", cache.get(key1));
+		assertEquals("3333", cache.get(key3));
+	}
+
+	@Test
+	public void testReplaceAndTooLarge() {
+		ReferenceContentCache cache = new ReferenceContentCache(10);
+		Key key1 = new Key("repo", BLOB_1, null, "UTF-8");
+		Key key2 = new Key("repo", BLOB_2, null, "UTF-8");
+		cache.put(key1, "1111");
+		cache.put(key1, "11");
+		assertEquals(2, cache.getChars());
+		cache.put(key2, "too large to cache");
+		assertNull(cache.get(key2));
+		assertEquals(1, cache.size());
+		cache.put(key2, "2222222222");
+		assertEquals(1, cache.size());
+		assertNull(cache.get(key1));
+		assertEquals(10, cache.getChars());
+	}
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.history;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.egit.ui.common.LocalRepositoryTestCase;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FindIndex}.
+ */
+public class FindIndexTest extends LocalRepositoryTestCase {
+
+	private static final int ALL = FindIndex.COMMIT_ID | FindIndex.COMMENTS
+			| FindIndex.AUTHOR | FindIndex.COMMITTER | FindIndex.REFERENCE;
+
+	private Repository repo;
+
+	private SWTCommit[] commits;
+
+	@Before
+	public void createRepo() throws Exception {
+		repo = createLocalTestRepository(REPO1);
+		try (Git git = new Git(repo)) {
+			PersonIdent alice = new PersonIdent("Alice", "alice@example.org");
+			PersonIdent bob = new PersonIdent("Bob", "bob@example.org");
+			git.commit().setMessage("Initial import").setAuthor(alice)
+					.setCommitter(alice).call();
+			git.commit().setMessage("Fix the parser").setAuthor(bob)
+					.setCommitter(alice).call();
+			git.commit().setMessage("Parse faster").setAuthor(alice)
+					.setCommitter(alice).call();
+			git.tag().setName("release").call();
+		}
+		commits = loadCommits();
+	}
+
+	@After
+	public void closeRepo() throws Exception {
+		if (repo != null) {
+			repo.close();
+			repo = null;
+		}
+	}
+
+	private SWTCommit[] loadCommits() throws Exception {
+		List<SWTCommit> result = new ArrayList<>();
+		try (SWTWalk walk = new SWTWalk(repo)) {
+			walk.setRetainBody(false);
+			walk.markStart(walk.parseCommit(repo.resolve(Constants.HEAD)));
+			RevCommit commit;
+			while ((commit = walk.next()) != null) {
+				result.add((SWTCommit) commit);
+			}
+		}
+		// Newest first: "Parse faster", "Fix the parser", "Initial import"
+		return result.toArray(new SWTCommit[0]);
+	}
+
+	private int[] find(FindIndex index, SWTCommit[] input, String pattern,
+			boolean ignoreCase, int fields) {
+		return index.find(input, pattern, ignoreCase, fields,
+				new NullProgressMonitor());
+	}
+
+	@Test
+	public void testFields() throws Exception {
+		FindIndex index = new FindIndex();
+		assertArrayEquals(new int[] { 1 },
+				find(index, commits, "bob", false, FindIndex.AUTHOR));
+		assertArrayEquals(new int[0],
+				find(index, commits, "bob", false, FindIndex.COMMITTER));
+		assertArrayEquals(new int[] { 0 },
+				find(index, commits, "release", false, FindIndex.REFERENCE));
+		assertArrayEquals(new int[] { 2 }, find(index, commits,
+				commits[2].name().substring(0, 7), false, FindIndex.COMMIT_ID));
+		assertArrayEquals(new int[] { 0 },
+				find(index, commits, "Pars", false, FindIndex.COMMENTS));
+	}
+
+	@Test
+	public void testIgnoreCase() throws Exception {
+		FindIndex index = new FindIndex();
+		assertArrayEquals(new int[] { 1 },
+				find(index, commits, "parser", false, ALL));
+		assertArrayEquals(new int[0],
+				find(index, commits, "PARSER", false, ALL));
+		assertArrayEquals(new int[] { 1 },
+				find(index, commits, "PARSER", true, ALL));
+	}
+
+	@Test
+	public void testNarrowingAndExtendedInput() throws Exception {
+		FindIndex index = new FindIndex();
+		SWTCommit[] firstTwo = Arrays.copyOf(commits, 2);
+		assertArrayEquals(new int[] { 0, 1 },
+				find(index, firstTwo, "a", true, FindIndex.COMMENTS));
+		// Narrowed search on more rows must include the new rows
+		assertArrayEquals(new int[] { 0, 1, 2 },
+				find(index, commits, "a", true, FindIndex.COMMENTS));
+		assertArrayEquals(new int[] { 0 },
+				find(index, commits, "as", true, FindIndex.COMMENTS));
+		// Not an extension of the previous pattern
+		assertArrayEquals(new int[] { 1 },
+				find(index, commits, "fix", true, FindIndex.COMMENTS));
+	}
+
+	@Test
+	public void testReplacedInput() throws Exception {
+		FindIndex index = new FindIndex();
+		assertArrayEquals(new int[] { 1 },
+				find(index, commits, "bob", false, FindIndex.AUTHOR));
+		// Same length, first and last commit, but another commit in between
+		SWTCommit[] other = { commits[0], commits[0], commits[2] };
+		assertArrayEquals(new int[0],
+				find(index, other, "bob", false, FindIndex.AUTHOR));
+	}
+
+	@Test
+	public void testContains() {
+		assertTrue(FindIndex.contains("Fix the Parser", "parser", true));
+		assertFalse(FindIndex.contains("Fix the Parser", "parser", false));
+		assertTrue(FindIndex.contains("Fix the Parser", "Parser", false));
+		assertTrue(FindIndex.contains("Fix", "", true));
+		assertFalse(FindIndex.contains("Pa", "par", true));
+		assertTrue(FindIndex.contains("\u00dcBER", "\u00fcber", true));
+	}
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.search;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link RawTextFilter}
+ */
+public class RawTextFilterTest {
+
+	private static byte[] commit(String message) {
+		CommitBuilder builder = new CommitBuilder();
+		builder.setTreeId(ObjectId.zeroId());
+		builder.setAuthor(new PersonIdent("Alice Smith", "alice@example.org"));
+		builder.setCommitter(new PersonIdent("Bob", "bob@example.org"));
+		builder.setMessage(message);
+		return builder.build();
+	}
+
+	private static RawTextFilter create(String text, boolean caseSensitive,
+			boolean regex) {
+		RawTextFilter filter = RawTextFilter.create(text, caseSensitive,
+				regex);
+		assertNotNull(filter);
+		return filter;
+	}
+
+	@Test
+	public void testUnsupportedTexts() {
+		assertNull(RawTextFilter.create("", true, false));
+		assertNull(RawTextFilter.create("a*b", true, false));
+		assertNull(RawTextFilter.create("a?b", true, false));
+		assertNull(RawTextFilter.create("a.b", true, true));
+		assertNull(RawTextFilter.create("café", true, false));
+		assertNotNull(RawTextFilter.create("a.b", true, false));
+		assertNotNull(RawTextFilter.create("TICKET-1", true, true));
+	}
+
+	@Test
+	public void testFields() {
+		byte[] raw = commit("Fix TICKET-123 in parser\n\nDetails");
+		RawTextFilter filter = create("TICKET-123", true, false);
+		assertTrue(filter.messageMayMatch(raw));
+		assertFalse(filter.authorMayMatch(raw));
+		assertFalse(filter.committerMayMatch(raw));
+		filter = create("Bob", true, false);
+		assertFalse(filter.messageMayMatch(raw));
+		assertFalse(filter.authorMayMatch(raw));
+		assertTrue(filter.committerMayMatch(raw));
+		filter = create("example.org", true, false);
+		assertTrue(filter.authorMayMatch(raw));
+		assertTrue(filter.committerMayMatch(raw));
+	}
+
+	@Test
+	public void testCase() {
+		byte[] raw = commit("Fix TICKET-123 in parser");
+		assertFalse(create("ticket-123", true, false).messageMayMatch(raw));
+		assertTrue(create("ticket-123", false, false).messageMayMatch(raw));
+		assertTrue(create("PARSER", false, false).messageMayMatch(raw));
+	}
+
+	@Test
+	public void testNonAsciiMayMatch() {
+		byte[] raw = commit("Café au lait");
+		assertTrue(create("zzz", true, false).messageMayMatch(raw));
+		assertFalse(create("zzz", true, false).authorMayMatch(raw));
+	}
+
+	@Test
+	public void testEndOfText() {
+		byte[] raw = commit("abc");
+		assertTrue(create("abc", true, false).messageMayMatch(raw));
+		assertFalse(create("abcd", true, false).messageMayMatch(raw));
+	}
+}
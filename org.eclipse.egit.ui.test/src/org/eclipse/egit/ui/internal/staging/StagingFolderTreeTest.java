@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.staging;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.regex.Pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link StagingFolderTree}.
+ */
+public class StagingFolderTreeTest {
+
+	private StagingFolderTree tree;
+
+	@Before
+	public void setUp() {
+		tree = StagingFolderTree.build(
+				asList("x", "a/b/c/f1", "a/b/c/f2", "a/b.c/y", "a/z",
+						"d/e/f/g", "d/e/h/i", "u/new"),
+				path -> path.startsWith("u/"));
+	}
+
+	@Test
+	public void testFilesAreSorted() {
+		assertEquals(8, tree.getFileCount());
+		assertEquals("a/b.c/y", tree.getPath(0));
+		assertEquals("x", tree.getPath(7));
+		assertEquals(3, tree.indexOf("a/z"));
+		assertEquals(-1, tree.indexOf("a/b"));
+	}
+
+	@Test
+	public void testFolders() {
+		assertEquals(9, tree.getFolderCount());
+		int abc = folder("a/b/c");
+		int ab = folder("a/b");
+		int a = folder("a");
+		assertEquals(ab, tree.getParent(abc));
+		assertEquals(a, tree.getParent(ab));
+		assertEquals(-1, tree.getParent(a));
+		assertTrue(tree.getParent(abc) < abc);
+		assertEquals(abc, tree.getFolder(tree.indexOf("a/b/c/f1")));
+		assertEquals(a, tree.getFolder(tree.indexOf("a/z")));
+		assertEquals(-1, tree.getFolder(tree.indexOf("x")));
+		assertEquals("a/b/c", tree.getFolderIPath(abc).toString());
+	}
+
+	@Test
+	public void testFolderRanges() {
+		for (int node = 0; node < tree.getFolderCount(); node++) {
+			String prefix = tree.getFolderPath(node) + '/';
+			for (int i = 0; i < tree.getFileCount(); i++) {
+				boolean inRange = i >= tree.getStart(node)
+						&& i < tree.getEnd(node);
+				assertEquals(tree.getPath(i), inRange,
+						tree.getPath(i).startsWith(prefix));
+			}
+		}
+	}
+
+	@Test
+	public void testCompactPresentation() {
+		for (int node = 0; node < tree.getFolderCount(); node++) {
+			assertTrue(tree.isShown(node, false));
+		}
+		// Only one child folder and no files
+		assertFalse(tree.isShown(folder("a/b"), true));
+		assertFalse(tree.isShown(folder("d"), true));
+		assertTrue(tree.isShown(folder("a"), true));
+		assertTrue(tree.isShown(folder("d/e"), true));
+		assertTrue(tree.isShown(folder("a/b/c"), true));
+	}
+
+	@Test
+	public void testMatch() {
+		BitSet all = tree.match(null, true);
+		assertEquals(8, all.cardinality());
+		BitSet tracked = tree.match(null, false);
+		assertEquals(7, tracked.cardinality());
+		assertFalse(tracked.get(tree.indexOf("u/new")));
+		assertFalse(tree.containsAny(folder("u"), tracked));
+
+		BitSet matches = tree.match(Pattern.compile("f"), true);
+		assertEquals(3, matches.cardinality());
+		assertTrue(tree.containsAny(folder("a"), matches));
+		assertTrue(tree.containsAny(folder("d/e"), matches));
+		assertTrue(tree.containsAny(folder("d/e/f"), matches));
+		assertFalse(tree.containsAny(folder("d/e/h"), matches));
+		assertFalse(tree.containsAny(folder("a/b.c"), matches));
+	}
+
+	@Test
+	public void testEmpty() {
+		StagingFolderTree empty = StagingFolderTree.build(asList(),
+				path -> false);
+		assertEquals(0, empty.getFileCount());
+		assertEquals(0, empty.getFolderCount());
+		assertTrue(empty.match(null, true).isEmpty());
+	}
+
+	private int folder(String path) {
+		for (int node = 0; node < tree.getFolderCount(); node++) {
+			if (tree.getFolderPath(node).equals(path)) {
+				return node;
+			}
+		}
+		throw new AssertionError("No folder " + path);
+	}
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.staging;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.egit.core.internal.indexdiff.IndexDiffData;
+import org.eclipse.egit.ui.internal.staging.StagingView.StagingViewUpdate;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the entries of a {@link StagingViewContentProvider}.
+ */
+public class StagingViewContentProviderTest {
+
+	private Repository repository;
+
+	private StagingViewContentProvider unstaged;
+
+	private StagingViewContentProvider staged;
+
+	@Before
+	public void setUp() {
+		repository = mock(Repository.class);
+		unstaged = new StagingViewContentProvider(null, true);
+		staged = new StagingViewContentProvider(null, false);
+	}
+
+	@Test
+	public void testFullUpdate() {
+		IndexDiff diff = mock(IndexDiff.class);
+		when(diff.getModified()).thenReturn(Set.of("b.txt", "a/c.txt"));
+		when(diff.getUntracked()).thenReturn(Set.of("A.txt"));
+		when(diff.getMissing()).thenReturn(Set.of("d.txt"));
+		when(diff.getChanged()).thenReturn(Set.of("b.txt", "d.txt"));
+		update(new IndexDiffData(diff));
+		// Sorted case-insensitively by path
+		assertEntries(unstaged, "A.txt:UNTRACKED", "a/c.txt:MODIFIED",
+				"b.txt:MODIFIED_AND_CHANGED", "d.txt:MISSING_AND_CHANGED");
+		assertEntries(staged, "b.txt:CHANGED", "d.txt:CHANGED");
+	}
+
+	@Test
+	public void testIncrementalUpdateKeepsUnchangedEntries() {
+		IndexDiff full = mock(IndexDiff.class);
+		when(full.getModified()).thenReturn(Set.of("a.txt", "b.txt", "c.txt"));
+		IndexDiffData base = new IndexDiffData(full);
+		update(base);
+		StagingEntry[] before = unstaged.getStagingEntries();
+
+		IndexDiff partial = mock(IndexDiff.class);
+		when(partial.getModified()).thenReturn(Set.of("c.txt"));
+		when(partial.getUntracked()).thenReturn(Set.of("bb.txt"));
+		when(partial.getAdded()).thenReturn(Set.of("b.txt"));
+		IndexDiffData updated = new IndexDiffData(base,
+				asList("b.txt", "bb.txt", "c.txt"), Collections.emptySet(),
+				partial);
+		update(updated);
+		StagingEntry[] after = unstaged.getStagingEntries();
+		assertEntries(unstaged, "a.txt:MODIFIED", "bb.txt:UNTRACKED",
+				"c.txt:MODIFIED");
+		// Entries whose state did not change are the same objects
+		assertSame(before[0], after[0]);
+		assertSame(before[2], after[2]);
+		assertEntries(staged, "b.txt:ADDED");
+	}
+
+	@Test
+	public void testUpdateWithSameDataKeepsEntries() {
+		IndexDiff diff = mock(IndexDiff.class);
+		when(diff.getUntracked()).thenReturn(Set.of("a.txt"));
+		IndexDiffData data = new IndexDiffData(diff);
+		update(data);
+		StagingEntry[] before = unstaged.getStagingEntries();
+		update(data);
+		assertSame(before, unstaged.getStagingEntries());
+		// Unrelated data is loaded from scratch
+		update(new IndexDiffData(diff));
+		assertNotSame(before[0], unstaged.getStagingEntries()[0]);
+	}
+
+	@Test
+	public void testConflictStateChange() {
+		IndexDiff full = mock(IndexDiff.class);
+		when(full.getConflicting()).thenReturn(Set.of("a.txt"));
+		when(full.getConflictingStageStates()).thenReturn(Collections
+				.singletonMap("a.txt", IndexDiff.StageState.BOTH_MODIFIED));
+		IndexDiffData base = new IndexDiffData(full);
+		update(base);
+		assertEquals(IndexDiff.StageState.BOTH_MODIFIED,
+				unstaged.getStagingEntries()[0].getConflictType());
+
+		IndexDiff partial = mock(IndexDiff.class);
+		when(partial.getConflicting()).thenReturn(Set.of("a.txt"));
+		when(partial.getConflictingStageStates()).thenReturn(Collections
+				.singletonMap("a.txt", IndexDiff.StageState.DELETED_BY_US));
+		update(new IndexDiffData(base, asList("a.txt"), Collections.emptySet(),
+				partial));
+		assertEquals(IndexDiff.StageState.DELETED_BY_US,
+				unstaged.getStagingEntries()[0].getConflictType());
+	}
+
+	private void update(IndexDiffData data) {
+		StagingViewUpdate update = new StagingViewUpdate(repository, data,
+				null);
+		unstaged.inputChanged(null, null, update);
+		staged.inputChanged(null, null, update);
+	}
+
+	private static void assertEntries(StagingViewContentProvider provider,
+			String... expected) {
+		StagingEntry[] entries = provider.getStagingEntries();
+		String[] actual = new String[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			actual[i] = entries[i].getPath() + ':' + entries[i].getState();
+		}
+		assertArrayEquals(expected, actual);
+	}
+}
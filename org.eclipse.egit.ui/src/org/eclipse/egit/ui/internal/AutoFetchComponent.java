@@ -11,15 +11,17 @@
 package org.eclipse.egit.ui.internal;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.egit.core.RepositoryCache;
 import org.eclipse.egit.core.internal.credentials.EGitCredentialsProvider;
@@ -28,6 +30,8 @@
 import org.eclipse.egit.ui.Activator;
 import org.eclipse.egit.ui.JobFamilies;
 import org.eclipse.egit.ui.UIPreferences;
+import org.eclipse.egit.ui.internal.AutoFetchScheduler.RemoteStatistics;
+import org.eclipse.egit.ui.internal.trace.GitTraceLocation;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
@@ -48,6 +52,11 @@
  * {@link UIPreferences#AUTO_FETCH} setting, it fetches either only the default
  * remote or all remotes. The interval is controlled by
  * {@link UIPreferences#AUTO_FETCH_INTERVAL}.
+ * <p>
+ * Remotes are fetched concurrently, but at most
+ * {@link AutoFetchScheduler#MAX_CONCURRENT_FETCHES} at a time. Remotes that
+ * failed to fetch are skipped for a while; see {@link AutoFetchScheduler}.
+ * </p>
  */
 @Component(property = EventConstants.EVENT_TOPIC + '='
 		+ ApplicationActiveListener.TOPIC_APPLICATION_ACTIVE)
@@ -101,6 +110,8 @@ static class AutoFetchJob extends Job implements IPropertyChangeListener {
 
 		private final AtomicBoolean workbenchActive;
 
+		private final AutoFetchScheduler scheduler = new AutoFetchScheduler();
+
 		AutoFetchJob(AtomicBoolean workbenchActive) {
 			super(UIText.AutoFetchJob_Name);
 			this.workbenchActive = workbenchActive;
@@ -135,21 +146,22 @@ protected IStatus run(IProgressMonitor monitor) {
 					.getPreferenceStore();
 			if (store.getBoolean(UIPreferences.REFRESH_ONLY_WHEN_ACTIVE)
 					&& !workbenchActive.get()) {
-				schedule(interval);
+				schedule(scheduler.jitter(interval));
 				return Status.OK_STATUS;
 			}
 
 			String autoFetch = store.getString(UIPreferences.AUTO_FETCH);
 			boolean fetchAll = UIPreferences.AUTO_FETCH_ALL_REMOTES
 					.equals(autoFetch);
-			Repository[] repos = RepositoryCache.INSTANCE.getAllRepositories();
-			SubMonitor progress = SubMonitor.convert(monitor, repos.length);
-			for (Repository repo : repos) {
+			long currentInterval = interval;
+			List<String> keys = new ArrayList<>();
+			List<RemoteFetchJob> jobs = new ArrayList<>();
+			for (Repository repo : RepositoryCache.INSTANCE
+					.getAllRepositories()) {
 				if (monitor.isCanceled()) {
 					break;
 				}
 				if (repo.isBare()) {
-					progress.worked(1);
 					continue;
 				}
 				try {
@@ -166,24 +178,121 @@ protected IStatus run(IProgressMonitor monitor) {
 						if (remote.getURIs().isEmpty()) {
 							continue;
 						}
-						FetchOperation op = new FetchOperation(repo, remote,
-								GitSettings.getRemoteConnectionTimeout(),
-								false);
-						op.setCredentialsProvider(
-								new EGitCredentialsProvider());
-						op.run(progress.newChild(0));
+						String key = AutoFetchScheduler.getKey(repo,
+								remote.getName());
+						keys.add(key);
+						if (scheduler.isDue(key)) {
+							jobs.add(new RemoteFetchJob(repo, remote, key,
+									currentInterval));
+						}
 					}
 				} catch (Exception e) {
 					Activator.logError(
 							"Auto fetch failed for " + repo, e); //$NON-NLS-1$
 				}
-				progress.worked(1);
+			}
+			if (!monitor.isCanceled()) {
+				scheduler.retain(keys);
+				fetch(jobs, currentInterval, monitor);
 			}
 			monitor.done();
-			schedule(interval);
+			schedule(scheduler.jitter(interval));
 			return Status.OK_STATUS;
 		}
 
+		private void fetch(List<RemoteFetchJob> jobs, long currentInterval,
+				IProgressMonitor monitor) {
+			if (jobs.isEmpty()) {
+				return;
+			}
+			JobGroup group = new JobGroup(UIText.AutoFetchJob_Name,
+					AutoFetchScheduler.MAX_CONCURRENT_FETCHES, jobs.size());
+			for (RemoteFetchJob job : jobs) {
+				job.setJobGroup(group);
+				job.schedule(scheduler.getStartDelay(currentInterval));
+			}
+			try {
+				group.join(0, monitor);
+			} catch (InterruptedException e) {
+				group.cancel();
+				Thread.currentThread().interrupt();
+			} catch (OperationCanceledException e) {
+				group.cancel();
+			}
+		}
+
+		/**
+		 * Fetches a single remote and records the outcome in the
+		 * {@link AutoFetchScheduler}.
+		 */
+		private class RemoteFetchJob extends Job {
+
+			private final Repository repository;
+
+			private final RemoteConfig remote;
+
+			private final String key;
+
+			private final long fetchInterval;
+
+			RemoteFetchJob(Repository repository, RemoteConfig remote,
+					String key, long fetchInterval) {
+				super(UIText.AutoFetchJob_Name);
+				this.repository = repository;
+				this.remote = remote;
+				this.key = key;
+				this.fetchInterval = fetchInterval;
+				setSystem(true);
+				setUser(false);
+			}
+
+			@Override
+			public boolean belongsTo(Object family) {
+				return JobFamilies.AUTO_FETCH.equals(family)
+						|| super.belongsTo(family);
+			}
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				long start = System.nanoTime();
+				boolean success = false;
+				try {
+					FetchOperation op = new FetchOperation(repository, remote,
+							GitSettings.getRemoteConnectionTimeout(), false);
+					op.setCredentialsProvider(new EGitCredentialsProvider());
+					op.run(monitor);
+					success = true;
+				} catch (Exception e) {
+					if (monitor.isCanceled()) {
+						return Status.CANCEL_STATUS;
+					}
+					Activator.logError("Auto fetch failed for " + repository //$NON-NLS-1$
+							+ ", remote " + remote.getName(), e); //$NON-NLS-1$
+				}
+				long duration = TimeUnit.NANOSECONDS
+						.toMillis(System.nanoTime() - start);
+				RemoteStatistics statistics = scheduler.fetched(key,
+						duration, success, fetchInterval);
+				if (GitTraceLocation.AUTOFETCH.isActive()) {
+					GitTraceLocation.getTrace().trace(
+							GitTraceLocation.AUTOFETCH.getLocation(),
+							"Fetched " + remote.getName() + " of " //$NON-NLS-1$ //$NON-NLS-2$
+									+ repository + " in " + duration //$NON-NLS-1$
+									+ " ms, success " + success //$NON-NLS-1$
+									+ ", average " //$NON-NLS-1$
+									+ statistics.getAverageDuration()
+									+ " ms, max " //$NON-NLS-1$
+									+ statistics.getMaxDuration()
+									+ " ms, consecutive failures " //$NON-NLS-1$
+									+ statistics.getConsecutiveFailures());
+				}
+				return Status.OK_STATUS;
+			}
+		}
+
 		private static String getDefaultRemote(Repository repo) {
 			try {
 				String branch = repo.getBranch();
@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit Committers and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Keeps track of the automatic fetches of single remotes: when a remote may
+ * be fetched again, and how long fetching it took.
+ * <p>
+ * After a failed fetch, a remote is not fetched again for an exponentially
+ * growing multiple of the fetch interval, up to {@link #MAX_BACKOFF_FACTOR}
+ * intervals. A successful fetch resets the backoff. All delays are jittered
+ * so that remotes on the same host are not all contacted at the same time.
+ * </p>
+ */
+class AutoFetchScheduler {
+
+	/** Maximum number of remotes fetched concurrently. */
+	static final int MAX_CONCURRENT_FETCHES = 4;
+
+	/** Maximum backoff after failures, as a multiple of the interval. */
+	static final int MAX_BACKOFF_FACTOR = 32;
+
+	/** Relative amount by which delays are randomly varied. */
+	static final double JITTER = 0.1;
+
+	/** Upper bound for the random delay before a single fetch starts. */
+	static final long MAX_START_DELAY = TimeUnit.SECONDS.toMillis(30);
+
+	/**
+	 * Statistics of the automatic fetches of one remote.
+	 */
+	static class RemoteStatistics {
+
+		private int fetchCount;
+
+		private int consecutiveFailures;
+
+		private long lastDuration;
+
+		private long totalDuration;
+
+		private long maxDuration;
+
+		private long nextFetch;
+
+		/**
+		 * @return the number of fetches, including failed ones
+		 */
+		int getFetchCount() {
+			return fetchCount;
+		}
+
+		/**
+		 * @return the number of failed fetches since the last successful one
+		 */
+		int getConsecutiveFailures() {
+			return consecutiveFailures;
+		}
+
+		/**
+		 * @return the duration of the last fetch in milliseconds
+		 */
+		long getLastDuration() {
+			return lastDuration;
+		}
+
+		/**
+		 * @return the average duration of all fetches in milliseconds
+		 */
+		long getAverageDuration() {
+			return fetchCount == 0 ? 0 : totalDuration / fetchCount;
+		}
+
+		/**
+		 * @return the maximum duration of all fetches in milliseconds
+		 */
+		long getMaxDuration() {
+			return maxDuration;
+		}
+
+		/**
+		 * @return the time before which the remote is not fetched again, in
+		 *         milliseconds of the scheduler's clock
+		 */
+		long getNextFetch() {
+			return nextFetch;
+		}
+
+		private RemoteStatistics copy() {
+			RemoteStatistics copy = new RemoteStatistics();
+			copy.fetchCount = fetchCount;
+			copy.consecutiveFailures = consecutiveFailures;
+			copy.lastDuration = lastDuration;
+			copy.totalDuration = totalDuration;
+			copy.maxDuration = maxDuration;
+			copy.nextFetch = nextFetch;
+			return copy;
+		}
+	}
+
+	private final Map<String, RemoteStatistics> remotes = new ConcurrentHashMap<>();
+
+	private final LongSupplier clock;
+
+	private final Random random;
+
+	AutoFetchScheduler() {
+		this(System::currentTimeMillis, new Random());
+	}
+
+	/**
+	 * @param clock
+	 *            returning the current time in milliseconds
+	 * @param random
+	 *            for jittering delays
+	 */
+	AutoFetchScheduler(LongSupplier clock, Random random) {
+		this.clock = clock;
+		this.random = random;
+	}
+
+	/**
+	 * Computes the key identifying a remote of a repository.
+	 *
+	 * @param repository
+	 *            of the remote
+	 * @param remote
+	 *            name of the remote
+	 * @return the key
+	 */
+	static String getKey(Repository repository, String remote) {
+		return repository.getDirectory().getAbsolutePath() + '\n' + remote;
+	}
+
+	/**
+	 * Determines whether a remote may be fetched now.
+	 *
+	 * @param key
+	 *            of the remote
+	 * @return {@code false} if the remote is backing off after failures,
+	 *         {@code true} otherwise
+	 */
+	boolean isDue(String key) {
+		RemoteStatistics statistics = remotes.get(key);
+		if (statistics == null) {
+			return true;
+		}
+		synchronized (statistics) {
+			return clock.getAsLong() - statistics.nextFetch >= 0;
+		}
+	}
+
+	/**
+	 * Records the outcome of a fetch.
+	 *
+	 * @param key
+	 *            of the remote fetched
+	 * @param duration
+	 *            of the fetch in milliseconds
+	 * @param success
+	 *            whether the fetch succeeded
+	 * @param interval
+	 *            the current fetch interval in milliseconds
+	 * @return the statistics of the remote after the fetch
+	 */
+	RemoteStatistics fetched(String key, long duration, boolean success,
+			long interval) {
+		RemoteStatistics statistics = remotes.computeIfAbsent(key,
+				k -> new RemoteStatistics());
+		synchronized (statistics) {
+			statistics.fetchCount++;
+			statistics.lastDuration = duration;
+			statistics.totalDuration += duration;
+			statistics.maxDuration = Math.max(statistics.maxDuration,
+					duration);
+			if (success) {
+				statistics.consecutiveFailures = 0;
+				statistics.nextFetch = clock.getAsLong();
+			} else {
+				statistics.consecutiveFailures++;
+				int factor = Math.min(MAX_BACKOFF_FACTOR,
+						1 << Math.min(statistics.consecutiveFailures, 30));
+				statistics.nextFetch = clock.getAsLong()
+						+ jitter(interval * factor);
+			}
+			return statistics.copy();
+		}
+	}
+
+	/**
+	 * Retrieves the statistics of a remote.
+	 *
+	 * @param key
+	 *            of the remote
+	 * @return a snapshot of the statistics, or {@code null} if the remote
+	 *         was not fetched yet
+	 */
+	RemoteStatistics getStatistics(String key) {
+		RemoteStatistics statistics = remotes.get(key);
+		if (statistics == null) {
+			return null;
+		}
+		synchronized (statistics) {
+			return statistics.copy();
+		}
+	}
+
+	/**
+	 * Forgets about all remotes except the given ones.
+	 *
+	 * @param keys
+	 *            of the remotes to keep
+	 */
+	void retain(Collection<String> keys) {
+		remotes.keySet().retainAll(keys);
+	}
+
+	/**
+	 * Randomly varies a delay by up to {@link #JITTER} in either direction.
+	 *
+	 * @param delay
+	 *            in milliseconds
+	 * @return the jittered delay
+	 */
+	long jitter(long delay) {
+		double factor = 1 + JITTER * (2 * nextDouble() - 1);
+		return Math.max(0, Math.round(delay * factor));
+	}
+
+	/**
+	 * Computes a random delay before a single fetch of a run is started, so
+	 * that the fetches of a run are spread out.
+	 *
+	 * @param interval
+	 *            the current fetch interval in milliseconds
+	 * @return the delay in milliseconds
+	 */
+	long getStartDelay(long interval) {
+		long window = Math.min(MAX_START_DELAY, Math.round(interval * JITTER));
+		return window <= 0 ? 0 : Math.round(window * nextDouble());
+	}
+
+	private double nextDouble() {
+		synchronized (random) {
+			return random.nextDouble();
+		}
+	}
+}
@@ -238,9 +238,7 @@ public static IFileRevision getFileRevision(String gitPath,
 				// Not in commit
 				return null;
 			}
-			CheckoutMetadata metadata = new CheckoutMetadata(
-					w.getEolStreamType(OperationType.CHECKOUT_OP),
-					w.getFilterCommand(Constants.ATTR_FILTER_TYPE_SMUDGE));
+			CheckoutMetadata metadata = Filtering.getCheckoutMetadata(w);
 			if (blobId == null) {
 				blobId = w.getObjectId(0);
 			}
@@ -1616,6 +1614,7 @@ private static void setIndexEntryContents(final Repository repository,
 			} else {
 				EolStreamType streamType = null;
 				String command = null;
+				String driver = null;
 				try (TreeWalk walk = new TreeWalk(repository)) {
 					walk.setOperationType(OperationType.CHECKIN_OP);
 					walk.addTree(new DirCacheIterator(cache));
@@ -1631,10 +1630,13 @@ private static void setIndexEntryContents(final Repository repository,
 								.getEolStreamType(OperationType.CHECKIN_OP);
 						command = walk.getFilterCommand(
 								Constants.ATTR_FILTER_TYPE_CLEAN);
+						driver = walk.getAttributes()
+								.getValue(Constants.ATTR_FILTER);
 					}
 				}
 				InputStream filtered = Filtering.filter(repository, gitPath,
-						new ByteArrayInputStream(newContent), command);
+						new ByteArrayInputStream(newContent), command,
+						Constants.ATTR_FILTER_TYPE_CLEAN, driver);
 				if (streamType == null) {
 					WorkingTreeOptions workingTreeOptions = repository
 							.getConfig().get(WorkingTreeOptions.KEY);
@@ -22,6 +22,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.resources.IProject;
@@ -60,6 +62,13 @@
  * A component that scans for external changes made to git repositories.
  * Depending on user preference setting, this scanning is done only when the
  * workbench is active.
+ * <p>
+ * Where possible, the git directories are watched for changes, and only
+ * repositories that changed are scanned, shortly after the change. All
+ * repositories are still scanned now and then in case an event was missed.
+ * Repositories that cannot be watched are scanned at every
+ * {@link UIPreferences#REFRESH_INDEX_INTERVAL}.
+ * </p>
  */
 @Component(property = EventConstants.EVENT_TOPIC + '='
 		+ ApplicationActiveListener.TOPIC_APPLICATION_ACTIVE)
@@ -105,6 +114,7 @@ void shutDown() {
 				.removePropertyChangeListener(scanner);
 		scanner.setReschedule(false);
 		scanner.cancel();
+		scanner.dispose();
 		refreshJob.cancel();
 
 		try {
@@ -132,6 +142,13 @@ void shutDown() {
 	private static class RepositoryChangeScanner extends Job
 			implements IPropertyChangeListener {
 
+		/** Delay before scanning repositories reported as changed. */
+		private static final long CHANGE_DELAY_MILLIS = 100;
+
+		/** Interval at which even watched repositories are scanned. */
+		private static final long FULL_SCAN_INTERVAL = TimeUnit.MINUTES
+				.toMillis(5);
+
 		// volatile in order to ensure thread synchronization
 		private volatile boolean doReschedule;
 
@@ -143,6 +160,16 @@ private static class RepositoryChangeScanner extends Job
 
 		private Collection<WorkingTreeModifiedEvent> events;
 
+		// Only exists while automatic refresh is enabled
+		private volatile GitDirWatcher watcher;
+
+		private final Set<File> changedGitDirs = ConcurrentHashMap
+				.newKeySet();
+
+		private volatile boolean fullScanRequested;
+
+		private long lastFullScan;
+
 		private final IndexChangedListener listener = event -> {
 			if (event.isInternal()) {
 				return;
@@ -224,6 +251,42 @@ public RepositoryChangeScanner(ResourceRefreshJob refresher,
 			updateRefreshInterval();
 		}
 
+		private GitDirWatcher createWatcher() {
+			try {
+				return new GitDirWatcher(gitDirs -> {
+					changedGitDirs.addAll(gitDirs);
+					scanSoon();
+				}, () -> {
+					fullScanRequested = true;
+					scanSoon();
+				});
+			} catch (IOException | UnsupportedOperationException e) {
+				if (GitTraceLocation.REPOSITORYCHANGESCANNER.isActive()) {
+					GitTraceLocation.getTrace().trace(
+							GitTraceLocation.REPOSITORYCHANGESCANNER
+									.getLocation(),
+							"Cannot watch git directories, polling only: " //$NON-NLS-1$
+									+ e);
+				}
+				return null;
+			}
+		}
+
+		private void scanSoon() {
+			if (doReschedule) {
+				// Scheduling has no effect if the job is already sleeping
+				schedule(CHANGE_DELAY_MILLIS);
+				wakeUp(CHANGE_DELAY_MILLIS);
+			}
+		}
+
+		synchronized void dispose() {
+			if (watcher != null) {
+				watcher.close();
+				watcher = null;
+			}
+		}
+
 		@Override
 		public boolean shouldSchedule() {
 			return doReschedule;
@@ -250,12 +313,30 @@ protected IStatus run(IProgressMonitor monitor) {
 				return Status.OK_STATUS;
 			}
 
+			GitDirWatcher currentWatcher = watcher;
 			Repository[] repos = RepositoryCache.INSTANCE.getAllRepositories();
 			if (repos.length == 0) {
+				if (currentWatcher != null) {
+					// Stop watching repositories that were removed
+					currentWatcher.update(repos);
+				}
 				schedule(interval);
 				return Status.OK_STATUS;
 			}
 
+			long now = System.currentTimeMillis();
+			boolean fullScan = currentWatcher == null || fullScanRequested
+					|| now - lastFullScan >= FULL_SCAN_INTERVAL;
+			if (fullScan) {
+				fullScanRequested = false;
+				lastFullScan = now;
+			}
+			Set<File> changed = new HashSet<>(changedGitDirs);
+			changedGitDirs.removeAll(changed);
+			if (currentWatcher != null) {
+				changed.addAll(currentWatcher.update(repos));
+			}
+
 			monitor.beginTask(UIText.Activator_scanningRepositories,
 					repos.length);
 			try {
@@ -264,6 +345,13 @@ protected IStatus run(IProgressMonitor monitor) {
 					if (monitor.isCanceled()) {
 						break;
 					}
+					if (!fullScan
+							&& currentWatcher.isWatched(repo.getDirectory())
+							&& !changed.contains(
+									repo.getDirectory().getAbsoluteFile())) {
+						monitor.worked(1);
+						continue;
+					}
 					if (GitTraceLocation.REPOSITORYCHANGESCANNER.isActive()) {
 						GitTraceLocation.getTrace()
 								.trace(GitTraceLocation.REPOSITORYCHANGESCANNER
@@ -289,6 +377,8 @@ protected IStatus run(IProgressMonitor monitor) {
 				}
 				if (!monitor.isCanceled()) {
 					refresher.trigger(events);
+				} else {
+					changedGitDirs.addAll(changed);
 				}
 				events.clear();
 			} catch (IOException e) {
@@ -308,7 +398,7 @@ protected IStatus run(IProgressMonitor monitor) {
 						GitTraceLocation.REPOSITORYCHANGESCANNER.getLocation(),
 						"Rescheduling " + getName() + " job"); //$NON-NLS-1$ //$NON-NLS-2$
 			}
-			schedule(interval);
+			schedule(changedGitDirs.isEmpty() ? interval : CHANGE_DELAY_MILLIS);
 			return Status.OK_STATUS;
 		}
 
@@ -324,10 +414,23 @@ public void propertyChange(PropertyChangeEvent event) {
 		private void updateRefreshInterval() {
 			interval = getRefreshIndexInterval();
 			setReschedule(interval > 0);
+			updateWatcher();
 			cancel();
 			schedule(interval);
 		}
 
+		private synchronized void updateWatcher() {
+			if (interval > 0) {
+				if (watcher == null) {
+					watcher = createWatcher();
+				}
+			} else if (watcher != null) {
+				// Nothing would scan the reported repositories
+				watcher.close();
+				watcher = null;
+			}
+		}
+
 		/**
 		 * @return interval in milliseconds for automatic index check, 0 is if
 		 *         check should be disabled
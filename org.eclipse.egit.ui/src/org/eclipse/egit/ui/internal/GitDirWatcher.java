@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.egit.ui.internal.trace.GitTraceLocation;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Watches the git directories of repositories with a {@link WatchService}
+ * and reports which of them changed. Only the files a
+ * {@link Repository#scanForRepoChanges()} looks at are watched: HEAD, the
+ * index, the config, packed-refs, and the loose refs.
+ * <p>
+ * Events are collected until no new event arrived for {@link #QUIET_MILLIS},
+ * or for at most {@link #MAX_DELAY_MILLIS}, so that a git command writing
+ * many refs results in few batches. All repositories share one watch service
+ * and one thread.
+ * </p>
+ */
+class GitDirWatcher implements Closeable {
+
+	/** Time without events after which a batch is reported. */
+	static final long QUIET_MILLIS = 300;
+
+	/** Maximum time a batch is delayed while events keep coming in. */
+	static final long MAX_DELAY_MILLIS = 2000;
+
+	private static final String REFS = "refs"; //$NON-NLS-1$
+
+	private static final Set<String> WATCHED_FILES = Set.of(Constants.HEAD,
+			Constants.CONFIG, Constants.PACKED_REFS, "index"); //$NON-NLS-1$
+
+	private static final String LOCK_SUFFIX = ".lock"; //$NON-NLS-1$
+
+	/**
+	 * A watched folder and the git directories of the repositories it
+	 * belongs to. The folder of a linked worktree's common directory belongs
+	 * to several repositories.
+	 */
+	private static class Folder {
+
+		final Path path;
+
+		final boolean refs;
+
+		final Set<File> gitDirs = new HashSet<>();
+
+		Folder(Path path, boolean refs) {
+			this.path = path;
+			this.refs = refs;
+		}
+	}
+
+	private final Consumer<Set<File>> changes;
+
+	private final Runnable overflow;
+
+	private final Map<WatchKey, Folder> keys = new HashMap<>();
+
+	private final Set<File> watched = new HashSet<>();
+
+	private final WatchService service;
+
+	private final Thread thread;
+
+	private volatile boolean closed;
+
+	/**
+	 * Creates and starts a new watcher, initially watching nothing.
+	 *
+	 * @param changes
+	 *            receives batches of git directories of changed repositories
+	 * @param overflow
+	 *            called when events were lost
+	 * @throws IOException
+	 *             if the file system cannot be watched
+	 */
+	GitDirWatcher(Consumer<Set<File>> changes, Runnable overflow)
+			throws IOException {
+		this.changes = changes;
+		this.overflow = overflow;
+		this.service = FileSystems.getDefault().newWatchService();
+		thread = new Thread(this::run, "EGit git directory watcher"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Watches the given repositories and stops watching all others. Bare
+	 * repositories are not watched.
+	 *
+	 * @param repositories
+	 *            to watch
+	 * @return the git directories watched from now on; changes made before
+	 *         have not been reported
+	 */
+	synchronized Set<File> update(Repository[] repositories) {
+		Set<File> added = new HashSet<>();
+		if (closed) {
+			return added;
+		}
+		Set<File> current = new HashSet<>();
+		for (Repository repository : repositories) {
+			if (repository.isBare()) {
+				continue;
+			}
+			File gitDir = repository.getDirectory().getAbsoluteFile();
+			current.add(gitDir);
+			if (!watched.contains(gitDir) && watch(repository, gitDir)) {
+				watched.add(gitDir);
+				added.add(gitDir);
+				trace("Watching " + gitDir); //$NON-NLS-1$
+			}
+		}
+		watched.retainAll(current);
+		// Also drops the folders of repositories that could not be watched
+		// completely
+		Iterator<Map.Entry<WatchKey, Folder>> entries = keys.entrySet()
+				.iterator();
+		while (entries.hasNext()) {
+			Map.Entry<WatchKey, Folder> entry = entries.next();
+			Set<File> gitDirs = entry.getValue().gitDirs;
+			gitDirs.retainAll(watched);
+			if (gitDirs.isEmpty()) {
+				entry.getKey().cancel();
+				entries.remove();
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Tells whether changes in a git directory are reported. If not, the
+	 * repository has to be polled.
+	 *
+	 * @param gitDir
+	 *            of a repository
+	 * @return whether the git directory is watched
+	 */
+	synchronized boolean isWatched(File gitDir) {
+		return watched.contains(gitDir.getAbsoluteFile());
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		try {
+			service.close();
+		} catch (IOException e) {
+			// Ignore
+		}
+		thread.interrupt();
+	}
+
+	private boolean watch(Repository repository, File gitDir) {
+		File commonDir = repository.getCommonDirectory();
+		if (commonDir == null) {
+			commonDir = gitDir;
+		}
+		Path common = commonDir.getAbsoluteFile().toPath();
+		if (!register(gitDir.toPath(), false, gitDir)) {
+			return false;
+		}
+		if (!common.equals(gitDir.toPath())
+				&& !register(common, false, gitDir)) {
+			return false;
+		}
+		return registerTree(common.resolve(REFS), gitDir);
+	}
+
+	private boolean register(Path folder, boolean refs, File gitDir) {
+		try {
+			WatchKey key = folder.register(service, ENTRY_CREATE, ENTRY_DELETE,
+					ENTRY_MODIFY);
+			keys.computeIfAbsent(key, k -> new Folder(folder, refs)).gitDirs
+					.add(gitDir);
+			return true;
+		} catch (IOException | ClosedWatchServiceException e) {
+			// Deleted in the meantime, or not accessible
+			return false;
+		}
+	}
+
+	private boolean registerTree(Path folder, File gitDir) {
+		if (!register(folder, true, gitDir)) {
+			return false;
+		}
+		try (DirectoryStream<Path> children = Files
+				.newDirectoryStream(folder)) {
+			for (Path child : children) {
+				if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)
+						&& !registerTree(child, gitDir)) {
+					return false;
+				}
+			}
+		} catch (IOException e) {
+			return false;
+		}
+		return true;
+	}
+
+	private void run() {
+		try {
+			while (!closed) {
+				WatchKey key = service.take();
+				Set<File> batch = new HashSet<>();
+				boolean lost = false;
+				long deadline = System.currentTimeMillis() + MAX_DELAY_MILLIS;
+				while (key != null) {
+					synchronized (this) {
+						lost |= process(key, batch);
+					}
+					long remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0) {
+						break;
+					}
+					key = service.poll(Math.min(QUIET_MILLIS, remaining),
+							TimeUnit.MILLISECONDS);
+				}
+				if (closed) {
+					return;
+				}
+				if (lost) {
+					trace("Events lost"); //$NON-NLS-1$
+					overflow.run();
+				} else if (!batch.isEmpty()) {
+					trace("Changed: " + batch); //$NON-NLS-1$
+					changes.accept(batch);
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// Closed
+		} finally {
+			try {
+				service.close();
+			} catch (IOException e) {
+				// Ignore
+			}
+		}
+	}
+
+	/**
+	 * Collects the git directories of the repositories affected by the events
+	 * of a key into the batch, registering new folders below refs.
+	 *
+	 * @return {@code true} if events were lost
+	 */
+	private boolean process(WatchKey key, Set<File> batch) {
+		Folder folder = keys.get(key);
+		boolean lost = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			WatchEvent.Kind<?> kind = event.kind();
+			if (kind == OVERFLOW) {
+				lost = true;
+				continue;
+			}
+			if (folder == null) {
+				continue;
+			}
+			String name = event.context().toString();
+			if (name.endsWith(LOCK_SUFFIX)) {
+				// Only the rename of the lock file matters
+				continue;
+			}
+			Path child = folder.path.resolve(name);
+			if (folder.refs || WATCHED_FILES.contains(name)) {
+				batch.addAll(folder.gitDirs);
+			}
+			if (kind == ENTRY_CREATE
+					&& (folder.refs || REFS.equals(name))
+					&& Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+				for (File gitDir : folder.gitDirs) {
+					registerTree(child, gitDir);
+				}
+				batch.addAll(folder.gitDirs);
+			}
+		}
+		if (!key.reset()) {
+			keys.remove(key);
+		}
+		return lost;
+	}
+
+	private static void trace(String message) {
+		if (GitTraceLocation.REPOSITORYCHANGESCANNER.isActive()) {
+			GitTraceLocation.getTrace().trace(
+					GitTraceLocation.REPOSITORYCHANGESCANNER.getLocation(),
+					message);
+		}
+	}
+}
@@ -0,0 +1,474 @@
+/******************************************************************************
+ *  Copyright (c) 2026 EGit contributors and others.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.egit.ui.internal.blame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.egit.ui.Activator;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.blame.BlameGenerator;
+import org.eclipse.jgit.blame.cache.CacheRegion;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Computes blame results and keeps the most recently used ones, keyed by
+ * repository, start commit, file path, and whitespace mode. Since the start
+ * commit and the path determine the blob blamed, a cached result never
+ * becomes stale.
+ * <p>
+ * The {@link #MAX_ENTRIES} most recently used results are kept in memory.
+ * Complete results are also written to a {@link BlameStore} in the plug-in's
+ * state location, so that they are reused after a restart.
+ * </p>
+ * <p>
+ * When a file is blamed at a commit that has no cached result, the cached
+ * results of the same file at other commits are offered to the blame walk:
+ * as soon as it reaches such a commit, all lines still to be attributed take
+ * their attribution from the cached result instead of walking further. When
+ * HEAD advances, only the lines changed since the previous HEAD thus need to
+ * be walked through history.
+ * </p>
+ * <p>
+ * While a result is computed, snapshots of the lines attributed so far can be
+ * reported. The blame walk attributes the most recently changed lines first.
+ * </p>
+ */
+final class BlameCache {
+
+	/** The shared instance. */
+	static final BlameCache INSTANCE = new BlameCache(createStore());
+
+	/** Maximum number of results kept in memory. */
+	static final int MAX_ENTRIES = 16;
+
+	private static final long PARTIAL_RESULT_INTERVAL = TimeUnit.MILLISECONDS
+			.toNanos(300);
+
+	/**
+	 * The attribution of every line of a file at a start commit.
+	 */
+	static final class Lines {
+
+		private final RevCommit[] commits;
+
+		private final String[] paths;
+
+		private final int[] sourceLines;
+
+		private boolean incremental;
+
+		Lines(int lineCount) {
+			this.commits = new RevCommit[lineCount];
+			this.paths = new String[lineCount];
+			this.sourceLines = new int[lineCount];
+		}
+
+		/**
+		 * @return the number of lines
+		 */
+		int getLineCount() {
+			return commits.length;
+		}
+
+		/**
+		 * @param line
+		 *            0-based line number
+		 * @return the commit the line was last changed in, or {@code null} if
+		 *         unknown
+		 */
+		RevCommit getSourceCommit(int line) {
+			return commits[line];
+		}
+
+		/**
+		 * @param line
+		 *            0-based line number
+		 * @return the path of the file in {@link #getSourceCommit(int)}
+		 */
+		String getSourcePath(int line) {
+			return paths[line];
+		}
+
+		/**
+		 * @param line
+		 *            0-based line number
+		 * @return the 0-based line number in the file in
+		 *         {@link #getSourceCommit(int)}
+		 */
+		int getSourceLine(int line) {
+			return sourceLines[line];
+		}
+
+		/**
+		 * @return whether the lines were computed using another cached result
+		 */
+		boolean isIncremental() {
+			return incremental;
+		}
+
+		private Lines copy() {
+			Lines copy = new Lines(commits.length);
+			System.arraycopy(commits, 0, copy.commits, 0, commits.length);
+			System.arraycopy(paths, 0, copy.paths, 0, paths.length);
+			System.arraycopy(sourceLines, 0, copy.sourceLines, 0,
+					sourceLines.length);
+			copy.incremental = incremental;
+			return copy;
+		}
+
+		private boolean isComplete() {
+			for (RevCommit commit : commits) {
+				if (commit == null) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private List<CacheRegion> toRegions() {
+			List<CacheRegion> regions = new ArrayList<>();
+			int start = 0;
+			for (int i = 1; i <= commits.length; i++) {
+				if (i == commits.length || commits[i] != commits[start]
+						|| !paths[i].equals(paths[start])) {
+					regions.add(new CacheRegion(paths[start], commits[start],
+							start, i));
+					start = i;
+				}
+			}
+			return regions;
+		}
+	}
+
+	private static final class Key {
+
+		private final File gitDir;
+
+		private final ObjectId commit;
+
+		private final String path;
+
+		private final boolean ignoreWhitespace;
+
+		Key(Repository repository, ObjectId commit, String path,
+				boolean ignoreWhitespace) {
+			this.gitDir = repository.getDirectory();
+			this.commit = commit.copy();
+			this.path = path;
+			this.ignoreWhitespace = ignoreWhitespace;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return ignoreWhitespace == other.ignoreWhitespace
+					&& commit.equals(other.commit) && path.equals(other.path)
+					&& Objects.equals(gitDir, other.gitDir);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(gitDir, commit, path,
+					Boolean.valueOf(ignoreWhitespace));
+		}
+	}
+
+	private final Map<Key, Lines> entries = Collections
+			.synchronizedMap(new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(
+						Map.Entry<Key, Lines> eldest) {
+					return size() > MAX_ENTRIES;
+				}
+			});
+
+	@Nullable
+	private final BlameStore store;
+
+	/**
+	 * @param store
+	 *            to persist complete results in, may be {@code null}
+	 */
+	BlameCache(@Nullable BlameStore store) {
+		this.store = store;
+	}
+
+	@Nullable
+	private static BlameStore createStore() {
+		Activator activator = Activator.getDefault();
+		if (activator == null) {
+			return null;
+		}
+		try {
+			return new BlameStore(
+					activator.getStateLocation().append("blame").toFile()); //$NON-NLS-1$
+		} catch (IllegalStateException e) {
+			// No instance location
+			return null;
+		}
+	}
+
+	/**
+	 * Blames a file, following renames.
+	 *
+	 * @param repository
+	 *            to blame in
+	 * @param start
+	 *            commit to start at
+	 * @param path
+	 *            of the file in the start commit
+	 * @param ignoreWhitespace
+	 *            whether to ignore all whitespace changes
+	 * @param monitor
+	 *            for cancellation
+	 * @return the attribution of every line of the file, or {@code null} if
+	 *         the file does not exist in the start commit
+	 * @throws IOException
+	 *             if the repository cannot be read
+	 * @throws OperationCanceledException
+	 *             if the monitor was canceled
+	 */
+	Lines blame(Repository repository, ObjectId start, String path,
+			boolean ignoreWhitespace, IProgressMonitor monitor)
+			throws IOException {
+		return blame(repository, start, path, ignoreWhitespace, monitor, null);
+	}
+
+	/**
+	 * Blames a file, following renames, and reports partial results while
+	 * doing so. Lines not yet attributed in a partial result have no source
+	 * commit. Partial results are reported from the calling thread, at most
+	 * every 300 ms, and not at all if the result is cached or computed
+	 * quickly.
+	 *
+	 * @param repository
+	 *            to blame in
+	 * @param start
+	 *            commit to start at
+	 * @param path
+	 *            of the file in the start commit
+	 * @param ignoreWhitespace
+	 *            whether to ignore all whitespace changes
+	 * @param monitor
+	 *            for cancellation
+	 * @param partialResults
+	 *            to report partial results to, may be {@code null}
+	 * @return the attribution of every line of the file, or {@code null} if
+	 *         the file does not exist in the start commit
+	 * @throws IOException
+	 *             if the repository cannot be read
+	 * @throws OperationCanceledException
+	 *             if the monitor was canceled
+	 */
+	Lines blame(Repository repository, ObjectId start, String path,
+			boolean ignoreWhitespace, IProgressMonitor monitor,
+			@Nullable Consumer<Lines> partialResults) throws IOException {
+		Key key = new Key(repository, start, path, ignoreWhitespace);
+		Lines lines = entries.get(key);
+		if (lines != null) {
+			return lines;
+		}
+		try (RevWalk walk = new RevWalk(repository)) {
+			lines = load(repository, walk, start, path, ignoreWhitespace);
+		}
+		if (lines == null) {
+			lines = compute(repository, start, path, ignoreWhitespace,
+					monitor, partialResults);
+			if (lines != null && lines.isComplete()) {
+				save(repository, start, path, ignoreWhitespace, lines);
+			}
+		}
+		if (lines != null) {
+			entries.put(key, lines);
+		}
+		return lines;
+	}
+
+	/**
+	 * Removes all cached results, in memory and on disk.
+	 */
+	void clear() {
+		entries.clear();
+		if (store != null) {
+			store.clear();
+		}
+	}
+
+	/**
+	 * Removes the results kept in memory only.
+	 */
+	void clearMemory() {
+		entries.clear();
+	}
+
+	/**
+	 * Loads a result from the store, parsing its commits with the given walk.
+	 *
+	 * @return the result, or {@code null} if none is stored or one of its
+	 *         commits no longer exists
+	 */
+	@Nullable
+	private Lines load(Repository repository, RevWalk walk, ObjectId start,
+			String path, boolean ignoreWhitespace) {
+		if (store == null) {
+			return null;
+		}
+		BlameStore.Result stored = store.load(repository, start, path,
+				ignoreWhitespace);
+		if (stored == null) {
+			return null;
+		}
+		Lines lines = new Lines(stored.commits.length);
+		try {
+			for (int i = 0; i < stored.commits.length; i++) {
+				lines.commits[i] = walk.parseCommit(stored.commits[i]);
+			}
+		} catch (IOException e) {
+			// Commits may have been garbage collected
+			return null;
+		}
+		System.arraycopy(stored.paths, 0, lines.paths, 0,
+				stored.paths.length);
+		System.arraycopy(stored.sourceLines, 0, lines.sourceLines, 0,
+				stored.sourceLines.length);
+		return lines;
+	}
+
+	private void save(Repository repository, ObjectId start, String path,
+			boolean ignoreWhitespace, Lines lines) {
+		if (store == null) {
+			return;
+		}
+		try {
+			store.save(repository, start, path, ignoreWhitespace,
+					new BlameStore.Result(lines.commits, lines.paths,
+							lines.sourceLines));
+		} catch (IOException e) {
+			// Keep the result in memory only
+		}
+	}
+
+	private Lines compute(Repository repository, ObjectId start, String path,
+			boolean ignoreWhitespace, IProgressMonitor monitor,
+			Consumer<Lines> partialResults) throws IOException {
+		List<Lines> hits = new ArrayList<>();
+		try (RevWalk walk = new RevWalk(repository)) {
+			org.eclipse.jgit.blame.cache.BlameCache cache = (repo, commit,
+					sourcePath) -> {
+				Key key = new Key(repo, commit, sourcePath, ignoreWhitespace);
+				Lines cached = entries.get(key);
+				if (cached == null) {
+					cached = load(repo, walk, commit, sourcePath,
+							ignoreWhitespace);
+					if (cached != null) {
+						entries.put(key, cached);
+					}
+				}
+				if (cached == null || !cached.isComplete()) {
+					return null;
+				}
+				hits.add(cached);
+				return cached.toRegions();
+			};
+			return compute(repository, start, path, ignoreWhitespace,
+					monitor, partialResults, cache, hits);
+		}
+	}
+
+	private Lines compute(Repository repository, ObjectId start, String path,
+			boolean ignoreWhitespace, IProgressMonitor monitor,
+			Consumer<Lines> partialResults,
+			org.eclipse.jgit.blame.cache.BlameCache cache, List<Lines> hits)
+			throws IOException {
+		try (BlameGenerator generator = new BlameGenerator(repository, path,
+				cache)) {
+			generator.setFollowFileRenames(true);
+			if (ignoreWhitespace) {
+				generator.setTextComparator(RawTextComparator.WS_IGNORE_ALL);
+			}
+			generator.push(null, start);
+			RawText contents = generator.getResultContents();
+			if (contents == null) {
+				return null;
+			}
+			Lines lines = new Lines(contents.size());
+			long nextReport = System.nanoTime() + PARTIAL_RESULT_INTERVAL;
+			while (generator.next()) {
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				if (partialResults != null
+						&& System.nanoTime() - nextReport >= 0) {
+					partialResults.accept(lines.copy());
+					nextReport = System.nanoTime() + PARTIAL_RESULT_INTERVAL;
+				}
+				RevCommit commit = generator.getSourceCommit();
+				String sourcePath = generator.getSourcePath();
+				// Regions taken from a cached result have no source text,
+				// and their source lines are lines of the cached result
+				boolean fromCache = !hits.isEmpty()
+						&& generator.getSourceContents() == null;
+				lines.incremental |= fromCache;
+				int resultStart = generator.getResultStart();
+				int sourceStart = generator.getSourceStart();
+				for (int i = 0; i < generator.getRegionLength(); i++) {
+					int line = resultStart + i;
+					int sourceLine = sourceStart + i;
+					if (fromCache) {
+						sourceLine = translate(hits, commit, sourcePath,
+								sourceLine);
+					}
+					lines.commits[line] = commit;
+					lines.paths[line] = sourcePath;
+					lines.sourceLines[line] = sourceLine;
+				}
+			}
+			return lines;
+		}
+	}
+
+	private static int translate(List<Lines> hits, RevCommit commit,
+			String path, int line) {
+		for (Lines cached : hits) {
+			if (line < cached.getLineCount()
+					&& commit.equals(cached.getSourceCommit(line))
+					&& path.equals(cached.getSourcePath(line))) {
+				return cached.getSourceLine(line);
+			}
+		}
+		return line;
+	}
+}
@@ -18,6 +18,7 @@
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
@@ -27,6 +28,7 @@
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
@@ -58,9 +60,6 @@
 import org.eclipse.jface.viewers.ISelectionChangedListener;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
-import org.eclipse.jgit.api.BlameCommand;
-import org.eclipse.jgit.blame.BlameResult;
-import org.eclipse.jgit.diff.RawTextComparator;
 import org.eclipse.jgit.events.ListenerHandle;
 import org.eclipse.jgit.events.RefsChangedEvent;
 import org.eclipse.jgit.events.RefsChangedListener;
@@ -225,6 +224,16 @@ else if (nonResourceFile != null)
 
 	private int lineNumberToReveal = -1;
 
+	// The following fields are only accessed in the UI thread
+
+	private boolean editorOpened;
+
+	private AbstractDecoratedTextEditor annotatedEditor;
+
+	private HoverCreators hoverCreators;
+
+	private IRevisionRulerColumn revisionRuler;
+
 	/**
 	 * Create annotate operation
 	 *
@@ -276,12 +285,9 @@ public BlameOperation(CommitFileRevision revision, Shell shell,
 	@Override
 	public void execute(IProgressMonitor monitor) throws CoreException {
 		SubMonitor progress = SubMonitor.convert(monitor, 3);
-		RevisionInformation info;
+		ObjectId start = startCommit;
 		ObjectId currentHead = null;
-		if (startCommit != null) {
-			info = computeRevisions(repository, startCommit, path,
-					progress.newChild(2));
-		} else {
+		if (start == null) {
 			try {
 				currentHead = repository.resolve(Constants.HEAD);
 			} catch (IOException e) {
@@ -289,47 +295,85 @@ public void execute(IProgressMonitor monitor) throws CoreException {
 						.error("Error resolving HEAD for showing annotations in repository: " + repository, e); //$NON-NLS-1$
 				return;
 			}
-			info = computeRevisions(repository, currentHead, path,
-					progress.newChild(2));
-		}
-		if (info == null) {
-			return;
+			start = currentHead;
 		}
 		if (shell.isDisposed()) {
 			return;
 		}
+		// Needed before the first partial result can be shown
 		if (fileRevision != null) {
 			storage = fileRevision.getStorage(progress.newChild(1));
 		} else {
 			progress.worked(1);
 		}
+		Display display = shell.getDisplay();
+		RevisionInformation info = computeRevisions(repository, start, path,
+				progress.newChild(2), partial -> {
+					if (!display.isDisposed()) {
+						display.asyncExec(
+								() -> showRevisions(partial, null, false));
+					}
+				});
+		if (info == null) {
+			return;
+		}
+		if (shell.isDisposed()) {
+			return;
+		}
 		ObjectId headId = currentHead;
-		shell.getDisplay().asyncExec(() -> openEditor(info, headId));
+		display.asyncExec(() -> showRevisions(info, headId, true));
 	}
 
+	/**
+	 * Blames a file and creates the revision information for it.
+	 *
+	 * @param repo
+	 *            to blame in
+	 * @param start
+	 *            commit to start at
+	 * @param path
+	 *            of the file
+	 * @param monitor
+	 *            for progress reporting and cancellation
+	 * @param partialResults
+	 *            to report the revision information of partial results to,
+	 *            while the blame is still running
+	 * @return the revision information, or {@code null} if the file could
+	 *         not be blamed or the monitor was canceled
+	 */
 	private static RevisionInformation computeRevisions(Repository repo,
-			ObjectId start, String path, IProgressMonitor monitor) {
+			ObjectId start, String path, IProgressMonitor monitor,
+			Consumer<RevisionInformation> partialResults) {
+		if (start == null) {
+			return null;
+		}
 		SubMonitor progress = SubMonitor.convert(monitor, 2);
-		RevisionInformation info = new RevisionInformation();
-		BlameCommand command = new BlameCommand(repo).setFollowFileRenames(true)
-				.setFilePath(path).setStartCommit(start);
-		if (Activator.getDefault().getPreferenceStore()
-				.getBoolean(UIPreferences.BLAME_IGNORE_WHITESPACE))
-			command.setTextComparator(RawTextComparator.WS_IGNORE_ALL);
+		boolean ignoreWhitespace = Activator.getDefault().getPreferenceStore()
+				.getBoolean(UIPreferences.BLAME_IGNORE_WHITESPACE);
 
-		BlameResult result;
+		BlameCache.Lines result;
 		try {
-			result = command.call();
+			result = BlameCache.INSTANCE.blame(repo, start, path,
+					ignoreWhitespace, progress.newChild(1),
+					lines -> partialResults
+							.accept(createRevisions(repo, lines)));
+		} catch (OperationCanceledException e) {
+			return null;
 		} catch (Exception e1) {
 			Activator.error(e1.getMessage(), e1);
 			return null;
 		}
-		progress.worked(1);
 		if (result == null) {
 			return null;
 		}
+		return createRevisions(repo, result);
+	}
+
+	private static RevisionInformation createRevisions(Repository repo,
+			BlameCache.Lines result) {
+		RevisionInformation info = new RevisionInformation();
 		Map<RevCommit, BlameRevision> revisions = new HashMap<>();
-		int lineCount = result.getResultContents().size();
+		int lineCount = result.getLineCount();
 		BlameRevision previous = null;
 		for (int i = 0; i < lineCount; i++) {
 			RevCommit commit = result.getSourceCommit(i);
@@ -369,66 +413,55 @@ private static RevisionInformation computeRevisions(Repository repo,
 		return info;
 	}
 
-	private void openEditor(RevisionInformation info, ObjectId currentHead) {
-		IEditorPart editorPart;
-		try {
-			if (storage instanceof IFile) {
-				editorPart = RevisionAnnotationController.openEditor(page,
-						(IFile) storage);
-			} else {
-				FileRevisionEditorInput editorInput = new FileRevisionEditorInput(
-						fileRevision, storage);
-				editorPart = EgitUiEditorUtils.openEditor(page, editorInput);
-				if (editorPart instanceof MultiPageEditorPart) {
-					MultiPageEditorPart multiEditor = (MultiPageEditorPart) editorPart;
-					for (IEditorPart part : multiEditor
-							.findEditors(editorInput)) {
-						if (part instanceof AbstractDecoratedTextEditor) {
-							multiEditor.setActiveEditor(part);
-							editorPart = part;
-							break;
-						}
-					}
-				}
+	private void showRevisions(RevisionInformation info,
+			ObjectId currentHead, boolean complete) {
+		boolean firstShown = false;
+		if (annotatedEditor == null) {
+			if (editorOpened) {
+				// Could not be opened as a text editor
+				return;
 			}
-		} catch (CoreException e) {
-			Activator.handleError("Error displaying blame annotations", e, //$NON-NLS-1$
-					false);
-			return;
-		}
-		if (!(editorPart instanceof AbstractDecoratedTextEditor)) {
+			editorOpened = true;
+			annotatedEditor = openEditor();
+			if (annotatedEditor == null) {
+				return;
+			}
+			// IRevisionRulerColumn would also be possible but using
+			// IVerticalRulerInfo seems to work in more situations.
+			IVerticalRulerInfo rulerInfo = Adapters.adapt(annotatedEditor,
+					IVerticalRulerInfo.class);
+			hoverCreators = new HoverCreators(rulerInfo);
+			firstShown = true;
+		} else if (revisionRuler != null && (revisionRuler.getControl() == null
+				|| revisionRuler.getControl().isDisposed())) {
+			// Editor closed while the blame was still running
 			return;
 		}
-		AbstractDecoratedTextEditor editor = (AbstractDecoratedTextEditor) editorPart;
-		// IRevisionRulerColumn would also be possible but using
-		// IVerticalRulerInfo seems to work in more situations.
-		IVerticalRulerInfo rulerInfo = Adapters.adapt(editor,
-				IVerticalRulerInfo.class);
-
-		HoverCreators provider = new HoverCreators(rulerInfo);
-		IInformationControlCreator creator = provider.hoverCreator();
-		IInformationControlCreator presenter = provider.stickyHoverCreator();
+
+		IInformationControlCreator creator = hoverCreators.hoverCreator();
+		IInformationControlCreator presenter = hoverCreators
+				.stickyHoverCreator();
 		info.setHoverControlCreator(creator);
 		info.setInformationPresenterControlCreator(presenter);
 
-		editor.showRevisionInformation(info, QUICKDIFF_PROVIDER_ID);
+		annotatedEditor.showRevisionInformation(info, QUICKDIFF_PROVIDER_ID);
 
-		if (lineNumberToReveal >= 0) {
-			IDocument document = editor.getDocumentProvider().getDocument(
-					editor.getEditorInput());
+		if (firstShown && lineNumberToReveal >= 0) {
+			IDocument document = annotatedEditor.getDocumentProvider()
+					.getDocument(annotatedEditor.getEditorInput());
 			int offset;
 			try {
 				offset = document.getLineOffset(lineNumberToReveal);
-				editor.selectAndReveal(offset, 0);
+				annotatedEditor.selectAndReveal(offset, 0);
 			} catch (BadLocationException e) {
 				Activator.logError(
 						"Error revealing line " + lineNumberToReveal, e); //$NON-NLS-1$
 			}
 		}
 
-		IRevisionRulerColumn revisionRuler = Adapters.adapt(editor,
+		revisionRuler = Adapters.adapt(annotatedEditor,
 				IRevisionRulerColumn.class);
-		if (revisionRuler != null) {
+		if (revisionRuler != null && complete) {
 			if (revisionRuler instanceof IRevisionRulerColumnExtension) {
 				String flagName = getClass().getName() + ".selectionHandler"; //$NON-NLS-1$
 				Control control = revisionRuler.getControl();
@@ -443,13 +476,46 @@ private void openEditor(RevisionInformation info, ObjectId currentHead) {
 				}
 			}
 			if (currentHead != null && storage instanceof IFile
-					&& editor.isChangeInformationShowing()) {
-				refreshOnHeadChange(editor, revisionRuler, creator, presenter,
-						currentHead);
+					&& annotatedEditor.isChangeInformationShowing()) {
+				refreshOnHeadChange(annotatedEditor, revisionRuler, creator,
+						presenter, currentHead);
 			}
 		}
 	}
 
+	private AbstractDecoratedTextEditor openEditor() {
+		IEditorPart editorPart;
+		try {
+			if (storage instanceof IFile) {
+				editorPart = RevisionAnnotationController.openEditor(page,
+						(IFile) storage);
+			} else {
+				FileRevisionEditorInput editorInput = new FileRevisionEditorInput(
+						fileRevision, storage);
+				editorPart = EgitUiEditorUtils.openEditor(page, editorInput);
+				if (editorPart instanceof MultiPageEditorPart) {
+					MultiPageEditorPart multiEditor = (MultiPageEditorPart) editorPart;
+					for (IEditorPart part : multiEditor
+							.findEditors(editorInput)) {
+						if (part instanceof AbstractDecoratedTextEditor) {
+							multiEditor.setActiveEditor(part);
+							editorPart = part;
+							break;
+						}
+					}
+				}
+			}
+		} catch (CoreException e) {
+			Activator.handleError("Error displaying blame annotations", e, //$NON-NLS-1$
+					false);
+			return null;
+		}
+		if (!(editorPart instanceof AbstractDecoratedTextEditor)) {
+			return null;
+		}
+		return (AbstractDecoratedTextEditor) editorPart;
+	}
+
 	private void refreshOnHeadChange(AbstractDecoratedTextEditor editor,
 			IRevisionRulerColumn ruler,
 			IInformationControlCreator hoverPopupCreator,
@@ -537,21 +603,28 @@ private void updateBlame(ObjectId head, IRevisionRulerColumn ruler,
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
 				try {
-					RevisionInformation info = computeRevisions(repository,
-							head, path, monitor);
 					Control control = ruler.getControl();
 					Display display = control.getDisplay();
-					display.asyncExec(() -> {
-						if (!control.isDisposed()) {
-							info.setHoverControlCreator(hoverPopupCreator);
-							info.setInformationPresenterControlCreator(
-									hoverPresenter);
-							if (editor.isChangeInformationShowing()) {
-								editor.showRevisionInformation(info,
-										QUICKDIFF_PROVIDER_ID);
-							}
-						}
-					});
+					Consumer<RevisionInformation> show = info -> display
+							.asyncExec(() -> {
+								if (!control.isDisposed()) {
+									info.setHoverControlCreator(
+											hoverPopupCreator);
+									info.setInformationPresenterControlCreator(
+											hoverPresenter);
+									if (editor.isChangeInformationShowing()) {
+										editor.showRevisionInformation(info,
+												QUICKDIFF_PROVIDER_ID);
+									}
+								}
+							});
+					RevisionInformation info = computeRevisions(repository,
+							head, path, monitor, show);
+					if (info == null) {
+						return monitor.isCanceled() ? Status.CANCEL_STATUS
+								: Status.OK_STATUS;
+					}
+					show.accept(info);
 					return Status.OK_STATUS;
 				} catch (SWTException e) {
 					// Already disposed?
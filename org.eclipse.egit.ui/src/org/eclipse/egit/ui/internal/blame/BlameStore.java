@@ -0,0 +1,301 @@
+/******************************************************************************
+ *  Copyright (c) 2026 EGit contributors and others.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.egit.ui.internal.blame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Stores complete blame results in files, so that they survive restarts. A
+ * result is stored as runs of consecutive lines coming from consecutive lines
+ * of the same file in the same commit; it is keyed like in
+ * {@link BlameCache} by repository, start commit, path and whitespace mode.
+ * At most {@link #MAX_FILES} results are kept; the least recently written
+ * ones are deleted first.
+ */
+final class BlameStore {
+
+	/** Maximum number of stored results. */
+	static final int MAX_FILES = 512;
+
+	private static final int VERSION = 1;
+
+	private final File directory;
+
+	/**
+	 * A stored result: for every line, the id of the commit it was last
+	 * changed in, the path in that commit, and the line number in that path.
+	 */
+	static final class Result {
+
+		final ObjectId[] commits;
+
+		final String[] paths;
+
+		final int[] sourceLines;
+
+		Result(ObjectId[] commits, String[] paths, int[] sourceLines) {
+			this.commits = commits;
+			this.paths = paths;
+			this.sourceLines = sourceLines;
+		}
+	}
+
+	/**
+	 * @param directory
+	 *            to store the results in; created when needed
+	 */
+	BlameStore(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Loads a result.
+	 *
+	 * @param repository
+	 *            blamed in
+	 * @param start
+	 *            commit blamed at
+	 * @param path
+	 *            of the blamed file
+	 * @param ignoreWhitespace
+	 *            whitespace mode of the blame
+	 * @return the result, or {@code null} if none is stored or it cannot be
+	 *         read
+	 */
+	@Nullable
+	Result load(Repository repository, ObjectId start, String path,
+			boolean ignoreWhitespace) {
+		File file = getFile(repository, start, path, ignoreWhitespace);
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			return read(in, repository, start, path, ignoreWhitespace);
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException | RuntimeException e) {
+			// Corrupt or from another version
+			file.delete();
+			return null;
+		}
+	}
+
+	/**
+	 * Stores a result, replacing any previously stored one.
+	 *
+	 * @param repository
+	 *            blamed in
+	 * @param start
+	 *            commit blamed at
+	 * @param path
+	 *            of the blamed file
+	 * @param ignoreWhitespace
+	 *            whitespace mode of the blame
+	 * @param result
+	 *            to store
+	 * @throws IOException
+	 *             if the result cannot be written
+	 */
+	void save(Repository repository, ObjectId start, String path,
+			boolean ignoreWhitespace, Result result) throws IOException {
+		if (!directory.isDirectory()) {
+			Files.createDirectories(directory.toPath());
+		}
+		File file = getFile(repository, start, path, ignoreWhitespace);
+		File tmp = File.createTempFile("blame", ".tmp", directory); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			try (OutputStream stream = Files.newOutputStream(tmp.toPath());
+					DataOutputStream out = new DataOutputStream(
+							new BufferedOutputStream(stream))) {
+				write(out, repository, start, path, ignoreWhitespace, result);
+			}
+			Files.move(tmp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			tmp.delete();
+		}
+		prune();
+	}
+
+	/**
+	 * Deletes all stored results.
+	 */
+	void clear() {
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+	}
+
+	private void prune() {
+		File[] files = directory.listFiles();
+		if (files == null || files.length <= MAX_FILES) {
+			return;
+		}
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for (int i = 0; i < files.length - MAX_FILES; i++) {
+			files[i].delete();
+		}
+	}
+
+	private File getFile(Repository repository, ObjectId start, String path,
+			boolean ignoreWhitespace) {
+		MessageDigest digest = Constants.newMessageDigest();
+		digest.update(repository.getDirectory().getAbsolutePath()
+				.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		start.copyRawTo(raw, 0);
+		digest.update(raw);
+		digest.update(path.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) (ignoreWhitespace ? 1 : 0));
+		return new File(directory, ObjectId.fromRaw(digest.digest()).name());
+	}
+
+	/*
+	 * Format: version, the key (to detect hash collisions), the line count,
+	 * the tables of distinct commits and paths, and the runs as (length,
+	 * commit index, path index, first source line).
+	 */
+	private static void write(DataOutputStream out, Repository repository,
+			ObjectId start, String path, boolean ignoreWhitespace,
+			Result result) throws IOException {
+		out.writeInt(VERSION);
+		writeKey(out, repository, start, path, ignoreWhitespace);
+		int lineCount = result.commits.length;
+		out.writeInt(lineCount);
+		Map<ObjectId, Integer> commits = new HashMap<>();
+		Map<String, Integer> paths = new HashMap<>();
+		List<ObjectId> commitTable = new ArrayList<>();
+		List<String> pathTable = new ArrayList<>();
+		for (int i = 0; i < lineCount; i++) {
+			if (commits.putIfAbsent(result.commits[i],
+					Integer.valueOf(commitTable.size())) == null) {
+				commitTable.add(result.commits[i]);
+			}
+			if (paths.putIfAbsent(result.paths[i],
+					Integer.valueOf(pathTable.size())) == null) {
+				pathTable.add(result.paths[i]);
+			}
+		}
+		out.writeInt(commitTable.size());
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		for (ObjectId commit : commitTable) {
+			commit.copyRawTo(raw, 0);
+			out.write(raw);
+		}
+		out.writeInt(pathTable.size());
+		for (String p : pathTable) {
+			out.writeUTF(p);
+		}
+		int runStart = 0;
+		for (int i = 1; i <= lineCount; i++) {
+			if (i == lineCount || !result.commits[i]
+					.equals(result.commits[runStart])
+					|| !result.paths[i].equals(result.paths[runStart])
+					|| result.sourceLines[i] != result.sourceLines[runStart]
+							+ (i - runStart)) {
+				out.writeInt(i - runStart);
+				out.writeInt(commits.get(result.commits[runStart]).intValue());
+				out.writeInt(paths.get(result.paths[runStart]).intValue());
+				out.writeInt(result.sourceLines[runStart]);
+				runStart = i;
+			}
+		}
+	}
+
+	private static Result read(DataInputStream in, Repository repository,
+			ObjectId start, String path, boolean ignoreWhitespace)
+			throws IOException {
+		if (in.readInt() != VERSION) {
+			throw new IOException("Unknown version"); //$NON-NLS-1$
+		}
+		if (!readKey(in, repository, start, path, ignoreWhitespace)) {
+			// Another key with the same hash
+			return null;
+		}
+		int lineCount = in.readInt();
+		ObjectId[] commitTable = new ObjectId[in.readInt()];
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		for (int i = 0; i < commitTable.length; i++) {
+			in.readFully(raw);
+			commitTable[i] = ObjectId.fromRaw(raw);
+		}
+		String[] pathTable = new String[in.readInt()];
+		for (int i = 0; i < pathTable.length; i++) {
+			pathTable[i] = in.readUTF();
+		}
+		Result result = new Result(new ObjectId[lineCount],
+				new String[lineCount], new int[lineCount]);
+		int line = 0;
+		while (line < lineCount) {
+			int length = in.readInt();
+			ObjectId commit = commitTable[in.readInt()];
+			String sourcePath = pathTable[in.readInt()];
+			int sourceLine = in.readInt();
+			if (length <= 0 || line + length > lineCount) {
+				throw new IOException("Invalid run"); //$NON-NLS-1$
+			}
+			for (int i = 0; i < length; i++) {
+				result.commits[line] = commit;
+				result.paths[line] = sourcePath;
+				result.sourceLines[line++] = sourceLine + i;
+			}
+		}
+		return result;
+	}
+
+	private static void writeKey(DataOutputStream out, Repository repository,
+			ObjectId start, String path, boolean ignoreWhitespace)
+			throws IOException {
+		out.writeUTF(repository.getDirectory().getAbsolutePath());
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		start.copyRawTo(raw, 0);
+		out.write(raw);
+		out.writeUTF(path);
+		out.writeBoolean(ignoreWhitespace);
+	}
+
+	private static boolean readKey(DataInputStream in, Repository repository,
+			ObjectId start, String path, boolean ignoreWhitespace)
+			throws IOException {
+		String gitDir = in.readUTF();
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		in.readFully(raw);
+		return gitDir.equals(repository.getDirectory().getAbsolutePath())
+				&& start.equals(ObjectId.fromRaw(raw))
+				&& path.equals(in.readUTF())
+				&& in.readBoolean() == ignoreWhitespace;
+	}
+}
@@ -89,8 +89,16 @@ public DiffDocument(String text) {
 	 *            to obtain information from
 	 */
 	public void connect(DiffRegionFormatter formatter) {
-		regions = formatter.getRegions();
-		fileRegions = formatter.getFileRegions();
+		connect(formatter.getRegions(), formatter.getFileRegions(),
+				formatter.getMaximumLineNumbers(), formatter.getOldPrefix(),
+				formatter.getNewPrefix());
+	}
+
+	private void connect(DiffRegion[] diffRegions,
+			FileDiffRegion[] fileDiffRegions, int[] maximumLines,
+			String oldPrefix, String newPrefix) {
+		regions = diffRegions;
+		fileRegions = fileDiffRegions;
 		if (fileRegions == null || fileRegions.length == 0) {
 			FileDiff implicitFileDiff = defaultFileDiff;
 			if (implicitFileDiff != null) {
@@ -99,10 +107,10 @@ public void connect(DiffRegionFormatter formatter) {
 			}
 		}
 		newPathPattern = Pattern.compile(
-				Pattern.quote(formatter.getNewPrefix()) + "\\S+"); //$NON-NLS-1$
+				Pattern.quote(newPrefix) + "\\S+"); //$NON-NLS-1$
 		oldPathPattern = Pattern.compile(
-				Pattern.quote(formatter.getOldPrefix()) + "\\S+"); //$NON-NLS-1$
-		maximumLineNumbers = formatter.getMaximumLineNumbers();
+				Pattern.quote(oldPrefix) + "\\S+"); //$NON-NLS-1$
+		maximumLineNumbers = maximumLines;
 		// Connect a new partitioner.
 		IDocumentPartitioner partitioner = new FastPartitioner(
 				new DiffPartitionTokenScanner(),
@@ -117,6 +125,52 @@ public void connect(DiffRegionFormatter formatter) {
 		setDocumentPartitioner(partitioner);
 	}
 
+	/**
+	 * Appends formatted files at the end of the document. The first part
+	 * connects the document as {@link #connect(DiffRegionFormatter)} would;
+	 * later parts extend the regions before the text is inserted, so that the
+	 * partitioner sees them. If the document is shown, must be called in the
+	 * UI thread.
+	 *
+	 * @param part
+	 *            to append
+	 */
+	void append(ParallelDiffFormatter.Part part) {
+		int offset = getLength();
+		DiffRegion[] newRegions = part.getRegions(offset);
+		FileDiffRegion[] newFileRegions = part.getFileRegions(offset);
+		if (regions == null) {
+			replaceText(offset, part.getText());
+			connect(newRegions, newFileRegions, part.getMaximumLineNumbers(),
+					part.getOldPrefix(), part.getNewPrefix());
+			return;
+		}
+		regions = concat(regions, newRegions);
+		fileRegions = fileRegions == null ? newFileRegions
+				: concat(fileRegions, newFileRegions);
+		int[] partMaximum = part.getMaximumLineNumbers();
+		for (int i = 0; i < maximumLineNumbers.length; i++) {
+			maximumLineNumbers[i] = Math.max(maximumLineNumbers[i],
+					partMaximum[i]);
+		}
+		replaceText(offset, part.getText());
+	}
+
+	private void replaceText(int offset, String text) {
+		try {
+			replace(offset, 0, text);
+		} catch (BadLocationException e) {
+			// Cannot happen: the offset is the end of the document
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static <T> T[] concat(T[] first, T[] second) {
+		T[] result = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, result, first.length, second.length);
+		return result;
+	}
+
 	/**
 	 * Provide default settings about the {@link Repository} and
 	 * {@link FileDiff}, to be used in the absence of explicit information from
@@ -21,6 +21,7 @@
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +45,7 @@
 import org.eclipse.egit.ui.internal.UIText;
 import org.eclipse.egit.ui.internal.commit.DiffRegionFormatter.DiffRegion;
 import org.eclipse.egit.ui.internal.commit.DiffRegionFormatter.FileDiffRegion;
+import org.eclipse.egit.ui.internal.commit.ParallelDiffFormatter.Part;
 import org.eclipse.egit.ui.internal.history.FileDiff;
 import org.eclipse.egit.ui.internal.repository.RepositoriesView;
 import org.eclipse.jface.action.Action;
@@ -56,6 +58,7 @@
 import org.eclipse.jface.preference.PreferenceStore;
 import org.eclipse.jface.resource.ColorRegistry;
 import org.eclipse.jface.resource.StringConverter;
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.Position;
@@ -84,6 +87,7 @@
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.team.ui.history.IHistoryView;
 import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.PlatformUI;
@@ -124,6 +128,9 @@ public class DiffEditor extends TextEditor
 
 	private static final String QUICK_OUTLINE_COMMAND = "org.eclipse.egit.ui.commit.DiffEditorQuickOutlineCommand"; //$NON-NLS-1$
 
+	/** Number of lines above which the diff of a file is collapsed. */
+	private static final int COLLAPSED_FILE_LINES = 2000;
+
 	private DiffEditorOutlinePage outlinePage;
 
 	private Annotation[] currentFoldingAnnotations;
@@ -470,11 +477,8 @@ private void setFolding() {
 				return;
 			}
 			viewer.enableProjection();
-			Map<Annotation, Position> newAnnotations = new HashMap<>();
-			for (FileDiffRegion region : regions) {
-				newAnnotations.put(new ProjectionAnnotation(),
-						new Position(region.getOffset(), region.getLength()));
-			}
+			Map<Annotation, Position> newAnnotations = getFoldingAnnotations(
+					document, regions, 0);
 			viewer.getProjectionAnnotationModel().modifyAnnotations(
 					currentFoldingAnnotations, newAnnotations, null);
 			currentFoldingAnnotations = newAnnotations.keySet()
@@ -485,6 +489,67 @@ private void setFolding() {
 		}
 	}
 
+	/**
+	 * Adds folding annotations for files appended to the document.
+	 *
+	 * @param first
+	 *            index of the first new file region
+	 */
+	private void addFolding(int first) {
+		if (first <= 1) {
+			// Projection may not have been enabled yet
+			setFolding();
+			return;
+		}
+		ProjectionViewer viewer = (ProjectionViewer) getSourceViewer();
+		if (viewer == null
+				|| viewer.getProjectionAnnotationModel() == null) {
+			return;
+		}
+		IDocument document = viewer.getDocument();
+		if (!(document instanceof DiffDocument)) {
+			return;
+		}
+		Map<Annotation, Position> newAnnotations = getFoldingAnnotations(
+				document, ((DiffDocument) document).getFileRegions(), first);
+		viewer.getProjectionAnnotationModel().modifyAnnotations(null,
+				newAnnotations, null);
+		currentFoldingAnnotations = concat(currentFoldingAnnotations,
+				newAnnotations.keySet());
+	}
+
+	/**
+	 * Creates folding annotations for file regions. Files with long diffs are
+	 * initially collapsed so that the files after them are easy to reach.
+	 */
+	private static Map<Annotation, Position> getFoldingAnnotations(
+			IDocument document, FileDiffRegion[] regions, int first) {
+		Map<Annotation, Position> annotations = new HashMap<>();
+		for (int i = first; i < regions.length; i++) {
+			FileDiffRegion region = regions[i];
+			boolean collapsed = false;
+			try {
+				collapsed = document.getNumberOfLines(region.getOffset(),
+						region.getLength()) > COLLAPSED_FILE_LINES;
+			} catch (BadLocationException e) {
+				// Leave expanded
+			}
+			annotations.put(new ProjectionAnnotation(collapsed),
+					new Position(region.getOffset(), region.getLength()));
+		}
+		return annotations;
+	}
+
+	private static Annotation[] concat(Annotation[] existing,
+			Collection<Annotation> added) {
+		List<Annotation> result = new ArrayList<>();
+		if (existing != null) {
+			result.addAll(asList(existing));
+		}
+		result.addAll(added);
+		return result.toArray(new Annotation[0]);
+	}
+
 	private void setOverviewAnnotations() {
 		IDocumentProvider documentProvider = getDocumentProvider();
 		IDocument document = documentProvider.getDocument(getEditorInput());
@@ -500,18 +565,8 @@ private void setOverviewAnnotations() {
 		if (diffs == null || diffs.length == 0) {
 			return;
 		}
-		Map<Annotation, Position> newAnnotations = new HashMap<>();
-		for (DiffRegion region : diffs) {
-			if (DiffRegion.Type.ADD.equals(region.getType())) {
-				newAnnotations.put(
-						new Annotation(ADD_ANNOTATION_TYPE, true, null),
-						new Position(region.getOffset(), region.getLength()));
-			} else if (DiffRegion.Type.REMOVE.equals(region.getType())) {
-				newAnnotations.put(
-						new Annotation(REMOVE_ANNOTATION_TYPE, true, null),
-						new Position(region.getOffset(), region.getLength()));
-			}
-		}
+		Map<Annotation, Position> newAnnotations = getOverviewAnnotations(
+				diffs, 0);
 		if (annotationModel instanceof IAnnotationModelExtension) {
 			((IAnnotationModelExtension) annotationModel).replaceAnnotations(
 					currentOverviewAnnotations, newAnnotations);
@@ -530,6 +585,60 @@ private void setOverviewAnnotations() {
 				.toArray(new Annotation[0]);
 	}
 
+	/**
+	 * Adds overview annotations for regions appended to the document.
+	 *
+	 * @param first
+	 *            index of the first new region
+	 */
+	private void addOverviewAnnotations(int first) {
+		IDocumentProvider documentProvider = getDocumentProvider();
+		IDocument document = documentProvider.getDocument(getEditorInput());
+		if (!(document instanceof DiffDocument)) {
+			return;
+		}
+		IAnnotationModel annotationModel = documentProvider
+				.getAnnotationModel(getEditorInput());
+		if (annotationModel == null) {
+			return;
+		}
+		DiffRegion[] diffs = ((DiffDocument) document).getRegions();
+		if (diffs == null || diffs.length <= first) {
+			return;
+		}
+		Map<Annotation, Position> newAnnotations = getOverviewAnnotations(
+				diffs, first);
+		if (annotationModel instanceof IAnnotationModelExtension) {
+			((IAnnotationModelExtension) annotationModel)
+					.replaceAnnotations(null, newAnnotations);
+		} else {
+			for (Map.Entry<Annotation, Position> entry : newAnnotations
+					.entrySet()) {
+				annotationModel.addAnnotation(entry.getKey(), entry.getValue());
+			}
+		}
+		currentOverviewAnnotations = concat(currentOverviewAnnotations,
+				newAnnotations.keySet());
+	}
+
+	private static Map<Annotation, Position> getOverviewAnnotations(
+			DiffRegion[] diffs, int first) {
+		Map<Annotation, Position> annotations = new HashMap<>();
+		for (int i = first; i < diffs.length; i++) {
+			DiffRegion region = diffs[i];
+			if (DiffRegion.Type.ADD.equals(region.getType())) {
+				annotations.put(
+						new Annotation(ADD_ANNOTATION_TYPE, true, null),
+						new Position(region.getOffset(), region.getLength()));
+			} else if (DiffRegion.Type.REMOVE.equals(region.getType())) {
+				annotations.put(
+						new Annotation(REMOVE_ANNOTATION_TYPE, true, null),
+						new Position(region.getOffset(), region.getLength()));
+			}
+		}
+		return annotations;
+	}
+
 	private FileDiffRegion getFileDiffRange(int widgetOffset) {
 		DiffViewer viewer = (DiffViewer) getSourceViewer();
 		if (viewer != null) {
@@ -564,6 +673,33 @@ private void formatDiff(@NonNull DiffEditorInput input) {
 			}
 		}
 		DiffJob job = getDiffer(commit, base);
+		Display display = getSite().getShell().getDisplay();
+		job.setPartListener(new DiffJob.PartListener() {
+
+			@Override
+			public void started(DiffDocument document) {
+				syncExec(display, () -> {
+					if (!isUsable()) {
+						job.cancel();
+						return;
+					}
+					input.setDocument(document);
+					setInput(input);
+				});
+			}
+
+			@Override
+			public void formatted(DiffDocument document, Part part) {
+				syncExec(display, () -> {
+					if (!isUsable() || getEditorInput() != input
+							|| input.getDocument() != document) {
+						job.cancel();
+						return;
+					}
+					appendPart(document, part);
+				});
+			}
+		});
 		job.addJobChangeListener(new JobChangeAdapter() {
 			@Override
 			public void done(IJobChangeEvent event) {
@@ -574,13 +710,10 @@ public void done(IJobChangeEvent event) {
 
 					@Override
 					public IStatus runInUIThread(IProgressMonitor uiMonitor) {
-						ISourceViewer sourceViewer = getSourceViewer();
-						if (sourceViewer == null) {
-							return Status.OK_STATUS;
-						}
-						if (UIUtils.isUsable(sourceViewer.getTextWidget())) {
-							input.setDocument(job.getDocument());
-							setInput(input);
+						if (outlinePage != null && isUsable()
+								&& input.getDocument() == job.getDocument()) {
+							// The outline was set up with the first files only
+							outlinePage.setInput(job.getDocument());
 						}
 						return Status.OK_STATUS;
 					}
@@ -590,13 +723,73 @@ public IStatus runInUIThread(IProgressMonitor uiMonitor) {
 		job.schedule();
 	}
 
+	private boolean isUsable() {
+		ISourceViewer sourceViewer = getSourceViewer();
+		return sourceViewer != null
+				&& UIUtils.isUsable(sourceViewer.getTextWidget());
+	}
+
+	private static void syncExec(Display display, Runnable runnable) {
+		if (!display.isDisposed()) {
+			display.syncExec(runnable);
+		}
+	}
+
+	/**
+	 * Appends more files to the document shown and updates the annotations.
+	 *
+	 * @param document
+	 *            shown in the editor
+	 * @param part
+	 *            to append
+	 */
+	private void appendPart(DiffDocument document, Part part) {
+		FileDiffRegion[] fileRegions = document.getFileRegions();
+		DiffRegion[] regions = document.getRegions();
+		int firstFile = fileRegions == null ? 0 : fileRegions.length;
+		int firstRegion = regions == null ? 0 : regions.length;
+		document.append(part);
+		addFolding(firstFile);
+		addOverviewAnnotations(firstRegion);
+	}
+
 	/**
 	 * A {@link Job} computing a diff.
 	 */
 	public static abstract class DiffJob extends Job {
 
+		/**
+		 * Receives the document of a {@link DiffJob} while it is being built.
+		 * Called in the job's thread.
+		 */
+		interface PartListener {
+
+			/**
+			 * Called once the first files have been formatted into the
+			 * document.
+			 *
+			 * @param document
+			 *            being built
+			 */
+			void started(DiffDocument document);
+
+			/**
+			 * Called when more files have been formatted. The listener is
+			 * responsible for {@link DiffDocument#append(Part) appending} them
+			 * to the document.
+			 *
+			 * @param document
+			 *            being built
+			 * @param part
+			 *            to append
+			 */
+			void formatted(DiffDocument document, Part part);
+		}
+
 		private DiffDocument document;
 
+		private PartListener partListener;
+
 		/**
 		 * Creates a new {@link DiffJob}.
 		 */
@@ -620,6 +813,37 @@ public DiffDocument getDocument() {
 		public void setDocument(DiffDocument document) {
 			this.document = document;
 		}
+
+		/**
+		 * Sets a listener that gets the document as soon as the first files
+		 * have been formatted, and that appends the remaining files to it.
+		 * Without a listener, the document is complete when the job is done.
+		 *
+		 * @param listener
+		 *            to set
+		 */
+		void setPartListener(PartListener listener) {
+			partListener = listener;
+		}
+
+		/**
+		 * Adds formatted files to the document being built.
+		 *
+		 * @param target
+		 *            document being built
+		 * @param part
+		 *            to add
+		 */
+		void addPart(DiffDocument target, Part part) {
+			if (partListener == null) {
+				target.append(part);
+			} else if (target.getRegions() == null) {
+				target.append(part);
+				partListener.started(target);
+			} else {
+				partListener.formatted(target, part);
+			}
+		}
 	}
 
 	/**
@@ -640,7 +864,20 @@ public static DiffJob getDiffer(@NonNull IRepositoryCommit tip,
 			protected IStatus run(IProgressMonitor monitor) {
 				SubMonitor progress = SubMonitor.convert(monitor, 2);
 				FileDiff diffs[] = getDiffs(progress.newChild(1));
-				setDocument(formatDiffs(diffs, progress.newChild(1)));
+				DiffDocument document = new DiffDocument();
+				try {
+					new ParallelDiffFormatter(diffs).format(
+							progress.newChild(1),
+							part -> addPart(document, part));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return Status.CANCEL_STATUS;
+				}
+				if (document.getRegions() == null) {
+					// No files, or cancelled before the first one
+					addPart(document, ParallelDiffFormatter.format(null));
+				}
+				setDocument(document);
 				return Status.OK_STATUS;
 			}
 
@@ -687,29 +924,6 @@ private FileDiff[] getDiffs(IProgressMonitor monitor) {
 				return result;
 			}
 
-			private DiffDocument formatDiffs(FileDiff[] diffs,
-					IProgressMonitor monitor) {
-				SubMonitor progress = SubMonitor.convert(monitor, diffs.length);
-				DiffDocument document = new DiffDocument();
-				try (DiffRegionFormatter formatter = new DiffRegionFormatter(
-						document)) {
-					for (FileDiff diff : diffs) {
-						if (progress.isCanceled()) {
-							break;
-						}
-						progress.subTask(diff.getPath());
-						try {
-							formatter.write(diff);
-						} catch (IOException ignore) {
-							// Ignored
-						}
-						progress.worked(1);
-					}
-					document.connect(formatter);
-				}
-				return document;
-			}
-
 			@Override
 			public boolean belongsTo(Object family) {
 				return JobFamilies.DIFF == family || super.belongsTo(family);
@@ -40,7 +40,7 @@
 /**
  * Diff region formatter class that builds up a list of
  * {@link DiffRegion} instances as each {@link FileDiff} is being written to
- * an {@link IDocument}.
+ * an {@link IDocument}, or to a {@link StringBuilder}.
  */
 public class DiffRegionFormatter extends DiffFormatter {
 
@@ -206,6 +206,8 @@ private static class DocumentOutputStream extends OutputStream {
 
 		private IDocument document;
 
+		private StringBuilder text;
+
 		private int offset;
 
 		private StringBuilder lineBuffer = new StringBuilder();
@@ -215,7 +217,17 @@ public DocumentOutputStream(IDocument document, int offset) {
 			this.offset = offset;
 		}
 
+		public DocumentOutputStream(StringBuilder text) {
+			this.text = text;
+			this.offset = text.length();
+		}
+
 		private void write(String content) throws IOException {
+			if (text != null) {
+				text.append(content);
+				this.offset += content.length();
+				return;
+			}
 			try {
 				this.document.replace(this.offset, 0, content);
 				this.offset += content.length();
@@ -298,6 +310,21 @@ public DiffRegionFormatter(IDocument document, int offset,
 		this.lastNewLine = DiffRegion.NO_LINE;
 	}
 
+	/**
+	 * Creates a formatter appending to a {@link StringBuilder}, which is much
+	 * cheaper than inserting each line into a document. Offsets of the regions
+	 * are relative to the start of the builder.
+	 *
+	 * @param text
+	 *            to append to
+	 */
+	public DiffRegionFormatter(StringBuilder text) {
+		super(new DocumentOutputStream(text));
+		this.stream = (DocumentOutputStream) getOutputStream();
+		this.maxLines = -1;
+		this.lastNewLine = DiffRegion.NO_LINE;
+	}
+
 	/**
 	 * Write diff
 	 *
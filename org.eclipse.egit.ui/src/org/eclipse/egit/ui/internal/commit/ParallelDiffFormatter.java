@@ -0,0 +1,302 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.commit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
+import org.eclipse.egit.ui.internal.UIText;
+import org.eclipse.egit.ui.internal.commit.DiffRegionFormatter.DiffRegion;
+import org.eclipse.egit.ui.internal.commit.DiffRegionFormatter.FileDiffRegion;
+import org.eclipse.egit.ui.internal.history.FileDiff;
+import org.eclipse.jgit.diff.DiffEntry;
+
+/**
+ * Formats {@link FileDiff}s into unified diff text for a {@link DiffDocument},
+ * each file into its own buffer on a group of worker jobs. The results are
+ * handed out in the order of the files, in {@link Part}s combining all files
+ * formatted so far, so that a document can show the first files while the
+ * others are still being formatted.
+ */
+class ParallelDiffFormatter {
+
+	/** Maximum number of files formatted at the same time. */
+	static final int MAX_WORKERS = 4;
+
+	/** Length in characters up to which formatted files are combined. */
+	static final int MAX_PART_LENGTH = 1 << 20;
+
+	private static final long WAIT_MILLIS = 100;
+
+	/**
+	 * Formatted text of consecutive files, with the regions describing it.
+	 * Offsets are relative to the start of the text.
+	 */
+	static class Part {
+
+		private final CharSequence text;
+
+		private final DiffRegion[] regions;
+
+		private final FileDiffRegion[] fileRegions;
+
+		private final int[] maximumLineNumbers;
+
+		private final String oldPrefix;
+
+		private final String newPrefix;
+
+		Part(CharSequence text, DiffRegion[] regions,
+				FileDiffRegion[] fileRegions, int[] maximumLineNumbers,
+				String oldPrefix, String newPrefix) {
+			this.text = text;
+			this.regions = regions;
+			this.fileRegions = fileRegions;
+			this.maximumLineNumbers = maximumLineNumbers;
+			this.oldPrefix = oldPrefix;
+			this.newPrefix = newPrefix;
+		}
+
+		/**
+		 * Concatenates parts into one, copying the text only once.
+		 *
+		 * @param parts
+		 *            to combine, in order; not empty
+		 * @return the combined part
+		 */
+		static Part concat(List<Part> parts) {
+			if (parts.size() == 1) {
+				return parts.get(0);
+			}
+			int length = 0;
+			int regionCount = 0;
+			int fileRegionCount = 0;
+			for (Part part : parts) {
+				length += part.text.length();
+				regionCount += part.regions.length;
+				fileRegionCount += part.fileRegions.length;
+			}
+			StringBuilder text = new StringBuilder(length);
+			DiffRegion[] regions = new DiffRegion[regionCount];
+			FileDiffRegion[] fileRegions = new FileDiffRegion[fileRegionCount];
+			int[] maximumLineNumbers = { DiffRegion.NO_LINE,
+					DiffRegion.NO_LINE };
+			int r = 0;
+			int f = 0;
+			for (Part part : parts) {
+				int offset = text.length();
+				text.append(part.text);
+				for (DiffRegion region : part.getRegions(offset)) {
+					regions[r++] = region;
+				}
+				for (FileDiffRegion region : part.getFileRegions(offset)) {
+					fileRegions[f++] = region;
+				}
+				for (int i = 0; i < maximumLineNumbers.length; i++) {
+					maximumLineNumbers[i] = Math.max(maximumLineNumbers[i],
+							part.maximumLineNumbers[i]);
+				}
+			}
+			Part first = parts.get(0);
+			return new Part(text, regions, fileRegions, maximumLineNumbers,
+					first.oldPrefix, first.newPrefix);
+		}
+
+		int length() {
+			return text.length();
+		}
+
+		String getText() {
+			return text.toString();
+		}
+
+		DiffRegion[] getRegions(int offset) {
+			if (offset == 0) {
+				return regions.clone();
+			}
+			DiffRegion[] result = new DiffRegion[regions.length];
+			for (int i = 0; i < regions.length; i++) {
+				DiffRegion region = regions[i];
+				result[i] = new DiffRegion(region.getOffset() + offset,
+						region.getLength(),
+						region.getLine(DiffEntry.Side.OLD),
+						region.getLine(DiffEntry.Side.NEW),
+						region.getType());
+			}
+			return result;
+		}
+
+		FileDiffRegion[] getFileRegions(int offset) {
+			if (offset == 0) {
+				return fileRegions.clone();
+			}
+			FileDiffRegion[] result = new FileDiffRegion[fileRegions.length];
+			for (int i = 0; i < fileRegions.length; i++) {
+				FileDiffRegion region = fileRegions[i];
+				result[i] = new FileDiffRegion(region.getDiff(),
+						region.getOffset() + offset, region.getLength());
+			}
+			return result;
+		}
+
+		int[] getMaximumLineNumbers() {
+			return maximumLineNumbers.clone();
+		}
+
+		String getOldPrefix() {
+			return oldPrefix;
+		}
+
+		String getNewPrefix() {
+			return newPrefix;
+		}
+	}
+
+	private final FileDiff[] diffs;
+
+	private final Part[] results;
+
+	private final AtomicInteger next = new AtomicInteger();
+
+	/**
+	 * Creates a new formatter.
+	 *
+	 * @param diffs
+	 *            to format
+	 */
+	ParallelDiffFormatter(FileDiff[] diffs) {
+		this.diffs = diffs;
+		this.results = new Part[diffs.length];
+	}
+
+	/**
+	 * Formats a single file.
+	 *
+	 * @param diff
+	 *            to format, or {@code null} for an empty part
+	 * @return the formatted file
+	 */
+	static Part format(FileDiff diff) {
+		StringBuilder text = new StringBuilder();
+		try (DiffRegionFormatter formatter = new DiffRegionFormatter(text)) {
+			if (diff != null) {
+				try {
+					formatter.write(diff);
+				} catch (IOException ignore) {
+					// Ignored; keep what was written so far
+				}
+			}
+			return new Part(text, formatter.getRegions(),
+					formatter.getFileRegions(),
+					formatter.getMaximumLineNumbers(),
+					formatter.getOldPrefix(), formatter.getNewPrefix());
+		}
+	}
+
+	/**
+	 * Formats all files and passes them to the consumer in order. The
+	 * consumer is called in the calling thread, while other files are still
+	 * being formatted. Returns early if the monitor is cancelled.
+	 *
+	 * @param monitor
+	 *            for progress reporting and cancellation
+	 * @param consumer
+	 *            to pass the formatted files to
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the workers
+	 */
+	void format(IProgressMonitor monitor, Consumer<Part> consumer)
+			throws InterruptedException {
+		if (diffs.length == 0) {
+			return;
+		}
+		SubMonitor progress = SubMonitor.convert(monitor, diffs.length);
+		int workers = Math.min(diffs.length, Math.min(MAX_WORKERS,
+				Runtime.getRuntime().availableProcessors()));
+		JobGroup group = new JobGroup(UIText.DiffEditor_TaskGeneratingDiff,
+				workers, workers);
+		for (int i = 0; i < workers; i++) {
+			Job worker = new Worker();
+			worker.setJobGroup(group);
+			worker.schedule();
+		}
+		try {
+			int done = 0;
+			while (done < diffs.length) {
+				List<Part> parts = new ArrayList<>();
+				synchronized (this) {
+					while (results[done] == null) {
+						if (progress.isCanceled()
+								|| group.getState() == JobGroup.NONE) {
+							return;
+						}
+						wait(WAIT_MILLIS);
+					}
+					int length = 0;
+					while (done < diffs.length && results[done] != null
+							&& length < MAX_PART_LENGTH) {
+						length += results[done].length();
+						parts.add(results[done]);
+						// Don't keep the text twice
+						results[done++] = null;
+					}
+				}
+				progress.subTask(diffs[done - 1].getPath());
+				consumer.accept(Part.concat(parts));
+				progress.worked(parts.size());
+			}
+		} finally {
+			group.cancel();
+		}
+	}
+
+	private class Worker extends Job {
+
+		Worker() {
+			super(UIText.DiffEditor_TaskGeneratingDiff);
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			int i;
+			while ((i = next.getAndIncrement()) < diffs.length) {
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				Part part;
+				try {
+					part = format(diffs[i]);
+				} catch (OperationCanceledException e) {
+					return Status.CANCEL_STATUS;
+				} catch (RuntimeException e) {
+					// Don't leave the consumer waiting for this file
+					part = format(null);
+				}
+				synchronized (ParallelDiffFormatter.this) {
+					results[i] = part;
+					ParallelDiffFormatter.this.notifyAll();
+				}
+			}
+			return Status.OK_STATUS;
+		}
+	}
+}
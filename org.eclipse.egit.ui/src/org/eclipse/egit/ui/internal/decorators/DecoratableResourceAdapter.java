@@ -29,6 +29,7 @@
 import org.eclipse.egit.core.project.RepositoryMapping;
 import org.eclipse.egit.ui.internal.trace.GitTraceLocation;
 import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 
@@ -36,6 +37,23 @@ class DecoratableResourceAdapter extends DecoratableResource {
 
 	public DecoratableResourceAdapter(@NonNull IndexDiffData indexDiffData,
 			@NonNull IResource resourceToWrap) {
+		this(indexDiffData, resourceToWrap, null);
+	}
+
+	/**
+	 * Creates a new {@link DecoratableResourceAdapter}, taking the state of
+	 * the resource from the given cache if there is one.
+	 *
+	 * @param indexDiffData
+	 *            of the resource's repository
+	 * @param resourceToWrap
+	 *            to decorate
+	 * @param cache
+	 *            to get the state from, may be {@code null}
+	 */
+	DecoratableResourceAdapter(@NonNull IndexDiffData indexDiffData,
+			@NonNull IResource resourceToWrap,
+			@Nullable DecorationStateCache cache) {
 		super(resourceToWrap);
 		boolean trace = GitTraceLocation.DECORATION.isActive();
 		long start = 0;
@@ -56,8 +74,10 @@ public DecoratableResourceAdapter(@NonNull IndexDiffData indexDiffData,
 				return;
 			}
 			setIsRepositoryContainer(resourceToWrap.equals(mapping.getContainer()));
-			GitItemState baseState = GitItemStateFactory.getInstance()
-					.get(indexDiffData, resourceToWrap);
+			GitItemState baseState = cache != null
+					? cache.get(repository, indexDiffData, resourceToWrap)
+					: GitItemStateFactory.getInstance().get(indexDiffData,
+							resourceToWrap);
 			setTracked(baseState.isTracked());
 			setIgnored(baseState.isIgnored());
 			setDirty(baseState.isDirty());
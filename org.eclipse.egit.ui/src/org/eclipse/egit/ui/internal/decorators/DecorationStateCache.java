@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.decorators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.egit.core.info.GitItemState;
+import org.eclipse.egit.core.internal.indexdiff.IndexDiffData;
+import org.eclipse.egit.core.internal.info.GitItemStateFactory;
+import org.eclipse.egit.core.project.RepositoryMapping;
+import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Caches the {@link GitItemState}s of decorated resources per
+ * {@link IndexDiffData} snapshot of a repository.
+ * <p>
+ * Viewers decorate the children of a node one by one right after the node was
+ * expanded. When the state of a resource is not cached yet, the states of all
+ * its siblings in the same repository are computed in one batch, so that the
+ * following decoration requests for the siblings are answered from the cache.
+ * </p>
+ * <p>
+ * A snapshot is used only as long as the {@link IndexDiffData} it was
+ * computed from is current; it is dropped when the repository's index diff
+ * changes.
+ * </p>
+ */
+class DecorationStateCache {
+
+	/** Maximum number of resources whose state is computed in one batch. */
+	private static final int MAX_BATCH_SIZE = 5000;
+
+	private final Map<Repository, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+	/**
+	 * Retrieves the state of a resource, computing it and the states of its
+	 * siblings if it is not cached yet.
+	 *
+	 * @param repository
+	 *            the resource belongs to
+	 * @param indexDiffData
+	 *            current data of the repository
+	 * @param resource
+	 *            to get the state of
+	 * @return the state
+	 */
+	@NonNull
+	GitItemState get(@NonNull Repository repository,
+			@NonNull IndexDiffData indexDiffData,
+			@NonNull IResource resource) {
+		Snapshot snapshot = snapshots.compute(repository,
+				(r, s) -> s != null && s.data == indexDiffData ? s
+						: new Snapshot(indexDiffData));
+		GitItemState state = snapshot.states.get(resource);
+		if (state != null) {
+			return state;
+		}
+		Map<IResource, GitItemState> computed = GitItemStateFactory
+				.getInstance().getAll(indexDiffData, repository,
+						getBatch(repository, resource, snapshot));
+		snapshot.states.putAll(computed);
+		state = computed.get(resource);
+		return state != null ? state : GitItemStateFactory.UNKNOWN_STATE;
+	}
+
+	/**
+	 * Removes the cached states of a repository.
+	 *
+	 * @param repository
+	 *            to forget the states of
+	 */
+	void clear(@NonNull Repository repository) {
+		snapshots.remove(repository);
+	}
+
+	/**
+	 * Removes all cached states.
+	 */
+	void clear() {
+		snapshots.clear();
+	}
+
+	private Collection<IResource> getBatch(Repository repository,
+			IResource resource, Snapshot snapshot) {
+		IContainer parent = resource.getParent();
+		if (parent == null || parent.getType() == IResource.ROOT
+				|| !parent.isAccessible()) {
+			return Collections.singletonList(resource);
+		}
+		IResource[] members;
+		try {
+			members = parent.members();
+		} catch (CoreException e) {
+			return Collections.singletonList(resource);
+		}
+		List<IResource> batch = new ArrayList<>(
+				Math.min(members.length, MAX_BATCH_SIZE) + 1);
+		batch.add(resource);
+		for (IResource member : members) {
+			if (batch.size() >= MAX_BATCH_SIZE) {
+				break;
+			}
+			if (member.equals(resource) || !member.isAccessible()
+					|| snapshot.states.containsKey(member)) {
+				continue;
+			}
+			// Nested repositories have their own data
+			RepositoryMapping mapping = RepositoryMapping.getMapping(member);
+			if (mapping != null && repository.equals(mapping.getRepository())) {
+				batch.add(member);
+			}
+		}
+		return batch;
+	}
+
+	private static class Snapshot {
+
+		final IndexDiffData data;
+
+		final Map<IResource, GitItemState> states = new ConcurrentHashMap<>();
+
+		Snapshot(IndexDiffData data) {
+			this.data = data;
+		}
+	}
+}
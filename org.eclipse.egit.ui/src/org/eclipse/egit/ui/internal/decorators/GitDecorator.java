@@ -11,6 +11,7 @@
 package org.eclipse.egit.ui.internal.decorators;
 
 import java.text.MessageFormat;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -48,11 +49,25 @@ public abstract class GitDecorator extends LabelProvider
 
 	private static boolean uiEventQueued;
 
+	/**
+	 * Maximum number of elements collected for one
+	 * {@link LabelProviderChangedEvent}; beyond that all labels are refreshed.
+	 */
+	private static final int MAX_CHANGED_ELEMENTS = 1000;
+
 	private Object lock = new Object();
 
 	/** Protected by lock's monitor. */
 	private EventJob eventJob;
 
+	/**
+	 * Elements whose labels need to be refreshed; protected by lock's monitor.
+	 */
+	private Set<Object> changedElements = new LinkedHashSet<>();
+
+	/** Whether all labels need to be refreshed; protected by lock's monitor. */
+	private boolean allChanged;
+
 	private ListenerHandle configListener;
 
 	/**
@@ -85,6 +100,34 @@ public void dispose() {
 	 * labels.
 	 */
 	protected void postLabelEvent() {
+		synchronized (lock) {
+			allChanged = true;
+			changedElements.clear();
+		}
+		getEventJob().post(this);
+	}
+
+	/**
+	 * Posts an asynchronous {@link LabelProviderChangedEvent} invalidating the
+	 * labels of the given elements. Events posted in short succession are
+	 * combined.
+	 *
+	 * @param elements
+	 *            whose labels changed
+	 */
+	protected void postLabelEvent(Collection<?> elements) {
+		if (elements.isEmpty()) {
+			return;
+		}
+		synchronized (lock) {
+			if (!allChanged) {
+				changedElements.addAll(elements);
+				if (changedElements.size() > MAX_CHANGED_ELEMENTS) {
+					allChanged = true;
+					changedElements.clear();
+				}
+			}
+		}
 		getEventJob().post(this);
 	}
 
@@ -92,6 +135,14 @@ protected void postLabelEvent() {
 	 * Posts a {@link LabelProviderChangedEvent} invalidating all labels.
 	 */
 	protected void fireLabelEvent() {
+		synchronized (lock) {
+			allChanged = true;
+			changedElements.clear();
+		}
+		queueLabelEvent();
+	}
+
+	private void queueLabelEvent() {
 		// Re-trigger decoration process (in UI thread)
 		Display display = PlatformUI.getWorkbench().getDisplay();
 		if (display == null || display.isDisposed()) {
@@ -153,12 +204,32 @@ private static void firePendingLabelEvents() {
 		for (GitDecorator decorator : decorators) {
 			// Check that the decorator hasn't been disposed already.
 			if (decorator.configListener != null) {
-				decorator.fireLabelProviderChanged(
-						new LabelProviderChangedEvent(decorator));
+				decorator.firePendingLabelEvent();
 			}
 		}
 	}
 
+	private void firePendingLabelEvent() {
+		Object[] elements;
+		synchronized (lock) {
+			if (allChanged) {
+				elements = null;
+			} else if (changedElements.isEmpty()) {
+				return;
+			} else {
+				elements = changedElements.toArray();
+			}
+			allChanged = false;
+			changedElements.clear();
+		}
+		if (elements == null) {
+			fireLabelProviderChanged(new LabelProviderChangedEvent(this));
+		} else {
+			fireLabelProviderChanged(
+					new LabelProviderChangedEvent(this, elements));
+		}
+	}
+
 	/**
 	 * Job reducing label events to prevent unnecessary (i.e. redundant) event
 	 * processing. Each instance of a {@link GitDecorator} gets its own job.
@@ -180,7 +251,7 @@ public EventJob(String name) {
 		@Override
 		public IStatus run(IProgressMonitor monitor) {
 			if (decorator != null) {
-				decorator.fireLabelEvent();
+				decorator.queueLabelEvent();
 			}
 			return Status.OK_STATUS;
 		}
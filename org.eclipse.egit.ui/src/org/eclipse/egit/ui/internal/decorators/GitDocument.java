@@ -17,10 +17,6 @@
 import java.util.WeakHashMap;
 
 import org.eclipse.core.resources.IResource;
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.egit.core.internal.CompareCoreUtils;
 import org.eclipse.egit.core.internal.util.ResourceUtil;
 import org.eclipse.egit.core.project.RepositoryMapping;
@@ -28,14 +24,12 @@
 import org.eclipse.egit.ui.internal.UIText;
 import org.eclipse.egit.ui.internal.trace.GitTraceLocation;
 import org.eclipse.jface.text.Document;
+import org.eclipse.jgit.attributes.Attribute;
 import org.eclipse.jgit.diff.DiffConfig;
 import org.eclipse.jgit.diff.DiffConfig.RenameDetectionType;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.RenameDetector;
 import org.eclipse.jgit.dircache.DirCacheIterator;
-import org.eclipse.jgit.events.ListenerHandle;
-import org.eclipse.jgit.events.RefsChangedEvent;
-import org.eclipse.jgit.events.RefsChangedListener;
 import org.eclipse.jgit.lib.AnyObjectId;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
@@ -50,21 +44,25 @@
 import org.eclipse.jgit.util.LfsFactory;
 import org.eclipse.osgi.util.NLS;
 
-class GitDocument extends Document implements RefsChangedListener {
+class GitDocument extends Document {
 	private final IResource resource;
 
-	private ObjectId lastCommit;
+	// Guards populate() and setBaseline(), which both update the last* fields
+	private final Object lock = new Object();
 
-	private ObjectId lastTree;
+	private volatile ObjectId lastCommit;
 
-	private ObjectId lastBlob;
+	private volatile ObjectId lastTree;
 
-	private ListenerHandle myRefsChangedHandle;
+	private volatile ObjectId lastBlob;
 
-	// Job that reloads the document when something has changed
-	private Job reloadJob;
+	// Path of the resource in lastTree
+	private volatile String lastPath;
 
-	private boolean disposed;
+	// Repository this document is registered with for refs changes
+	private Repository registeredRepository;
+
+	private volatile boolean disposed;
 
 	static Map<GitDocument, Repository> doc2repo = new WeakHashMap<>();
 
@@ -79,8 +77,8 @@ static GitDocument create(final IResource resource) throws IOException {
 			ret.populate();
 			final Repository repository = ret.getRepository();
 			if (repository != null) {
-				ret.myRefsChangedHandle = repository.getListenerList()
-						.addRefsChangedListener(ret);
+				ret.registeredRepository = repository;
+				QuickDiffReferences.register(repository, ret);
 			}
 		}
 		return ret;
@@ -95,6 +93,7 @@ private GitDocument(IResource resource) {
 
 	private void setResolved(final AnyObjectId commit, final AnyObjectId tree,
 			final AnyObjectId blob, final String value) {
+		lastPath = null;
 		lastCommit = commit != null ? commit.copy() : null;
 		lastTree = tree != null ? tree.copy() : null;
 		lastBlob = blob != null ? blob.copy() : null;
@@ -113,6 +112,12 @@ else if (GitTraceLocation.QUICKDIFF.isActive())
 	}
 
 	void populate() throws IOException {
+		synchronized (lock) {
+			doPopulate();
+		}
+	}
+
+	private void doPopulate() throws IOException {
 		if (GitTraceLocation.QUICKDIFF.isActive())
 			GitTraceLocation.getTrace().traceEntry(
 					GitTraceLocation.QUICKDIFF.getLocation(), resource);
@@ -204,6 +209,11 @@ void populate() throws IOException {
 									GitTraceLocation.QUICKDIFF.getLocation(),
 									"(GitDocument) resource " + resource + " not found in " + treeId + " in " + repository + ", baseline=" + baseline); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 				setResolved(null, null, null, ""); //$NON-NLS-1$
+				// Remember where we looked, so that a refs change not
+				// touching the path doesn't need to look again
+				lastCommit = commitId.copy();
+				lastTree = treeId.copy();
+				lastPath = oldPath;
 				return;
 			}
 			ObjectId id = tw.getObjectId(0);
@@ -221,22 +231,37 @@ void populate() throws IOException {
 					GitTraceLocation.getTrace().trace(
 							GitTraceLocation.QUICKDIFF.getLocation(),
 							"(GitDocument) compareTo: " + baseline); //$NON-NLS-1$
-				ObjectLoader loader = LfsFactory.getInstance().applySmudgeFilter(
-						repository, repository.open(id, Constants.OBJ_BLOB),
-						tw.getAttributes().get(Constants.ATTR_DIFF));
-				byte[] bytes = loader.getBytes();
+				Attribute filter = tw.getAttributes().get(Constants.ATTR_DIFF);
 				String charset;
 				charset = CompareCoreUtils.getResourceEncoding(resource);
-				// Finally we could consider validating the content with respect
-				// to the content. We don't do that here.
-				String s = new String(bytes, charset);
+				ReferenceContentCache.Key key = new ReferenceContentCache.Key(
+						repository.getDirectory(), id,
+						filter != null ? filter.toString() : null, charset);
+				ReferenceContentCache cache = ReferenceContentCache
+						.getInstance();
+				String s = cache.get(key);
+				if (s == null) {
+					ObjectLoader loader = LfsFactory.getInstance()
+							.applySmudgeFilter(repository,
+									repository.open(id, Constants.OBJ_BLOB),
+									filter);
+					byte[] bytes = loader.getBytes();
+					// Finally we could consider validating the content with
+					// respect to the content. We don't do that here.
+					s = new String(bytes, charset);
+					cache.put(key, s);
+				}
 				setResolved(commitId, treeId, id, s);
+				lastPath = oldPath;
 				if (GitTraceLocation.QUICKDIFF.isActive())
 					GitTraceLocation
 							.getTrace()
 							.trace(GitTraceLocation.QUICKDIFF.getLocation(),
 									"(GitDocument) has reference doc, size=" + s.length() + " bytes"); //$NON-NLS-1$ //$NON-NLS-2$
 			} else {
+				lastCommit = commitId.copy();
+				lastTree = treeId.copy();
+				lastPath = oldPath;
 				if (GitTraceLocation.QUICKDIFF.isActive())
 					GitTraceLocation.getTrace().trace(
 							GitTraceLocation.QUICKDIFF.getLocation(),
@@ -259,36 +284,49 @@ void dispose() {
 		synchronized (doc2repo) {
 			doc2repo.remove(this);
 		}
-		if (myRefsChangedHandle != null) {
-			myRefsChangedHandle.remove();
-			myRefsChangedHandle = null;
+		if (registeredRepository != null) {
+			QuickDiffReferences.unregister(registeredRepository, this);
+			registeredRepository = null;
 		}
-		cancelReloadJob();
 		disposed = true;
 	}
 
-	@Override
-	public void onRefsChanged(final RefsChangedEvent event) {
-		cancelReloadJob();
+	/**
+	 * @return the baseline tree the reference content was looked up in, or
+	 *         {@code null} if none
+	 */
+	ObjectId getReferenceTree() {
+		return lastTree;
+	}
 
-		reloadJob = new Job(UIText.GitDocument_ReloadJobName) {
-			@Override
-			protected IStatus run(IProgressMonitor monitor) {
-				try {
-					populate();
-					return Status.OK_STATUS;
-				} catch (IOException e) {
-					return Activator.createErrorStatus(
-							UIText.GitDocument_ReloadJobError, e);
-				}
-			}
-		};
-		reloadJob.schedule();
+	/**
+	 * @return the path the reference content was looked up at in
+	 *         {@link #getReferenceTree()}, or {@code null} if none
+	 */
+	String getReferencePath() {
+		return lastPath;
 	}
 
-	private void cancelReloadJob() {
-		if (reloadJob != null && reloadJob.getState() != Job.NONE)
-			reloadJob.cancel();
+	/**
+	 * Records a new baseline in which the reference content is unchanged.
+	 * Does nothing if the document has been populated from another tree in
+	 * the meantime.
+	 *
+	 * @param expectedTree
+	 *            the reference tree the content was found unchanged from
+	 * @param commit
+	 *            new baseline commit
+	 * @param tree
+	 *            tree of the new baseline commit
+	 */
+	void setBaseline(AnyObjectId expectedTree, AnyObjectId commit,
+			AnyObjectId tree) {
+		synchronized (lock) {
+			if (disposed || !expectedTree.equals(lastTree))
+				return;
+			lastCommit = commit.copy();
+			lastTree = tree.copy();
+		}
 	}
 
 	private Repository getRepository() {
@@ -25,20 +25,28 @@
 package org.eclipse.egit.ui.internal.decorators;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.resources.mapping.ResourceMapping;
 import org.eclipse.core.runtime.Adapters;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.URIUtil;
 import org.eclipse.egit.core.info.GitItemState.StagingState;
 import org.eclipse.egit.core.internal.SafeRunnable;
 import org.eclipse.egit.core.internal.indexdiff.IndexDiffData;
@@ -58,6 +66,7 @@
 import org.eclipse.jface.viewers.IDecoration;
 import org.eclipse.jgit.annotations.NonNull;
 import org.eclipse.jgit.lib.IndexDiff.StageState;
+import org.eclipse.jgit.lib.Repository;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.osgi.util.TextProcessor;
 import org.eclipse.swt.SWT;
@@ -116,7 +125,24 @@ public class GitLightweightDecorator extends GitDecorator
 
 	private final DecorationHelper helper;
 
-	private RepositoryMappingChangeListener mappingChangeListener = changed -> fireLabelEvent();
+	private final DecorationStateCache stateCache = new DecorationStateCache();
+
+	/**
+	 * Maximum number of changed paths for which only the labels of the
+	 * affected resources are refreshed.
+	 */
+	private static final int MAX_DELTA_SIZE = 500;
+
+	/**
+	 * Maximum number of resources, including the members of changed folders,
+	 * whose labels are refreshed individually.
+	 */
+	private static final int MAX_CHANGED_ELEMENTS = 5000;
+
+	private RepositoryMappingChangeListener mappingChangeListener = changed -> {
+		stateCache.clear();
+		fireLabelEvent();
+	};
 
 	/**
 	 * Constructs a new Git resource decorator
@@ -142,6 +168,103 @@ public void dispose() {
 		Activator.removePropertyChangeListener(this);
 		GitProjectData.removeRepositoryChangeListener(mappingChangeListener);
 		mappingChangeListener = null;
+		stateCache.clear();
+	}
+
+	@Override
+	public void indexDiffChanged(Repository repository,
+			IndexDiffData indexDiffData) {
+		stateCache.clear(repository);
+		Collection<String> delta = indexDiffData.getStatusDelta();
+		if (delta == null || delta.size() > MAX_DELTA_SIZE
+				|| repository.isBare()) {
+			super.indexDiffChanged(repository, indexDiffData);
+			return;
+		}
+		Collection<Object> elements = getChangedElements(repository,
+				indexDiffData);
+		if (elements == null) {
+			super.indexDiffChanged(repository, indexDiffData);
+			return;
+		}
+		DecoratorRepositoryStateCache.INSTANCE.clear(repository);
+		postLabelEvent(elements);
+	}
+
+	/**
+	 * Determines the workspace elements whose decorations may change because
+	 * of the status delta of the given data. The delta includes all ancestor
+	 * folders of changed paths, whose aggregated states may have changed; only
+	 * their own labels are refreshed. Whether a folder is ignored or untracked
+	 * determines the decorations of all its members, though, so for folders
+	 * whose such state changed, the members are included, too.
+	 *
+	 * @param repository
+	 *            the data belongs to
+	 * @param indexDiffData
+	 *            incrementally derived data
+	 * @return the elements, or {@code null} if there are too many
+	 */
+	Collection<Object> getChangedElements(Repository repository,
+			IndexDiffData indexDiffData) {
+		Collection<String> paths = indexDiffData.getStatusDelta();
+		Collection<String> folderStates = indexDiffData
+				.getFolderStateDelta();
+		if (paths == null || folderStates == null) {
+			return null;
+		}
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IPath workTree = new Path(repository.getWorkTree().getAbsolutePath());
+		List<Object> elements = new ArrayList<>();
+		for (String path : paths) {
+			boolean folder = path.isEmpty() || path.endsWith("/"); //$NON-NLS-1$
+			String name = folder && !path.isEmpty()
+					? path.substring(0, path.length() - 1)
+					: path;
+			URI location = URIUtil.toURI(workTree.append(name));
+			if (!folder) {
+				elements.addAll(
+						Arrays.asList(root.findFilesForLocationURI(location)));
+			}
+			// Ignored folders are reported without trailing slash
+			boolean withMembers = folderStates.contains(path);
+			for (IContainer container : root
+					.findContainersForLocationURI(location)) {
+				if (!withMembers) {
+					elements.add(container);
+				} else if (!addWithMembers(container, elements)) {
+					return null;
+				}
+			}
+		}
+		if (elements.size() >= MAX_CHANGED_ELEMENTS) {
+			return null;
+		}
+		if (!elements.isEmpty()) {
+			// Working sets aggregate the states of their contents
+			elements.addAll(Arrays.asList(PlatformUI.getWorkbench()
+					.getWorkingSetManager().getAllWorkingSets()));
+		}
+		return elements;
+	}
+
+	private static boolean addWithMembers(IContainer container,
+			List<Object> elements) {
+		if (!container.isAccessible()) {
+			return true;
+		}
+		try {
+			container.accept(proxy -> {
+				if (elements.size() >= MAX_CHANGED_ELEMENTS) {
+					return false;
+				}
+				elements.add(proxy.requestResource());
+				return true;
+			}, IResource.NONE);
+		} catch (CoreException e) {
+			return false;
+		}
+		return elements.size() < MAX_CHANGED_ELEMENTS;
 	}
 
 	/**
@@ -197,7 +320,7 @@ private void decorateResource(@NonNull IResource resource,
 			return;
 		}
 		IDecoratableResource decoratableResource = new DecoratableResourceAdapter(
-				indexDiffData, resource);
+				indexDiffData, resource, stateCache);
 		helper.decorate(decoration, decoratableResource);
 	}
 
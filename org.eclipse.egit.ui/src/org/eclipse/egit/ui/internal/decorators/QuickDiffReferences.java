@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.decorators;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.egit.ui.Activator;
+import org.eclipse.egit.ui.internal.UIText;
+import org.eclipse.egit.ui.internal.trace.GitTraceLocation;
+import org.eclipse.jgit.events.ListenerHandle;
+import org.eclipse.jgit.events.RefsChangedEvent;
+import org.eclipse.jgit.events.RefsChangedListener;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Keeps the {@link GitDocument}s of one repository up to date when its refs
+ * change. Instead of every document re-resolving the baseline and re-reading
+ * its blob, the baseline tree is resolved once per refs change and diffed
+ * against the trees the documents were loaded from; only documents whose
+ * paths or applicable .gitattributes files changed are reloaded. Others just
+ * take note of the new baseline.
+ */
+final class QuickDiffReferences implements RefsChangedListener {
+
+	// Not weak: each value references its key. Entries are removed when the
+	// last document of a repository is unregistered.
+	private static final Map<Repository, QuickDiffReferences> INSTANCES = //
+			new HashMap<>();
+
+	private final Repository repository;
+
+	private final Set<GitDocument> documents = new HashSet<>();
+
+	private final ListenerHandle refsChangedHandle;
+
+	private final Job reloadJob;
+
+	private QuickDiffReferences(Repository repository) {
+		this.repository = repository;
+		reloadJob = new Job(UIText.GitDocument_ReloadJobName) {
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					reload(monitor);
+					return monitor.isCanceled() ? Status.CANCEL_STATUS
+							: Status.OK_STATUS;
+				} catch (IOException e) {
+					return Activator.createErrorStatus(
+							UIText.GitDocument_ReloadJobError, e);
+				}
+			}
+		};
+		refsChangedHandle = repository.getListenerList()
+				.addRefsChangedListener(this);
+	}
+
+	/**
+	 * Registers a document to be updated when the refs of its repository
+	 * change.
+	 *
+	 * @param repository
+	 *            of the document
+	 * @param document
+	 *            to register
+	 */
+	static void register(Repository repository, GitDocument document) {
+		synchronized (INSTANCES) {
+			QuickDiffReferences references = INSTANCES
+					.computeIfAbsent(repository, QuickDiffReferences::new);
+			synchronized (references) {
+				references.documents.add(document);
+			}
+		}
+	}
+
+	/**
+	 * Unregisters a document. Stops listening to the repository once no
+	 * documents are left.
+	 *
+	 * @param repository
+	 *            of the document
+	 * @param document
+	 *            to unregister
+	 */
+	static void unregister(Repository repository, GitDocument document) {
+		synchronized (INSTANCES) {
+			QuickDiffReferences references = INSTANCES.get(repository);
+			if (references == null) {
+				return;
+			}
+			synchronized (references) {
+				references.documents.remove(document);
+				if (!references.documents.isEmpty()) {
+					return;
+				}
+			}
+			INSTANCES.remove(repository);
+			references.refsChangedHandle.remove();
+			references.reloadJob.cancel();
+		}
+	}
+
+	@Override
+	public void onRefsChanged(RefsChangedEvent event) {
+		reloadJob.cancel();
+		reloadJob.schedule();
+	}
+
+	private void reload(IProgressMonitor monitor) throws IOException {
+		GitDocument[] docs;
+		synchronized (this) {
+			docs = documents.toArray(new GitDocument[0]);
+		}
+		if (docs.length == 0) {
+			return;
+		}
+		List<GitDocument> toPopulate = new ArrayList<>();
+		ObjectId commitId = resolveBaseline();
+		RevTree tree = null;
+		if (commitId != null) {
+			try (RevWalk walk = new RevWalk(repository)) {
+				tree = walk.parseCommit(commitId).getTree();
+			} catch (IOException e) {
+				// Let the documents report the error
+			}
+		}
+		if (tree == null) {
+			Collections.addAll(toPopulate, docs);
+		} else {
+			Map<ObjectId, List<GitDocument>> byTree = new HashMap<>();
+			for (GitDocument doc : docs) {
+				ObjectId docTree = doc.getReferenceTree();
+				if (docTree == null || doc.getReferencePath() == null) {
+					toPopulate.add(doc);
+				} else if (docTree.equals(tree)) {
+					doc.setBaseline(docTree, commitId, tree);
+				} else {
+					byTree.computeIfAbsent(docTree, t -> new ArrayList<>())
+							.add(doc);
+				}
+			}
+			for (Map.Entry<ObjectId, List<GitDocument>> entry : byTree
+					.entrySet()) {
+				if (monitor.isCanceled()) {
+					return;
+				}
+				List<GitDocument> group = entry.getValue();
+				Set<String> paths = new HashSet<>();
+				for (GitDocument doc : group) {
+					paths.add(doc.getReferencePath());
+					// Attributes may change how the blob is converted
+					paths.addAll(getAttributesPaths(doc.getReferencePath()));
+				}
+				Set<String> changed = getChangedPaths(repository,
+						entry.getKey(), tree, paths);
+				for (GitDocument doc : group) {
+					String path = doc.getReferencePath();
+					if (changed.contains(path) || getAttributesPaths(path)
+							.stream().anyMatch(changed::contains)) {
+						toPopulate.add(doc);
+					} else {
+						doc.setBaseline(entry.getKey(), commitId, tree);
+					}
+				}
+			}
+		}
+		if (GitTraceLocation.QUICKDIFF.isActive()) {
+			GitTraceLocation.getTrace().trace(
+					GitTraceLocation.QUICKDIFF.getLocation(),
+					"(QuickDiffReferences) reloading " + toPopulate.size() //$NON-NLS-1$
+							+ " of " + docs.length + " documents"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		for (GitDocument doc : toPopulate) {
+			if (monitor.isCanceled()) {
+				return;
+			}
+			doc.populate();
+		}
+	}
+
+	private ObjectId resolveBaseline() throws IOException {
+		String baseline = GitQuickDiffProvider.baseline.get(repository);
+		if (baseline == null) {
+			baseline = Constants.HEAD;
+		}
+		return repository.resolve(baseline);
+	}
+
+	/**
+	 * Determines the paths of the .gitattributes files in the tree that may
+	 * apply to a file: the one at the root and those in all its ancestor
+	 * folders.
+	 *
+	 * @param path
+	 *            repository-relative file path
+	 * @return the paths of the .gitattributes files
+	 */
+	static List<String> getAttributesPaths(String path) {
+		List<String> result = new ArrayList<>();
+		result.add(Constants.DOT_GIT_ATTRIBUTES);
+		int slash = path.indexOf('/');
+		while (slash >= 0) {
+			result.add(path.substring(0, slash + 1)
+					+ Constants.DOT_GIT_ATTRIBUTES);
+			slash = path.indexOf('/', slash + 1);
+		}
+		return result;
+	}
+
+	/**
+	 * Determines which of the given paths differ between two trees.
+	 *
+	 * @param repository
+	 *            containing the trees
+	 * @param oldTree
+	 *            to compare
+	 * @param newTree
+	 *            to compare
+	 * @param paths
+	 *            repository-relative file paths to check
+	 * @return the paths that were added, deleted or modified
+	 * @throws IOException
+	 *             if the trees cannot be read
+	 */
+	static Set<String> getChangedPaths(Repository repository,
+			AnyObjectId oldTree, AnyObjectId newTree, Collection<String> paths)
+			throws IOException {
+		Set<String> changed = new HashSet<>();
+		if (paths.isEmpty()) {
+			return changed;
+		}
+		try (TreeWalk walk = new TreeWalk(repository)) {
+			walk.addTree(oldTree);
+			walk.addTree(newTree);
+			walk.setRecursive(true);
+			walk.setFilter(AndTreeFilter.create(
+					PathFilterGroup.createFromStrings(paths),
+					TreeFilter.ANY_DIFF));
+			while (walk.next()) {
+				changed.add(walk.getPathString());
+			}
+		}
+		return changed;
+	}
+}
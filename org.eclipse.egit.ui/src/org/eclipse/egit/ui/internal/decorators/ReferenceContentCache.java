@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.decorators;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * A least-recently-used cache of decoded quick diff reference contents,
+ * shared by all {@link GitDocument}s. Contents are keyed by blob id and by
+ * everything else that influences the decoded text: the repository, whose
+ * configuration determines smudge filters, the filter attribute and the
+ * charset. The cache is bounded by the total length of the cached texts.
+ */
+final class ReferenceContentCache {
+
+	/** Default maximum total length of cached texts, in characters. */
+	static final long DEFAULT_MAX_CHARS = 8L * 1024 * 1024;
+
+	private static final ReferenceContentCache INSTANCE = //
+			new ReferenceContentCache(DEFAULT_MAX_CHARS);
+
+	private final long maxChars;
+
+	private final LinkedHashMap<Key, String> contents = new LinkedHashMap<>(
+			16, 0.75f, true);
+
+	private long chars;
+
+	ReferenceContentCache(long maxChars) {
+		this.maxChars = maxChars;
+	}
+
+	/**
+	 * @return the cache shared by all quick diff documents
+	 */
+	static ReferenceContentCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Key of a decoded blob.
+	 */
+	static final class Key {
+
+		private final Object repository;
+
+		private final ObjectId blob;
+
+		private final String filter;
+
+		private final String charset;
+
+		/**
+		 * @param repository
+		 *            identifying the repository, for instance its git
+		 *            directory
+		 * @param blob
+		 *            id of the blob
+		 * @param filter
+		 *            value of the attribute determining the smudge filter,
+		 *            may be {@code null}
+		 * @param charset
+		 *            used to decode the blob
+		 */
+		Key(Object repository, AnyObjectId blob, String filter,
+				String charset) {
+			this.repository = repository;
+			this.blob = blob.copy();
+			this.filter = filter;
+			this.charset = charset;
+		}
+
+		@Override
+		public int hashCode() {
+			return blob.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return blob.equals(other.blob)
+					&& repository.equals(other.repository)
+					&& Objects.equals(filter, other.filter)
+					&& Objects.equals(charset, other.charset);
+		}
+	}
+
+	/**
+	 * @param key
+	 *            of the content
+	 * @return the cached content, or {@code null} if not cached
+	 */
+	synchronized String get(Key key) {
+		return contents.get(key);
+	}
+
+	/**
+	 * Caches a content, evicting the least recently used ones if the cache
+	 * grows too large. Contents larger than the whole cache are not cached.
+	 *
+	 * @param key
+	 *            of the content
+	 * @param content
+	 *            to cache
+	 */
+	synchronized void put(Key key, String content) {
+		if (content.length() > maxChars) {
+			return;
+		}
+		String previous = contents.put(key, content);
+		if (previous != null) {
+			chars -= previous.length();
+		}
+		chars += content.length();
+		Iterator<Map.Entry<Key, String>> entries = contents.entrySet()
+				.iterator();
+		while (chars > maxChars && entries.hasNext()) {
+			Map.Entry<Key, String> eldest = entries.next();
+			if (eldest.getKey().equals(key)) {
+				continue;
+			}
+			chars -= eldest.getValue().length();
+			entries.remove();
+		}
+	}
+
+	/**
+	 * @return the number of cached contents
+	 */
+	synchronized int size() {
+		return contents.size();
+	}
+
+	/**
+	 * @return the total length of the cached contents
+	 */
+	synchronized long getChars() {
+		return chars;
+	}
+}
@@ -39,6 +39,7 @@
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.egit.core.RepositoryUtil;
+import org.eclipse.egit.core.attributes.Filtering;
 import org.eclipse.egit.core.internal.CompareCoreUtils;
 import org.eclipse.egit.core.internal.storage.GitFileRevision;
 import org.eclipse.egit.core.internal.storage.WorkingTreeFileRevision;
@@ -645,11 +646,7 @@ private void buildMaps(Repository repository, RevCommit baseCommit,
 									repoRelativePath);
 						}
 					} else {
-						metadata = new CheckoutMetadata(
-								tw.getEolStreamType(
-										TreeWalk.OperationType.CHECKOUT_OP),
-								tw.getFilterCommand(
-										Constants.ATTR_FILTER_TYPE_SMUDGE));
+						metadata = Filtering.getCheckoutMetadata(tw);
 						left = GitFileRevision.inCommit(repository, baseCommit,
 								repoRelativePath, tw.getObjectId(baseTreeIndex),
 								metadata);
@@ -659,11 +656,7 @@ private void buildMaps(Repository repository, RevCommit baseCommit,
 				if (compareVersionIterator != null) {
 					if (!useIndex) {
 						if (metadata == null) {
-							metadata = new CheckoutMetadata(
-									tw.getEolStreamType(
-											TreeWalk.OperationType.CHECKOUT_OP),
-									tw.getFilterCommand(
-											Constants.ATTR_FILTER_TYPE_SMUDGE));
+							metadata = Filtering.getCheckoutMetadata(tw);
 						}
 						right = GitFileRevision.inCommit(repository,
 								compareCommit, repoRelativePath,
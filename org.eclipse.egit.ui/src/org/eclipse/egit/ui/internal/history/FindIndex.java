@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.history;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.egit.ui.Activator;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Search texts of the commits in the history table, used by the
+ * {@link FindToolbarJob}.
+ * <p>
+ * The short texts of a commit, its author, committer and refs, are computed on
+ * the first search that needs them and are kept as long as the history table
+ * shows the same commits; when the history is loaded incrementally, only the
+ * texts of the new commits are computed. Commit messages are not copied; they
+ * are searched in the commits' retained bodies. Searches scan the rows in
+ * parallel. If a pattern contains the pattern of the previous search with the
+ * same options, only the previous matches and the rows added since are
+ * searched again.
+ * </p>
+ */
+class FindIndex {
+
+	/** Search in the commit id. */
+	static final int COMMIT_ID = 1;
+
+	/** Search in the commit message. */
+	static final int COMMENTS = 1 << 1;
+
+	/** Search in the author name and e-mail. */
+	static final int AUTHOR = 1 << 2;
+
+	/** Search in the committer name and e-mail. */
+	static final int COMMITTER = 1 << 3;
+
+	/** Search in the short names of the refs. */
+	static final int REFERENCE = 1 << 4;
+
+	/**
+	 * Separates multiple values in a text; cannot occur in a pattern typed
+	 * into the single-line search field.
+	 */
+	private static final char SEPARATOR = '\n';
+
+	/** Number of rows searched between progress updates. */
+	private static final int CHUNK_SIZE = 1024;
+
+	private SWTCommit[] commits = new SWTCommit[0];
+
+	private String[] authors = new String[0];
+
+	private String[] committers = new String[0];
+
+	private String[] refs = new String[0];
+
+	private String lastPattern;
+
+	private boolean lastIgnoreCase;
+
+	private int lastFields;
+
+	private int lastLength;
+
+	private int[] lastMatches;
+
+	/**
+	 * Finds the rows matching a pattern.
+	 *
+	 * @param input
+	 *            the commits in the history table
+	 * @param pattern
+	 *            to search for
+	 * @param ignoreCase
+	 *            whether to search case-insensitively
+	 * @param fields
+	 *            to search in; a combination of {@link #COMMIT_ID},
+	 *            {@link #COMMENTS}, {@link #AUTHOR}, {@link #COMMITTER} and
+	 *            {@link #REFERENCE}
+	 * @param monitor
+	 *            to report progress to and to check for cancellation
+	 * @return the matching row indices in ascending order
+	 * @throws OperationCanceledException
+	 *             if the monitor was canceled
+	 */
+	synchronized int[] find(SWTCommit[] input, String pattern,
+			boolean ignoreCase, int fields, IProgressMonitor monitor) {
+		update(input);
+		String needle = ignoreCase ? toLowerCase(pattern) : pattern;
+		String idNeedle = needle.trim();
+		int[] rows;
+		if (lastMatches != null && fields == lastFields
+				&& ignoreCase == lastIgnoreCase
+				&& needle.contains(lastPattern)) {
+			// Every match must have matched the previous pattern, too
+			rows = IntStream.concat(Arrays.stream(lastMatches),
+					IntStream.range(lastLength, commits.length)).toArray();
+		} else {
+			rows = IntStream.range(0, commits.length).toArray();
+		}
+		SubMonitor progress = SubMonitor.convert(monitor, rows.length);
+		IntStream.Builder matches = IntStream.builder();
+		for (int start = 0; start < rows.length; start += CHUNK_SIZE) {
+			if (progress.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			int end = Math.min(start + CHUNK_SIZE, rows.length);
+			Arrays.stream(rows, start, end).parallel()
+					.filter(row -> !monitor.isCanceled() && matches(row,
+							needle, idNeedle, ignoreCase, fields))
+					.forEachOrdered(matches);
+			progress.worked(end - start);
+		}
+		if (progress.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+		int[] result = matches.build().toArray();
+		lastPattern = needle;
+		lastIgnoreCase = ignoreCase;
+		lastFields = fields;
+		lastLength = commits.length;
+		lastMatches = result;
+		return result;
+	}
+
+	private void update(SWTCommit[] input) {
+		if (input == commits) {
+			return;
+		}
+		int length = commits.length;
+		boolean extended = input.length >= length;
+		for (int i = 0; extended && i < length; i++) {
+			extended = input[i] == commits[i];
+		}
+		if (!extended) {
+			// Different history
+			length = 0;
+			lastMatches = null;
+		}
+		commits = input;
+		authors = Arrays.copyOf(authors, length);
+		authors = Arrays.copyOf(authors, input.length);
+		committers = Arrays.copyOf(committers, length);
+		committers = Arrays.copyOf(committers, input.length);
+		refs = Arrays.copyOf(refs, length);
+		refs = Arrays.copyOf(refs, input.length);
+	}
+
+	private boolean matches(int row, String needle, String idNeedle,
+			boolean ignoreCase, int fields) {
+		SWTCommit commit = commits[row];
+		if ((fields & COMMIT_ID) != 0 && commit.name().contains(idNeedle)) {
+			return true;
+		}
+		if ((fields & ~COMMIT_ID) == 0 || !computeTexts(row)) {
+			return false;
+		}
+		return (fields & AUTHOR) != 0
+				&& contains(authors[row], needle, ignoreCase)
+				|| (fields & COMMITTER) != 0
+						&& contains(committers[row], needle, ignoreCase)
+				|| (fields & REFERENCE) != 0
+						&& contains(refs[row], needle, ignoreCase)
+				|| (fields & COMMENTS) != 0 && contains(
+						commit.getFullMessage(), needle, ignoreCase);
+	}
+
+	private boolean computeTexts(int row) {
+		SWTCommit commit = commits[row];
+		try {
+			// Loads the body again if it was disposed
+			commit.parseBody();
+		} catch (IOException e) {
+			Activator.logError("Error parsing body", e); //$NON-NLS-1$
+			return false;
+		}
+		if (authors[row] != null) {
+			return true;
+		}
+		StringBuilder refNames = new StringBuilder();
+		for (int i = 0; i < commit.getRefCount(); i++) {
+			String name = commit.getRef(i).getName();
+			refNames.append(Repository.shortenRefName(name)).append(SEPARATOR);
+		}
+		committers[row] = toText(commit.getCommitterIdent());
+		refs[row] = refNames.toString();
+		// Set last; a non-null author marks the texts as computed
+		authors[row] = toText(commit.getAuthorIdent());
+		return true;
+	}
+
+	private static String toText(PersonIdent person) {
+		return person.getName() + SEPARATOR + person.getEmailAddress();
+	}
+
+	private static String toLowerCase(String text) {
+		char[] chars = text.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(chars[i]);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Tells whether a text contains a needle, without copying the text.
+	 *
+	 * @param text
+	 *            to search in
+	 * @param needle
+	 *            to search for; lower case if {@code ignoreCase}
+	 * @param ignoreCase
+	 *            whether to compare the lower case chars of the text
+	 * @return whether the needle occurs in the text
+	 */
+	static boolean contains(String text, String needle, boolean ignoreCase) {
+		if (!ignoreCase) {
+			return text.contains(needle);
+		}
+		int length = needle.length();
+		if (length == 0) {
+			return true;
+		}
+		char first = needle.charAt(0);
+		for (int i = 0, last = text.length() - length; i <= last; i++) {
+			if (Character.toLowerCase(text.charAt(i)) != first) {
+				continue;
+			}
+			int j = 1;
+			while (j < length && Character
+					.toLowerCase(text.charAt(i + j)) == needle.charAt(j)) {
+				j++;
+			}
+			if (j == length) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
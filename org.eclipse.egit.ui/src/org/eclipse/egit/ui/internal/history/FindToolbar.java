@@ -123,6 +123,8 @@ public interface StatusListener {
 
 	private SWTCommit[] fileRevisions;
 
+	private final FindIndex findIndex = new FindIndex();
+
 	private Text patternField;
 
 	private ModifyListener patternModifyListener;
@@ -644,6 +646,7 @@ private FindToolbarJob createFinder() {
 				findResults);
 		job.pattern = currentPattern;
 		job.fileRevisions = fileRevisions;
+		job.findIndex = findIndex;
 		job.ignoreCase = caseItem.getSelection();
 		if (allItem.getSelection()) {
 			job.findInCommitId = true;
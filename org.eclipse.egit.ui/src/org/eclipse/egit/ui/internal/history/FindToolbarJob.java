@@ -13,22 +13,18 @@
  *******************************************************************************/
 package org.eclipse.egit.ui.internal.history;
 
-import java.io.IOException;
-
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.egit.ui.Activator;
-import org.eclipse.jgit.lib.Ref;
-import org.eclipse.jgit.lib.Repository;
 
 /**
  * This class executes the search function for the find toolbar. To avoid
  * consuming all the memory in the system, this class limits the maximum results
- * it stores.
+ * it stores. The search itself is done by a {@link FindIndex}, which keeps the
+ * search texts of the commits between searches.
  *
  * @see FindToolbar
  * @see FindResults
@@ -66,6 +62,8 @@ public boolean isConflicting(ISchedulingRule rule) {
 
 	boolean findInReference;
 
+	FindIndex findIndex;
+
 	private final FindResults findResults;
 
 	/**
@@ -82,16 +80,6 @@ public FindToolbarJob(String name, FindResults findResults) {
 		setRule(SINGLE_JOB_RULE);
 	}
 
-	private boolean find(String needle, String text) {
-		if (text == null) {
-			return false;
-		}
-		if (ignoreCase) {
-			return text.toLowerCase().contains(needle);
-		}
-		return text.contains(needle);
-	}
-
 	@Override
 	protected IStatus run(IProgressMonitor monitor) {
 		findResults.clear();
@@ -100,90 +88,41 @@ protected IStatus run(IProgressMonitor monitor) {
 				|| fileRevisions.length == 0) {
 			return Status.OK_STATUS;
 		}
-		String findPattern = pattern;
-		if (ignoreCase) {
-			findPattern = pattern.toLowerCase();
+		int fields = 0;
+		if (findInCommitId) {
+			fields |= FindIndex.COMMIT_ID;
 		}
-
-		int totalRevisions = fileRevisions.length;
-		SubMonitor progress = SubMonitor.convert(monitor, totalRevisions);
-		for (int i = 0; i < totalRevisions; i++) {
-			if (progress.isCanceled()) {
+		if (findInComments) {
+			fields |= FindIndex.COMMENTS;
+		}
+		if (findInAuthor) {
+			fields |= FindIndex.AUTHOR;
+		}
+		if (findInCommitter) {
+			fields |= FindIndex.COMMITTER;
+		}
+		if (findInReference) {
+			fields |= FindIndex.REFERENCE;
+		}
+		FindIndex index = findIndex != null ? findIndex : new FindIndex();
+		int[] matches;
+		try {
+			matches = index.find(fileRevisions, pattern, ignoreCase, fields,
+					monitor);
+		} catch (OperationCanceledException e) {
+			return Status.CANCEL_STATUS;
+		}
+		for (int i = 0; i < matches.length; i++) {
+			if (monitor.isCanceled()) {
 				return Status.CANCEL_STATUS;
 			}
-			if (findResults.size() >= MAX_RESULTS) {
+			if (i >= MAX_RESULTS) {
 				findResults.setOverflow();
 				break;
 			}
-
-			// Finds for the pattern in the revision history.
-			SWTCommit revision = fileRevisions[i];
-			try {
-				revision.parseBody();
-			} catch (IOException e) {
-				Activator.logError("Error parsing body", e); //$NON-NLS-1$
-				continue;
-			}
-
-			if (findInCommitId
-					&& find(findPattern.trim(), revision.getId().name())) {
-				if (progress.isCanceled()) {
-					return Status.CANCEL_STATUS;
-				}
-				findResults.add(i, revision);
-				continue;
-			}
-			if (findInComments
-					&& find(findPattern, revision.getFullMessage())) {
-				if (progress.isCanceled()) {
-					return Status.CANCEL_STATUS;
-				}
-				findResults.add(i, revision);
-				continue;
-			}
-
-			if (findInAuthor && (find(findPattern,
-					revision.getAuthorIdent().getName())
-					|| find(findPattern,
-							revision.getAuthorIdent().getEmailAddress()))) {
-				if (progress.isCanceled()) {
-					return Status.CANCEL_STATUS;
-				}
-				findResults.add(i, revision);
-				continue;
-			}
-
-			if (findInCommitter && (find(findPattern,
-					revision.getCommitterIdent().getName())
-					|| find(findPattern,
-							revision.getCommitterIdent().getEmailAddress()))) {
-				if (progress.isCanceled()) {
-					return Status.CANCEL_STATUS;
-				}
-				findResults.add(i, revision);
-				continue;
-			}
-
-			if (findInReference) {
-				for (int j = 0; j < revision.getRefCount(); j++) {
-					if (progress.isCanceled()) {
-						return Status.CANCEL_STATUS;
-					}
-					Ref ref = revision.getRef(j);
-					String refName = ref.getName();
-					refName = Repository.shortenRefName(refName);
-					if (find(findPattern, refName)) {
-						if (progress.isCanceled()) {
-							return Status.CANCEL_STATUS;
-						}
-						findResults.add(i, revision);
-						break;
-					}
-				}
-			}
-			progress.worked(1);
+			findResults.add(matches[i], fileRevisions[matches[i]]);
 		}
-		return progress.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+		return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
 	}
 
 }
@@ -30,6 +30,7 @@
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.egit.core.RepositoryUtil;
+import org.eclipse.egit.core.attributes.Filtering;
 import org.eclipse.egit.core.info.GitInfo;
 import org.eclipse.egit.core.internal.CompareCoreUtils;
 import org.eclipse.egit.core.internal.storage.GitFileRevision;
@@ -41,7 +42,6 @@
 import org.eclipse.jgit.dircache.DirCacheCheckout.CheckoutMetadata;
 import org.eclipse.jgit.dircache.DirCacheIterator;
 import org.eclipse.jgit.lib.AnyObjectId;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
@@ -342,11 +342,7 @@ void fill(Repository repository, TreeWalk walk, String gitPath) {
 				encoding = CompareCoreUtils.getResourceEncoding(repository,
 						gitPath);
 				try {
-					metadata = new CheckoutMetadata(
-							walk.getEolStreamType(
-									TreeWalk.OperationType.CHECKOUT_OP),
-							walk.getFilterCommand(
-									Constants.ATTR_FILTER_TYPE_SMUDGE));
+					metadata = Filtering.getCheckoutMetadata(walk);
 				} catch (IOException e) {
 					throw new UncheckedIOException(e);
 				}
@@ -15,14 +15,18 @@
 import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
 import org.eclipse.egit.core.RepositoryCache;
 import org.eclipse.egit.ui.internal.UIText;
 import org.eclipse.egit.ui.internal.commit.RepositoryCommit;
@@ -41,6 +45,10 @@
  * Commit search query class that runs a {@link RevWalk} for all
  * {@link Repository} objects included in the {@link CommitSearchSettings} and
  * matches all {@link RevCommit} objects against the search settings.
+ * <p>
+ * Repositories are walked concurrently, and matches are added to the
+ * {@link CommitSearchResult} as soon as they are found.
+ * </p>
  */
 public class CommitSearchQuery implements ISearchQuery {
 
@@ -48,6 +56,29 @@ private abstract static class SearchMatcher {
 
 		abstract boolean matches(Pattern pattern, RevCommit commit);
 
+		/**
+		 * @return whether {@link #matches(Pattern, RevCommit)} needs the body
+		 *         of the commit
+		 */
+		boolean needsBody() {
+			return false;
+		}
+
+		/**
+		 * Cheaply determines whether a commit may match, before
+		 * {@link #matches(Pattern, RevCommit)} decodes parts of its body.
+		 *
+		 * @param filter
+		 *            for the search text
+		 * @param commit
+		 *            to check
+		 * @return {@code false} if the commit cannot match, {@code true}
+		 *         otherwise
+		 */
+		boolean mayMatch(RawTextFilter filter, RevCommit commit) {
+			return true;
+		}
+
 		protected boolean matches(Pattern pattern, String input) {
 			return input != null && input.length() > 0
 					&& pattern.matcher(input).find();
@@ -57,6 +88,16 @@ protected boolean matches(Pattern pattern, String input) {
 
 	private class AuthorMatcher extends SearchMatcher {
 
+		@Override
+		boolean needsBody() {
+			return true;
+		}
+
+		@Override
+		boolean mayMatch(RawTextFilter filter, RevCommit commit) {
+			return filter.authorMayMatch(commit.getRawBuffer());
+		}
+
 		@Override
 		public boolean matches(Pattern pattern, RevCommit commit) {
 			PersonIdent author = commit.getAuthorIdent();
@@ -70,6 +111,16 @@ public boolean matches(Pattern pattern, RevCommit commit) {
 
 	private class CommitterMatcher extends SearchMatcher {
 
+		@Override
+		boolean needsBody() {
+			return true;
+		}
+
+		@Override
+		boolean mayMatch(RawTextFilter filter, RevCommit commit) {
+			return filter.committerMayMatch(commit.getRawBuffer());
+		}
+
 		@Override
 		public boolean matches(Pattern pattern, RevCommit commit) {
 			PersonIdent committer = commit.getCommitterIdent();
@@ -83,6 +134,16 @@ public boolean matches(Pattern pattern, RevCommit commit) {
 
 	private class MessageMatcher extends SearchMatcher {
 
+		@Override
+		boolean needsBody() {
+			return true;
+		}
+
+		@Override
+		boolean mayMatch(RawTextFilter filter, RevCommit commit) {
+			return filter.messageMayMatch(commit.getRawBuffer());
+		}
+
 		@Override
 		public boolean matches(Pattern pattern, RevCommit commit) {
 			return matches(pattern, commit.getFullMessage());
@@ -175,33 +236,83 @@ public IStatus run(IProgressMonitor monitor)
 		Pattern pattern = PatternUtils.createPattern(
 				this.settings.getTextPattern(),
 				this.settings.isCaseSensitive(), this.settings.isRegExSearch());
-		List<String> paths = settings.getRepositories();
+		RawTextFilter filter = RawTextFilter.create(
+				this.settings.getTextPattern(),
+				this.settings.isCaseSensitive(), this.settings.isRegExSearch());
+		List<Repository> repositories = new ArrayList<>();
 		try {
-			for (String path : paths) {
+			for (String path : settings.getRepositories()) {
 				if (monitor.isCanceled())
 					throw new OperationCanceledException();
-
 				Repository repo = getRepository(path);
-				if (repo == null)
-					continue;
-
-				monitor.setTaskName(MessageFormat.format(
-						UIText.CommitSearchQuery_TaskSearchCommits, repo
-								.getDirectory().getParentFile().getName()));
-				walkRepository(repo, pattern, monitor);
+				if (repo != null)
+					repositories.add(repo);
 			}
 		} catch (IOException e) {
 			org.eclipse.egit.ui.Activator.handleError(
 					"Error searching commits", e, true); //$NON-NLS-1$
+			return Status.OK_STATUS;
+		}
+		if (repositories.isEmpty())
+			return Status.OK_STATUS;
+
+		int workers = Math.min(repositories.size(),
+				Runtime.getRuntime().availableProcessors());
+		JobGroup group = new JobGroup(getLabel(), workers,
+				repositories.size());
+		List<IOException> errors = new ArrayList<>();
+		for (Repository repo : repositories) {
+			Job job = new Job(MessageFormat.format(
+					UIText.CommitSearchQuery_TaskSearchCommits,
+					repo.getDirectory().getParentFile().getName())) {
+
+				@Override
+				protected IStatus run(IProgressMonitor jobMonitor) {
+					try {
+						walkRepository(repo, pattern, filter,
+								() -> jobMonitor.isCanceled()
+										|| monitor.isCanceled());
+					} catch (OperationCanceledException e) {
+						return Status.CANCEL_STATUS;
+					} catch (IOException e) {
+						synchronized (errors) {
+							errors.add(e);
+						}
+					}
+					return Status.OK_STATUS;
+				}
+			};
+			job.setSystem(true);
+			job.setJobGroup(group);
+			job.schedule();
+		}
+		try {
+			group.join(0, monitor);
+		} catch (InterruptedException e) {
+			group.cancel();
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (OperationCanceledException e) {
+			group.cancel();
+			throw e;
+		}
+		synchronized (errors) {
+			for (IOException e : errors)
+				org.eclipse.egit.ui.Activator.handleError(
+						"Error searching commits", e, true); //$NON-NLS-1$
 		}
 		return Status.OK_STATUS;
 	}
 
 	private void walkRepository(Repository repository, Pattern pattern,
-			IProgressMonitor monitor) throws IOException {
+			RawTextFilter filter, BooleanSupplier canceled)
+			throws IOException {
+		boolean needsBody = false;
+		for (SearchMatcher matcher : this.matchers)
+			needsBody |= matcher.needsBody();
 		try (RevWalk walk = new RevWalk(repository)) {
-			walk.setRetainBody(true);
-			List<RevCommit> commits = new LinkedList<>();
+			walk.setRetainBody(needsBody);
+			List<RevCommit> commits = new ArrayList<>();
 			if (this.settings.isAllBranches()) {
 				for (Ref ref : repository.getRefDatabase()
 						.getRefsByPrefix(Constants.R_HEADS))
@@ -220,19 +331,31 @@ private void walkRepository(Repository repository, Pattern pattern,
 			if (!commits.isEmpty()) {
 				walk.markStart(commits);
 				for (RevCommit commit : walk) {
-					if (monitor.isCanceled())
+					if (canceled.getAsBoolean())
 						throw new OperationCanceledException();
-					for (SearchMatcher matcher : this.matchers)
-						if (matcher.matches(pattern, commit)) {
-							result.addResult(new RepositoryCommit(repository,
-									commit));
-							break;
-						}
+					if (matches(pattern, filter, commit)) {
+						if (!needsBody)
+							// Needed to show the commit in the result
+							walk.parseBody(commit);
+						result.addResult(
+								new RepositoryCommit(repository, commit));
+					} else if (needsBody)
+						// Don't keep the bodies of all walked commits
+						commit.disposeBody();
 				}
 			}
 		}
 	}
 
+	private boolean matches(Pattern pattern, RawTextFilter filter,
+			RevCommit commit) {
+		for (SearchMatcher matcher : this.matchers)
+			if ((filter == null || matcher.mayMatch(filter, commit))
+					&& matcher.matches(pattern, commit))
+				return true;
+		return false;
+	}
+
 	/**
 	 * @see org.eclipse.search.ui.ISearchQuery#getLabel()
 	 */
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.search;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.util.RawParseUtils;
+
+/**
+ * Pre-filter for a literal search text on the raw buffer of a commit. It
+ * tells whether the decoded author, committer, or message of a commit may
+ * match the text without decoding them, so that commits that cannot match
+ * can be skipped cheaply.
+ * <p>
+ * Only plain ASCII search texts are supported. Ranges of the raw buffer that
+ * contain non-ASCII bytes always may match, since their decoded form depends
+ * on the encoding and on Unicode case folding.
+ * </p>
+ */
+class RawTextFilter {
+
+	private static final String WILDCARDS = "*?\\"; //$NON-NLS-1$
+
+	private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}"; //$NON-NLS-1$
+
+	private final byte[] needle;
+
+	private final boolean caseSensitive;
+
+	private RawTextFilter(byte[] needle, boolean caseSensitive) {
+		this.needle = needle;
+		this.caseSensitive = caseSensitive;
+	}
+
+	/**
+	 * Creates a filter for a search text, if possible.
+	 *
+	 * @param text
+	 *            the search text as entered
+	 * @param caseSensitive
+	 *            whether the search is case sensitive
+	 * @param regex
+	 *            whether the text is a regular expression
+	 * @return the filter, or {@code null} if the text is not a plain ASCII
+	 *         literal
+	 */
+	@Nullable
+	static RawTextFilter create(String text, boolean caseSensitive,
+			boolean regex) {
+		if (text == null || text.isEmpty()) {
+			return null;
+		}
+		String special = regex ? REGEX_META_CHARS : WILDCARDS;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= 0x80 || c < 0x20 || special.indexOf(c) >= 0) {
+				return null;
+			}
+		}
+		byte[] needle = text.getBytes(StandardCharsets.US_ASCII);
+		if (!caseSensitive) {
+			for (int i = 0; i < needle.length; i++) {
+				needle[i] = toLower(needle[i]);
+			}
+		}
+		return new RawTextFilter(needle, caseSensitive);
+	}
+
+	/**
+	 * @param raw
+	 *            buffer of a commit
+	 * @return whether the author of the commit may match
+	 */
+	boolean authorMayMatch(byte[] raw) {
+		return lineMayMatch(raw, RawParseUtils.author(raw, 0));
+	}
+
+	/**
+	 * @param raw
+	 *            buffer of a commit
+	 * @return whether the committer of the commit may match
+	 */
+	boolean committerMayMatch(byte[] raw) {
+		return lineMayMatch(raw, RawParseUtils.committer(raw, 0));
+	}
+
+	/**
+	 * @param raw
+	 *            buffer of a commit
+	 * @return whether the message of the commit may match
+	 */
+	boolean messageMayMatch(byte[] raw) {
+		if (RawParseUtils.encoding(raw, 0) >= 0) {
+			// Explicitly encoded; may not even be ASCII-compatible
+			return true;
+		}
+		int start = RawParseUtils.commitMessage(raw, 0);
+		return start < 0 || mayMatch(raw, start, raw.length);
+	}
+
+	private boolean lineMayMatch(byte[] raw, int start) {
+		if (start < 0 || RawParseUtils.encoding(raw, 0) >= 0) {
+			return true;
+		}
+		int end = RawParseUtils.nextLF(raw, start) - 1;
+		if (end < start || raw[end] != '\n') {
+			end = raw.length;
+		}
+		return mayMatch(raw, start, end);
+	}
+
+	/**
+	 * Determines whether the text decoded from a range of a buffer may
+	 * contain the search text.
+	 *
+	 * @param raw
+	 *            buffer
+	 * @param start
+	 *            of the range, inclusive
+	 * @param end
+	 *            of the range, exclusive
+	 * @return {@code false} if the range cannot contain the search text,
+	 *         {@code true} otherwise
+	 */
+	boolean mayMatch(byte[] raw, int start, int end) {
+		int last = end - needle.length;
+		byte first = needle[0];
+		for (int i = start; i < end; i++) {
+			byte b = raw[i];
+			if (b < 0) {
+				return true; // Non-ASCII: cannot decide
+			}
+			if (i > last) {
+				continue; // Only check the rest for non-ASCII bytes
+			}
+			if (fold(b) == first && matchesAt(raw, i)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean matchesAt(byte[] raw, int offset) {
+		for (int j = 1; j < needle.length; j++) {
+			byte b = raw[offset + j];
+			if (b < 0) {
+				return true;
+			}
+			if (fold(b) != needle[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private byte fold(byte b) {
+		return caseSensitive ? b : toLower(b);
+	}
+
+	private static byte toLower(byte b) {
+		return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+	}
+}
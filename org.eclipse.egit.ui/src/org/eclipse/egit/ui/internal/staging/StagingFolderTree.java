@@ -0,0 +1,312 @@
+/*******************************************************************************
+ * Copyright (C) 2026 EGit contributors and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.egit.ui.internal.staging;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * The folder structure of the files of one section of the staging view, as an
+ * immutable array-based trie. It can be built in any thread.
+ * <p>
+ * Files are sorted by path, so the files below a folder form a contiguous
+ * range. Folders are numbered in pre-order: a folder's number is greater
+ * than its parent's. Whether a folder has files matching a filter can thus be
+ * answered from a {@link BitSet} of matching files without visiting the
+ * folder's descendants.
+ * </p>
+ */
+final class StagingFolderTree {
+
+	private final String[] files;
+
+	private final int[] fileFolders;
+
+	private final BitSet untracked;
+
+	private final String[] folderPaths;
+
+	private final IPath[] folderIPaths;
+
+	private final int[] parents;
+
+	private final int[] starts;
+
+	private final int[] ends;
+
+	private final int[] directFiles;
+
+	private final int[] childFolders;
+
+	private StagingFolderTree(String[] files, int[] fileFolders,
+			BitSet untracked, String[] folderPaths, int[] parents,
+			int[] starts, int[] ends, int[] directFiles, int[] childFolders) {
+		this.files = files;
+		this.fileFolders = fileFolders;
+		this.untracked = untracked;
+		this.folderPaths = folderPaths;
+		this.parents = parents;
+		this.starts = starts;
+		this.ends = ends;
+		this.directFiles = directFiles;
+		this.childFolders = childFolders;
+		folderIPaths = new IPath[folderPaths.length];
+		for (int i = 0; i < folderPaths.length; i++) {
+			folderIPaths[i] = new Path(folderPaths[i]);
+		}
+	}
+
+	/**
+	 * Builds a tree.
+	 *
+	 * @param paths
+	 *            repository-relative paths of the files, without duplicates
+	 * @param isUntracked
+	 *            tells whether a file is untracked
+	 * @return the tree
+	 */
+	static StagingFolderTree build(Collection<String> paths,
+			Predicate<String> isUntracked) {
+		String[] files = paths.toArray(new String[0]);
+		Arrays.sort(files);
+		int[] fileFolders = new int[files.length];
+		BitSet untracked = new BitSet(files.length);
+		Builder folders = new Builder();
+		int[] stack = new int[8];
+		int depth = 0;
+		for (int i = 0; i < files.length; i++) {
+			String file = files[i];
+			while (depth > 0
+					&& !isInFolder(file, folders.paths[stack[depth - 1]])) {
+				folders.ends[stack[--depth]] = i;
+			}
+			int from = depth == 0 ? 0
+					: folders.paths[stack[depth - 1]].length() + 1;
+			int slash;
+			while ((slash = file.indexOf('/', from)) >= 0) {
+				int parent = depth == 0 ? -1 : stack[depth - 1];
+				int node = folders.add(file.substring(0, slash), parent, i);
+				if (depth == stack.length) {
+					stack = Arrays.copyOf(stack, 2 * depth);
+				}
+				stack[depth++] = node;
+				from = slash + 1;
+			}
+			if (depth > 0) {
+				int folder = stack[depth - 1];
+				fileFolders[i] = folder;
+				folders.directFiles[folder]++;
+			} else {
+				fileFolders[i] = -1;
+			}
+			if (isUntracked.test(file)) {
+				untracked.set(i);
+			}
+		}
+		while (depth > 0) {
+			folders.ends[stack[--depth]] = files.length;
+		}
+		int n = folders.size;
+		return new StagingFolderTree(files, fileFolders, untracked,
+				Arrays.copyOf(folders.paths, n),
+				Arrays.copyOf(folders.parents, n),
+				Arrays.copyOf(folders.starts, n),
+				Arrays.copyOf(folders.ends, n),
+				Arrays.copyOf(folders.directFiles, n),
+				Arrays.copyOf(folders.childFolders, n));
+	}
+
+	private static boolean isInFolder(String file, String folder) {
+		return file.length() > folder.length() && file.startsWith(folder)
+				&& file.charAt(folder.length()) == '/';
+	}
+
+	/**
+	 * @return the number of files
+	 */
+	int getFileCount() {
+		return files.length;
+	}
+
+	/**
+	 * @param file
+	 *            index of a file
+	 * @return the path of the file
+	 */
+	String getPath(int file) {
+		return files[file];
+	}
+
+	/**
+	 * @param path
+	 *            of a file
+	 * @return the index of the file, or -1 if there is no such file
+	 */
+	int indexOf(String path) {
+		int index = Arrays.binarySearch(files, path);
+		return index < 0 ? -1 : index;
+	}
+
+	/**
+	 * @param file
+	 *            index of a file
+	 * @return the folder directly containing the file, or -1 for files at the
+	 *         root
+	 */
+	int getFolder(int file) {
+		return fileFolders[file];
+	}
+
+	/**
+	 * @return the number of folders
+	 */
+	int getFolderCount() {
+		return folderPaths.length;
+	}
+
+	/**
+	 * @param folder
+	 *            number of a folder
+	 * @return the repository-relative path of the folder, without trailing
+	 *         slash
+	 */
+	String getFolderPath(int folder) {
+		return folderPaths[folder];
+	}
+
+	/**
+	 * @param folder
+	 *            number of a folder
+	 * @return the path of the folder as {@link IPath}
+	 */
+	IPath getFolderIPath(int folder) {
+		return folderIPaths[folder];
+	}
+
+	/**
+	 * @param folder
+	 *            number of a folder
+	 * @return the number of the parent folder, or -1 for folders at the root
+	 */
+	int getParent(int folder) {
+		return parents[folder];
+	}
+
+	/**
+	 * @param folder
+	 *            number of a folder
+	 * @return the index of the first file below the folder
+	 */
+	int getStart(int folder) {
+		return starts[folder];
+	}
+
+	/**
+	 * @param folder
+	 *            number of a folder
+	 * @return the index after the last file below the folder
+	 */
+	int getEnd(int folder) {
+		return ends[folder];
+	}
+
+	/**
+	 * Tells whether a folder gets a node in a tree presentation. In the
+	 * compact presentation, folders containing no files and only one folder
+	 * are folded into their child.
+	 *
+	 * @param folder
+	 *            number of a folder
+	 * @param compact
+	 *            whether the presentation is compact
+	 * @return whether the folder is shown
+	 */
+	boolean isShown(int folder, boolean compact) {
+		return !compact || directFiles[folder] > 0
+				|| childFolders[folder] > 1;
+	}
+
+	/**
+	 * Determines the files matching a filter.
+	 *
+	 * @param pattern
+	 *            to find in the paths, or {@code null} to match all paths
+	 * @param includeUntracked
+	 *            whether untracked files may match
+	 * @return the indices of the matching files
+	 */
+	BitSet match(Pattern pattern, boolean includeUntracked) {
+		BitSet result = new BitSet(files.length);
+		for (int i = 0; i < files.length; i++) {
+			if ((includeUntracked || !untracked.get(i))
+					&& (pattern == null || pattern.matcher(files[i]).find())) {
+				result.set(i);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Tells whether any file below a folder is in a set of files.
+	 *
+	 * @param folder
+	 *            number of a folder
+	 * @param set
+	 *            of file indices
+	 * @return whether the set contains a file below the folder
+	 */
+	boolean containsAny(int folder, BitSet set) {
+		int next = set.nextSetBit(starts[folder]);
+		return next >= 0 && next < ends[folder];
+	}
+
+	private static class Builder {
+
+		String[] paths = new String[16];
+
+		int[] parents = new int[16];
+
+		int[] starts = new int[16];
+
+		int[] ends = new int[16];
+
+		int[] directFiles = new int[16];
+
+		int[] childFolders = new int[16];
+
+		int size;
+
+		int add(String path, int parent, int start) {
+			if (size == paths.length) {
+				int capacity = 2 * size;
+				paths = Arrays.copyOf(paths, capacity);
+				parents = Arrays.copyOf(parents, capacity);
+				starts = Arrays.copyOf(starts, capacity);
+				ends = Arrays.copyOf(ends, capacity);
+				directFiles = Arrays.copyOf(directFiles, capacity);
+				childFolders = Arrays.copyOf(childFolders, capacity);
+			}
+			paths[size] = path;
+			parents[size] = parent;
+			starts[size] = start;
+			if (parent >= 0) {
+				childFolders[parent]++;
+			}
+			return size++;
+		}
+	}
+}
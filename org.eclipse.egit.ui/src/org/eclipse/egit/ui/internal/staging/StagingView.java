@@ -748,6 +748,9 @@ public void propertyChange(PropertyChangeEvent event) {
 		@Override
 		public void indexDiffChanged(Repository repository,
 				IndexDiffData indexDiffData) {
+			if (indexDiffData != null) {
+				prepareFolderTrees(indexDiffData);
+			}
 			reload(repository);
 		}
 	};
@@ -3247,6 +3250,23 @@ private StagingViewContentProvider getContentProvider(ContentViewer viewer) {
 		return (StagingViewContentProvider) viewer.getContentProvider();
 	}
 
+	/**
+	 * Builds the folder trees of both sections in the calling background
+	 * thread, so that the UI update doesn't have to.
+	 */
+	private void prepareFolderTrees(IndexDiffData indexDiff) {
+		for (TreeViewer viewer : new TreeViewer[] { unstagedViewer,
+				stagedViewer }) {
+			if (viewer == null || isDisposed()) {
+				continue;
+			}
+			StagingViewContentProvider provider = getContentProvider(viewer);
+			if (provider != null) {
+				provider.prepareFolderTree(indexDiff);
+			}
+		}
+	}
+
 	private void updateSectionText() {
 		stagedSection.setText(MessageFormat
 				.format(UIText.StagingView_StagedChanges,
@@ -23,15 +23,16 @@
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -53,9 +54,36 @@
  * ContentProvider for staged and unstaged tree nodes
  */
 public class StagingViewContentProvider extends WorkbenchContentProvider {
-	/** All files for the section (staged or unstaged). */
+	/** All files for the section (staged or unstaged), sorted. */
 	private StagingEntry[] content = new StagingEntry[0];
 
+	/** The entries of {@link #content}, keyed by path. */
+	private final Map<String, StagingEntry> entries = new HashMap<>();
+
+	/** The data {@link #content} was computed from. */
+	private IndexDiffData indexDiff;
+
+	/**
+	 * Folder tree for {@link #content}, built by
+	 * {@link #prepareFolderTree(IndexDiffData)} in the background or on first
+	 * use.
+	 */
+	private StagingFolderTree folderTree;
+
+	private volatile PreparedFolderTree preparedFolderTree;
+
+	/** Nodes in {@link #folderTree} of the folders of both presentations. */
+	private final Map<StagingFolderEntry, Integer> folderNodes = //
+			new IdentityHashMap<>();
+
+	private BitSet filterMatches;
+
+	private StagingFolderTree filterMatchesTree;
+
+	private Pattern filterMatchesPattern;
+
+	private boolean filterMatchesUntracked;
+
 	/** Root nodes for the "Tree" presentation. */
 	private Object[] treeRoots;
 
@@ -63,7 +91,7 @@ public class StagingViewContentProvider extends WorkbenchContentProvider {
 	private Object[] compactTreeRoots;
 
 	private StagingView stagingView;
-	private boolean unstagedSection;
+	private final boolean unstagedSection;
 
 	private Repository repository;
 
@@ -179,79 +207,61 @@ private Object[] calculateTreePresentationRoots(boolean compact) {
 		if (content == null || content.length == 0)
 			return new Object[0];
 
-		List<Object> roots = new ArrayList<>();
-		Map<IPath, List<Object>> childrenForPath = new HashMap<>();
+		StagingFolderTree tree = getFolderTree();
+		IPath workingDirectory = new Path(repository.getWorkTree()
+				.getAbsolutePath());
 
-		Set<IPath> folderPaths = new HashSet<>();
-		Map<IPath, String> childSegments = new HashMap<>();
+		int folderCount = tree.getFolderCount();
+		StagingFolderEntry[] folders = new StagingFolderEntry[folderCount];
+		// Nearest ancestor that gets a node, or -1 for the root
+		int[] shownAncestors = new int[folderCount];
+		List<List<Object>> children = new ArrayList<>(
+				Collections.nCopies(folderCount, null));
+		List<Object> roots = new ArrayList<>();
 
-		for (StagingEntry file : content) {
-			IPath folderPath = file.getParentPath();
-			if (folderPath.segmentCount() == 0) {
-				// No folders need to be created, this is a root file
-				roots.add(file);
+		// Parents come before their children
+		for (int node = 0; node < folderCount; node++) {
+			int parent = tree.getParent(node);
+			int ancestor = parent < 0 || folders[parent] != null ? parent
+					: shownAncestors[parent];
+			shownAncestors[node] = ancestor;
+			if (!tree.isShown(node, compact)) {
 				continue;
 			}
-			folderPaths.add(folderPath);
-			addChild(childrenForPath, folderPath, file);
-			IPath p = folderPath;
-			while (p.segmentCount() > 1) {
-				IPath parent = p.removeLastSegments(1);
-				if (!compact) {
-					if (!folderPaths.add(parent)) {
-						break; // Already added, and so are further ancestors
-					}
-				} else {
-					String childSegment = p.lastSegment();
-					String knownChildSegment = childSegments.get(parent);
-					if (knownChildSegment == null) {
-						childSegments.put(parent, childSegment);
-					} else if (!childSegment.equals(knownChildSegment)) {
-						// The parent has more than 1 direct child folder -> we
-						// need to make a node for it.
-						folderPaths.add(parent);
-					}
-				}
-				p = parent;
+			String path = tree.getFolderPath(node);
+			String label = ancestor < 0 ? path
+					: path.substring(
+							tree.getFolderPath(ancestor).length() + 1);
+			StagingFolderEntry folderEntry = new StagingFolderEntry(
+					workingDirectory, tree.getFolderIPath(node), label);
+			folders[node] = folderEntry;
+			folderNodes.put(folderEntry, Integer.valueOf(node));
+			if (ancestor < 0) {
+				roots.add(folderEntry);
+			} else {
+				folderEntry.setParent(folders[ancestor]);
+				addChild(children, ancestor, folderEntry);
 			}
 		}
 
-		IPath workingDirectory = new Path(repository.getWorkTree()
-				.getAbsolutePath());
-
-		List<StagingFolderEntry> folderEntries = new ArrayList<>();
-		for (IPath folderPath : folderPaths) {
-			IPath parent = folderPath.removeLastSegments(1);
-			// Find first existing parent node, but stop at root
-			while (parent.segmentCount() != 0 && !folderPaths.contains(parent))
-				parent = parent.removeLastSegments(1);
-			if (parent.segmentCount() == 0) {
-				// Parent is root
-				StagingFolderEntry folderEntry = new StagingFolderEntry(
-						workingDirectory, folderPath, folderPath.toString());
-				folderEntries.add(folderEntry);
-				roots.add(folderEntry);
+		for (StagingEntry file : content) {
+			int index = tree.indexOf(file.getPath());
+			// The folder directly containing a file always gets a node
+			int node = index < 0 ? -1 : tree.getFolder(index);
+			if (node < 0) {
+				file.setParent(null);
+				roots.add(file);
 			} else {
-				// Parent is existing node
-				String label = folderPath.makeRelativeTo(parent).toString();
-				StagingFolderEntry folderEntry = new StagingFolderEntry(
-						workingDirectory, folderPath, label);
-				folderEntries.add(folderEntry);
-				addChild(childrenForPath, parent, folderEntry);
+				file.setParent(folders[node]);
+				addChild(children, node, file);
 			}
 		}
 
-		for (StagingFolderEntry folderEntry : folderEntries) {
-			List<Object> children = childrenForPath.get(folderEntry.getPath());
-			if (children != null) {
-				for (Object child : children) {
-					if (child instanceof StagingEntry)
-						((StagingEntry) child).setParent(folderEntry);
-					else if (child instanceof StagingFolderEntry)
-						((StagingFolderEntry) child).setParent(folderEntry);
-				}
-				Collections.sort(children, comparator);
-				folderEntry.setChildren(children.toArray());
+		for (int node = 0; node < folderCount; node++) {
+			List<Object> folderChildren = children.get(node);
+			if (folders[node] != null && folderChildren != null) {
+				Collections.sort(folderChildren, comparator);
+				folders[node].setChildren(folderChildren.toArray());
 			}
 		}
 
@@ -259,11 +269,84 @@ else if (child instanceof StagingFolderEntry)
 		return roots.toArray();
 	}
 
-	private static void addChild(Map<IPath, List<Object>> childrenForPath,
-			IPath path, Object child) {
-		List<Object> children = childrenForPath.computeIfAbsent(path,
-				key -> new ArrayList<>());
-		children.add(child);
+	private static void addChild(List<List<Object>> children, int node,
+			Object child) {
+		List<Object> list = children.get(node);
+		if (list == null) {
+			list = new ArrayList<>();
+			children.set(node, list);
+		}
+		list.add(child);
+	}
+
+	/**
+	 * Builds the folder tree of this section for the given data, so that the
+	 * tree presentations and the filter don't have to work out the folders in
+	 * the UI thread. May be called from any thread.
+	 *
+	 * @param diff
+	 *            the data the next update of the view will be made with
+	 */
+	void prepareFolderTree(IndexDiffData diff) {
+		Set<String> paths = new HashSet<>();
+		if (unstagedSection) {
+			paths.addAll(diff.getMissing());
+			paths.addAll(diff.getModified());
+			paths.addAll(diff.getUntracked());
+			paths.addAll(diff.getConflicting());
+		} else {
+			paths.addAll(diff.getAdded());
+			paths.addAll(diff.getChanged());
+			paths.addAll(diff.getRemoved());
+		}
+		StagingFolderTree tree = StagingFolderTree.build(paths,
+				path -> getState(diff, path) == UNTRACKED);
+		preparedFolderTree = new PreparedFolderTree(diff, tree);
+	}
+
+	private StagingFolderTree getFolderTree() {
+		if (folderTree == null) {
+			PreparedFolderTree prepared = preparedFolderTree;
+			if (prepared != null && prepared.indexDiff == indexDiff
+					&& prepared.tree.getFileCount() == content.length) {
+				folderTree = prepared.tree;
+			} else {
+				folderTree = StagingFolderTree.build(
+						entries.keySet(),
+						path -> entries.get(path).getState() == UNTRACKED);
+			}
+		}
+		return folderTree;
+	}
+
+	/**
+	 * Determines the node of a folder in the {@link #getFolderTree() folder
+	 * tree}.
+	 *
+	 * @return the node, or -1 if the folder is not from the current tree
+	 */
+	private int getFolderNode(StagingFolderEntry folder) {
+		Integer node = folderNodes.get(folder);
+		return node == null ? -1 : node.intValue();
+	}
+
+	/**
+	 * @return the files of the {@link #getFolderTree() folder tree} that pass
+	 *         the filter
+	 */
+	private BitSet getFilterMatches() {
+		StagingFolderTree tree = getFolderTree();
+		Pattern pattern = getFilterPattern();
+		boolean includeUntracked = !unstagedSection || showUntracked;
+		if (filterMatches == null || filterMatchesTree != tree
+				|| filterMatchesPattern != pattern
+				|| filterMatchesUntracked != includeUntracked) {
+			filterMatches = tree.match(pattern, includeUntracked);
+			filterMatchesTree = tree;
+			filterMatchesPattern = pattern;
+			filterMatchesUntracked = includeUntracked;
+		}
+		return filterMatches;
 	}
 
 	boolean hasVisibleItems() {
@@ -271,8 +354,7 @@ boolean hasVisibleItems() {
 		if (filterPattern == null && showUntracked) {
 			return getCount() > 0;
 		}
-		return Stream.of(content)
-				.anyMatch(entry -> matches(entry, filterPattern));
+		return !getFilterMatches().isEmpty();
 	}
 
 	int getShownCount() {
@@ -280,19 +362,24 @@ int getShownCount() {
 		if (filterPattern == null && showUntracked) {
 			return getCount();
 		} else {
-			int shownCount = 0;
-			for (StagingEntry entry : content) {
-				if (matches(entry, filterPattern)) {
-					shownCount++;
-				}
-			}
-			return shownCount;
+			return getFilterMatches().cardinality();
 		}
 	}
 
 	List<StagingEntry> getStagingEntriesFiltered(StagingFolderEntry folder) {
 		List<StagingEntry> stagingEntries = new ArrayList<>();
-		addFilteredDescendants(folder, getFilterPattern(), stagingEntries);
+		int node = getFolderNode(folder);
+		if (node < 0) {
+			addFilteredDescendants(folder, getFilterPattern(), stagingEntries);
+			return stagingEntries;
+		}
+		StagingFolderTree tree = getFolderTree();
+		BitSet matches = getFilterMatches();
+		int end = tree.getEnd(node);
+		for (int i = matches.nextSetBit(tree.getStart(node)); i >= 0
+				&& i < end; i = matches.nextSetBit(i + 1)) {
+			stagingEntries.add(entries.get(tree.getPath(i)));
+		}
 		return stagingEntries;
 	}
 
@@ -345,7 +432,11 @@ boolean hasVisibleChildren(StagingFolderEntry folder) {
 		if (pattern == null && showUntracked) {
 			return true;
 		}
-		return hasVisibleDescendants(folder, pattern);
+		int node = getFolderNode(folder);
+		if (node < 0) {
+			return hasVisibleDescendants(folder, pattern);
+		}
+		return getFolderTree().containsAny(node, getFilterMatches());
 	}
 
 	private boolean hasVisibleDescendants(StagingFolderEntry folder,
@@ -376,6 +467,9 @@ public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
 
 		if (update.repository == null || update.indexDiff == null) {
 			content = new StagingEntry[0];
+			entries.clear();
+			indexDiff = null;
+			resetFolderTree();
 			treeRoots = new Object[0];
 			compactTreeRoots = new Object[0];
 			rootDetermined = false;
@@ -383,76 +477,196 @@ public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
 			return;
 		}
 
+		Collection<String> delta = null;
 		if (update.repository != repository) {
+			resetFolderTree();
 			treeRoots = null;
 			compactTreeRoots = null;
 			rootDetermined = false;
 			rootContainer = null;
+		} else if (update.changedResources != null
+				&& !update.changedResources.isEmpty()) {
+			delta = update.changedResources;
+		} else if (update.indexDiff == indexDiff) {
+			delta = Collections.emptySet();
+		} else if (update.indexDiff.isDerivedFrom(indexDiff)) {
+			delta = update.indexDiff.getStatusDelta();
 		}
 
 		repository = update.repository;
+		indexDiff = update.indexDiff;
 
-		Set<StagingEntry> nodes = new TreeSet<>(
-				Comparator.comparing(StagingEntry::getPath));
-
-		if (update.changedResources != null
-				&& !update.changedResources.isEmpty()) {
-			nodes.addAll(Arrays.asList(content));
-			for (String res : update.changedResources)
-				for (StagingEntry entry : content)
-					if (entry.getPath().equals(res))
-						nodes.remove(entry);
+		if (delta == null) {
+			entries.clear();
+			addEntries(indexDiff);
+			content = entries.values().toArray(new StagingEntry[0]);
+			Arrays.sort(content, comparator);
+		} else if (!applyDelta(delta)) {
+			return;
 		}
 
-		final IndexDiffData indexDiff = update.indexDiff;
+		resetFolderTree();
+		treeRoots = null;
+		compactTreeRoots = null;
+	}
+
+	private void resetFolderTree() {
+		folderTree = null;
+		folderNodes.clear();
+		filterMatches = null;
+		filterMatchesTree = null;
+	}
+
+	/**
+	 * Fills {@link #entries} from scratch. Where a path has several states,
+	 * the first one added wins.
+	 */
+	private void addEntries(IndexDiffData diff) {
 		if (unstagedSection) {
-			for (String file : indexDiff.getMissing())
-				if (indexDiff.getChanged().contains(file))
-					nodes.add(new StagingEntry(repository, MISSING_AND_CHANGED,
-							file, s -> null));
-				else
-					nodes.add(new StagingEntry(repository, MISSING, file,
-							s -> null));
-			for (String file : indexDiff.getModified())
-				if (indexDiff.getChanged().contains(file))
-					nodes.add(new StagingEntry(repository, MODIFIED_AND_CHANGED,
-							file, this::getFile));
-				else if (indexDiff.getAdded().contains(file))
-					nodes.add(new StagingEntry(repository, MODIFIED_AND_ADDED,
-							file, this::getFile));
-				else
-					nodes.add(new StagingEntry(repository, MODIFIED, file,
-							this::getFile));
-			for (String file : indexDiff.getUntracked())
-				nodes.add(new StagingEntry(repository, UNTRACKED, file,
-						this::getFile));
-			for (String file : indexDiff.getConflicting()) {
-				StagingEntry newEntry = new StagingEntry(repository,
-						CONFLICTING, file, this::getFile);
-				newEntry.setConflictType(
-						indexDiff.getConflictStates().get(file));
-				nodes.add(newEntry);
-			}
+			for (String file : diff.getMissing())
+				addEntry(diff, file);
+			for (String file : diff.getModified())
+				addEntry(diff, file);
+			for (String file : diff.getUntracked())
+				addEntry(diff, file);
+			for (String file : diff.getConflicting())
+				addEntry(diff, file);
 		} else {
-			for (String file : indexDiff.getAdded())
-				nodes.add(new StagingEntry(repository, ADDED, file,
-						this::getFile));
-			for (String file : indexDiff.getChanged())
-				nodes.add(new StagingEntry(repository, CHANGED, file,
-						this::getFile));
-			for (String file : indexDiff.getRemoved())
-				nodes.add(new StagingEntry(repository, REMOVED, file,
-						this::getFile));
+			for (String file : diff.getAdded())
+				addEntry(diff, file);
+			for (String file : diff.getChanged())
+				addEntry(diff, file);
+			for (String file : diff.getRemoved())
+				addEntry(diff, file);
 		}
+	}
 
-		setSymlinkFileMode(indexDiff, nodes);
-		setSubmoduleFileMode(indexDiff, nodes);
+	private void addEntry(IndexDiffData diff, String file) {
+		if (!entries.containsKey(file)) {
+			entries.put(file, createEntry(diff, file));
+		}
+	}
 
-		content = nodes.toArray(new StagingEntry[0]);
-		Arrays.sort(content, comparator);
+	/**
+	 * Updates {@link #entries} and {@link #content} for the given changed
+	 * paths only. Entries whose state did not change are kept.
+	 *
+	 * @param delta
+	 *            changed paths; folders end with a slash and are ignored
+	 * @return whether any entry changed
+	 */
+	private boolean applyDelta(Collection<String> delta) {
+		Set<StagingEntry> removed = Collections
+				.newSetFromMap(new IdentityHashMap<>());
+		List<StagingEntry> added = new ArrayList<>();
+		for (String path : delta) {
+			if (path.isEmpty() || path.endsWith("/")) { //$NON-NLS-1$
+				continue;
+			}
+			StagingEntry oldEntry = entries.get(path);
+			StagingEntry newEntry = createEntry(indexDiff, path);
+			if (isSame(oldEntry, newEntry)) {
+				continue;
+			}
+			if (oldEntry != null) {
+				removed.add(oldEntry);
+				entries.remove(path);
+			}
+			if (newEntry != null) {
+				added.add(newEntry);
+				entries.put(path, newEntry);
+			}
+		}
+		if (removed.isEmpty() && added.isEmpty()) {
+			return false;
+		}
+		added.sort(comparator);
+		// Both are sorted: merge instead of sorting everything again
+		StagingEntry[] merged = new StagingEntry[entries.size()];
+		int i = 0;
+		int j = 0;
+		int k = 0;
+		while (i < content.length || j < added.size()) {
+			if (i < content.length && removed.contains(content[i])) {
+				i++;
+			} else if (j >= added.size() || i < content.length
+					&& comparator.compare(content[i], added.get(j)) <= 0) {
+				merged[k++] = content[i++];
+			} else {
+				merged[k++] = added.get(j++);
+			}
+		}
+		content = merged;
+		return true;
+	}
 
-		treeRoots = null;
-		compactTreeRoots = null;
+	private static boolean isSame(StagingEntry a, StagingEntry b) {
+		if (a == null || b == null) {
+			return a == b;
+		}
+		return a.getState() == b.getState()
+				&& a.getConflictType() == b.getConflictType()
+				&& a.isSymlink() == b.isSymlink()
+				&& a.isSubmodule() == b.isSubmodule();
+	}
+
+	/**
+	 * Creates the entry for a path in this section.
+	 *
+	 * @return the entry, or {@code null} if the path does not belong into
+	 *         this section
+	 */
+	private StagingEntry createEntry(IndexDiffData diff, String file) {
+		StagingEntry.State state = getState(diff, file);
+		if (state == null) {
+			return null;
+		}
+		StagingEntry entry = new StagingEntry(repository, state, file,
+				state == MISSING || state == MISSING_AND_CHANGED ? s -> null
+						: this::getFile);
+		if (state == CONFLICTING) {
+			entry.setConflictType(diff.getConflictStates().get(file));
+		}
+		if (diff.getSymlinks().contains(file)) {
+			entry.setSymlink(true);
+		}
+		if (diff.getSubmodules().contains(file)) {
+			entry.setSubmodule(true);
+		}
+		return entry;
+	}
+
+	private StagingEntry.State getState(IndexDiffData diff, String file) {
+		if (unstagedSection) {
+			if (diff.getMissing().contains(file)) {
+				return diff.getChanged().contains(file) ? MISSING_AND_CHANGED
+						: MISSING;
+			}
+			if (diff.getModified().contains(file)) {
+				if (diff.getChanged().contains(file)) {
+					return MODIFIED_AND_CHANGED;
+				}
+				return diff.getAdded().contains(file) ? MODIFIED_AND_ADDED
+						: MODIFIED;
+			}
+			if (diff.getUntracked().contains(file)) {
+				return UNTRACKED;
+			}
+			if (diff.getConflicting().contains(file)) {
+				return CONFLICTING;
+			}
+		} else {
+			if (diff.getAdded().contains(file)) {
+				return ADDED;
+			}
+			if (diff.getChanged().contains(file)) {
+				return CHANGED;
+			}
+			if (diff.getRemoved().contains(file)) {
+				return REMOVED;
+			}
+		}
+		return null;
 	}
 
 	@Override
@@ -494,6 +708,18 @@ void setShowUntracked(boolean showUntracked) {
 		this.showUntracked = showUntracked;
 	}
 
+	private static class PreparedFolderTree {
+
+		final IndexDiffData indexDiff;
+
+		final StagingFolderTree tree;
+
+		PreparedFolderTree(IndexDiffData indexDiff, StagingFolderTree tree) {
+			this.indexDiff = indexDiff;
+			this.tree = tree;
+		}
+	}
+
 	private static class EntryComparator implements Comparator<Object> {
 		boolean fileNameMode;
 
@@ -541,45 +767,4 @@ public int compare(Object o1, Object o2) {
 			}
 		}
 	}
-
-	/**
-	 * Set the symlink file mode of the given StagingEntries.
-	 *
-	 * @param indexDiff
-	 *            the index diff
-	 * @param entries
-	 *            the given StagingEntries
-	 */
-	private void setSymlinkFileMode(IndexDiffData indexDiff,
-			Collection<StagingEntry> entries) {
-		final Set<String> symlinks = indexDiff.getSymlinks();
-		if (symlinks.isEmpty()) {
-			return;
-		}
-		for (StagingEntry stagingEntry : entries) {
-			if (symlinks.contains(stagingEntry.getPath()))
-				stagingEntry.setSymlink(true);
-		}
-	}
-
-	/**
-	 * Set the submodule file mode (equivalent to FileMode.GITLINK) of the given
-	 * StagingEntries.
-	 *
-	 * @param indexDiff
-	 *            the index diff
-	 * @param entries
-	 *            the given StagingEntries
-	 */
-	private void setSubmoduleFileMode(IndexDiffData indexDiff,
-			Collection<StagingEntry> entries) {
-		final Set<String> submodules = indexDiff.getSubmodules();
-		if (submodules.isEmpty()) {
-			return;
-		}
-		for (StagingEntry stagingEntry : entries) {
-			if (submodules.contains(stagingEntry.getPath()))
-				stagingEntry.setSubmodule(true);
-		}
-	}
 }
@@ -40,7 +40,9 @@ public enum GitTraceLocation implements ITraceLocation {
 	/** Selection handling */
 	SELECTION("/debug/ui/selection"), //$NON-NLS-1$
 	/** Clipboard handling */
-	CLIPBOARD("/debug/ui/clipboard"); //$NON-NLS-1$
+	CLIPBOARD("/debug/ui/clipboard"), //$NON-NLS-1$
+	/** Automatic fetching */
+	AUTOFETCH("/debug/ui/autofetch"); //$NON-NLS-1$
 
 	/**
 	 * Initialize the locations